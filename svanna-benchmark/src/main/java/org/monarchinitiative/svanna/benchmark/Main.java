@@ -2,6 +2,7 @@ package org.monarchinitiative.svanna.benchmark;
 
 import org.monarchinitiative.svanna.benchmark.cmd.benchmark_case.BenchmarkCaseCommand;
 import org.monarchinitiative.svanna.benchmark.cmd.lift_coordinates.LiftCoordinatesCommand;
+import org.monarchinitiative.svanna.benchmark.cmd.parse_vcf.ParseVcfCommand;
 import org.monarchinitiative.svanna.benchmark.cmd.remap.RemapVariantsCommand;
 import picocli.CommandLine;
 
@@ -39,7 +40,8 @@ public class Main implements Callable<Integer>  {
                 .setColorScheme(COLOR_SCHEME)
                 .addSubcommand("benchmark-case", new BenchmarkCaseCommand())
                 .addSubcommand("remap-variants", new RemapVariantsCommand())
-                .addSubcommand("lift-coordinates", new LiftCoordinatesCommand());
+                .addSubcommand("lift-coordinates", new LiftCoordinatesCommand())
+                .addSubcommand("parse-vcf", new ParseVcfCommand());
         commandLine.setToggleBooleanFlags(false);
         System.exit(commandLine.execute(args));
     }
@@ -6,7 +6,6 @@ import org.monarchinitiative.svanna.benchmark.cmd.BaseBenchmarkCommand;
 import org.monarchinitiative.svanna.benchmark.Main;
 import org.monarchinitiative.svanna.benchmark.io.CaseReport;
 import org.monarchinitiative.svanna.benchmark.io.CaseReportImporter;
-import org.monarchinitiative.svanna.benchmark.util.ProgressReporter;
 import org.monarchinitiative.svanna.benchmark.util.TaskUtils;
 import org.monarchinitiative.svanna.core.LogUtils;
 import org.monarchinitiative.svanna.core.filter.PopulationFrequencyAndCoverageFilter;
@@ -32,7 +31,6 @@ import java.io.*;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import java.util.zip.GZIPOutputStream;
 
 @CommandLine.Command(name = "benchmark-case",
@@ -113,7 +111,7 @@ public class BenchmarkCaseCommand extends BaseBenchmarkCommand {
             LOGGER.info("Filtering out the variants where ALT allele is supported by less than {} reads", minAltReadSupport);
             AnnotationDataService annotationDataService = context.getBean(AnnotationDataService.class);
             PopulationFrequencyAndCoverageFilter filter = new PopulationFrequencyAndCoverageFilter(annotationDataService, similarityThreshold, frequencyThreshold, minAltReadSupport);
-            List<? extends SvannaVariant> allVariants = filter.filter(variants);
+            List<? extends SvannaVariant> allVariants = TaskUtils.executeBlocking(() -> filter.filter(variants), nThreads);
 
             List<SvannaVariant> filteredVariants = allVariants.stream()
                     .filter(SvannaVariant::passedFilters)
@@ -146,12 +144,14 @@ public class BenchmarkCaseCommand extends BaseBenchmarkCommand {
                 }
             }
 
-            ProgressReporter progressReporter = new ProgressReporter(5_000);
-            Stream<VariantPriority> annotationStream = caseVariants.parallelStream()
-                    .onClose(progressReporter.summarize())
-                    .peek(progressReporter::logItem)
-                    .map(v -> new VariantPriority(v.genomicVariant(), prioritizer.prioritize(v.genomicVariant())));
-            List<VariantPriority> priorities = TaskUtils.executeBlocking(() -> annotationStream.collect(Collectors.toList()), nThreads);
+            List<GenomicVariant> genomicVariants = caseVariants.stream()
+                    .map(SvannaVariant::genomicVariant)
+                    .collect(Collectors.toList());
+            List<SvPriority> svPriorities = TaskUtils.executeBlocking(() -> prioritizer.prioritizeAll(genomicVariants), nThreads);
+            List<VariantPriority> priorities = new ArrayList<>(genomicVariants.size());
+            for (int i = 0; i < genomicVariants.size(); i++) {
+                priorities.add(new VariantPriority(genomicVariants.get(i), svPriorities.get(i)));
+            }
 
             Set<String> causalIds = targetVariants.stream()
                     .map(VariantAware::id)
@@ -0,0 +1,88 @@
+package org.monarchinitiative.svanna.benchmark.cmd.parse_vcf;
+
+import org.monarchinitiative.svanna.benchmark.Main;
+import org.monarchinitiative.svanna.benchmark.util.TaskUtils;
+import org.monarchinitiative.svanna.io.FullSvannaVariant;
+import org.monarchinitiative.svanna.io.parse.ParallelVcfVariantParser;
+import org.monarchinitiative.svanna.io.parse.VcfVariantParser;
+import org.monarchinitiative.svart.assembly.GenomicAssemblies;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+import org.monarchinitiative.svart.util.VariantTrimmer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine;
+
+import java.nio.file.Path;
+import java.text.NumberFormat;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+@CommandLine.Command(name = "parse-vcf",
+        aliases = {"PV"},
+        header = "Measure the throughput of the VCF parsers",
+        mixinStandardHelpOptions = true,
+        version = Main.VERSION,
+        usageHelpWidth = Main.WIDTH,
+        footer = Main.FOOTER)
+public class ParseVcfCommand implements Callable<Integer> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParseVcfCommand.class);
+
+    private static final NumberFormat NF = NumberFormat.getNumberInstance();
+
+    static {
+        NF.setMaximumFractionDigits(2);
+    }
+
+    @CommandLine.Parameters(
+            index = "0",
+            description = "path to VCF file with structural variants")
+    public Path vcfPath;
+
+    @CommandLine.Option(names = {"--iterations"},
+            description = "number of measured iterations of each parser (default: ${DEFAULT-VALUE})")
+    public int iterations = 5;
+
+    @CommandLine.Option(names = {"--warmup"},
+            description = "number of warm-up iterations of each parser (default: ${DEFAULT-VALUE})")
+    public int warmup = 2;
+
+    @CommandLine.Option(names = {"-p", "--parallelism"},
+            description = "number of threads used by the parallel parsers (default: ${DEFAULT-VALUE})")
+    public int parallelism = 4;
+
+    @Override
+    public Integer call() throws Exception {
+        GenomicAssembly assembly = GenomicAssemblies.GRCh38p13();
+        VariantTrimmer.BaseRetentionStrategy strategy = VariantTrimmer.removingCommonBase();
+
+        measure("htsjdk", new VcfVariantParser(assembly, strategy, false, false), 1);
+        measure("lean", new VcfVariantParser(assembly, strategy, false, true), 1);
+        measure("htsjdk-parallel", new ParallelVcfVariantParser(assembly, strategy, false, false), parallelism);
+        measure("lean-parallel", new ParallelVcfVariantParser(assembly, strategy, false, true), parallelism);
+
+        return 0;
+    }
+
+    private void measure(String name, VcfVariantParser parser, int threads) throws Exception {
+        for (int i = 0; i < warmup; i++) {
+            parse(parser, threads);
+        }
+
+        long variants = 0;
+        long nanos = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            variants += parse(parser, threads).size();
+            nanos += System.nanoTime() - start;
+        }
+
+        double seconds = nanos / 1E9;
+        LOGGER.info("{}: parsed {} variants in {}s ({} variants/s)",
+                name, NF.format(variants / Math.max(iterations, 1)), NF.format(seconds / Math.max(iterations, 1)), NF.format(variants / seconds));
+    }
+
+    private List<FullSvannaVariant> parse(VcfVariantParser parser, int threads) throws Exception {
+        return TaskUtils.executeBlocking(() -> parser.createVariantAlleleList(vcfPath), threads);
+    }
+}
@@ -1,7 +1,11 @@
 package org.monarchinitiative.svanna.cli;
 
 
+import org.monarchinitiative.svanna.cli.cmd.BatchPrioritizeCommand;
+import org.monarchinitiative.svanna.cli.cmd.GatherCommand;
 import org.monarchinitiative.svanna.cli.cmd.PrioritizeCommand;
+import org.monarchinitiative.svanna.cli.cmd.ScatterCommand;
+import org.monarchinitiative.svanna.cli.cmd.ServeCommand;
 import picocli.CommandLine;
 
 import java.util.Locale;
@@ -36,7 +40,11 @@ public class Main implements Callable<Integer>  {
         Locale.setDefault(Locale.US);
         commandLine = new CommandLine(new Main())
                 .setColorScheme(COLOR_SCHEME)
-                .addSubcommand("prioritize", new PrioritizeCommand());
+                .addSubcommand("prioritize", new PrioritizeCommand())
+                .addSubcommand("prioritize-batch", new BatchPrioritizeCommand())
+                .addSubcommand("serve", new ServeCommand())
+                .addSubcommand("scatter", new ScatterCommand())
+                .addSubcommand("gather", new GatherCommand());
         commandLine.setToggleBooleanFlags(false);
         System.exit(commandLine.execute(args));
     }
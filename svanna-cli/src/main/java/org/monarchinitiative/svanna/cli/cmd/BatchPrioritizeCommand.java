@@ -0,0 +1,189 @@
+package org.monarchinitiative.svanna.cli.cmd;
+
+import org.monarchinitiative.svanna.cli.Main;
+import org.monarchinitiative.svanna.configuration.exception.InvalidResourceException;
+import org.monarchinitiative.svanna.configuration.exception.MissingResourceException;
+import org.monarchinitiative.svanna.configuration.exception.UndefinedResourceException;
+import org.monarchinitiative.svanna.core.SvAnna;
+import org.monarchinitiative.svanna.core.configuration.SvAnnaProperties;
+import org.monarchinitiative.svanna.core.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@CommandLine.Command(name = "prioritize-batch",
+        header = "Prioritize the variants of the samples of a manifest, bootstrapping SvAnna only once.",
+        mixinStandardHelpOptions = true,
+        sortOptions = false,
+        version = Main.VERSION,
+        usageHelpWidth = Main.WIDTH,
+        footer = Main.FOOTER)
+public class BatchPrioritizeCommand extends SvAnnaCommand {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchPrioritizeCommand.class);
+
+    private static final String SUMMARY_FILE_NAME = "batch-summary.tsv";
+
+    @CommandLine.ArgGroup(validate = false, heading = "Batch input:%n")
+    public BatchOptions batchOptions = new BatchOptions();
+    public static class BatchOptions {
+        @CommandLine.Option(names = {"--manifest"},
+                required = true,
+                description = "Path to tab-separated manifest with the `sample`, `vcf`, `phenopacket` or `terms`, and optional `prefix` columns, or to a JSON manifest (`.json`) with an array of samples with the same fields.")
+        public Path manifest = null;
+
+        @CommandLine.Option(names = {"--concurrent-samples"},
+                description = "Number of samples analyzed at the same time, each using `--n-threads` threads (default: ${DEFAULT-VALUE}).")
+        public int concurrentSamples = 2;
+    }
+
+    @CommandLine.ArgGroup(validate = false, heading = "Run options:%n")
+    public PrioritizeCommand.RunOptions runOptions = new PrioritizeCommand.RunOptions();
+
+    @CommandLine.ArgGroup(validate = false, heading = "Output options:%n")
+    public PrioritizeCommand.OutputConfig outputConfig = new PrioritizeCommand.OutputConfig();
+
+    private final MetricsRegistry metrics = MetricsRegistry.withJvmMetrics();
+
+    @Override
+    protected Integer execute() {
+        if (batchOptions.concurrentSamples < 1) {
+            LOGGER.error("The number of concurrent samples must be positive: {}", batchOptions.concurrentSamples);
+            return 1;
+        }
+        int processorsAvailable = Runtime.getRuntime().availableProcessors();
+        if (batchOptions.concurrentSamples * runOptions.parallelism > processorsAvailable)
+            LOGGER.warn("{} concurrent samples with {} threads each use more threads than processors ({}) available on the system",
+                    batchOptions.concurrentSamples, runOptions.parallelism, processorsAvailable);
+
+        List<SampleResult> results;
+        try {
+            List<ManifestEntry> entries = ManifestEntry.readManifest(batchOptions.manifest);
+            LOGGER.info("Read {} samples from the manifest at {}", entries.size(), batchOptions.manifest.toAbsolutePath());
+            Files.createDirectories(outputConfig.outDir);
+
+            SvAnnaProperties svAnnaProperties = SvAnnaProperties.of(svannaDataDirectory, prioritizationProperties(), dataProperties());
+            int databaseConcurrency = runOptions.executor == PrioritizeCommand.ExecutorMode.MANAGED_BLOCKING ? runOptions.dbConcurrency : 0;
+            SvAnna svAnna = bootstrapSvAnna(svAnnaProperties, databaseConcurrency);
+
+            results = runSamples(entries, svAnna, svAnnaProperties);
+            writeSummary(results, outputConfig.outDir.resolve(SUMMARY_FILE_NAME));
+            PrioritizeCommand.writeMetrics(metrics, outputConfig.metricsOut);
+        } catch (IOException | InterruptedException | InvalidResourceException | MissingResourceException |
+                 UndefinedResourceException | AnalysisInputException e) {
+            LOGGER.error("Error: {}", e.getMessage());
+            LOGGER.debug("Error: {}", e.getMessage(), e);
+            return 1;
+        }
+
+        long failed = results.stream().filter(r -> r.error != null).count();
+        LOGGER.info("Analyzed {} samples, {} failed. See the summary at {}", results.size(), failed,
+                outputConfig.outDir.resolve(SUMMARY_FILE_NAME).toAbsolutePath());
+        return failed == 0 ? 0 : 1;
+    }
+
+    private List<SampleResult> runSamples(List<ManifestEntry> entries, SvAnna svAnna, SvAnnaProperties svAnnaProperties) throws InterruptedException {
+        AtomicInteger threadCounter = new AtomicInteger(1);
+        ExecutorService executor = Executors.newFixedThreadPool(batchOptions.concurrentSamples,
+                r -> new Thread(r, "svanna-sample-" + threadCounter.getAndIncrement()));
+        try {
+            List<Future<SampleResult>> futures = new ArrayList<>(entries.size());
+            for (ManifestEntry entry : entries)
+                futures.add(executor.submit(() -> runSample(entry, svAnna, svAnnaProperties)));
+
+            List<SampleResult> results = new ArrayList<>(entries.size());
+            for (Future<SampleResult> future : futures) {
+                try {
+                    results.add(future.get());
+                } catch (ExecutionException e) {
+                    // runSample does not throw, but let's be defensive
+                    throw new IllegalStateException(e.getCause());
+                }
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private SampleResult runSample(ManifestEntry entry, SvAnna svAnna, SvAnnaProperties svAnnaProperties) {
+        LOGGER.info("Analyzing sample {}", entry.sample());
+        Instant start = Instant.now();
+        String error = null;
+        try {
+            createCommand(entry).runAnalysis(svAnna, svAnnaProperties);
+        } catch (InterruptedException e) {
+            error = "Interrupted";
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            error = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            LOGGER.warn("Analysis of sample {} failed: {}", entry.sample(), error);
+            LOGGER.debug("Analysis of sample {} failed: {}", entry.sample(), error, e);
+        }
+        Duration elapsed = Duration.between(start, Instant.now());
+        LOGGER.info("{} sample {} in {} ms", error == null ? "Analyzed" : "Failed", entry.sample(), elapsed.toMillis());
+        return new SampleResult(entry.sample(), elapsed, error);
+    }
+
+    private PrioritizeCommand createCommand(ManifestEntry entry) {
+        PrioritizeCommand command = new PrioritizeCommand();
+        command.svannaDataDirectory = svannaDataDirectory;
+        command.configurationSection = configurationSection;
+        command.inputOptions.vcf = entry.vcf();
+        command.inputOptions.phenopacket = entry.phenopacket();
+        command.inputOptions.hpoTermIdList = entry.terms();
+        // The run options are only read by the analysis, hence they are shared by the samples
+        command.runOptions = runOptions;
+        // The metrics of the samples are reported together
+        command.metrics = metrics;
+
+        PrioritizeCommand.OutputConfig sampleOutput = new PrioritizeCommand.OutputConfig();
+        sampleOutput.doNotReportBreakends = outputConfig.doNotReportBreakends;
+        sampleOutput.outputFormats = outputConfig.outputFormats;
+        sampleOutput.outDir = outputConfig.outDir;
+        sampleOutput.outPrefix = entry.outputPrefix();
+        sampleOutput.reportNVariants = outputConfig.reportNVariants;
+        sampleOutput.uncompressed = outputConfig.uncompressed;
+        sampleOutput.shardSummary = outputConfig.shardSummary;
+        command.outputConfig = sampleOutput;
+        return command;
+    }
+
+    private static void writeSummary(List<SampleResult> results, Path summary) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(summary)) {
+            writer.write("sample\tstatus\telapsed_ms\terror");
+            writer.newLine();
+            for (SampleResult result : results) {
+                writer.write(String.join("\t",
+                        result.sample,
+                        result.error == null ? "SUCCEEDED" : "FAILED",
+                        String.valueOf(result.elapsed.toMillis()),
+                        result.error == null ? "" : result.error.replaceAll("[\t\r\n]", " ")));
+                writer.newLine();
+            }
+        }
+    }
+
+    private static class SampleResult {
+        private final String sample;
+        private final Duration elapsed;
+        private final String error;
+
+        private SampleResult(String sample, Duration elapsed, String error) {
+            this.sample = sample;
+            this.elapsed = elapsed;
+            this.error = error;
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package org.monarchinitiative.svanna.cli.cmd;
+
+import org.monarchinitiative.svanna.cli.Main;
+import org.monarchinitiative.svanna.cli.writer.FilterStatsWriter;
+import org.monarchinitiative.svanna.cli.writer.OutputFormat;
+import org.monarchinitiative.svanna.cli.writer.OutputOptions;
+import org.monarchinitiative.svanna.cli.writer.ShardResultsMerger;
+import org.monarchinitiative.svanna.cli.writer.html.AnalysisParameters;
+import org.monarchinitiative.svanna.cli.writer.html.HtmlResultWriter;
+import org.monarchinitiative.svanna.cli.writer.html.template.HtmlShardSummary;
+import org.monarchinitiative.svanna.core.filter.FilterStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+@CommandLine.Command(name = "gather",
+        header = "Merge the results of the shards written by the `scatter` command into the results of the input VCF.",
+        mixinStandardHelpOptions = true,
+        sortOptions = false,
+        version = Main.VERSION,
+        usageHelpWidth = Main.WIDTH,
+        footer = Main.FOOTER)
+public class GatherCommand implements Callable<Integer> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GatherCommand.class);
+
+    @CommandLine.ArgGroup(validate = false, heading = "Gather options:%n")
+    public GatherOptions gatherOptions = new GatherOptions();
+    public static class GatherOptions {
+        @CommandLine.Option(names = {"--manifest"},
+                required = true,
+                description = "Path to the manifest written by the `scatter` command.")
+        public Path manifest = null;
+
+        @CommandLine.Option(names = {"--shard-dir"},
+                description = "Path to folder with the results of the shards (default: the folder of the manifest).")
+        public Path shardDir = null;
+
+        @CommandLine.Option(names = {"--output-format"},
+                paramLabel = "html",
+                description = "Comma separated list of output formats to merge. The shards must be prioritized with the same formats, and with `--shard-summary` for HTML (default: ${DEFAULT-VALUE}).")
+        public String outputFormats = "html";
+
+        @CommandLine.Option(names = {"--out-dir"},
+                description = "Path to folder where to write the output files (default: current working directory).")
+        public Path outDir = Path.of("");
+
+        @CommandLine.Option(names = {"--prefix"},
+                description = "Prefix for output files (default: based on the input VCF name).")
+        public String outPrefix = null;
+
+        @CommandLine.Option(names = {"--uncompressed-output"},
+                description = "Write tabular and VCF output formats with no compression (default: ${DEFAULT-VALUE}).")
+        public boolean uncompressed = false;
+    }
+
+    @Override
+    public Integer call() {
+        Collection<OutputFormat> outputFormats = Utils.parseOutputFormats(gatherOptions.outputFormats);
+        if (outputFormats.isEmpty()) {
+            LOGGER.error("No valid output format provided");
+            return 1;
+        }
+
+        try {
+            ShardManifest manifest = ShardManifest.read(gatherOptions.manifest);
+            Path shardDir = gatherOptions.shardDir == null
+                    ? gatherOptions.manifest.toAbsolutePath().getParent()
+                    : gatherOptions.shardDir;
+            String prefix = gatherOptions.outPrefix == null || gatherOptions.outPrefix.isBlank()
+                    ? Utils.vcfNameWithoutSuffix(manifest.source()) + ".SVANNA"
+                    : gatherOptions.outPrefix;
+            boolean compress = !gatherOptions.uncompressed;
+            Files.createDirectories(gatherOptions.outDir);
+            LOGGER.info("Gathering the results of {} shards from {}", manifest.prefixes().size(), shardDir.toAbsolutePath());
+
+            List<FilterStats> filterStats = ShardResultsMerger.mergeFilterStats(shardResults(manifest, shardDir, FilterStatsWriter.SUFFIX));
+            OutputOptions outputOptions = new OutputOptions(gatherOptions.outDir, prefix, 0);
+            for (OutputFormat outputFormat : outputFormats) {
+                switch (outputFormat) {
+                    case HTML:
+                        gatherHtml(manifest, shardDir, filterStats, prefix);
+                        break;
+                    case TSV:
+                    case CSV:
+                        ShardResultsMerger.mergeTabular(compressedShardResults(manifest, shardDir, outputFormat.fileSuffix()),
+                                outputPath(prefix, outputFormat, compress),
+                                outputFormat == OutputFormat.TSV ? '\t' : ',',
+                                compress);
+                        break;
+                    case VCF:
+                        ShardResultsMerger.mergeVcf(compressedShardResults(manifest, shardDir, outputFormat.fileSuffix()),
+                                outputPath(prefix, outputFormat, compress),
+                                compress);
+                        break;
+                }
+            }
+            FilterStatsWriter.write(filterStats, outputOptions);
+        } catch (IOException | AnalysisInputException e) {
+            LOGGER.error("Error: {}", e.getMessage());
+            LOGGER.debug("Error: {}", e.getMessage(), e);
+            return 1;
+        }
+        return 0;
+    }
+
+    private void gatherHtml(ShardManifest manifest, Path shardDir, List<FilterStats> filterStats, String prefix) throws IOException {
+        List<HtmlShardSummary> summaries = new ArrayList<>(manifest.prefixes().size());
+        for (Path path : shardResults(manifest, shardDir, HtmlShardSummary.SUFFIX))
+            summaries.add(HtmlShardSummary.read(path));
+        HtmlShardSummary summary = HtmlShardSummary.merge(summaries);
+
+        String variantSource = manifest.source().toAbsolutePath().toString();
+        AnalysisParameters analysisParameters = summary.analysisParameters();
+        analysisParameters.setVcfPath(variantSource);
+        analysisParameters.addAllFilterStats(filterStats);
+        OutputOptions outputOptions = new OutputOptions(gatherOptions.outDir, prefix, summary.nVariantsToReport());
+        HtmlResultWriter.writeGatheredReport(summary, variantSource, analysisParameters, outputOptions);
+    }
+
+    private Path outputPath(String prefix, OutputFormat outputFormat, boolean compress) {
+        return gatherOptions.outDir.resolve(prefix + outputFormat.fileSuffix() + (compress ? ".gz" : ""));
+    }
+
+    /**
+     * @throws AnalysisInputException if the result of a shard is missing
+     */
+    private static List<Path> shardResults(ShardManifest manifest, Path shardDir, String suffix) {
+        List<Path> results = new ArrayList<>(manifest.prefixes().size());
+        for (String prefix : manifest.prefixes()) {
+            Path result = shardDir.resolve(prefix + suffix);
+            if (!Files.isRegularFile(result))
+                throw new AnalysisInputException("Missing result of shard " + prefix + " at " + result.toAbsolutePath());
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * Find the compressed results of the shards, or the uncompressed results if the shards were prioritized
+     * with <code>--uncompressed-output</code>.
+     *
+     * @throws AnalysisInputException if the result of a shard is missing
+     */
+    private static List<Path> compressedShardResults(ShardManifest manifest, Path shardDir, String suffix) {
+        List<Path> results = new ArrayList<>(manifest.prefixes().size());
+        for (String prefix : manifest.prefixes()) {
+            Path compressed = shardDir.resolve(prefix + suffix + ".gz");
+            Path result = Files.isRegularFile(compressed) ? compressed : shardDir.resolve(prefix + suffix);
+            if (!Files.isRegularFile(result))
+                throw new AnalysisInputException("Missing result of shard " + prefix + " at " + compressed.toAbsolutePath());
+            results.add(result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,137 @@
+package org.monarchinitiative.svanna.cli.cmd;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A prioritization job submitted to the {@link JobServer}.
+ */
+class Job {
+
+    enum Status {
+        QUEUED, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private final String id;
+
+    private final Path outDir;
+
+    private final Instant submitted = Instant.now();
+
+    private volatile Status status = Status.QUEUED;
+
+    private volatile Instant started;
+
+    private volatile Instant finished;
+
+    private volatile String error;
+
+    Job(String id, Path outDir) {
+        this.id = id;
+        this.outDir = outDir;
+    }
+
+    String id() {
+        return id;
+    }
+
+    Path outDir() {
+        return outDir;
+    }
+
+    Status status() {
+        return status;
+    }
+
+    boolean isDone() {
+        Status current = status;
+        return current == Status.SUCCEEDED || current == Status.FAILED;
+    }
+
+    void started() {
+        started = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void succeeded() {
+        finished = Instant.now();
+        status = Status.SUCCEEDED;
+    }
+
+    void failed(String error) {
+        this.error = error;
+        finished = Instant.now();
+        status = Status.FAILED;
+    }
+
+    /**
+     * @return names of the output files, sorted, or an empty list if the job has not written any files
+     */
+    List<String> outputs() {
+        if (!Files.isDirectory(outDir))
+            return List.of();
+        try (Stream<Path> files = Files.list(outDir)) {
+            return files.filter(Files::isRegularFile)
+                    .map(f -> f.getFileName().toString())
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            return List.of();
+        }
+    }
+
+    String toJson() {
+        StringBuilder json = new StringBuilder("{");
+        json.append("\"id\":").append(quote(id));
+        json.append(",\"status\":").append(quote(status.name()));
+        json.append(",\"submitted\":").append(quote(submitted.toString()));
+        if (started != null)
+            json.append(",\"started\":").append(quote(started.toString()));
+        if (finished != null)
+            json.append(",\"finished\":").append(quote(finished.toString()));
+        if (error != null)
+            json.append(",\"error\":").append(quote(error));
+        json.append(",\"outputs\":[");
+        List<String> outputs = isDone() ? outputs() : List.of();
+        for (int i = 0; i < outputs.size(); i++) {
+            if (i > 0)
+                json.append(',');
+            json.append(quote(outputs.get(i)));
+        }
+        return json.append("]}").toString();
+    }
+
+    static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    quoted.append("\\\"");
+                    break;
+                case '\\':
+                    quoted.append("\\\\");
+                    break;
+                case '\n':
+                    quoted.append("\\n");
+                    break;
+                case '\r':
+                    quoted.append("\\r");
+                    break;
+                case '\t':
+                    quoted.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20)
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    else
+                        quoted.append(c);
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
@@ -0,0 +1,339 @@
+package org.monarchinitiative.svanna.cli.cmd;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.monarchinitiative.svanna.core.SvAnna;
+import org.monarchinitiative.svanna.core.configuration.SvAnnaProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Run the prioritization jobs submitted over a local HTTP API using a shared {@link SvAnna}.
+ * <p>
+ * The API:
+ * <ul>
+ *     <li><code>POST /jobs?vcf=...&amp;term=HP:...&amp;term=HP:...</code> - submit a job, the parameters can also
+ *     be sent as a form. A phenopacket can be provided by <code>phenopacket=...</code>. Returns <code>202</code>
+ *     with the job, or <code>503</code> if the job queue is full.</li>
+ *     <li><code>GET /jobs</code> - list the jobs.</li>
+ *     <li><code>GET /jobs/{id}</code> - get the job status and the names of the output files.</li>
+ *     <li><code>GET /jobs/{id}/outputs/{name}</code> - stream the output file of a finished job.</li>
+ * </ul>
+ * The jobs are run by at most <code>maxConcurrentJobs</code> threads, and the remaining jobs wait in a bounded queue.
+ * The server keeps at most <code>maxFinishedJobs</code> finished jobs, the oldest finished jobs are forgotten,
+ * while their output files are kept in the output folder.
+ */
+class JobServer {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(JobServer.class);
+
+    // The parameters that can be set for a job, `term` can be provided multiple times
+    private static final Set<String> PARAMETERS = Set.of("vcf", "phenopacket", "term", "output-format", "prefix",
+            "report-top-variants", "min-read-support", "frequency-threshold", "overlap-threshold", "no-breakends",
+            "uncompressed-output");
+
+    private final SvAnna svAnna;
+
+    private final SvAnnaProperties svAnnaProperties;
+
+    private final Path outDir;
+
+    private final int parallelism;
+
+    private final PrioritizeCommand.ExecutorMode executorMode;
+
+    private final int maxFinishedJobs;
+
+    private final ThreadPoolExecutor jobExecutor;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    private final AtomicInteger jobCounter = new AtomicInteger();
+
+    private HttpServer server;
+
+    private ExecutorService requestExecutor;
+
+    JobServer(SvAnna svAnna,
+              SvAnnaProperties svAnnaProperties,
+              Path outDir,
+              int parallelism,
+              PrioritizeCommand.ExecutorMode executorMode,
+              int maxConcurrentJobs,
+              int maxQueuedJobs,
+              int maxFinishedJobs) {
+        this.svAnna = Objects.requireNonNull(svAnna);
+        this.svAnnaProperties = Objects.requireNonNull(svAnnaProperties);
+        this.outDir = Objects.requireNonNull(outDir);
+        this.parallelism = parallelism;
+        this.executorMode = Objects.requireNonNull(executorMode);
+        this.maxFinishedJobs = maxFinishedJobs;
+        AtomicInteger threadCounter = new AtomicInteger(1);
+        this.jobExecutor = new ThreadPoolExecutor(maxConcurrentJobs, maxConcurrentJobs, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxQueuedJobs),
+                r -> new Thread(r, "svanna-job-" + threadCounter.getAndIncrement()));
+    }
+
+    void start(InetSocketAddress address) throws IOException {
+        server = HttpServer.create(address, 0);
+        server.createContext("/jobs", this::handle);
+        AtomicInteger threadCounter = new AtomicInteger(1);
+        requestExecutor = Executors.newFixedThreadPool(4, r -> new Thread(r, "svanna-http-" + threadCounter.getAndIncrement()));
+        server.setExecutor(requestExecutor);
+        server.start();
+    }
+
+    /**
+     * @return the address the server listens on, e.g. to find the port chosen by the system
+     */
+    InetSocketAddress address() {
+        return server.getAddress();
+    }
+
+    /**
+     * Stop accepting the jobs, and wait for the running jobs to finish.
+     */
+    void stop() {
+        if (server != null)
+            server.stop(1);
+        if (requestExecutor != null)
+            requestExecutor.shutdown();
+        jobExecutor.shutdown();
+        try {
+            if (!jobExecutor.awaitTermination(1, TimeUnit.MINUTES))
+                jobExecutor.shutdownNow();
+        } catch (InterruptedException e) {
+            jobExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String[] path = exchange.getRequestURI().getPath().replaceAll("/+$", "").split("/");
+            // path[0] is empty and path[1] is `jobs`
+            String method = exchange.getRequestMethod();
+            if (path.length == 2 && method.equals("POST")) {
+                submit(exchange);
+            } else if (path.length == 2 && method.equals("GET")) {
+                StringJoiner json = new StringJoiner(",", "[", "]");
+                jobs.values().stream()
+                        .sorted(Comparator.comparing(Job::id))
+                        .forEach(job -> json.add(job.toJson()));
+                respond(exchange, 200, json.toString());
+            } else if (path.length == 3 && method.equals("GET")) {
+                Job job = jobs.get(path[2]);
+                if (job == null)
+                    respond(exchange, 404, error("Unknown job " + path[2]));
+                else
+                    respond(exchange, 200, job.toJson());
+            } else if (path.length == 5 && path[3].equals("outputs") && method.equals("GET")) {
+                streamOutput(exchange, path[2], path[4]);
+            } else {
+                respond(exchange, 404, error("Unknown endpoint " + method + ' ' + exchange.getRequestURI().getPath()));
+            }
+        } catch (RuntimeException e) {
+            LOGGER.warn("Error handling request {}: {}", exchange.getRequestURI(), e.getMessage());
+            if (exchange.getResponseCode() == -1)
+                // The response has not been sent yet
+                respond(exchange, 500, error(e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void submit(HttpExchange exchange) throws IOException {
+        Map<String, List<String>> parameters = parseParameters(exchange.getRequestURI().getRawQuery());
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (contentType != null && contentType.startsWith("application/x-www-form-urlencoded")) {
+            String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+            parseParameters(body).forEach((k, v) -> parameters.computeIfAbsent(k, x -> new ArrayList<>()).addAll(v));
+        }
+
+        String id = String.format("job-%06d", jobCounter.incrementAndGet());
+        Job job = new Job(id, outDir.resolve(id));
+        PrioritizeCommand command;
+        try {
+            command = createCommand(parameters, job.outDir());
+        } catch (AnalysisInputException e) {
+            respond(exchange, 400, error(e.getMessage()));
+            return;
+        }
+
+        jobs.put(id, job);
+        try {
+            jobExecutor.execute(() -> run(job, command));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            respond(exchange, 503, error("The job queue is full"));
+            return;
+        }
+        LOGGER.info("Queued {}", id);
+        respond(exchange, 202, job.toJson());
+    }
+
+    private PrioritizeCommand createCommand(Map<String, List<String>> parameters, Path jobDir) {
+        for (String parameter : parameters.keySet()) {
+            if (!PARAMETERS.contains(parameter))
+                throw new AnalysisInputException("Unknown parameter `" + parameter + '`');
+        }
+
+        PrioritizeCommand command = new PrioritizeCommand();
+        command.svannaDataDirectory = svAnnaProperties.dataDirectory();
+        command.inputOptions.vcf = path(parameters, "vcf");
+        command.inputOptions.phenopacket = path(parameters, "phenopacket");
+        command.inputOptions.hpoTermIdList = parameters.get("term");
+        command.runOptions.parallelism = parallelism;
+        command.runOptions.executor = executorMode;
+        command.runOptions.minAltReadSupport = number(parameters, "min-read-support", command.runOptions.minAltReadSupport, Integer::parseInt);
+        command.runOptions.frequencyThreshold = number(parameters, "frequency-threshold", command.runOptions.frequencyThreshold, Float::parseFloat);
+        command.runOptions.overlapThreshold = number(parameters, "overlap-threshold", command.runOptions.overlapThreshold, Float::parseFloat);
+        command.outputConfig.outDir = jobDir;
+        command.outputConfig.outputFormats = value(parameters, "output-format", command.outputConfig.outputFormats);
+        command.outputConfig.outPrefix = value(parameters, "prefix", null);
+        command.outputConfig.reportNVariants = number(parameters, "report-top-variants", command.outputConfig.reportNVariants, Integer::parseInt);
+        command.outputConfig.doNotReportBreakends = Boolean.parseBoolean(value(parameters, "no-breakends", "false"));
+        command.outputConfig.uncompressed = Boolean.parseBoolean(value(parameters, "uncompressed-output", "false"));
+        if (command.outputConfig.outPrefix != null && (command.outputConfig.outPrefix.contains("/") || command.outputConfig.outPrefix.contains("\\")))
+            throw new AnalysisInputException("The prefix must not contain path separators");
+        // The invalid job is rejected before it is queued
+        String error = command.argumentError();
+        if (error != null)
+            throw new AnalysisInputException(error);
+        return command;
+    }
+
+    private void run(Job job, PrioritizeCommand command) {
+        job.started();
+        LOGGER.info("Running {}", job.id());
+        try {
+            command.runAnalysis(svAnna, svAnnaProperties);
+            job.succeeded();
+            LOGGER.info("Finished {}", job.id());
+        } catch (InterruptedException e) {
+            job.failed("Interrupted");
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            LOGGER.warn("Job {} failed: {}", job.id(), e.getMessage());
+            LOGGER.debug("Job {} failed: {}", job.id(), e.getMessage(), e);
+            job.failed(e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage());
+        } finally {
+            evictFinishedJobs();
+        }
+    }
+
+    /**
+     * Forget the oldest finished jobs to keep at most {@link #maxFinishedJobs} finished jobs.
+     */
+    private synchronized void evictFinishedJobs() {
+        List<Job> finished = jobs.values().stream()
+                .filter(Job::isDone)
+                .sorted(Comparator.comparing(Job::id))
+                .collect(Collectors.toList());
+        for (int i = 0; i < finished.size() - maxFinishedJobs; i++) {
+            Job job = finished.get(i);
+            jobs.remove(job.id());
+            LOGGER.debug("Evicted {}", job.id());
+        }
+    }
+
+    private void streamOutput(HttpExchange exchange, String jobId, String name) throws IOException {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            respond(exchange, 404, error("Unknown job " + jobId));
+            return;
+        }
+        if (!job.isDone()) {
+            respond(exchange, 409, error("Job " + jobId + " is " + job.status()));
+            return;
+        }
+        // Only the listed files are served, hence the name cannot point outside of the job directory
+        if (!job.outputs().contains(name)) {
+            respond(exchange, 404, error("Unknown output " + name));
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", contentType(name));
+        // Response length 0 streams the file using the chunked encoding
+        exchange.sendResponseHeaders(200, 0);
+        try (OutputStream os = exchange.getResponseBody()) {
+            Files.copy(job.outDir().resolve(name), os);
+        }
+    }
+
+    private static String contentType(String name) {
+        if (name.endsWith(".html"))
+            return "text/html; charset=utf-8";
+        else if (name.endsWith(".gz"))
+            return "application/gzip";
+        else if (name.endsWith(".tsv"))
+            return "text/tab-separated-values";
+        else if (name.endsWith(".csv"))
+            return "text/csv";
+        else if (name.endsWith(".vcf"))
+            return "text/plain";
+        return "application/octet-stream";
+    }
+
+    private static Map<String, List<String>> parseParameters(String query) {
+        Map<String, List<String>> parameters = new HashMap<>();
+        if (query == null || query.isBlank())
+            return parameters;
+        for (String pair : query.split("&")) {
+            if (pair.isEmpty())
+                continue;
+            int eq = pair.indexOf('=');
+            String key = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "true" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            parameters.computeIfAbsent(key, k -> new ArrayList<>()).add(value);
+        }
+        return parameters;
+    }
+
+    private static String value(Map<String, List<String>> parameters, String name, String defaultValue) {
+        List<String> values = parameters.get(name);
+        return values == null || values.isEmpty() ? defaultValue : values.get(values.size() - 1);
+    }
+
+    private static Path path(Map<String, List<String>> parameters, String name) {
+        String value = value(parameters, name, null);
+        return value == null ? null : Path.of(value);
+    }
+
+    private static <T> T number(Map<String, List<String>> parameters, String name, T defaultValue, Function<String, T> parser) {
+        String value = value(parameters, name, null);
+        if (value == null)
+            return defaultValue;
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            throw new AnalysisInputException("Invalid value `" + value + "` of parameter `" + name + '`');
+        }
+    }
+
+    private static String error(String message) {
+        return "{\"error\":" + Job.quote(message == null ? "Unknown error" : message) + '}';
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream os = exchange.getResponseBody()) {
+            os.write(body);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package org.monarchinitiative.svanna.cli.cmd;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.ListValue;
+import com.google.protobuf.Struct;
+import com.google.protobuf.Value;
+import com.google.protobuf.util.JsonFormat;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * A sample of the batch manifest read by {@link BatchPrioritizeCommand}.
+ * <p>
+ * The manifest is a tab-separated file with a header line. The <code>sample</code> and <code>vcf</code> columns
+ * are required, and either <code>phenopacket</code> or <code>terms</code> (comma-separated HPO term IDs)
+ * must be provided for each sample. The optional <code>prefix</code> column sets the output prefix. The relative
+ * paths are resolved against the manifest directory. The output prefix defaults to the sample name, and the output
+ * prefixes must be unique and must not contain path separators.
+ * <p>
+ * A manifest with the <code>.json</code> suffix is a JSON array of objects with the same fields as the columns
+ * of the tab-separated manifest. The <code>terms</code> can be an array of HPO term IDs or a comma-separated string.
+ */
+class ManifestEntry {
+
+    private final String sample;
+    private final Path vcf;
+    private final Path phenopacket;
+    private final List<String> terms;
+    private final String prefix;
+
+    private ManifestEntry(String sample, Path vcf, Path phenopacket, List<String> terms, String prefix) {
+        this.sample = sample;
+        this.vcf = vcf;
+        this.phenopacket = phenopacket;
+        this.terms = terms;
+        this.prefix = prefix;
+    }
+
+    /**
+     * @throws AnalysisInputException if the manifest is invalid or cannot be read
+     */
+    static List<ManifestEntry> readManifest(Path manifest) {
+        return manifest.getFileName().toString().toLowerCase().endsWith(".json")
+                ? readJsonManifest(manifest)
+                : readTsvManifest(manifest);
+    }
+
+    private static List<ManifestEntry> readTsvManifest(Path manifest) {
+        Path base = manifest.toAbsolutePath().getParent();
+        List<ManifestEntry> entries = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(manifest)) {
+            String line = reader.readLine();
+            if (line == null)
+                throw new AnalysisInputException("The manifest " + manifest.toAbsolutePath() + " is empty");
+            Map<String, Integer> columns = new HashMap<>();
+            String[] header = line.split("\t");
+            for (int i = 0; i < header.length; i++)
+                columns.put(header[i].strip().toLowerCase(), i);
+            if (!columns.containsKey("sample") || !columns.containsKey("vcf"))
+                throw new AnalysisInputException("The manifest header must contain the `sample` and `vcf` columns");
+
+            Set<String> samples = new HashSet<>();
+            Set<String> prefixes = new HashSet<>();
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#"))
+                    continue;
+                String[] fields = line.split("\t", -1);
+                String terms = field(fields, columns, "terms");
+                entries.add(entry(field(fields, columns, "sample"),
+                        path(base, field(fields, columns, "vcf")),
+                        path(base, field(fields, columns, "phenopacket")),
+                        terms == null ? null : splitTerms(terms),
+                        field(fields, columns, "prefix"),
+                        samples,
+                        prefixes,
+                        "line `" + line + '`'));
+            }
+        } catch (IOException e) {
+            throw new AnalysisInputException("Unable to read the manifest " + manifest.toAbsolutePath() + ": " + e.getMessage(), e);
+        }
+        return entries;
+    }
+
+    private static List<ManifestEntry> readJsonManifest(Path manifest) {
+        Path base = manifest.toAbsolutePath().getParent();
+        ListValue.Builder samplesList = ListValue.newBuilder();
+        try {
+            JsonFormat.parser().merge(Files.readString(manifest), samplesList);
+        } catch (InvalidProtocolBufferException e) {
+            throw new AnalysisInputException("The manifest " + manifest.toAbsolutePath() + " must be a JSON array of samples: " + e.getMessage(), e);
+        } catch (IOException e) {
+            throw new AnalysisInputException("Unable to read the manifest " + manifest.toAbsolutePath() + ": " + e.getMessage(), e);
+        }
+
+        List<ManifestEntry> entries = new ArrayList<>(samplesList.getValuesCount());
+        Set<String> samples = new HashSet<>();
+        Set<String> prefixes = new HashSet<>();
+        for (int i = 0; i < samplesList.getValuesCount(); i++) {
+            Value value = samplesList.getValues(i);
+            if (value.getKindCase() != Value.KindCase.STRUCT_VALUE)
+                throw new AnalysisInputException("The manifest item #" + (i + 1) + " is not a JSON object");
+            Struct fields = value.getStructValue();
+            entries.add(entry(field(fields, "sample"),
+                    path(base, field(fields, "vcf")),
+                    path(base, field(fields, "phenopacket")),
+                    terms(fields),
+                    field(fields, "prefix"),
+                    samples,
+                    prefixes,
+                    "item #" + (i + 1)));
+        }
+        return entries;
+    }
+
+    private static ManifestEntry entry(String sample, Path vcf, Path phenopacket, List<String> terms, String prefix,
+                                       Set<String> samples, Set<String> prefixes, String location) {
+        if (sample == null || vcf == null)
+            throw new AnalysisInputException("Missing sample or VCF in the manifest " + location);
+        if (!samples.add(sample))
+            throw new AnalysisInputException("Saw more than one manifest entry for sample `" + sample + '`');
+        if ((phenopacket == null) == (terms == null))
+            throw new AnalysisInputException("Provide either a phenopacket or the terms for sample `" + sample + '`');
+        // The outputs of the samples must neither escape the output directory nor overwrite each other
+        String outputPrefix = prefix == null ? sample : prefix;
+        if (outputPrefix.contains("/") || outputPrefix.contains("\\"))
+            throw new AnalysisInputException("The output prefix `" + outputPrefix + "` of sample `" + sample + "` must not contain path separators");
+        if (!prefixes.add(outputPrefix))
+            throw new AnalysisInputException("Saw more than one manifest entry with the output prefix `" + outputPrefix + '`');
+        return new ManifestEntry(sample, vcf, phenopacket, terms, prefix);
+    }
+
+    private static List<String> splitTerms(String terms) {
+        return Arrays.stream(terms.split(","))
+                .map(String::strip)
+                .filter(t -> !t.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    private static String field(Struct fields, String name) {
+        Value value = fields.getFieldsOrDefault(name, null);
+        if (value == null || value.getKindCase() == Value.KindCase.NULL_VALUE)
+            return null;
+        if (value.getKindCase() != Value.KindCase.STRING_VALUE)
+            throw new AnalysisInputException("The `" + name + "` field of the manifest must be a string");
+        String string = value.getStringValue().strip();
+        return string.isEmpty() ? null : string;
+    }
+
+    /**
+     * @return the term IDs of an array or of a comma-separated string, or <code>null</code> if the terms are not provided
+     */
+    private static List<String> terms(Struct fields) {
+        Value value = fields.getFieldsOrDefault("terms", null);
+        if (value == null || value.getKindCase() != Value.KindCase.LIST_VALUE) {
+            String terms = field(fields, "terms");
+            return terms == null ? null : splitTerms(terms);
+        }
+        List<String> terms = new ArrayList<>(value.getListValue().getValuesCount());
+        for (Value term : value.getListValue().getValuesList()) {
+            if (term.getKindCase() != Value.KindCase.STRING_VALUE)
+                throw new AnalysisInputException("The `terms` field of the manifest must contain strings");
+            String termId = term.getStringValue().strip();
+            if (!termId.isEmpty())
+                terms.add(termId);
+        }
+        return terms;
+    }
+
+    private static String field(String[] fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.length)
+            return null;
+        String value = fields[index].strip();
+        return value.isEmpty() || value.equals(".") ? null : value;
+    }
+
+    private static Path path(Path base, String value) {
+        return value == null ? null : base.resolve(value);
+    }
+
+    String sample() {
+        return sample;
+    }
+
+    Path vcf() {
+        return vcf;
+    }
+
+    /**
+     * @return path to the phenopacket or <code>null</code> if the terms are provided
+     */
+    Path phenopacket() {
+        return phenopacket;
+    }
+
+    /**
+     * @return the HPO term IDs or <code>null</code> if the phenopacket is provided
+     */
+    List<String> terms() {
+        return terms;
+    }
+
+    /**
+     * @return the output prefix or <code>null</code> if the prefix is not provided
+     */
+    String prefix() {
+        return prefix;
+    }
+
+    /**
+     * @return the output prefix or the sample name if the prefix is not provided
+     */
+    String outputPrefix() {
+        return prefix == null ? sample : prefix;
+    }
+}
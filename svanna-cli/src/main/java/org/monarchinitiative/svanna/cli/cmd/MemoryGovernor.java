@@ -0,0 +1,180 @@
+package org.monarchinitiative.svanna.cli.cmd;
+
+import org.monarchinitiative.svanna.core.metrics.MetricId;
+import org.monarchinitiative.svanna.core.metrics.MetricsRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Adapt the batch size and the number of in-flight batches of the prioritization to the heap usage.
+ * <p>
+ * The governor compares the used heap reported by the {@link MemoryMXBean} with a fraction of the maximum heap.
+ * While the usage is above the limit, the batch size and the number of in-flight batches are halved, down to a single
+ * batch of {@link #MIN_BATCH_SIZE} items. When the usage drops below {@link #RECOVERY_RATIO} of the limit, both are
+ * doubled back up to the configured values. The adjustments are made at most once per {@link #ADJUSTMENT_INTERVAL_MS}
+ * to give the garbage collector a chance to reclaim the memory of the finished batches.
+ * <p>
+ * The used heap includes the garbage that has not been collected yet, hence the governor errs on the side of throttling.
+ * <p>
+ * Thread safe.
+ */
+public class MemoryGovernor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemoryGovernor.class);
+
+    static final int MIN_BATCH_SIZE = 16;
+    private static final double RECOVERY_RATIO = .8;
+    private static final long ADJUSTMENT_INTERVAL_MS = 100;
+    // The waiting batch submission re-checks the heap usage in this interval
+    private static final long SAMPLING_INTERVAL_MS = 50;
+
+    private static final MetricId THROTTLED = MetricId.of("svanna_memory_governor_throttled_total");
+
+    private final LongSupplier usedHeap;
+    private final LongSupplier clock;
+    private final long limit;
+    private final int minBatchSize;
+    private final int maxBatchSize;
+    private final int maxInFlight;
+    private final long adjustmentIntervalNanos;
+
+    // guarded by this
+    private int batchSize;
+    private int inFlightLimit;
+    private int inFlight = 0;
+    private long lastAdjustment;
+    private boolean warned = false;
+
+    /**
+     * @param maxHeapFraction fraction of the maximum heap in <code>(0, 1]</code> that the analysis should not exceed
+     * @param maxBatchSize the number of items of a batch when the heap usage is below the limit
+     * @param maxInFlight the number of in-flight batches when the heap usage is below the limit
+     */
+    public static MemoryGovernor of(double maxHeapFraction, int maxBatchSize, int maxInFlight) {
+        if (!(maxHeapFraction > 0 && maxHeapFraction <= 1))
+            throw new IllegalArgumentException("Max heap fraction must be in (0, 1]: " + maxHeapFraction);
+        MemoryMXBean memoryBean = ManagementFactory.getMemoryMXBean();
+        long maxHeap = memoryBean.getHeapMemoryUsage().getMax();
+        if (maxHeap < 0)
+            // the maximum is undefined
+            maxHeap = Runtime.getRuntime().maxMemory();
+        long limit = (long) (maxHeapFraction * maxHeap);
+        return new MemoryGovernor(() -> memoryBean.getHeapMemoryUsage().getUsed(), System::nanoTime,
+                limit, maxBatchSize, maxInFlight, TimeUnit.MILLISECONDS.toNanos(ADJUSTMENT_INTERVAL_MS));
+    }
+
+    /**
+     * @return governor that never throttles the batches
+     */
+    public static MemoryGovernor unlimited(int maxBatchSize, int maxInFlight) {
+        return new MemoryGovernor(() -> 0L, System::nanoTime, Long.MAX_VALUE, maxBatchSize, maxInFlight, 0L);
+    }
+
+    MemoryGovernor(LongSupplier usedHeap, LongSupplier clock, long limit, int maxBatchSize, int maxInFlight, long adjustmentIntervalNanos) {
+        if (maxBatchSize < 1)
+            throw new IllegalArgumentException("Max batch size must be positive: " + maxBatchSize);
+        if (maxInFlight < 1)
+            throw new IllegalArgumentException("Max in-flight batches must be positive: " + maxInFlight);
+        this.usedHeap = usedHeap;
+        this.clock = clock;
+        this.limit = limit;
+        this.minBatchSize = Math.min(MIN_BATCH_SIZE, maxBatchSize);
+        this.maxBatchSize = maxBatchSize;
+        this.maxInFlight = maxInFlight;
+        this.adjustmentIntervalNanos = adjustmentIntervalNanos;
+        this.batchSize = maxBatchSize;
+        this.inFlightLimit = maxInFlight;
+        this.lastAdjustment = clock.getAsLong() - adjustmentIntervalNanos;
+    }
+
+    /**
+     * @return the number of items of the next batch
+     */
+    public synchronized int nextBatchSize() {
+        adjust();
+        return batchSize;
+    }
+
+    /**
+     * Wait until a new batch can be put in flight, while allowing the pool to compensate for the blocked worker.
+     * Each call must be followed by a call to {@link #release()} when the batch is no longer in memory.
+     */
+    public void acquire() throws InterruptedException {
+        ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+            private boolean done = false;
+
+            @Override
+            public boolean block() throws InterruptedException {
+                if (!done) {
+                    synchronized (MemoryGovernor.this) {
+                        while (!tryAcquire())
+                            MemoryGovernor.this.wait(SAMPLING_INTERVAL_MS);
+                    }
+                    done = true;
+                }
+                return true;
+            }
+
+            @Override
+            public boolean isReleasable() {
+                return done || (done = tryAcquire());
+            }
+        });
+    }
+
+    public synchronized void release() {
+        inFlight--;
+        notifyAll();
+    }
+
+    synchronized int inFlightLimit() {
+        return inFlightLimit;
+    }
+
+    private synchronized boolean tryAcquire() {
+        adjust();
+        if (inFlight < inFlightLimit) {
+            inFlight++;
+            return true;
+        }
+        return false;
+    }
+
+    private void adjust() {
+        long now = clock.getAsLong();
+        if (now - lastAdjustment < adjustmentIntervalNanos)
+            return;
+
+        long used = usedHeap.getAsLong();
+        if (used > limit) {
+            if (batchSize > minBatchSize || inFlightLimit > 1) {
+                batchSize = Math.max(minBatchSize, batchSize / 2);
+                inFlightLimit = Math.max(1, inFlightLimit / 2);
+                lastAdjustment = now;
+                MetricsRegistry.current().counter(THROTTLED).increment();
+                LOGGER.debug("Heap usage {} MiB is above the limit of {} MiB, using batches of {} items with {} batches in flight",
+                        toMib(used), toMib(limit), batchSize, inFlightLimit);
+            } else if (!warned) {
+                warned = true;
+                LOGGER.warn("Heap usage {} MiB remains above the limit of {} MiB at the minimal batch size. Consider increasing the heap size",
+                        toMib(used), toMib(limit));
+            }
+        } else if (used < RECOVERY_RATIO * limit && (batchSize < maxBatchSize || inFlightLimit < maxInFlight)) {
+            batchSize = Math.min(maxBatchSize, batchSize * 2);
+            inFlightLimit = Math.min(maxInFlight, inFlightLimit * 2);
+            lastAdjustment = now;
+            LOGGER.debug("Heap usage {} MiB is below the limit of {} MiB, using batches of {} items with {} batches in flight",
+                    toMib(used), toMib(limit), batchSize, inFlightLimit);
+        }
+    }
+
+    private static long toMib(long bytes) {
+        return bytes / (1024 * 1024);
+    }
+}
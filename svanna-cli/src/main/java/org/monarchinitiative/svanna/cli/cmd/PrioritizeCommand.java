@@ -7,23 +7,43 @@ import org.monarchinitiative.svanna.configuration.exception.InvalidResourceExcep
 import org.monarchinitiative.svanna.configuration.exception.MissingResourceException;
 import org.monarchinitiative.svanna.configuration.exception.UndefinedResourceException;
 import org.monarchinitiative.svanna.cli.writer.html.HtmlResultWriter;
+import org.monarchinitiative.svanna.cli.writer.vcf.VcfResultWriter;
 import org.monarchinitiative.svanna.core.SvAnna;
 import org.monarchinitiative.svanna.core.configuration.DataProperties;
 import org.monarchinitiative.svanna.core.configuration.PrioritizationProperties;
 import org.monarchinitiative.svanna.core.configuration.SvAnnaProperties;
-import org.monarchinitiative.svanna.core.filter.PopulationFrequencyAndCoverageFilter;
+import org.monarchinitiative.svanna.core.filter.CoverageFilter;
+import org.monarchinitiative.svanna.core.filter.FilterChain;
+import org.monarchinitiative.svanna.core.filter.FilterResult;
+import org.monarchinitiative.svanna.core.filter.FilterStats;
+import org.monarchinitiative.svanna.core.filter.PopulationFrequencyFilter;
 import org.monarchinitiative.svanna.core.io.VariantParser;
+import org.monarchinitiative.svanna.core.metrics.MetricId;
+import org.monarchinitiative.svanna.core.metrics.MetricsRegistry;
+import org.monarchinitiative.svanna.core.metrics.SlowVariantProfiler;
+import org.monarchinitiative.svanna.core.priority.CohortSvPrioritizer;
+import org.monarchinitiative.svanna.core.priority.MemoizingSvPrioritizer;
 import org.monarchinitiative.svanna.core.priority.SvPrioritizer;
 import org.monarchinitiative.svanna.core.priority.SvPrioritizerFactory;
 import org.monarchinitiative.svanna.core.priority.SvPriority;
+import org.monarchinitiative.svanna.core.priority.TopPriorities;
 import org.monarchinitiative.svanna.core.service.AnnotationDataService;
 import org.monarchinitiative.svanna.core.service.PhenotypeDataService;
+import org.monarchinitiative.svanna.io.CohortSite;
 import org.monarchinitiative.svanna.io.FullSvannaVariant;
+import org.monarchinitiative.svanna.io.parse.ParallelVcfVariantParser;
+import org.monarchinitiative.svanna.io.parse.RegionVcfVariantParser;
 import org.monarchinitiative.svanna.io.parse.VcfVariantParser;
 import org.monarchinitiative.svanna.model.landscape.variant.PopulationVariantOrigin;
 import org.monarchinitiative.phenol.ontology.data.Term;
 import org.monarchinitiative.phenol.ontology.data.TermId;
+import org.monarchinitiative.svart.CoordinateSystem;
+import org.monarchinitiative.svart.GenomicBreakendVariant;
+import org.monarchinitiative.svart.GenomicRegion;
+import org.monarchinitiative.svart.GenomicVariant;
+import org.monarchinitiative.svart.Strand;
 import org.monarchinitiative.svart.assembly.GenomicAssembly;
+import org.monarchinitiative.svart.util.VariantTrimmer;
 import org.phenopackets.phenopackettools.io.PhenopacketParserFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -37,8 +57,9 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ExecutionException;
-import java.util.function.UnaryOperator;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @CommandLine.Command(name = "prioritize",
         header = "Prioritize the variants.",
@@ -51,6 +72,18 @@ public class PrioritizeCommand extends SvAnnaCommand {
 
     protected static final NumberFormat NF = NumberFormat.getNumberInstance();
     private static final Logger LOGGER = LoggerFactory.getLogger(PrioritizeCommand.class);
+    // The number of variants filtered and prioritized in one task of the streaming mode
+    private static final int STREAMING_BATCH_SIZE = 1_000;
+    // The number of variants prioritized in one task of the batch mode, when the heap usage is below the limit
+    private static final int PRIORITIZATION_BATCH_SIZE = 1_000;
+    // The variants are prioritized in the order of their location to keep the variants of a reference region together
+    private static final Comparator<GenomicVariant> LOCATION = Comparator.comparingInt(GenomicVariant::contigId)
+            .thenComparingInt(v -> v.startOnStrandWithCoordinateSystem(Strand.POSITIVE, CoordinateSystem.zeroBased()));
+
+    private static final MetricId PARSE_TIMER = MetricId.of("svanna_stage_seconds", "stage", "parse");
+    private static final MetricId FILTER_TIMER = MetricId.of("svanna_stage_seconds", "stage", "filter");
+    private static final MetricId PRIORITIZE_TIMER = MetricId.of("svanna_stage_seconds", "stage", "prioritize");
+    private static final MetricId WRITE_TIMER = MetricId.of("svanna_stage_seconds", "stage", "write");
 
     static {
         NF.setMaximumFractionDigits(2);
@@ -70,6 +103,18 @@ public class PrioritizeCommand extends SvAnnaCommand {
         @CommandLine.Option(names = {"--vcf"},
                 description = "Path to the input VCF file.")
         public Path vcf = null;
+
+        @CommandLine.Option(names = {"--region"},
+                description = "Analyze only the variants in the region, e.g. chr1:100-200 or chr1. Can be provided multiple times.")
+        public List<String> regions = null;
+
+        @CommandLine.Option(names = {"--regions-bed"},
+                description = "Path to BED file with the regions to analyze.")
+        public Path regionsBed = null;
+
+        @CommandLine.Option(names = {"--sample-phenotypes"},
+                description = "Path to tab-separated file with sample names and comma-separated HPO term IDs of the samples analyzed in the cohort mode.")
+        public Path samplePhenotypes = null;
     }
 
     @CommandLine.ArgGroup(validate = false, heading = "Run options:%n")
@@ -90,10 +135,63 @@ public class PrioritizeCommand extends SvAnnaCommand {
                 description = "Minimum number of ALT reads to prioritize (default: ${DEFAULT-VALUE}).")
         public int minAltReadSupport = 3;
 
+        @CommandLine.Option(names = {"--skip-filters-after-failure"},
+                description = "Do not run the more expensive filters on the variants that failed a cheaper filter (default: ${DEFAULT-VALUE}).")
+        public boolean skipFiltersAfterFailure = false;
+
         @CommandLine.Option(names = {"--n-threads"},
                 paramLabel = "2",
                 description = "Process variants using n threads (default: ${DEFAULT-VALUE}).")
         public int parallelism = 2;
+
+        @CommandLine.Option(names = {"--top-variants-only"},
+                description = "Fully evaluate only the variants that can be among the top n reported variants (default: ${DEFAULT-VALUE}).")
+        public boolean topVariantsOnly = false;
+
+        @CommandLine.Option(names = {"--reread-vcf-records"},
+                description = "Do not keep the VCF records in memory and re-read the input VCF when writing the VCF output (default: ${DEFAULT-VALUE}).")
+        public boolean rereadVcfRecords = false;
+
+        @CommandLine.Option(names = {"--lean-vcf-parser"},
+                description = "Read the common single-sample VCF records without decoding them by HtsJDK (default: ${DEFAULT-VALUE}).")
+        public boolean leanVcfParser = false;
+
+        @CommandLine.Option(names = {"--streaming"},
+                description = "Parse, filter, prioritize, and write the variants in batches without keeping all variants in memory (default: ${DEFAULT-VALUE}).")
+        public boolean streaming = false;
+
+        @CommandLine.Option(names = {"--cohort"},
+                description = "Analyze all samples of a multi-sample VCF, parsing, filtering, and annotating each site only once (default: ${DEFAULT-VALUE}).")
+        public boolean cohort = false;
+
+        @CommandLine.Option(names = {"--executor"},
+                description = "Executor of the prioritization, one of ${COMPLETION-CANDIDATES}. The MANAGED_BLOCKING executor evaluates other variants while the threads wait for the database (default: ${DEFAULT-VALUE}).")
+        public ExecutorMode executor = ExecutorMode.FORK_JOIN;
+
+        @CommandLine.Option(names = {"--db-concurrency"},
+                description = "Maximum number of concurrent database requests and connections of the MANAGED_BLOCKING executor (default: ${DEFAULT-VALUE}).")
+        public int dbConcurrency = 16;
+
+        @CommandLine.Option(names = {"--profile-slow-variants"},
+                paramLabel = "0",
+                description = "Profile the prioritization and report the timings of the n slowest variants, 0 disables profiling (default: ${DEFAULT-VALUE}).")
+        public int profileSlowVariants = 0;
+
+        @CommandLine.Option(names = {"--max-heap-fraction"},
+                description = "Reduce the batch size and the number of batches in flight while the used heap exceeds the fraction (0, 1] of the maximum heap (default: ${DEFAULT-VALUE}).")
+        public double maxHeapFraction = .9;
+    }
+
+    public enum ExecutorMode {
+        /**
+         * The worker threads wait for the database.
+         */
+        FORK_JOIN,
+        /**
+         * The number of concurrent database requests is limited, and the pool starts compensating threads
+         * while the workers wait for a free request slot.
+         */
+        MANAGED_BLOCKING
     }
 
     @CommandLine.ArgGroup(validate = false, heading = "Output options:%n")
@@ -124,8 +222,19 @@ public class PrioritizeCommand extends SvAnnaCommand {
         @CommandLine.Option(names = {"--uncompressed-output"},
                 description = "Write tabular and VCF output formats with no compression (default: ${DEFAULT-VALUE}).")
         public boolean uncompressed = false;
+
+        @CommandLine.Option(names = {"--metrics-out"},
+                description = "Path to file for the pipeline metrics, written as JSON if the name ends with `.json`, and in the Prometheus text format otherwise.")
+        public Path metricsOut = null;
+
+        @CommandLine.Option(names = {"--shard-summary"},
+                description = "Write the data of the HTML report required to merge the reports of the shards by the `gather` command (default: ${DEFAULT-VALUE}).")
+        public boolean shardSummary = false;
     }
 
+    // The metrics of the analysis, kept apart from the analyses running concurrently in the same JVM
+    MetricsRegistry metrics = MetricsRegistry.withJvmMetrics();
+
     @Override
     public Integer execute() {
         int status = checkArguments();
@@ -138,7 +247,10 @@ public class PrioritizeCommand extends SvAnnaCommand {
 
         try {
             AnalysisData analysisData = parseAnalysisData();
-            runAnalysis(analysisData, svAnnaProperties);
+            int databaseConcurrency = runOptions.executor == ExecutorMode.MANAGED_BLOCKING ? runOptions.dbConcurrency : 0;
+            SvAnna svAnna = bootstrapSvAnna(svAnnaProperties, databaseConcurrency);
+            runAnalysis(analysisData, svAnnaProperties, svAnna);
+            writeMetrics(metrics, outputConfig.metricsOut);
         } catch (InterruptedException | ExecutionException | IOException | InvalidResourceException |
                  MissingResourceException | UndefinedResourceException | AnalysisInputException e) {
             LOGGER.error("Error: {}", e.getMessage());
@@ -150,6 +262,27 @@ public class PrioritizeCommand extends SvAnnaCommand {
         return 0;
     }
 
+    /**
+     * Write the <code>metrics</code>, if the <code>metricsOut</code> is set.
+     */
+    static void writeMetrics(MetricsRegistry metrics, Path metricsOut) throws IOException {
+        if (metricsOut == null)
+            return;
+        LOGGER.info("Writing the metrics to {}", metricsOut.toAbsolutePath());
+        metrics.write(metricsOut);
+    }
+
+    /**
+     * Run the analysis using an already bootstrapped {@link SvAnna}, e.g. by the {@link ServeCommand}.
+     *
+     * @throws AnalysisInputException if the arguments of the analysis are invalid
+     */
+    void runAnalysis(SvAnna svAnna, SvAnnaProperties svAnnaProperties) throws IOException, ExecutionException, InterruptedException {
+        if (checkArguments() != 0)
+            throw new AnalysisInputException("Invalid analysis arguments, see the log for details");
+        runAnalysis(parseAnalysisData(), svAnnaProperties, svAnna);
+    }
+
     private AnalysisData parseAnalysisData() throws AnalysisInputException {
         if (inputOptions.hpoTermIdList != null) { // CLI
             LOGGER.info("Using {} phenotype features supplied via CLI", inputOptions.hpoTermIdList.size());
@@ -182,35 +315,17 @@ public class PrioritizeCommand extends SvAnnaCommand {
     }
 
     protected int checkArguments() {
-        if (inputOptions.hpoTermIdList == null && inputOptions.phenopacket == null) {
-            LOGGER.error("No phenotype features provided. Use the CLI or a phenopacket");
-            return 1;
-        }
-
-        if (inputOptions.hpoTermIdList != null && inputOptions.phenopacket != null) {
-            LOGGER.error("Passing HPO terms both through CLI and Phenopacket is not supported. Choose one");
-            return 1;
-        }
-
-        if (inputOptions.vcf == null && inputOptions.phenopacket == null) {
-            LOGGER.error("Path to a VCF file or to a phenopacket must be supplied");
+        String error = argumentError();
+        if (error != null) {
+            LOGGER.error(error);
             return 1;
         }
 
-        if (runOptions.parallelism < 1) {
-            LOGGER.error("Thread number must be positive: {}", runOptions.parallelism);
-            return 1;
-        }
         int processorsAvailable = Runtime.getRuntime().availableProcessors();
         if (runOptions.parallelism > processorsAvailable) {
             LOGGER.warn("You asked for more threads ({}) than processors ({}) available on the system", runOptions.parallelism, processorsAvailable);
         }
 
-        if (outputConfig.outputFormats.isEmpty()) {
-            LOGGER.error("Aborting the analysis since no valid output format was provided");
-            return 1;
-        }
-
         if (!Files.isDirectory(outputConfig.outDir)) {
             LOGGER.info("The output directory {} does not exist. Creating the missing directories.", outputConfig.outDir.toAbsolutePath());
             try {
@@ -223,10 +338,47 @@ public class PrioritizeCommand extends SvAnnaCommand {
         return 0;
     }
 
+    /**
+     * Check the arguments of the analysis without touching the file system.
+     *
+     * @return the description of the first invalid argument or <code>null</code> if the arguments are valid
+     */
+    String argumentError() {
+        if (inputOptions.hpoTermIdList == null && inputOptions.phenopacket == null)
+            return "No phenotype features provided. Use the CLI or a phenopacket";
+
+        if (inputOptions.hpoTermIdList != null && inputOptions.phenopacket != null)
+            return "Passing HPO terms both through CLI and Phenopacket is not supported. Choose one";
+
+        if (inputOptions.vcf == null && inputOptions.phenopacket == null)
+            return "Path to a VCF file or to a phenopacket must be supplied";
+
+        if (runOptions.parallelism < 1)
+            return "Thread number must be positive: " + runOptions.parallelism;
+        if (runOptions.profileSlowVariants < 0)
+            return "The number of profiled slow variants must not be negative: " + runOptions.profileSlowVariants;
+        if (!(runOptions.maxHeapFraction > 0 && runOptions.maxHeapFraction <= 1))
+            return "Max heap fraction must be in (0, 1]: " + runOptions.maxHeapFraction;
+        if (configurationSection.evaluationWorkBudget < 0)
+            return "Evaluation work budget must not be negative: " + configurationSection.evaluationWorkBudget;
+        if (runOptions.executor == ExecutorMode.MANAGED_BLOCKING && runOptions.dbConcurrency < 1)
+            return "Database concurrency must be positive: " + runOptions.dbConcurrency;
+
+        if (outputConfig.outputFormats.isEmpty())
+            return "Aborting the analysis since no valid output format was provided";
+        return null;
+    }
+
+    private void runAnalysis(AnalysisData analysisData, SvAnnaProperties svAnnaProperties, SvAnna svAnna) throws IOException, ExecutionException, InterruptedException {
+        // The worker pools of the analysis are created on this thread, hence their workers use the registry as well
+        try (MetricsRegistry.Scope scope = MetricsRegistry.bind(metrics)) {
+            runBoundAnalysis(analysisData, svAnnaProperties, svAnna);
+        }
+    }
+
     // TODO - improve the exception handling
-    private void runAnalysis(AnalysisData analysisData, SvAnnaProperties svAnnaProperties) throws IOException, ExecutionException, InterruptedException, InvalidResourceException, MissingResourceException, UndefinedResourceException {
+    private void runBoundAnalysis(AnalysisData analysisData, SvAnnaProperties svAnnaProperties, SvAnna svAnna) throws IOException, ExecutionException, InterruptedException {
         Collection<OutputFormat> outputFormats = Utils.parseOutputFormats(outputConfig.outputFormats);
-        SvAnna svAnna = bootstrapSvAnna(svAnnaProperties);
 
         GenomicAssembly genomicAssembly = svAnna.assembly();
 
@@ -238,75 +390,454 @@ public class PrioritizeCommand extends SvAnnaCommand {
         LOGGER.debug("Preparing the top-level phenotype terms for the input terms");
         Set<Term> topLevelHpoTerms = phenotypeDataService.getTopLevelTerms(validatedPatientTerms);
 
+        List<GenomicRegion> regions = Utils.parseRegions(inputOptions.regions, inputOptions.regionsBed, genomicAssembly);
+        if (!regions.isEmpty())
+            LOGGER.info("Analyzing the variants in {} regions", NF.format(regions.size()));
+
+        if (runOptions.cohort) {
+            runCohortAnalysis(analysisData, svAnnaProperties, svAnna, outputFormats, regions);
+            return;
+        }
+
+        if (runOptions.streaming) {
+            runStreamingAnalysis(analysisData, svAnnaProperties, svAnna, outputFormats, validatedPatientTerms, regions);
+            return;
+        }
+
         LOGGER.info("Reading variants from `{}`", analysisData.vcf());
-        VariantParser<FullSvannaVariant> parser = new VcfVariantParser(genomicAssembly);
-        List<FullSvannaVariant> variants = parser.createVariantAlleleList(analysisData.vcf());
+        boolean retainVariantContext = !runOptions.rereadVcfRecords;
+        boolean leanVcfParser = runOptions.leanVcfParser;
+        // The records read using the tabix index cannot be re-read by the line number
+        if (!regions.isEmpty() && outputFormats.contains(OutputFormat.VCF) && (!retainVariantContext || leanVcfParser)) {
+            LOGGER.warn("Keeping the VCF records in memory since the records of the regions cannot be re-read");
+            retainVariantContext = true;
+            leanVcfParser = false;
+        }
+        VariantParser<FullSvannaVariant> parser = createParser(genomicAssembly, regions, retainVariantContext, leanVcfParser);
+        long parseStart = System.nanoTime();
+        List<FullSvannaVariant> variants = TaskUtils.executeBlocking(() -> parser.createVariantAlleleList(analysisData.vcf()), runOptions.parallelism);
+        MetricsRegistry.current().timer(PARSE_TIMER).recordSince(parseStart);
         LOGGER.info("Read {} variants", NF.format(variants.size()));
 
         // Filter
         LOGGER.info("Filtering out the variants with reciprocal overlap >{}% occurring in more than {}% probands", runOptions.overlapThreshold, runOptions.frequencyThreshold);
         LOGGER.info("Filtering out the variants where ALT allele is supported by less than {} reads", runOptions.minAltReadSupport);
-        AnnotationDataService annotationDataService = svAnna.annotationDataService();
-        PopulationFrequencyAndCoverageFilter filter = new PopulationFrequencyAndCoverageFilter(annotationDataService, runOptions.overlapThreshold, runOptions.frequencyThreshold, runOptions.minAltReadSupport);
-        List<FullSvannaVariant> filteredVariants = filter.filter(variants);
+        FilterChain<FullSvannaVariant> filterChain = createFilterChain(svAnna.annotationDataService());
+        long filterStart = System.nanoTime();
+        List<FullSvannaVariant> filteredVariants = TaskUtils.executeBlocking(() -> filterChain.filter(variants), runOptions.parallelism);
+        MetricsRegistry.current().timer(FILTER_TIMER).recordSince(filterStart);
+        List<FilterStats> filterStats = filterChain.stats();
+        logFilterStats(filterStats);
 
         // Prioritize
-        SvPrioritizerFactory svPrioritizerFactory = svAnna.prioritizerFactory();
-        SvPrioritizer<SvPriority> prioritizer = svPrioritizerFactory.getPrioritizer(analysisData.phenotypeTerms());
+        SlowVariantProfiler profiler = createProfiler();
+        MemoizingSvPrioritizer<SvPriority> prioritizer = createPrioritizer(svAnna, analysisData, profiler);
 
         LOGGER.info("Prioritizing {} variants on {} threads", NF.format(filteredVariants.size()), runOptions.parallelism);
-        ProgressReporter priorityProgress = new ProgressReporter(5_000);
-        UnaryOperator<FullSvannaVariant> prioritizationFunction = v -> {
-            priorityProgress.logItem(v);
-            SvPriority priority = prioritizer.prioritize(v.genomicVariant());
-            v.setSvPriority(priority);
-            return v;
-        };
         Instant start = Instant.now();
-        List<FullSvannaVariant> filteredPrioritizedVariants = TaskUtils.executeBlocking(filteredVariants, prioritizationFunction, runOptions.parallelism);
+        if (runOptions.topVariantsOnly) {
+            // Only the variants that can be included in the HTML report compete for the top positions
+            LOGGER.info("Evaluating only the variants that can be among the top {} variants", outputConfig.reportNVariants);
+            List<FullSvannaVariant> reportableVariants = filteredVariants.stream()
+                    .filter(this::isReportable)
+                    .collect(Collectors.toList());
+            List<GenomicVariant> genomicVariants = toGenomicVariants(reportableVariants);
+            // The batches share the priorities of the best variants evaluated so far, hence each batch skips
+            // the variants that cannot make it among the top variants of all batches
+            TopPriorities top = TopPriorities.of(outputConfig.reportNVariants);
+            List<SvPriority> priorities = prioritizeInBatches(batch -> prioritizer.prioritizeTop(batch, top),
+                    genomicVariants, prioritizationGovernor(), runOptions.parallelism);
+            // The variants that cannot be reported have an unknown priority, hence they are not written out
+            SvPriority noPriority = SvPriority.of(Double.NaN);
+            filteredVariants.forEach(v -> v.setSvPriority(noPriority));
+            assignPriorities(reportableVariants, priorities);
+        } else {
+            List<GenomicVariant> genomicVariants = toGenomicVariants(filteredVariants);
+            List<SvPriority> priorities = prioritizeInBatches(prioritizer::prioritizeAll, genomicVariants, prioritizationGovernor(), runOptions.parallelism);
+            assignPriorities(filteredVariants, priorities);
+        }
+        MetricsRegistry.current().timer(PRIORITIZE_TIMER).record(Duration.between(start, Instant.now()).toNanos());
 
-        long totalMilliseconds = Duration.between(start, Instant.now()).toMillis();
-        String elapsedSeconds = NF.format((totalMilliseconds / 1000) / 60 % 60);
-        String elapsedMilliseconds = NF.format(totalMilliseconds / 1000 % 60);
-        String averageItemsPerSecond = NF.format(((double) filteredVariants.size() / totalMilliseconds) * 1000.);
-        LOGGER.info("Prioritization finished in {}m {}s ({} ms) processing on average {} items/s",
-                elapsedSeconds, elapsedMilliseconds, NF.format(totalMilliseconds), averageItemsPerSecond);
+        logPrioritizationSummary(start, filteredVariants.size());
+        LOGGER.info("Reused priorities of {} duplicate variants", NF.format(prioritizer.savedEvaluations()));
 
-        AnalysisResults results = new AnalysisResults(analysisData.vcf().toAbsolutePath().toString(), validatedPatientTerms, topLevelHpoTerms, filteredPrioritizedVariants);
+        AnalysisResults results = new AnalysisResults(analysisData.vcf().toAbsolutePath().toString(), validatedPatientTerms, topLevelHpoTerms, filteredVariants);
 
         LOGGER.info("Writing out the results");
         ResultWriterFactory resultWriterFactory = resultWriterFactory(svAnna);
         String prefix = resolveOutPrefix(analysisData.vcf());
         OutputOptions outputOptions = new OutputOptions(outputConfig.outDir, prefix, outputConfig.reportNVariants);
+        long writeStart = System.nanoTime();
         for (OutputFormat outputFormat : outputFormats) {
             ResultWriter writer = resultWriterFactory.resultWriterForFormat(outputFormat, !outputConfig.uncompressed);
             if (writer instanceof HtmlResultWriter) {
                 // TODO - is there a more elegant way to pass the HTML specific parameters into the writer?
                 HtmlResultWriter htmlWriter = (HtmlResultWriter) writer;
-                htmlWriter.setAnalysisParameters(getAnalysisParameters(analysisData, svAnnaProperties));
+                htmlWriter.setAnalysisParameters(getAnalysisParameters(analysisData, svAnnaProperties, filterStats));
+                htmlWriter.setDoNotReportBreakends(outputConfig.doNotReportBreakends);
+                htmlWriter.setWriteShardSummary(outputConfig.shardSummary);
+            }
+            write(writer, outputFormat, results, outputOptions);
+        }
+        FilterStatsWriter.write(filterStats, outputOptions);
+        if (profiler != null)
+            SlowVariantsWriter.write(profiler, outputOptions);
+        MetricsRegistry.current().timer(WRITE_TIMER).recordSince(writeStart);
+
+    }
+
+    /**
+     * Parse, filter, and prioritize the variants in batches, and provide the prioritized variants
+     * to the {@link StreamingResultWriter}s.
+     */
+    private void runStreamingAnalysis(AnalysisData analysisData,
+                                      SvAnnaProperties svAnnaProperties,
+                                      SvAnna svAnna,
+                                      Collection<OutputFormat> outputFormats,
+                                      Set<Term> validatedPatientTerms,
+                                      List<GenomicRegion> regions) throws IOException, ExecutionException, InterruptedException {
+        if (runOptions.topVariantsOnly)
+            LOGGER.warn("Ignoring `--top-variants-only` since the top variants are not known until all variants are streamed");
+        boolean retainVariantContext = !runOptions.rereadVcfRecords;
+        boolean leanVcfParser = runOptions.leanVcfParser;
+        if (outputFormats.contains(OutputFormat.VCF) && (!retainVariantContext || leanVcfParser)) {
+            // The streaming VCF writer does not re-read the input VCF
+            LOGGER.warn("Keeping the VCF records in memory while streaming the VCF output");
+            retainVariantContext = true;
+            leanVcfParser = false;
+        }
+        VariantParser<FullSvannaVariant> parser = createParser(svAnna.assembly(), regions, retainVariantContext, leanVcfParser);
+
+        LOGGER.info("Filtering out the variants with reciprocal overlap >{}% occurring in more than {}% probands", runOptions.overlapThreshold, runOptions.frequencyThreshold);
+        LOGGER.info("Filtering out the variants where ALT allele is supported by less than {} reads", runOptions.minAltReadSupport);
+        FilterChain<FullSvannaVariant> filterChain = createFilterChain(svAnna.annotationDataService());
+        SlowVariantProfiler profiler = createProfiler();
+        // The memo of the duplicate variants would grow with the number of the streamed variants, hence it is not used
+        SvPrioritizer<SvPriority> prioritizer = svAnna.prioritizerFactory().getPrioritizer(analysisData.phenotypeTerms(), profiler);
+
+        ResultWriterFactory resultWriterFactory = resultWriterFactory(svAnna);
+        String prefix = resolveOutPrefix(analysisData.vcf());
+        OutputOptions outputOptions = new OutputOptions(outputConfig.outDir, prefix, outputConfig.reportNVariants);
+        // The filter statistics are added to the HTML parameters when all variants are filtered
+        AnalysisParameters analysisParameters = getAnalysisParameters(analysisData, svAnnaProperties, List.of());
+        String variantSource = analysisData.vcf().toAbsolutePath().toString();
+        List<StreamingResultWriter> writers = new ArrayList<>(outputFormats.size());
+        for (OutputFormat outputFormat : outputFormats) {
+            ResultWriter writer = resultWriterFactory.resultWriterForFormat(outputFormat, !outputConfig.uncompressed);
+            if (writer instanceof HtmlResultWriter) {
+                HtmlResultWriter htmlWriter = (HtmlResultWriter) writer;
+                htmlWriter.setAnalysisParameters(analysisParameters);
                 htmlWriter.setDoNotReportBreakends(outputConfig.doNotReportBreakends);
+                htmlWriter.setWriteShardSummary(outputConfig.shardSummary);
+            }
+            writers.add(writer.openStreamingWriter(variantSource, validatedPatientTerms, outputOptions));
+        }
+
+        LOGGER.info("Streaming variants from `{}` on {} threads", analysisData.vcf(), runOptions.parallelism);
+        MemoryGovernor governor = MemoryGovernor.of(runOptions.maxHeapFraction, STREAMING_BATCH_SIZE, 2 * runOptions.parallelism);
+        Instant start = Instant.now();
+        long nVariants = TaskUtils.executeStreaming(() -> parser.createVariantAlleles(analysisData.vcf()),
+                batch -> {
+                    List<FullSvannaVariant> filtered = MetricsRegistry.current().timer(FILTER_TIMER).record(() -> filterChain.filter(batch));
+                    long prioritizeStart = System.nanoTime();
+                    assignPriorities(filtered, prioritizer.prioritizeAll(toGenomicVariants(filtered)));
+                    MetricsRegistry.current().timer(PRIORITIZE_TIMER).recordSince(prioritizeStart);
+                    return filtered;
+                },
+                variant -> {
+                    long writeStart = System.nanoTime();
+                    for (StreamingResultWriter writer : writers)
+                        writer.accept(variant);
+                    MetricsRegistry.current().timer(WRITE_TIMER).recordSince(writeStart);
+                },
+                governor,
+                runOptions.parallelism);
+        LOGGER.info("Processed {} variants", NF.format(nVariants));
+        List<FilterStats> filterStats = filterChain.stats();
+        logFilterStats(filterStats);
+        logPrioritizationSummary(start, nVariants);
+        analysisParameters.addAllFilterStats(filterStats);
+
+        LOGGER.info("Writing out the results");
+        long writeStart = System.nanoTime();
+        for (StreamingResultWriter writer : writers)
+            writer.close();
+        FilterStatsWriter.write(filterStats, outputOptions);
+        if (profiler != null)
+            SlowVariantsWriter.write(profiler, outputOptions);
+        MetricsRegistry.current().timer(WRITE_TIMER).recordSince(writeStart);
+    }
+
+    /**
+     * Analyze all samples of a multi-sample VCF file. The sites are parsed, checked by the population frequency filter,
+     * and annotated once, and the variants of the samples that carry the ALT allele are written into per-sample outputs.
+     * <p>
+     * The samples use the phenotype terms of the <code>--sample-phenotypes</code> file, or the shared phenotype terms
+     * if the sample is not listed in the file.
+     */
+    private void runCohortAnalysis(AnalysisData analysisData,
+                                   SvAnnaProperties svAnnaProperties,
+                                   SvAnna svAnna,
+                                   Collection<OutputFormat> outputFormats,
+                                   List<GenomicRegion> regions) throws IOException, ExecutionException, InterruptedException {
+        if (runOptions.streaming)
+            LOGGER.warn("Ignoring `--streaming` in the cohort mode");
+        if (runOptions.topVariantsOnly)
+            LOGGER.warn("Ignoring `--top-variants-only` in the cohort mode");
+        if (runOptions.leanVcfParser)
+            LOGGER.warn("Ignoring `--lean-vcf-parser` since the multi-sample records are decoded by HtsJDK");
+        if (!regions.isEmpty())
+            LOGGER.warn("Ignoring the regions in the cohort mode");
+        if (runOptions.profileSlowVariants > 0)
+            LOGGER.warn("Ignoring `--profile-slow-variants` in the cohort mode");
+
+        Path vcf = analysisData.vcf();
+        List<String> samples = VcfVariantParser.readSampleNames(vcf);
+        if (samples.isEmpty())
+            throw new AnalysisInputException("No samples found in " + vcf.toAbsolutePath());
+
+        // The samples with the same phenotype terms share the profile
+        Map<String, List<TermId>> samplePhenotypes = inputOptions.samplePhenotypes == null
+                ? Map.of()
+                : Utils.parseSamplePhenotypes(inputOptions.samplePhenotypes);
+        for (String sample : samplePhenotypes.keySet()) {
+            if (!samples.contains(sample))
+                LOGGER.warn("Sample `{}` with phenotype terms is not present in the VCF file", sample);
+        }
+        Map<List<TermId>, Integer> profiles = new LinkedHashMap<>();
+        Map<String, Integer> sampleProfiles = new HashMap<>();
+        for (String sample : samples) {
+            List<TermId> termIds = samplePhenotypes.getOrDefault(sample, analysisData.phenotypeTerms());
+            Integer profile = profiles.get(termIds);
+            if (profile == null) {
+                profile = profiles.size();
+                profiles.put(termIds, profile);
+            }
+            sampleProfiles.put(sample, profile);
+        }
+        LOGGER.info("Analyzing {} samples with {} phenotype profiles", NF.format(samples.size()), NF.format(profiles.size()));
+
+        LOGGER.info("Reading sites from `{}`", vcf);
+        VcfVariantParser parser = new VcfVariantParser(svAnna.assembly(), VariantTrimmer.removingCommonBase(), !runOptions.rereadVcfRecords, false);
+        long parseStart = System.nanoTime();
+        List<CohortSite> sites = TaskUtils.executeBlocking(() -> parser.createCohortSiteList(vcf), runOptions.parallelism);
+        MetricsRegistry.current().timer(PARSE_TIMER).recordSince(parseStart);
+        Map<String, List<FullSvannaVariant>> sampleVariants = new LinkedHashMap<>();
+        for (String sample : samples)
+            sampleVariants.put(sample, new ArrayList<>());
+        List<FullSvannaVariant> variants = new ArrayList<>();
+        for (CohortSite site : sites) {
+            for (Map.Entry<String, FullSvannaVariant> carrier : site.carriers().entrySet()) {
+                sampleVariants.get(carrier.getKey()).add(carrier.getValue());
+                variants.add(carrier.getValue());
+            }
+        }
+        LOGGER.info("Read {} sites with {} sample variants", NF.format(sites.size()), NF.format(variants.size()));
+
+        // Filter
+        LOGGER.info("Filtering out the variants with reciprocal overlap >{}% occurring in more than {}% probands", runOptions.overlapThreshold, runOptions.frequencyThreshold);
+        LOGGER.info("Filtering out the variants where ALT allele is supported by less than {} reads", runOptions.minAltReadSupport);
+        long filterStart = System.nanoTime();
+        List<FilterStats> filterStats = new ArrayList<>(2);
+        filterStats.add(runCohortFrequencyFilter(svAnna.annotationDataService(), sites));
+        // The read support is specific to the sample
+        FilterChain<FullSvannaVariant> coverageFilterChain = FilterChain.of(List.of(new CoverageFilter(runOptions.minAltReadSupport)), runOptions.skipFiltersAfterFailure);
+        TaskUtils.executeBlocking(() -> coverageFilterChain.filter(variants), runOptions.parallelism);
+        filterStats.addAll(coverageFilterChain.stats());
+        MetricsRegistry.current().timer(FILTER_TIMER).recordSince(filterStart);
+        logFilterStats(filterStats);
+
+        // Prioritize
+        CohortSvPrioritizer<SvPriority> prioritizer = svAnna.prioritizerFactory().getCohortPrioritizer(new ArrayList<>(profiles.keySet()));
+        List<GenomicVariant> siteVariants = sites.stream()
+                .map(CohortSite::variant)
+                .collect(Collectors.toList());
+        LOGGER.info("Prioritizing {} sites for {} phenotype profiles on {} threads", NF.format(sites.size()), NF.format(profiles.size()), runOptions.parallelism);
+        Instant start = Instant.now();
+        List<List<SvPriority>> priorities = prioritizeInBatches(prioritizer::prioritizeAll, siteVariants, prioritizationGovernor(), runOptions.parallelism);
+        for (int i = 0; i < sites.size(); i++) {
+            List<SvPriority> sitePriorities = priorities.get(i);
+            for (Map.Entry<String, FullSvannaVariant> carrier : sites.get(i).carriers().entrySet())
+                carrier.getValue().setSvPriority(sitePriorities.get(sampleProfiles.get(carrier.getKey())));
+        }
+        Duration elapsed = Duration.between(start, Instant.now());
+        MetricsRegistry.current().timer(PRIORITIZE_TIMER).record(elapsed.toNanos());
+        LOGGER.info("Prioritization finished in {} ms", NF.format(elapsed.toMillis()));
+
+        LOGGER.info("Writing out the results");
+        PhenotypeDataService phenotypeDataService = svAnna.phenotypeDataService();
+        ResultWriterFactory resultWriterFactory = resultWriterFactory(svAnna);
+        AnalysisParameters analysisParameters = getAnalysisParameters(analysisData, svAnnaProperties, filterStats);
+        String prefix = resolveOutPrefix(vcf);
+        String variantSource = vcf.toAbsolutePath().toString();
+        long writeStart = System.nanoTime();
+        for (Map.Entry<String, List<FullSvannaVariant>> entry : sampleVariants.entrySet()) {
+            String sample = entry.getKey();
+            Set<Term> validatedTerms = phenotypeDataService.validateTerms(samplePhenotypes.getOrDefault(sample, analysisData.phenotypeTerms()));
+            Set<Term> topLevelTerms = phenotypeDataService.getTopLevelTerms(validatedTerms);
+            AnalysisResults results = new AnalysisResults(variantSource, validatedTerms, topLevelTerms, entry.getValue());
+            OutputOptions outputOptions = new OutputOptions(outputConfig.outDir, prefix + '.' + sample, outputConfig.reportNVariants);
+            for (OutputFormat outputFormat : outputFormats) {
+                ResultWriter writer = resultWriterFactory.resultWriterForFormat(outputFormat, !outputConfig.uncompressed);
+                if (writer instanceof HtmlResultWriter) {
+                    HtmlResultWriter htmlWriter = (HtmlResultWriter) writer;
+                    htmlWriter.setAnalysisParameters(analysisParameters);
+                    htmlWriter.setDoNotReportBreakends(outputConfig.doNotReportBreakends);
+                    htmlWriter.setWriteShardSummary(outputConfig.shardSummary);
+                } else if (writer instanceof VcfResultWriter) {
+                    // The records of the multi-sample VCF carry the genotypes of all samples
+                    ((VcfResultWriter) writer).setSample(sample);
+                }
+                write(writer, outputFormat, results, outputOptions);
+            }
+        }
+        FilterStatsWriter.write(filterStats, new OutputOptions(outputConfig.outDir, prefix, outputConfig.reportNVariants));
+        MetricsRegistry.current().timer(WRITE_TIMER).recordSince(writeStart);
+    }
+
+    /**
+     * Run the population frequency filter once for each site, and add the result to the variants of all carriers.
+     */
+    private FilterStats runCohortFrequencyFilter(AnnotationDataService annotationDataService, List<CohortSite> sites) {
+        PopulationFrequencyFilter filter = new PopulationFrequencyFilter(annotationDataService, runOptions.overlapThreshold, runOptions.frequencyThreshold);
+        // The filter only uses the site coordinates, hence any carrier represents the site
+        List<FullSvannaVariant> representatives = sites.stream()
+                .map(site -> site.carriers().values().iterator().next())
+                .collect(Collectors.toList());
+
+        long start = System.nanoTime();
+        List<FilterResult> results = filter.runFilterBatch(representatives);
+        long passed = 0, failed = 0, total = 0;
+        for (int i = 0; i < sites.size(); i++) {
+            FilterResult result = results.get(i);
+            for (FullSvannaVariant carrier : sites.get(i).carriers().values()) {
+                carrier.addFilterResult(result);
+                total++;
+                if (result.passed())
+                    passed++;
+                else if (result.failed())
+                    failed++;
             }
-            writer.write(results, outputOptions);
         }
+        long elapsed = System.nanoTime() - start;
+        return FilterStats.of(filter.getFilterType(), filter.cost(), passed, failed, total - passed - failed, Duration.ofNanos(elapsed));
+    }
+
+    private VariantParser<FullSvannaVariant> createParser(GenomicAssembly genomicAssembly,
+                                                          List<GenomicRegion> regions,
+                                                          boolean retainVariantContext,
+                                                          boolean leanVcfParser) {
+        VcfVariantParser parser = runOptions.parallelism > 1
+                ? new ParallelVcfVariantParser(genomicAssembly, VariantTrimmer.removingCommonBase(), retainVariantContext, leanVcfParser)
+                : new VcfVariantParser(genomicAssembly, VariantTrimmer.removingCommonBase(), retainVariantContext, leanVcfParser);
+        return regions.isEmpty()
+                ? parser
+                : new RegionVcfVariantParser(parser, regions);
+    }
+
+    private FilterChain<FullSvannaVariant> createFilterChain(AnnotationDataService annotationDataService) {
+        return FilterChain.of(List.of(
+                        new PopulationFrequencyFilter(annotationDataService, runOptions.overlapThreshold, runOptions.frequencyThreshold),
+                        new CoverageFilter(runOptions.minAltReadSupport)),
+                runOptions.skipFiltersAfterFailure);
+    }
+
+    private SlowVariantProfiler createProfiler() {
+        if (runOptions.profileSlowVariants < 1)
+            return null;
+        LOGGER.info("Profiling the prioritization of the variants to report the {} slowest variants", runOptions.profileSlowVariants);
+        return SlowVariantProfiler.of(runOptions.profileSlowVariants);
+    }
 
+    private static MemoizingSvPrioritizer<SvPriority> createPrioritizer(SvAnna svAnna, AnalysisData analysisData, SlowVariantProfiler profiler) {
+        SvPrioritizerFactory svPrioritizerFactory = svAnna.prioritizerFactory();
+        // The duplicate variants, e.g. from multi-caller merged VCFs, are evaluated only once
+        return MemoizingSvPrioritizer.of(svPrioritizerFactory.getPrioritizer(analysisData.phenotypeTerms(), profiler));
+    }
+
+    private MemoryGovernor prioritizationGovernor() {
+        return MemoryGovernor.of(runOptions.maxHeapFraction, PRIORITIZATION_BATCH_SIZE, runOptions.parallelism);
+    }
+
+    /**
+     * Prioritize the variants in batches on a single pool of <code>parallelism</code> threads, with the batch size
+     * and the number of the batches in flight adapted to the heap usage by the <code>governor</code>. The batches
+     * are made of the variants sorted by location, hence the variants of a reference region usually share a batch,
+     * and their route data is fetched once.
+     *
+     * @param prioritizer function returning a priority for each variant of a batch
+     * @return priorities in the order of the input variants
+     */
+    static <P> List<P> prioritizeInBatches(Function<List<GenomicVariant>, List<P>> prioritizer,
+                                           List<GenomicVariant> variants,
+                                           MemoryGovernor governor,
+                                           int parallelism) throws ExecutionException, InterruptedException {
+        int[] order = IntStream.range(0, variants.size())
+                .boxed()
+                .sorted(Comparator.comparing(variants::get, LOCATION))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        List<GenomicVariant> sorted = new ArrayList<>(variants.size());
+        for (int i : order)
+            sorted.add(variants.get(i));
+
+        List<P> sortedPriorities = TaskUtils.executeGoverned(sorted, prioritizer, governor, parallelism);
+
+        List<P> priorities = new ArrayList<>(Collections.nCopies(variants.size(), null));
+        for (int i = 0; i < order.length; i++)
+            priorities.set(order[i], sortedPriorities.get(i));
+        return priorities;
+    }
+
+    private static void write(ResultWriter writer, OutputFormat outputFormat, AnalysisResults results, OutputOptions outputOptions) throws IOException {
+        long start = System.nanoTime();
+        writer.write(results, outputOptions);
+        MetricsRegistry.current().timer("svanna_writer_seconds", "format", outputFormat.name().toLowerCase()).recordSince(start);
+    }
+
+    private static void logFilterStats(List<FilterStats> filterStats) {
+        for (FilterStats stats : filterStats) {
+            LOGGER.info("{} filter: {} passed, {} failed, {} not run in {} ms", stats.filterType().shortName(),
+                    NF.format(stats.passed()), NF.format(stats.failed()), NF.format(stats.notRun()), NF.format(stats.elapsed().toMillis()));
+        }
+    }
+
+    private static void logPrioritizationSummary(Instant start, long nVariants) {
+        long totalMilliseconds = Duration.between(start, Instant.now()).toMillis();
+        String elapsedSeconds = NF.format((totalMilliseconds / 1000) / 60 % 60);
+        String elapsedMilliseconds = NF.format(totalMilliseconds / 1000 % 60);
+        String averageItemsPerSecond = NF.format(((double) nVariants / totalMilliseconds) * 1000.);
+        LOGGER.info("Prioritization finished in {}m {}s ({} ms) processing on average {} items/s",
+                elapsedSeconds, elapsedMilliseconds, NF.format(totalMilliseconds), averageItemsPerSecond);
+    }
+
+    private boolean isReportable(FullSvannaVariant variant) {
+        return variant.passedFilters()
+                && variant.numberOfAltReads() >= runOptions.minAltReadSupport
+                && !(outputConfig.doNotReportBreakends && variant.genomicVariant() instanceof GenomicBreakendVariant);
+    }
+
+    private static List<GenomicVariant> toGenomicVariants(List<FullSvannaVariant> variants) {
+        return variants.stream()
+                .map(FullSvannaVariant::genomicVariant)
+                .collect(Collectors.toList());
+    }
+
+    private static void assignPriorities(List<FullSvannaVariant> variants, List<SvPriority> priorities) {
+        Iterator<SvPriority> priorityIterator = priorities.iterator();
+        for (FullSvannaVariant variant : variants) {
+            variant.setSvPriority(priorityIterator.next());
+        }
     }
 
     private String resolveOutPrefix(Path vcfFile) {
         if (outputConfig.outPrefix != null && !outputConfig.outPrefix.isBlank())
             return outputConfig.outPrefix;
 
-        String vcfName = vcfFile.toFile().getName();
-        String prefixBase;
-        if (vcfName.endsWith(".vcf.gz"))
-            prefixBase = vcfName.substring(0, vcfName.length() - 7);
-        else if (vcfName.endsWith(".vcf"))
-            prefixBase = vcfName.substring(0, vcfName.length() - 4);
-        else
-            prefixBase = vcfName;
-        return prefixBase + ".SVANNA";
+        return Utils.vcfNameWithoutSuffix(vcfFile) + ".SVANNA";
     }
 
-    private AnalysisParameters getAnalysisParameters(AnalysisData analysisData, SvAnnaProperties properties) {
+    private AnalysisParameters getAnalysisParameters(AnalysisData analysisData, SvAnnaProperties properties, List<FilterStats> filterStats) {
         AnalysisParameters analysisParameters = new AnalysisParameters();
 
         analysisParameters.setDataDirectory(properties.dataDirectory().toAbsolutePath().toString());
@@ -320,6 +851,7 @@ public class PrioritizeCommand extends SvAnnaCommand {
         analysisParameters.setUseVistaEnhancers(properties.dataProperties().useVista());
         analysisParameters.setUseFantom5Enhancers(properties.dataProperties().useFantom5());
         analysisParameters.setPhenotypeTermSimilarityMeasure(properties.prioritizationProperties().termSimilarityMeasure().toString());
+        analysisParameters.addAllFilterStats(filterStats);
 
         return analysisParameters;
     }
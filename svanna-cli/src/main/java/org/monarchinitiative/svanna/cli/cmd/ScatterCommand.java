@@ -0,0 +1,102 @@
+package org.monarchinitiative.svanna.cli.cmd;
+
+import org.monarchinitiative.svanna.cli.Main;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+@CommandLine.Command(name = "scatter",
+        header = "Split the input VCF into shards to be prioritized by separate processes, and merged by the `gather` command.",
+        mixinStandardHelpOptions = true,
+        sortOptions = false,
+        version = Main.VERSION,
+        usageHelpWidth = Main.WIDTH,
+        footer = Main.FOOTER)
+public class ScatterCommand implements Callable<Integer> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ScatterCommand.class);
+
+    @CommandLine.ArgGroup(validate = false, heading = "Scatter options:%n")
+    public ScatterOptions scatterOptions = new ScatterOptions();
+    public static class ScatterOptions {
+        @CommandLine.Option(names = {"--vcf"},
+                required = true,
+                description = "Path to the input VCF file.")
+        public Path vcf = null;
+
+        @CommandLine.Option(names = {"--shard-by"},
+                paramLabel = "{CONTIG,RANGE,RECORDS}",
+                description = "Split the records by contig, by contig ranges of `--shard-size` bases, or into shards of `--shard-size` records (default: ${DEFAULT-VALUE}).")
+        public ShardBy shardBy = ShardBy.CONTIG;
+
+        @CommandLine.Option(names = {"--shard-size"},
+                description = "Number of bases of a contig range or number of records of a shard (default: ${DEFAULT-VALUE}).")
+        public long shardSize = 10_000_000;
+
+        @CommandLine.Option(names = {"-p", "--phenopacket"},
+                description = "Path to phenopacket written into the manifest, to prioritize the shards by the `prioritize-batch` command.")
+        public Path phenopacket = null;
+
+        @CommandLine.Option(names = {"-t", "--phenotype-term"},
+                description = "HPO term ID(s) written into the manifest, to prioritize the shards by the `prioritize-batch` command. Can be provided multiple times.")
+        public List<String> hpoTermIdList = null;
+
+        @CommandLine.Option(names = {"--out-dir"},
+                description = "Path to folder where to write the shards and the manifest (default: current working directory).")
+        public Path outDir = Path.of("");
+
+        @CommandLine.Option(names = {"--prefix"},
+                description = "Prefix for the shards and the manifest (default: based on the input VCF name).")
+        public String outPrefix = null;
+    }
+
+    public enum ShardBy {
+        /**
+         * One shard per contig.
+         */
+        CONTIG,
+        /**
+         * One shard per contig range of a fixed length.
+         */
+        RANGE,
+        /**
+         * One shard per a fixed number of consecutive records.
+         */
+        RECORDS
+    }
+
+    @Override
+    public Integer call() {
+        if (scatterOptions.shardBy != ShardBy.CONTIG && scatterOptions.shardSize < 1) {
+            LOGGER.error("Shard size must be positive: {}", scatterOptions.shardSize);
+            return 1;
+        }
+        if (scatterOptions.hpoTermIdList != null && scatterOptions.phenopacket != null) {
+            LOGGER.error("Passing HPO terms both through CLI and Phenopacket is not supported. Choose one");
+            return 1;
+        }
+
+        String prefix = scatterOptions.outPrefix == null || scatterOptions.outPrefix.isBlank()
+                ? Utils.vcfNameWithoutSuffix(scatterOptions.vcf)
+                : scatterOptions.outPrefix;
+        Path manifest = scatterOptions.outDir.resolve(prefix + ".shards.tsv");
+        try {
+            Files.createDirectories(scatterOptions.outDir);
+            VcfScatterer scatterer = new VcfScatterer(scatterOptions.shardBy, scatterOptions.shardSize);
+            List<Path> shards = scatterer.scatter(scatterOptions.vcf, scatterOptions.outDir, prefix);
+            ShardManifest.write(manifest, scatterOptions.vcf, shards, scatterOptions.hpoTermIdList, scatterOptions.phenopacket);
+            LOGGER.info("Split {} into {} shards. See the manifest at {}", scatterOptions.vcf.toAbsolutePath(), shards.size(), manifest.toAbsolutePath());
+        } catch (IOException | AnalysisInputException e) {
+            LOGGER.error("Error: {}", e.getMessage());
+            LOGGER.debug("Error: {}", e.getMessage(), e);
+            return 1;
+        }
+        return 0;
+    }
+}
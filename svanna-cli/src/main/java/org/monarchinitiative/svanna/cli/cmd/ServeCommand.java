@@ -0,0 +1,114 @@
+package org.monarchinitiative.svanna.cli.cmd;
+
+import org.monarchinitiative.svanna.cli.Main;
+import org.monarchinitiative.svanna.configuration.exception.InvalidResourceException;
+import org.monarchinitiative.svanna.configuration.exception.MissingResourceException;
+import org.monarchinitiative.svanna.configuration.exception.UndefinedResourceException;
+import org.monarchinitiative.svanna.core.SvAnna;
+import org.monarchinitiative.svanna.core.configuration.SvAnnaProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import picocli.CommandLine;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+
+@CommandLine.Command(name = "serve",
+        header = "Bootstrap SvAnna once and prioritize the variants of the jobs submitted over a local HTTP API.",
+        mixinStandardHelpOptions = true,
+        sortOptions = false,
+        version = Main.VERSION,
+        usageHelpWidth = Main.WIDTH,
+        footer = Main.FOOTER)
+public class ServeCommand extends SvAnnaCommand {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServeCommand.class);
+
+    @CommandLine.ArgGroup(validate = false, heading = "Server options:%n")
+    public ServerOptions serverOptions = new ServerOptions();
+    public static class ServerOptions {
+        @CommandLine.Option(names = {"--host"},
+                description = "Address to listen on. Use a loopback address to accept only local connections (default: ${DEFAULT-VALUE}).")
+        public String host = "127.0.0.1";
+
+        @CommandLine.Option(names = {"--port"},
+                description = "Port to listen on (default: ${DEFAULT-VALUE}).")
+        public int port = 8080;
+
+        @CommandLine.Option(names = {"--max-concurrent-jobs"},
+                description = "Number of jobs run at the same time (default: ${DEFAULT-VALUE}).")
+        public int maxConcurrentJobs = 2;
+
+        @CommandLine.Option(names = {"--max-queued-jobs"},
+                description = "Number of jobs waiting in the queue before new jobs are rejected (default: ${DEFAULT-VALUE}).")
+        public int maxQueuedJobs = 100;
+
+        @CommandLine.Option(names = {"--max-finished-jobs"},
+                description = "Number of finished jobs whose status is kept, the older finished jobs are forgotten (default: ${DEFAULT-VALUE}).")
+        public int maxFinishedJobs = 1000;
+
+        @CommandLine.Option(names = {"--n-threads"},
+                description = "Process the variants of a job using n threads (default: ${DEFAULT-VALUE}).")
+        public int parallelism = 2;
+
+        @CommandLine.Option(names = {"--executor"},
+                description = "Executor of the prioritization, one of ${COMPLETION-CANDIDATES}. The MANAGED_BLOCKING executor evaluates other variants while the threads wait for the database (default: ${DEFAULT-VALUE}).")
+        public PrioritizeCommand.ExecutorMode executor = PrioritizeCommand.ExecutorMode.FORK_JOIN;
+
+        @CommandLine.Option(names = {"--db-concurrency"},
+                description = "Maximum number of concurrent database requests and connections of the MANAGED_BLOCKING executor (default: ${DEFAULT-VALUE}).")
+        public int dbConcurrency = 16;
+
+        @CommandLine.Option(names = {"--out-dir"},
+                description = "Path to folder where to write the job output files (default: ${DEFAULT-VALUE}).")
+        public Path outDir = Path.of("svanna-jobs");
+    }
+
+    @Override
+    protected Integer execute() {
+        if (serverOptions.maxConcurrentJobs < 1 || serverOptions.maxQueuedJobs < 1 || serverOptions.parallelism < 1) {
+            LOGGER.error("The number of concurrent jobs, queued jobs, and threads must be positive");
+            return 1;
+        }
+        if (serverOptions.maxFinishedJobs < 0) {
+            LOGGER.error("The number of finished jobs must not be negative: {}", serverOptions.maxFinishedJobs);
+            return 1;
+        }
+        if (serverOptions.executor == PrioritizeCommand.ExecutorMode.MANAGED_BLOCKING && serverOptions.dbConcurrency < 1) {
+            LOGGER.error("Database concurrency must be positive: {}", serverOptions.dbConcurrency);
+            return 1;
+        }
+
+        SvAnnaProperties svAnnaProperties = SvAnnaProperties.of(svannaDataDirectory, prioritizationProperties(), dataProperties());
+        JobServer server;
+        try {
+            Files.createDirectories(serverOptions.outDir);
+            int databaseConcurrency = serverOptions.executor == PrioritizeCommand.ExecutorMode.MANAGED_BLOCKING ? serverOptions.dbConcurrency : 0;
+            SvAnna svAnna = bootstrapSvAnna(svAnnaProperties, databaseConcurrency);
+            server = new JobServer(svAnna, svAnnaProperties, serverOptions.outDir, serverOptions.parallelism, serverOptions.executor,
+                    serverOptions.maxConcurrentJobs, serverOptions.maxQueuedJobs, serverOptions.maxFinishedJobs);
+            server.start(new InetSocketAddress(serverOptions.host, serverOptions.port));
+        } catch (IOException | InvalidResourceException | MissingResourceException | UndefinedResourceException e) {
+            LOGGER.error("Error: {}", e.getMessage());
+            LOGGER.debug("Error: {}", e.getMessage(), e);
+            return 1;
+        }
+        LOGGER.info("Accepting jobs at http://{}:{}/jobs", serverOptions.host, serverOptions.port);
+
+        CountDownLatch stopped = new CountDownLatch(1);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            LOGGER.info("Shutting down");
+            server.stop();
+            stopped.countDown();
+        }, "svanna-shutdown"));
+        try {
+            stopped.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return 0;
+    }
+}
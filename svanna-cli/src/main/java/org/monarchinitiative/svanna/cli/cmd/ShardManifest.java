@@ -0,0 +1,108 @@
+package org.monarchinitiative.svanna.cli.cmd;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * The shards written by {@link ScatterCommand} and merged by {@link GatherCommand}.
+ * <p>
+ * The manifest is a tab-separated file with the <code>sample</code>, <code>vcf</code>, and <code>prefix</code>
+ * columns, and the optional <code>terms</code> or <code>phenopacket</code> column, hence the shards can be prioritized
+ * by {@link BatchPrioritizeCommand}. The path to the input VCF is stored in a comment line that follows the header.
+ */
+class ShardManifest {
+
+    private static final String SOURCE_COMMENT = "#source=";
+
+    private final Path source;
+    private final List<String> prefixes;
+
+    private ShardManifest(Path source, List<String> prefixes) {
+        this.source = source;
+        this.prefixes = prefixes;
+    }
+
+    /**
+     * @param shards paths to the shards, located in the directory of the manifest
+     * @param terms HPO term IDs or <code>null</code>
+     * @param phenopacket path to phenopacket or <code>null</code>
+     */
+    static void write(Path manifest, Path source, List<Path> shards, List<String> terms, Path phenopacket) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(manifest)) {
+            writer.write("sample\tvcf\tprefix");
+            if (terms != null)
+                writer.write("\tterms");
+            if (phenopacket != null)
+                writer.write("\tphenopacket");
+            writer.newLine();
+            writer.write(SOURCE_COMMENT + source.toAbsolutePath());
+            writer.newLine();
+            for (Path shard : shards) {
+                String name = shard.getFileName().toString();
+                String prefix = Utils.vcfNameWithoutSuffix(shard);
+                writer.write(String.join("\t", prefix, name, prefix));
+                if (terms != null)
+                    writer.write("\t" + String.join(",", terms));
+                if (phenopacket != null)
+                    writer.write("\t" + phenopacket.toAbsolutePath());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * @throws AnalysisInputException if the manifest is invalid or cannot be read
+     */
+    static ShardManifest read(Path manifest) {
+        Path source = null;
+        List<String> prefixes = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(manifest)) {
+            String line = reader.readLine();
+            if (line == null)
+                throw new AnalysisInputException("The manifest " + manifest.toAbsolutePath() + " is empty");
+            List<String> header = Arrays.asList(line.split("\t"));
+            int prefixColumn = header.indexOf("prefix");
+            if (prefixColumn < 0)
+                throw new AnalysisInputException("The manifest header must contain the `prefix` column");
+
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(SOURCE_COMMENT)) {
+                    source = Path.of(line.substring(SOURCE_COMMENT.length()));
+                    continue;
+                }
+                if (line.isBlank() || line.startsWith("#"))
+                    continue;
+                String[] fields = line.split("\t", -1);
+                if (fields.length <= prefixColumn || fields[prefixColumn].isBlank())
+                    throw new AnalysisInputException("Missing shard prefix in the manifest line `" + line + '`');
+                prefixes.add(fields[prefixColumn]);
+            }
+        } catch (IOException e) {
+            throw new AnalysisInputException("Unable to read the manifest " + manifest.toAbsolutePath() + ": " + e.getMessage(), e);
+        }
+        if (source == null)
+            throw new AnalysisInputException("The manifest " + manifest.toAbsolutePath() + " does not contain the source VCF path");
+        if (prefixes.isEmpty())
+            throw new AnalysisInputException("The manifest " + manifest.toAbsolutePath() + " contains no shards");
+
+        return new ShardManifest(source, prefixes);
+    }
+
+    /**
+     * @return path to the VCF file that was split into the shards
+     */
+    Path source() {
+        return source;
+    }
+
+    /**
+     * @return the output prefixes of the shards, in the order of the shards
+     */
+    List<String> prefixes() {
+        return prefixes;
+    }
+}
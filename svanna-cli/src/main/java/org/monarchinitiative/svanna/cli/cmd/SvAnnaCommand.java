@@ -72,6 +72,9 @@ public abstract class SvAnnaCommand implements Callable<Integer> {
         @CommandLine.Option(names = {"--promoter-fitness-gain"},
                 description = "Set to 0. to score the promoter variants as strictly as coding variants, or to 1. to skip them altogether (default: ${DEFAULT-VALUE}).")
         protected double promoterFitnessGain = .6;
+        @CommandLine.Option(names = {"--evaluation-work-budget"},
+                description = "Score the variants with more than this number of gene-enhancer pairs approximately using the genes only, or 0 to score all variants exactly (default: ${DEFAULT-VALUE}).")
+        protected long evaluationWorkBudget = 0L;
     }
 
     private static Properties readProperties() {
@@ -97,8 +100,17 @@ public abstract class SvAnnaCommand implements Callable<Integer> {
     protected abstract Integer execute();
 
     protected SvAnna bootstrapSvAnna(SvAnnaProperties svAnnaProperties) throws MissingResourceException, InvalidResourceException, UndefinedResourceException {
+        return bootstrapSvAnna(svAnnaProperties, 0);
+    }
+
+    /**
+     * @param databaseConcurrency the number of concurrent route data requests or <code>0</code> for the default
+     * @see SvAnnaBuilder#databaseConcurrency(int)
+     */
+    protected SvAnna bootstrapSvAnna(SvAnnaProperties svAnnaProperties, int databaseConcurrency) throws MissingResourceException, InvalidResourceException, UndefinedResourceException {
         LOGGER.info("Spooling up SvAnna v{} using resources in {}", SVANNA_VERSION, svAnnaProperties.dataDirectory().toAbsolutePath());
         return SvAnnaBuilder.builder(svAnnaProperties)
+                .databaseConcurrency(databaseConcurrency)
                 .build();
     }
 
@@ -108,7 +120,8 @@ public abstract class SvAnnaCommand implements Callable<Integer> {
                 configurationSection.promoterLength,
                 configurationSection.promoterFitnessGain,
                 GENE_FACTOR,
-                ENHANCER_FACTOR);
+                ENHANCER_FACTOR,
+                configurationSection.evaluationWorkBudget);
     }
 
     protected DataProperties dataProperties() {
@@ -1,5 +1,11 @@
 package org.monarchinitiative.svanna.cli.cmd;
 
+import org.monarchinitiative.svanna.core.metrics.MetricId;
+import org.monarchinitiative.svanna.core.metrics.MetricsRegistry;
+import org.monarchinitiative.svanna.core.metrics.Timer;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.ForkJoinWorkerThread;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -11,14 +17,54 @@ class SvAnnaWorkerThread extends ForkJoinWorkerThread {
 
     private static final AtomicInteger THREAD_COUNTER = new AtomicInteger(1);
 
+    private static final ThreadMXBean THREAD_MX_BEAN = ManagementFactory.getThreadMXBean();
+
+    // The utilization of the worker pools is the CPU time of the workers divided by their lifetime
+    private static final MetricId LIFETIME = MetricId.of("svanna_worker_lifetime_seconds");
+    private static final MetricId CPU_TIME = MetricId.of("svanna_worker_cpu_seconds");
+
+    private final MetricsRegistry metrics;
+
+    private long startNanos;
+
+    /**
+     * Register the utilization gauge of the workers recording into the <code>metrics</code>.
+     */
+    static void registerUtilization(MetricsRegistry metrics) {
+        Timer lifetime = metrics.timer(LIFETIME);
+        Timer cpuTime = metrics.timer(CPU_TIME);
+        metrics.gauge("svanna_worker_utilization",
+                () -> lifetime.totalNanos() == 0 ? Double.NaN : (double) cpuTime.totalNanos() / lifetime.totalNanos());
+    }
+
     /**
      * Creates a ForkJoinWorkerThread operating in the given pool.
      *
      * @param pool the pool this thread works in
+     * @param metrics the registry of the metrics recorded by the tasks run on this thread
      * @throws NullPointerException if pool is null
      */
-    SvAnnaWorkerThread(ForkJoinPool pool) {
+    SvAnnaWorkerThread(ForkJoinPool pool, MetricsRegistry metrics) {
         super(pool);
+        this.metrics = metrics;
         setName("svanna-worker-" + THREAD_COUNTER.getAndIncrement());
     }
+
+    @Override
+    protected void onStart() {
+        super.onStart();
+        // The binding is not closed, since it ends with the thread
+        MetricsRegistry.bind(metrics);
+        startNanos = System.nanoTime();
+    }
+
+    @Override
+    protected void onTermination(Throwable exception) {
+        long cpuNanos = THREAD_MX_BEAN.isCurrentThreadCpuTimeSupported() ? THREAD_MX_BEAN.getCurrentThreadCpuTime() : -1;
+        if (cpuNanos >= 0) {
+            metrics.timer(LIFETIME).recordSince(startNanos);
+            metrics.timer(CPU_TIME).record(cpuNanos);
+        }
+        super.onTermination(exception);
+    }
 }
@@ -1,12 +1,19 @@
 package org.monarchinitiative.svanna.cli.cmd;
 
+import org.monarchinitiative.svanna.core.WorkScheduler;
+import org.monarchinitiative.svanna.core.metrics.MetricsRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.LinkedList;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.*;
 import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
 public class TaskUtils {
 
@@ -17,64 +24,177 @@ public class TaskUtils {
     private TaskUtils() {
     }
 
+    /**
+     * Create a pool whose workers record the metrics into the {@link MetricsRegistry#current()} registry
+     * of the calling thread.
+     */
+    private static ForkJoinPool newPool(int parallelism) {
+        MetricsRegistry metrics = MetricsRegistry.current();
+        SvAnnaWorkerThread.registerUtilization(metrics);
+        return new ForkJoinPool(parallelism, pool -> new SvAnnaWorkerThread(pool, metrics), HANDLER, true);
+    }
+
     public static <T> T executeBlocking(Callable<T> callable, int parallelism) throws ExecutionException, InterruptedException {
-        ForkJoinPool pool = new ForkJoinPool(parallelism, SvAnnaWorkerThread::new, HANDLER, true);
+        ForkJoinPool pool = newPool(parallelism);
         ForkJoinTask<T> task = pool.submit(callable);
         pool.shutdown();
         return task.get();
     }
 
     public static <T, U> List<U> executeBlocking(List<T> items, Function<T, U> mapper, int parallelism) {
-        ForkJoinPool pool = new ForkJoinPool(parallelism, SvAnnaWorkerThread::new, HANDLER, true);
-        Chunk<T, U> task = new Chunk<>(items, mapper);
-        List<U> results = pool.invoke(task);
+        return executeBlocking(items, mapper, item -> 1L, parallelism);
+    }
+
+    /**
+     * Apply the <code>mapper</code> to the items on <code>parallelism</code> threads, starting with the items
+     * with the highest estimated <code>cost</code>.
+     *
+     * @return results in the order of the input items
+     * @see WorkScheduler
+     */
+    public static <T, U> List<U> executeBlocking(List<T> items, Function<T, U> mapper, ToLongFunction<T> cost, int parallelism) {
+        ForkJoinPool pool = newPool(parallelism);
+        List<U> results = pool.invoke(ForkJoinTask.adapt(() -> WorkScheduler.map(items, mapper, cost)));
         pool.shutdown();
         return results;
     }
 
-    private static class Chunk<T, U> extends RecursiveTask<List<U>> {
-
-        // We process at most 100 items within a task
-        private static final int GRANULARITY = 100;
-
-        private final List<T> items;
-
-        private final Function<T, U> mapper;
-
-        private final int start, end;
-
-        private Chunk(List<T> items, Function<T, U> mapper) {
-            this(items, mapper, 0, items.size());
+    /**
+     * Apply the <code>mapper</code> to the consecutive batches of the items on <code>parallelism</code> threads of a single
+     * pool. The batch size and the number of the batches in flight are adapted to the heap usage by the
+     * <code>governor</code>. A batch is in flight until the <code>mapper</code> returns.
+     *
+     * @param mapper function returning a result for each item of a batch, in the order of the batch items
+     * @return results in the order of the input items
+     */
+    public static <T, U> List<U> executeGoverned(List<T> items,
+                                                 Function<List<T>, List<U>> mapper,
+                                                 MemoryGovernor governor,
+                                                 int parallelism) throws ExecutionException, InterruptedException {
+        ForkJoinPool pool = newPool(parallelism);
+        try {
+            return pool.submit(() -> {
+                List<ForkJoinTask<List<U>>> batches = new ArrayList<>();
+                int start = 0;
+                while (start < items.size()) {
+                    governor.acquire();
+                    int end = Math.min(items.size(), start + governor.nextBatchSize());
+                    List<T> batch = items.subList(start, end);
+                    batches.add(ForkJoinTask.adapt(() -> {
+                        try {
+                            return mapper.apply(batch);
+                        } finally {
+                            governor.release();
+                        }
+                    }).fork());
+                    start = end;
+                }
+                List<U> results = new ArrayList<>(items.size());
+                for (ForkJoinTask<List<U>> batch : batches)
+                    results.addAll(batch.join());
+                return results;
+            }).get();
+        } finally {
+            pool.shutdown();
         }
+    }
 
-        private Chunk(List<T> items, Function<T, U> mapper, int start, int end) {
-            this.items = items;
-            this.mapper = mapper;
-            this.start = start;
-            this.end = end;
-        }
+    /**
+     * Process the items of the <code>source</code> stream in batches of <code>batchSize</code> items. The batches
+     * are processed by the <code>stage</code> on <code>parallelism</code> threads, while the source is being read.
+     * The processed items are provided to the <code>sink</code> on the calling thread, in the source order.
+     * <p>
+     * At most <code>2 * parallelism</code> batches are in flight. Reading of the source blocks until the sink
+     * catches up, hence the memory use does not depend on the number of source items.
+     *
+     * @return the number of items provided to the sink
+     */
+    public static <T> long executeStreaming(Callable<Stream<T>> source,
+                                            UnaryOperator<List<T>> stage,
+                                            ItemConsumer<T> sink,
+                                            int batchSize,
+                                            int parallelism) throws IOException, ExecutionException, InterruptedException {
+        return executeStreaming(source, stage, sink, MemoryGovernor.unlimited(batchSize, 2 * parallelism), parallelism);
+    }
 
-        @Override
-        protected List<U> compute() {
-            List<U> results = new LinkedList<>();
-            if (end - start <= GRANULARITY) {
-                // compute
-                for (T item : items.subList(start, end)) {
-                    results.add(mapper.apply(item));
+    /**
+     * Process the items of the <code>source</code> stream in batches like
+     * {@link #executeStreaming(Callable, UnaryOperator, ItemConsumer, int, int)}, with the batch size and the number
+     * of in-flight batches adapted to the heap usage by the <code>governor</code>. A batch is in flight from reading
+     * its first item until its last item is provided to the sink.
+     *
+     * @return the number of items provided to the sink
+     */
+    public static <T> long executeStreaming(Callable<Stream<T>> source,
+                                            UnaryOperator<List<T>> stage,
+                                            ItemConsumer<T> sink,
+                                            MemoryGovernor governor,
+                                            int parallelism) throws IOException, ExecutionException, InterruptedException {
+        ForkJoinPool pool = newPool(parallelism);
+        BlockingQueue<Future<List<T>>> inFlight = new ArrayBlockingQueue<>(2 * parallelism);
+        Future<List<T>> end = CompletableFuture.completedFuture(List.of());
+        Future<?> reader = pool.submit(() -> {
+            try (Stream<T> items = source.call()) {
+                Iterator<T> iterator = items.iterator();
+                while (iterator.hasNext()) {
+                    governor.acquire();
+                    int batchSize = governor.nextBatchSize();
+                    List<T> batch = new ArrayList<>(batchSize);
+                    while (batch.size() < batchSize && iterator.hasNext())
+                        batch.add(iterator.next());
+                    put(inFlight, pool.submit(() -> stage.apply(batch)));
+                }
+            } finally {
+                put(inFlight, end);
+            }
+            return null;
+        });
+
+        try {
+            long count = 0;
+            Future<List<T>> batch;
+            while ((batch = inFlight.take()) != end) {
+                for (T item : batch.get()) {
+                    sink.accept(item);
+                    count++;
                 }
-            } else {
-                // fork
-                int midpoint = (end - start) / 2;
-                Chunk<T, U> left = new Chunk<>(items, mapper, start, start + midpoint);
-                Chunk<T, U> right = new Chunk<>(items, mapper, start + midpoint, end);
+                governor.release();
+            }
+            // propagate the failure of the source, if any
+            reader.get();
+            return count;
+        } finally {
+            // unblock the reader if the sink failed
+            pool.shutdownNow();
+            inFlight.clear();
+        }
+    }
 
-                left.fork();
-                right.fork();
-                results.addAll(right.join());
-                results.addAll(left.join());
+    /**
+     * Put the <code>item</code> into the <code>queue</code> while allowing the pool to compensate for the blocked worker.
+     */
+    private static <E> void put(BlockingQueue<E> queue, E item) throws InterruptedException {
+        ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+            private boolean done = false;
+
+            @Override
+            public boolean block() throws InterruptedException {
+                if (!done) {
+                    queue.put(item);
+                    done = true;
+                }
+                return true;
+            }
 
+            @Override
+            public boolean isReleasable() {
+                return done || (done = queue.offer(item));
             }
-            return results;
-        }
+        });
+    }
+
+    @FunctionalInterface
+    public interface ItemConsumer<T> {
+        void accept(T item) throws IOException;
     }
 }
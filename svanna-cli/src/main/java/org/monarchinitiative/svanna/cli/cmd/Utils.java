@@ -1,12 +1,20 @@
 package org.monarchinitiative.svanna.cli.cmd;
 
+import org.monarchinitiative.phenol.ontology.data.TermId;
 import org.monarchinitiative.svanna.cli.writer.OutputFormat;
+import org.monarchinitiative.svart.Contig;
+import org.monarchinitiative.svart.CoordinateSystem;
+import org.monarchinitiative.svart.GenomicRegion;
+import org.monarchinitiative.svart.Strand;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
 
 public class Utils {
 
@@ -29,4 +37,123 @@ public class Utils {
         return formats;
     }
 
+    /**
+     * @return the name of the VCF file without the <code>.vcf</code> or <code>.vcf.gz</code> suffix
+     */
+    static String vcfNameWithoutSuffix(Path vcfFile) {
+        String vcfName = vcfFile.toFile().getName();
+        if (vcfName.endsWith(".vcf.gz"))
+            return vcfName.substring(0, vcfName.length() - 7);
+        else if (vcfName.endsWith(".vcf"))
+            return vcfName.substring(0, vcfName.length() - 4);
+        else
+            return vcfName;
+    }
+
+    /**
+     * Parse the regions provided as strings such as <code>chr1:100-200</code> or <code>chr1</code>, using one-based
+     * coordinates, and the regions of a BED file.
+     *
+     * @param regions list of region strings or <code>null</code>
+     * @param regionsBed path to BED file or <code>null</code>
+     * @return the regions or an empty list if no regions were provided
+     * @throws AnalysisInputException if a region is invalid or the BED file cannot be read
+     */
+    static List<GenomicRegion> parseRegions(List<String> regions, Path regionsBed, GenomicAssembly assembly) {
+        List<GenomicRegion> results = new ArrayList<>();
+        if (regions != null) {
+            for (String region : regions)
+                results.add(parseRegion(region, assembly));
+        }
+        if (regionsBed != null)
+            results.addAll(parseBedRegions(regionsBed, assembly));
+        return results;
+    }
+
+    private static GenomicRegion parseRegion(String region, GenomicAssembly assembly) {
+        // The contig names may contain `:`, e.g. the HLA alleles
+        int colon = region.lastIndexOf(':');
+        String contigName = colon < 0 ? region : region.substring(0, colon);
+        Contig contig = assembly.contigByName(contigName);
+        if (contig.isUnknown())
+            throw new AnalysisInputException("Unknown contig `" + contigName + "` in region `" + region + '`');
+        if (colon < 0)
+            return GenomicRegion.of(contig, Strand.POSITIVE, CoordinateSystem.oneBased(), 1, contig.length());
+
+        String[] positions = region.substring(colon + 1).replace(",", "").split("-");
+        try {
+            if (positions.length == 2)
+                return GenomicRegion.of(contig, Strand.POSITIVE, CoordinateSystem.oneBased(),
+                        Integer.parseInt(positions[0]), Integer.parseInt(positions[1]));
+        } catch (RuntimeException e) {
+            throw new AnalysisInputException("Invalid region `" + region + "`: " + e.getMessage(), e);
+        }
+        throw new AnalysisInputException("Invalid region `" + region + "`, expected a region such as `chr1:100-200`");
+    }
+
+    private static List<GenomicRegion> parseBedRegions(Path regionsBed, GenomicAssembly assembly) {
+        List<GenomicRegion> regions = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(regionsBed)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#") || line.startsWith("track") || line.startsWith("browser"))
+                    continue;
+                String[] fields = line.split("\t");
+                if (fields.length < 3)
+                    throw new AnalysisInputException("Expected at least 3 columns in the BED line `" + line + '`');
+                Contig contig = assembly.contigByName(fields[0]);
+                if (contig.isUnknown()) {
+                    LOGGER.warn("Skipping BED region on unknown contig `{}`", fields[0]);
+                    continue;
+                }
+                try {
+                    regions.add(GenomicRegion.of(contig, Strand.POSITIVE, CoordinateSystem.zeroBased(),
+                            Integer.parseInt(fields[1]), Integer.parseInt(fields[2])));
+                } catch (RuntimeException e) {
+                    throw new AnalysisInputException("Invalid BED line `" + line + "`: " + e.getMessage(), e);
+                }
+            }
+        } catch (IOException e) {
+            throw new AnalysisInputException("Unable to read the BED file " + regionsBed.toAbsolutePath() + ": " + e.getMessage(), e);
+        }
+        return regions;
+    }
+
+    /**
+     * Parse the phenotype terms of the samples from a tab-separated file with the sample name in the first column
+     * and the comma-separated HPO term IDs in the second column, e.g. <code>sample1&lt;TAB&gt;HP:0001250,HP:0001263</code>.
+     *
+     * @param samplePhenotypes path to the file
+     * @return map with the phenotype terms of the samples, in the order of the file
+     * @throws AnalysisInputException if a line or a term ID is invalid or the file cannot be read
+     */
+    static Map<String, List<TermId>> parseSamplePhenotypes(Path samplePhenotypes) {
+        Map<String, List<TermId>> phenotypes = new LinkedHashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(samplePhenotypes)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#"))
+                    continue;
+                String[] fields = line.split("\t");
+                if (fields.length < 2)
+                    throw new AnalysisInputException("Expected 2 columns in the sample phenotype line `" + line + '`');
+                List<TermId> termIds = new ArrayList<>();
+                for (String termId : fields[1].split(",")) {
+                    if (termId.isBlank())
+                        continue;
+                    try {
+                        termIds.add(TermId.of(termId.strip()));
+                    } catch (RuntimeException e) {
+                        throw new AnalysisInputException("Invalid term ID `" + termId + "` in the sample phenotype line `" + line + "`: " + e.getMessage(), e);
+                    }
+                }
+                if (phenotypes.put(fields[0], termIds) != null)
+                    throw new AnalysisInputException("Saw more than one phenotype line for sample `" + fields[0] + '`');
+            }
+        } catch (IOException e) {
+            throw new AnalysisInputException("Unable to read the sample phenotype file " + samplePhenotypes.toAbsolutePath() + ": " + e.getMessage(), e);
+        }
+        return phenotypes;
+    }
+
 }
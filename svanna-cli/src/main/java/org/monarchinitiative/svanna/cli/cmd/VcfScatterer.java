@@ -0,0 +1,116 @@
+package org.monarchinitiative.svanna.cli.cmd;
+
+import htsjdk.samtools.util.BlockCompressedOutputStream;
+import org.monarchinitiative.svanna.io.parse.VcfVariantParser;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Split a VCF file into bgzipped shards that can be prioritized by separate processes.
+ * <p>
+ * The header is copied into each shard, and each record is assigned to a single shard, based on the record's
+ * <code>CHROM</code> and <code>POS</code> columns or on the record's index. The breakend records are assigned
+ * by the position of the breakend, hence the mates of a breakend may end up in different shards. This does
+ * not change the results, since each record is prioritized on its own. The shards are numbered in the order
+ * of their first records, and the records of a shard keep the input order.
+ */
+class VcfScatterer {
+
+    private final ScatterCommand.ShardBy shardBy;
+
+    // The number of bases of a range, or the number of records of a shard
+    private final long shardSize;
+
+    VcfScatterer(ScatterCommand.ShardBy shardBy, long shardSize) {
+        this.shardBy = Objects.requireNonNull(shardBy, "Shard by must not be null");
+        if (shardBy != ScatterCommand.ShardBy.CONTIG && shardSize < 1)
+            throw new IllegalArgumentException("Shard size must be positive: " + shardSize);
+        this.shardSize = shardSize;
+    }
+
+    /**
+     * @return paths to the shards in the order of their first records
+     */
+    List<Path> scatter(Path vcf, Path outDir, String prefix) throws IOException {
+        List<String> header = new ArrayList<>();
+        Map<String, BufferedWriter> writers = new HashMap<>();
+        List<Path> shards = new ArrayList<>();
+        try (BufferedReader reader = VcfVariantParser.openFileForReading(vcf)) {
+            long index = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith("#")) {
+                    header.add(line);
+                    continue;
+                }
+                if (line.isBlank())
+                    continue;
+
+                String key = shardKey(line, index++);
+                BufferedWriter writer = writers.get(key);
+                if (writer == null) {
+                    if (shardBy == ScatterCommand.ShardBy.RECORDS) {
+                        // The shards of the consecutive records are written one at a time
+                        for (BufferedWriter previous : writers.values())
+                            previous.close();
+                        writers.clear();
+                    }
+                    Path shard = outDir.resolve(String.format("%s.shard-%04d.vcf.gz", prefix, shards.size() + 1));
+                    writer = openWriter(shard, header);
+                    writers.put(key, writer);
+                    shards.add(shard);
+                }
+                writer.write(line);
+                writer.write('\n');
+            }
+        } finally {
+            for (BufferedWriter writer : writers.values())
+                writer.close();
+        }
+        return shards;
+    }
+
+    private String shardKey(String record, long index) {
+        switch (shardBy) {
+            case CONTIG:
+                return column(record, 0);
+            case RANGE:
+                try {
+                    long pos = Long.parseLong(column(record, 1));
+                    return column(record, 0) + ':' + (pos - 1) / shardSize;
+                } catch (NumberFormatException e) {
+                    throw new AnalysisInputException("Invalid POS in VCF record " + (index + 1) + ": " + record);
+                }
+            case RECORDS:
+                return String.valueOf(index / shardSize);
+            default:
+                throw new IllegalStateException("Unknown shard by " + shardBy);
+        }
+    }
+
+    private static String column(String record, int column) {
+        int start = 0;
+        for (int i = 0; i < column; i++) {
+            start = record.indexOf('\t', start) + 1;
+            if (start == 0)
+                throw new AnalysisInputException("Too few columns in VCF record: " + record);
+        }
+        int end = record.indexOf('\t', start);
+        return end < 0 ? record.substring(start) : record.substring(start, end);
+    }
+
+    private static BufferedWriter openWriter(Path shard, List<String> header) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(new BlockCompressedOutputStream(shard.toFile()), StandardCharsets.UTF_8));
+        for (String line : header) {
+            writer.write(line);
+            writer.write('\n');
+        }
+        return writer;
+    }
+}
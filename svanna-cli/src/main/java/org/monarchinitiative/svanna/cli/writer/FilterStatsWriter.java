@@ -0,0 +1,47 @@
+package org.monarchinitiative.svanna.cli.writer;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.monarchinitiative.svanna.core.LogUtils;
+import org.monarchinitiative.svanna.core.filter.FilterStats;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Write the {@link FilterStats} into a tab-separated file.
+ */
+public class FilterStatsWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FilterStatsWriter.class);
+
+    public static final String SUFFIX = ".filters.tsv";
+
+    private static final String[] HEADER = new String[]{"filter", "cost", "passed", "failed", "not_run", "time_ms"};
+
+    private FilterStatsWriter() {
+    }
+
+    public static void write(List<FilterStats> filterStats, OutputOptions outputOptions) throws IOException {
+        Path outPath = outputOptions.output().resolve(outputOptions.prefix() + SUFFIX);
+        LogUtils.logInfo(LOGGER, "Writing filter statistics into {}", outPath.toAbsolutePath());
+        try (BufferedWriter writer = Files.newBufferedWriter(outPath)) {
+            CSVPrinter printer = CSVFormat.DEFAULT.withDelimiter('\t')
+                    .withHeader(HEADER)
+                    .print(writer);
+            for (FilterStats stats : filterStats) {
+                printer.printRecord(stats.filterType().vcfValue(),
+                        stats.cost(),
+                        stats.passed(),
+                        stats.failed(),
+                        stats.notRun(),
+                        stats.elapsed().toMillis());
+            }
+        }
+    }
+}
@@ -1,8 +1,10 @@
 package org.monarchinitiative.svanna.cli.writer;
 
+import org.monarchinitiative.phenol.ontology.data.Term;
 import org.monarchinitiative.svanna.core.reference.SvannaVariant;
 
 import java.io.IOException;
+import java.util.Set;
 
 /**
  * Implementors write {@link SvannaVariant}s in different formats.
@@ -13,4 +15,14 @@ public interface ResultWriter {
 
     void write(AnalysisResults analysisResults, OutputOptions outputOptions) throws IOException;
 
+    /**
+     * Open a writer that receives the variants one by one, as they are prioritized.
+     *
+     * @param variantSource path to the input VCF file
+     * @param probandPhenotypeTerms the phenotype terms of the proband
+     */
+    StreamingResultWriter openStreamingWriter(String variantSource,
+                                              Set<Term> probandPhenotypeTerms,
+                                              OutputOptions outputOptions) throws IOException;
+
 }
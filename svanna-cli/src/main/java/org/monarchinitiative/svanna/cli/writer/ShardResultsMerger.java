@@ -0,0 +1,246 @@
+package org.monarchinitiative.svanna.cli.writer;
+
+import htsjdk.samtools.util.BlockCompressedOutputStream;
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+import org.monarchinitiative.svanna.core.LogUtils;
+import org.monarchinitiative.svanna.core.filter.FilterStats;
+import org.monarchinitiative.svanna.core.filter.FilterType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.*;
+import java.util.function.ToDoubleFunction;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Merge the tabular and VCF results of the shards of the input variants into the results of all variants.
+ * <p>
+ * The results of each shard are sorted by priority in descending order. The shards are merged preserving the order,
+ * and the records with the same priority are written in the order of the shards. For shards that keep the order
+ * of the input records, the merged results match the results of prioritizing all variants at once.
+ */
+public class ShardResultsMerger {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShardResultsMerger.class);
+
+    // Written into the `psv` column of the variants that were not evaluated
+    private static final String NOT_EVALUATED = "NOT_EVALUATED";
+
+    private ShardResultsMerger() {
+    }
+
+    /**
+     * Merge the tabular results written by the {@link org.monarchinitiative.svanna.cli.writer.tabular.TabularResultWriter}.
+     */
+    public static void mergeTabular(List<Path> shards, Path output, char columnSeparator, boolean compress) throws IOException {
+        LogUtils.logInfo(LOGGER, "Merging tabular results of {} shards into {}", shards.size(), output.toAbsolutePath());
+        CSVFormat format = CSVFormat.DEFAULT.withDelimiter(columnSeparator);
+        List<CSVParser> parsers = new ArrayList<>(shards.size());
+        try (BufferedWriter writer = openWriter(output, compress, false)) {
+            String[] header = null;
+            List<Iterator<CSVRecord>> records = new ArrayList<>(shards.size());
+            for (Path shard : shards) {
+                CSVParser parser = format.withFirstRecordAsHeader().parse(openReader(shard));
+                parsers.add(parser);
+                if (header == null)
+                    header = parser.getHeaderMap().keySet().toArray(String[]::new);
+                records.add(parser.iterator());
+            }
+            if (header == null)
+                return;
+
+            CSVPrinter printer = format.withHeader(header).print(writer);
+            mergeSorted(records,
+                    record -> parsePriority(record.get("psv")),
+                    printer::printRecord);
+            printer.flush();
+        } finally {
+            for (CSVParser parser : parsers)
+                parser.close();
+        }
+    }
+
+    /**
+     * Merge the VCF results written by the {@link org.monarchinitiative.svanna.cli.writer.vcf.VcfResultWriter}.
+     * The header is copied from the first shard.
+     */
+    public static void mergeVcf(List<Path> shards, Path output, boolean compress) throws IOException {
+        LogUtils.logInfo(LOGGER, "Merging VCF results of {} shards into {}", shards.size(), output.toAbsolutePath());
+        List<BufferedReader> readers = new ArrayList<>(shards.size());
+        try (BufferedWriter writer = openWriter(output, compress, true)) {
+            List<Iterator<String>> records = new ArrayList<>(shards.size());
+            for (int i = 0; i < shards.size(); i++) {
+                BufferedReader reader = openReader(shards.get(i));
+                readers.add(reader);
+                String line;
+                // The header lines are followed by the first record
+                while ((line = reader.readLine()) != null && line.startsWith("#")) {
+                    if (i == 0) {
+                        writer.write(line);
+                        writer.write('\n');
+                    }
+                }
+                String first = line;
+                records.add(new Iterator<>() {
+                    private String next = first;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next != null;
+                    }
+
+                    @Override
+                    public String next() {
+                        String current = next;
+                        try {
+                            next = reader.readLine();
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                        return current;
+                    }
+                });
+            }
+
+            mergeSorted(records,
+                    ShardResultsMerger::vcfPriority,
+                    line -> {
+                        writer.write(line);
+                        writer.write('\n');
+                    });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            for (BufferedReader reader : readers)
+                reader.close();
+        }
+    }
+
+    /**
+     * Sum the filter statistics written by the {@link FilterStatsWriter}. The filters are reported in the order
+     * of the first shard.
+     */
+    public static List<FilterStats> mergeFilterStats(List<Path> shards) throws IOException {
+        Map<FilterType, long[]> totals = new LinkedHashMap<>();
+        for (Path shard : shards) {
+            try (CSVParser parser = CSVFormat.DEFAULT.withDelimiter('\t').withFirstRecordAsHeader().parse(openReader(shard))) {
+                for (CSVRecord record : parser) {
+                    FilterType filterType = filterType(record.get("filter"));
+                    long[] total = totals.computeIfAbsent(filterType, f -> new long[5]);
+                    total[0] = Long.parseLong(record.get("cost"));
+                    total[1] += Long.parseLong(record.get("passed"));
+                    total[2] += Long.parseLong(record.get("failed"));
+                    total[3] += Long.parseLong(record.get("not_run"));
+                    total[4] += Long.parseLong(record.get("time_ms"));
+                }
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid filter statistics " + shard.toAbsolutePath() + ": " + e.getMessage(), e);
+            }
+        }
+
+        List<FilterStats> filterStats = new ArrayList<>(totals.size());
+        for (Map.Entry<FilterType, long[]> entry : totals.entrySet()) {
+            long[] total = entry.getValue();
+            filterStats.add(FilterStats.of(entry.getKey(), (int) total[0], total[1], total[2], total[3], Duration.ofMillis(total[4])));
+        }
+        return filterStats;
+    }
+
+    private static FilterType filterType(String vcfValue) {
+        for (FilterType filterType : FilterType.values()) {
+            if (filterType.vcfValue().equals(vcfValue))
+                return filterType;
+        }
+        throw new IllegalArgumentException("Unknown filter `" + vcfValue + '`');
+    }
+
+    private static <T> void mergeSorted(List<Iterator<T>> shards,
+                                        ToDoubleFunction<T> priority,
+                                        RecordConsumer<T> consumer) throws IOException {
+        PriorityQueue<Head<T>> queue = new PriorityQueue<>(Comparator.comparingDouble((Head<T> h) -> h.priority).reversed()
+                .thenComparingInt(h -> h.shard));
+        for (int i = 0; i < shards.size(); i++) {
+            Iterator<T> records = shards.get(i);
+            if (records.hasNext()) {
+                T record = records.next();
+                queue.add(new Head<>(i, record, priority.applyAsDouble(record)));
+            }
+        }
+
+        while (!queue.isEmpty()) {
+            Head<T> head = queue.poll();
+            consumer.accept(head.record);
+            Iterator<T> records = shards.get(head.shard);
+            if (records.hasNext()) {
+                T record = records.next();
+                queue.add(new Head<>(head.shard, record, priority.applyAsDouble(record)));
+            }
+        }
+    }
+
+    private static double parsePriority(String psv) {
+        return NOT_EVALUATED.equals(psv)
+                ? 0. // the lower bound of the priority of a variant that was not evaluated
+                : Double.parseDouble(psv);
+    }
+
+    private static double vcfPriority(String record) {
+        // INFO is the 8th column
+        int start = 0;
+        for (int i = 0; i < 7; i++) {
+            start = record.indexOf('\t', start) + 1;
+            if (start == 0)
+                throw new IllegalArgumentException("Invalid VCF record: " + record);
+        }
+        int end = record.indexOf('\t', start);
+        String info = end < 0 ? record.substring(start) : record.substring(start, end);
+        for (String field : info.split(";")) {
+            if (field.startsWith("PSV="))
+                return Double.parseDouble(field.substring(4));
+        }
+        // PSVNE, the lower bound of the priority of a variant that was not evaluated
+        return 0.;
+    }
+
+    private static BufferedReader openReader(Path path) throws IOException {
+        InputStream is = Files.newInputStream(path);
+        if (path.toString().endsWith(".gz"))
+            is = new GZIPInputStream(is);
+        return new BufferedReader(new InputStreamReader(is, StandardCharsets.UTF_8));
+    }
+
+    private static BufferedWriter openWriter(Path path, boolean compress, boolean blockCompressed) throws IOException {
+        if (!compress)
+            return Files.newBufferedWriter(path);
+        OutputStream os = blockCompressed
+                ? new BlockCompressedOutputStream(path.toFile())
+                : new GZIPOutputStream(Files.newOutputStream(path));
+        return new BufferedWriter(new OutputStreamWriter(os, StandardCharsets.UTF_8));
+    }
+
+    @FunctionalInterface
+    private interface RecordConsumer<T> {
+        void accept(T record) throws IOException;
+    }
+
+    private static class Head<T> {
+        private final int shard;
+        private final T record;
+        private final double priority;
+
+        private Head(int shard, T record, double priority) {
+            this.shard = shard;
+            this.record = record;
+            this.priority = priority;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.monarchinitiative.svanna.cli.writer;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVPrinter;
+import org.monarchinitiative.svanna.core.LogUtils;
+import org.monarchinitiative.svanna.core.metrics.SlowVariantProfiler;
+import org.monarchinitiative.svanna.core.metrics.VariantProfile;
+import org.monarchinitiative.svart.GenomicVariant;
+import org.monarchinitiative.svart.Strand;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Write the profiles of the slowest variants kept by the {@link SlowVariantProfiler} into a tab-separated file,
+ * starting with the slowest variant.
+ */
+public class SlowVariantsWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SlowVariantsWriter.class);
+
+    private static final String SUFFIX = ".slow-variants.tsv";
+
+    private static final String[] HEADER = new String[]{"id", "contig", "start", "end", "variant_type", "length", "change_length",
+            "total_ms", "dispatch_ms", "route_data_ms", "route_data_group_size", "evaluate_ms", "genes", "enhancers", "priority"};
+
+    private SlowVariantsWriter() {
+    }
+
+    public static void write(SlowVariantProfiler profiler, OutputOptions outputOptions) throws IOException {
+        Path outPath = outputOptions.output().resolve(outputOptions.prefix() + SUFFIX);
+        LogUtils.logInfo(LOGGER, "Writing profiles of the {} slowest of {} variants into {}",
+                profiler.slowest().size(), profiler.profiledVariants(), outPath.toAbsolutePath());
+        try (BufferedWriter writer = Files.newBufferedWriter(outPath)) {
+            CSVPrinter printer = CSVFormat.DEFAULT.withDelimiter('\t')
+                    .withHeader(HEADER)
+                    .print(writer);
+            for (VariantProfile profile : profiler.slowest()) {
+                GenomicVariant variant = profile.variant();
+                printer.printRecord(variant.id(),
+                        variant.contigName(),
+                        variant.startOnStrand(Strand.POSITIVE),
+                        variant.endOnStrand(Strand.POSITIVE),
+                        variant.variantType(),
+                        variant.length(),
+                        variant.changeLength(),
+                        millis(profile.totalNanos()),
+                        millis(profile.dispatchNanos()),
+                        millis(profile.routeDataNanos()),
+                        profile.groupSize(),
+                        millis(profile.evaluateNanos()),
+                        profile.genes(),
+                        profile.enhancers(),
+                        profile.priority());
+            }
+        }
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1E6);
+    }
+}
@@ -0,0 +1,214 @@
+package org.monarchinitiative.svanna.cli.writer;
+
+import org.monarchinitiative.svanna.core.LogUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Sort text records by priority in descending order. The records with the same priority are kept in the order
+ * of addition, hence the order matches a stable sort of the records by priority.
+ * <p>
+ * The records are buffered in memory up to a limit. When the limit is reached, the buffered records are sorted
+ * and spilled into a temporary file. The sorted runs are merged when the records are drained.
+ * <p>
+ * Not thread safe.
+ */
+public class SpillingSorter implements Closeable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpillingSorter.class);
+
+    // Approximately 64 MiB of record characters
+    private static final long DEFAULT_MAX_BUFFERED_CHARS = 32L * 1024 * 1024;
+
+    private static final Comparator<Entry> ENTRY_ORDER = Comparator.comparingDouble((Entry e) -> e.priority).reversed()
+            .thenComparingLong(e -> e.index);
+
+    private final Path tempDirectory;
+
+    private final long maxBufferedChars;
+
+    private final List<Entry> buffer = new ArrayList<>();
+
+    private final List<Path> runs = new ArrayList<>();
+
+    private long bufferedChars = 0;
+
+    private long index = 0;
+
+    public SpillingSorter(Path tempDirectory) {
+        this(tempDirectory, DEFAULT_MAX_BUFFERED_CHARS);
+    }
+
+    SpillingSorter(Path tempDirectory, long maxBufferedChars) {
+        this.tempDirectory = Objects.requireNonNull(tempDirectory, "Temporary directory must not be null");
+        this.maxBufferedChars = maxBufferedChars;
+    }
+
+    public void add(double priority, String record) throws IOException {
+        buffer.add(new Entry(priority, index++, record));
+        bufferedChars += record.length();
+        if (bufferedChars >= maxBufferedChars)
+            spill();
+    }
+
+    /**
+     * Provide all records to the <code>consumer</code> in the sorted order.
+     */
+    public void drain(RecordConsumer consumer) throws IOException {
+        buffer.sort(ENTRY_ORDER);
+        if (runs.isEmpty()) {
+            for (Entry entry : buffer)
+                consumer.accept(entry.record);
+            buffer.clear();
+            bufferedChars = 0;
+            return;
+        }
+
+        LogUtils.logDebug(LOGGER, "Merging {} sorted runs", runs.size() + (buffer.isEmpty() ? 0 : 1));
+        PriorityQueue<Run> queue = new PriorityQueue<>(Comparator.comparing(Run::head, ENTRY_ORDER));
+        List<Run> openRuns = new ArrayList<>(runs.size() + 1);
+        try {
+            for (Path path : runs)
+                openRuns.add(new FileRun(path));
+            openRuns.add(new MemoryRun(buffer.iterator()));
+            for (Run run : openRuns) {
+                if (run.advance())
+                    queue.add(run);
+            }
+
+            Run run;
+            while ((run = queue.poll()) != null) {
+                consumer.accept(run.head().record);
+                if (run.advance())
+                    queue.add(run);
+            }
+        } finally {
+            for (Run run : openRuns)
+                run.close();
+            buffer.clear();
+            bufferedChars = 0;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.clear();
+        for (Path run : runs)
+            Files.deleteIfExists(run);
+        runs.clear();
+    }
+
+    private void spill() throws IOException {
+        buffer.sort(ENTRY_ORDER);
+        Path path = Files.createTempFile(tempDirectory, "svanna-", ".run");
+        path.toFile().deleteOnExit();
+        runs.add(path);
+        LogUtils.logDebug(LOGGER, "Spilling {} records into {}", buffer.size(), path.toAbsolutePath());
+
+        try (DataOutputStream os = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            for (Entry entry : buffer) {
+                byte[] bytes = entry.record.getBytes(StandardCharsets.UTF_8);
+                os.writeDouble(entry.priority);
+                os.writeLong(entry.index);
+                os.writeInt(bytes.length);
+                os.write(bytes);
+            }
+        }
+        buffer.clear();
+        bufferedChars = 0;
+    }
+
+    @FunctionalInterface
+    public interface RecordConsumer {
+        void accept(String record) throws IOException;
+    }
+
+    private static class Entry {
+        private final double priority;
+        private final long index;
+        private final String record;
+
+        private Entry(double priority, long index, String record) {
+            this.priority = priority;
+            this.index = index;
+            this.record = record;
+        }
+    }
+
+    private interface Run extends Closeable {
+
+        Entry head();
+
+        /**
+         * @return <code>true</code> if the run has the next entry, which is then available as {@link #head()}
+         */
+        boolean advance() throws IOException;
+
+        @Override
+        default void close() throws IOException {
+        }
+    }
+
+    private static class MemoryRun implements Run {
+
+        private final Iterator<Entry> entries;
+        private Entry head;
+
+        private MemoryRun(Iterator<Entry> entries) {
+            this.entries = entries;
+        }
+
+        @Override
+        public Entry head() {
+            return head;
+        }
+
+        @Override
+        public boolean advance() {
+            head = entries.hasNext() ? entries.next() : null;
+            return head != null;
+        }
+    }
+
+    private static class FileRun implements Run {
+
+        private final DataInputStream is;
+        private Entry head;
+
+        private FileRun(Path path) throws IOException {
+            this.is = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)));
+        }
+
+        @Override
+        public Entry head() {
+            return head;
+        }
+
+        @Override
+        public boolean advance() throws IOException {
+            double priority;
+            try {
+                priority = is.readDouble();
+            } catch (EOFException e) {
+                head = null;
+                return false;
+            }
+            long index = is.readLong();
+            byte[] bytes = new byte[is.readInt()];
+            is.readFully(bytes);
+            head = new Entry(priority, index, new String(bytes, StandardCharsets.UTF_8));
+            return true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            is.close();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package org.monarchinitiative.svanna.cli.writer;
+
+import org.monarchinitiative.svanna.io.FullSvannaVariant;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Implementors receive the prioritized variants one by one, and write the results when closed.
+ * <p>
+ * The writers do not hold all variants in memory.
+ */
+public interface StreamingResultWriter extends Closeable {
+
+    /**
+     * Accept a prioritized variant. The variants are provided in the order of the input file.
+     */
+    void accept(FullSvannaVariant variant) throws IOException;
+
+    /**
+     * Write the results and release the resources.
+     */
+    @Override
+    void close() throws IOException;
+
+}
@@ -1,10 +1,9 @@
 package org.monarchinitiative.svanna.cli.writer.html;
 
+import org.monarchinitiative.svanna.core.filter.FilterStats;
 import org.monarchinitiative.svanna.model.landscape.variant.PopulationVariantOrigin;
 
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.*;
 
 public class AnalysisParameters {
 
@@ -56,6 +55,10 @@ public class AnalysisParameters {
      * Resnik symmetric similarity and Resnik asymmetric similarity.
      */
     private String phenotypeTermSimilarityMeasure;
+    /**
+     * Statistics of the filters in the order the filters were run.
+     */
+    private final List<FilterStats> filterStats = new ArrayList<>();
 
     public String dataDirectory() {
         return dataDirectory;
@@ -145,4 +148,11 @@ public class AnalysisParameters {
         this.phenotypeTermSimilarityMeasure = phenotypeTermSimilarityMeasure;
     }
 
+    public List<FilterStats> filterStats() {
+        return filterStats;
+    }
+
+    public void addAllFilterStats(Collection<FilterStats> filterStats) {
+        this.filterStats.addAll(filterStats);
+    }
 }
@@ -4,23 +4,26 @@ import org.monarchinitiative.svanna.cli.writer.AnalysisResults;
 import org.monarchinitiative.svanna.cli.writer.OutputFormat;
 import org.monarchinitiative.svanna.cli.writer.OutputOptions;
 import org.monarchinitiative.svanna.cli.writer.ResultWriter;
+import org.monarchinitiative.svanna.cli.writer.StreamingResultWriter;
 import org.monarchinitiative.svanna.cli.writer.html.template.FilterAndCount;
+import org.monarchinitiative.svanna.cli.writer.html.template.HtmlShardSummary;
 import org.monarchinitiative.svanna.cli.writer.html.template.HtmlTemplate;
 import org.monarchinitiative.svanna.core.LogUtils;
 import org.monarchinitiative.svanna.core.overlap.GeneOverlapper;
 import org.monarchinitiative.svanna.core.reference.SvannaVariant;
 import org.monarchinitiative.svanna.core.service.AnnotationDataService;
 import org.monarchinitiative.svanna.core.service.PhenotypeDataService;
+import org.monarchinitiative.svanna.io.FullSvannaVariant;
+import org.monarchinitiative.phenol.ontology.data.Term;
 import org.monarchinitiative.svart.GenomicBreakendVariant;
 import org.monarchinitiative.svart.GenomicVariant;
+import org.monarchinitiative.svart.Strand;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
 import java.nio.file.Path;
-import java.util.Comparator;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 import java.util.stream.Collectors;
 
 // not thread-safe
@@ -36,6 +39,8 @@ public class HtmlResultWriter implements ResultWriter {
 
     public boolean doNotReportBreakends = false;
 
+    private boolean writeShardSummary = false;
+
     public HtmlResultWriter(GeneOverlapper overlapper,
                             AnnotationDataService annotationDataService,
                             PhenotypeDataService phenotypeDataService) {
@@ -51,11 +56,16 @@ public class HtmlResultWriter implements ResultWriter {
         this.doNotReportBreakends = doNotReportBreakends;
     }
 
-    @Override
-    public void write(AnalysisResults results, OutputOptions outputOptions) {
-        Path outPath = outputOptions.output().resolve(outputOptions.prefix() + OutputFormat.HTML.fileSuffix());
-        LogUtils.logInfo(LOGGER, "Writing HTML results to {}", outPath.toAbsolutePath());
+    /**
+     * Write the {@link HtmlShardSummary} next to the report, to be merged with the summaries of the other shards
+     * of the input variants.
+     */
+    public void setWriteShardSummary(boolean writeShardSummary) {
+        this.writeShardSummary = writeShardSummary;
+    }
 
+    @Override
+    public void write(AnalysisResults results, OutputOptions outputOptions) throws IOException {
         LogUtils.logDebug(LOGGER, "Reporting up to {} variants sorted by priority", outputOptions.nVariantsToReport());
         // Add data required to create the header summary table in the HTML report (genes, enhancers, etc.)
         List<VariantLandscape> variantLandscapes = results.variants().stream()
@@ -64,28 +74,136 @@ public class HtmlResultWriter implements ResultWriter {
                 .collect(Collectors.toList());
 
         // Generate the summary table
-        Map<String, String> variantCountSummary = summarizeVariantCounts(variantLandscapes, analysisParameters.minAltReadSupport());
-        variantCountSummary.put("vcf_file", results.variantSource());
+        FilterAndCount fac = new FilterAndCount(variantLandscapes, analysisParameters.minAltReadSupport());
 
         // Limit performing of the expensive DB lookups to several dozens of variants that will be reported
         // in the report, and not to the entire variant corpus
-        List<String> visualizations = variantLandscapes.stream()
-                .filter(s -> s.variant().numberOfAltReads() >= analysisParameters.minAltReadSupport()
-                        && s.variant().passedFilters()
-                        && !Double.isNaN(s.variant().svPriority().getPriority()))
-                .filter(v -> !(v.variant() instanceof GenomicBreakendVariant) || !doNotReportBreakends)
+        List<VariantLandscape> reported = variantLandscapes.stream()
+                .filter(this::isReportable)
                 .limit(outputOptions.nVariantsToReport())
+                .collect(Collectors.toList());
+
+        writeReport(reported, fac, results.variantSource(), results.probandPhenotypeTerms(), outputOptions);
+    }
+
+    /**
+     * The summary is updated as the variants arrive, and the top variants are kept in a heap bounded by
+     * {@link OutputOptions#nVariantsToReport()}. The landscapes of the other variants are dropped right away, hence
+     * the retained state does not grow with the number of variants. Only the sets of the distinct affected genes and
+     * enhancers grow, and they are bounded by the size of the annotation.
+     */
+    @Override
+    public StreamingResultWriter openStreamingWriter(String variantSource,
+                                                     Set<Term> probandPhenotypeTerms,
+                                                     OutputOptions outputOptions) {
+        FilterAndCount fac = new FilterAndCount(analysisParameters.minAltReadSupport());
+        int capacity = outputOptions.nVariantsToReport();
+        // The worst of the top variants is at the head. The variants with the same priority and location
+        // are reported in the input order.
+        Comparator<RankedLandscape> bestFirst = Comparator.comparing((RankedLandscape r) -> r.landscape.variant(), prioritizedVariantComparator())
+                .thenComparingLong(r -> r.index);
+        PriorityQueue<RankedLandscape> top = new PriorityQueue<>(bestFirst.reversed());
+        return new StreamingResultWriter() {
+            private long index = 0;
+
+            @Override
+            public void accept(FullSvannaVariant variant) {
+                VariantLandscape landscape = visualizableGenerator.prepareLandscape(variant);
+                fac.add(landscape);
+                if (capacity > 0 && isReportable(landscape)) {
+                    RankedLandscape ranked = new RankedLandscape(landscape, index);
+                    if (top.size() < capacity) {
+                        top.add(ranked);
+                    } else if (bestFirst.compare(ranked, top.peek()) < 0) {
+                        top.poll();
+                        top.add(ranked);
+                    }
+                }
+                index++;
+            }
+
+            @Override
+            public void close() throws IOException {
+                List<VariantLandscape> reported = top.stream()
+                        .sorted(bestFirst)
+                        .map(r -> r.landscape)
+                        .collect(Collectors.toList());
+                top.clear();
+                writeReport(reported, fac, variantSource, probandPhenotypeTerms, outputOptions);
+            }
+        };
+    }
+
+    private boolean isReportable(VariantLandscape landscape) {
+        SvannaVariant variant = landscape.variant();
+        return variant.numberOfAltReads() >= analysisParameters.minAltReadSupport()
+                && variant.passedFilters()
+                && !Double.isNaN(variant.svPriority().getPriority())
+                && !(variant.genomicVariant() instanceof GenomicBreakendVariant && doNotReportBreakends);
+    }
+
+    private void writeReport(List<VariantLandscape> reported,
+                             FilterAndCount fac,
+                             String variantSource,
+                             Set<Term> probandPhenotypeTerms,
+                             OutputOptions outputOptions) throws IOException {
+        List<String> visualizations = reported.stream()
                 .map(visualizableGenerator::makeVisualizable)
                 .map(visualizer::getHtml)
                 .collect(Collectors.toList());
 
-        HtmlTemplate template = new HtmlTemplate(visualizations, variantCountSummary, results.probandPhenotypeTerms(), analysisParameters, outputOptions);
-        template.outputFile(outPath);
+        writeHtml(visualizations, fac, variantSource, probandPhenotypeTerms, analysisParameters, outputOptions);
+
+        if (writeShardSummary) {
+            List<HtmlShardSummary.ReportedVariant> variants = new ArrayList<>(reported.size());
+            for (int i = 0; i < reported.size(); i++) {
+                GenomicVariant variant = reported.get(i).variant().genomicVariant();
+                variants.add(HtmlShardSummary.ReportedVariant.of(reported.get(i).variant().svPriority().getPriority(),
+                        variant.contigId(),
+                        variant.startOnStrand(Strand.POSITIVE),
+                        variant.endOnStrand(Strand.POSITIVE),
+                        visualizations.get(i)));
+            }
+            Path summaryPath = outputOptions.output().resolve(outputOptions.prefix() + HtmlShardSummary.SUFFIX);
+            LogUtils.logInfo(LOGGER, "Writing HTML shard summary to {}", summaryPath.toAbsolutePath());
+            HtmlShardSummary.of(analysisParameters, outputOptions.nVariantsToReport(), probandPhenotypeTerms, fac, variants)
+                    .write(summaryPath);
+        }
     }
 
-    private Map<String, String> summarizeVariantCounts(List<VariantLandscape> variantLandscapes, int minAltAlleleSupport) {
-        FilterAndCount fac = new FilterAndCount(variantLandscapes, minAltAlleleSupport);
+    /**
+     * Write the report of the variants of all shards, merged from the summaries of the shards.
+     *
+     * @param summary the merged summary
+     * @param analysisParameters the parameters of the analysis, including the merged filter statistics
+     */
+    public static void writeGatheredReport(HtmlShardSummary summary,
+                                           String variantSource,
+                                           AnalysisParameters analysisParameters,
+                                           OutputOptions outputOptions) {
+        List<String> visualizations = summary.variants().stream()
+                .map(HtmlShardSummary.ReportedVariant::html)
+                .collect(Collectors.toList());
+        writeHtml(visualizations, summary.counts(), variantSource, summary.terms(), analysisParameters, outputOptions);
+    }
 
+    private static void writeHtml(List<String> visualizations,
+                                  FilterAndCount fac,
+                                  String variantSource,
+                                  Collection<Term> probandPhenotypeTerms,
+                                  AnalysisParameters analysisParameters,
+                                  OutputOptions outputOptions) {
+        Path outPath = outputOptions.output().resolve(outputOptions.prefix() + OutputFormat.HTML.fileSuffix());
+        LogUtils.logInfo(LOGGER, "Writing HTML results to {}", outPath.toAbsolutePath());
+
+        Map<String, String> variantCountSummary = summarizeVariantCounts(fac);
+        variantCountSummary.put("vcf_file", variantSource);
+
+        HtmlTemplate template = new HtmlTemplate(visualizations, variantCountSummary, probandPhenotypeTerms, analysisParameters, outputOptions);
+        template.outputFile(outPath);
+    }
+
+    private static Map<String, String> summarizeVariantCounts(FilterAndCount fac) {
         Map<String, String> infoMap = new HashMap<>();
         infoMap.put("unparsable", String.valueOf(fac.getUnparsableCount()));
         infoMap.put("n_affectedGenes", String.valueOf(fac.getnAffectedGenes()));
@@ -103,5 +221,13 @@ public class HtmlResultWriter implements ResultWriter {
         };
     }
 
+    private static class RankedLandscape {
+        private final VariantLandscape landscape;
+        private final long index;
 
+        private RankedLandscape(VariantLandscape landscape, long index) {
+            this.landscape = landscape;
+            this.index = index;
+        }
+    }
 }
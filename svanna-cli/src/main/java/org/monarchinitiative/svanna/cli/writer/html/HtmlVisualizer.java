@@ -5,6 +5,7 @@ import org.monarchinitiative.svanna.cli.writer.html.svg.*;
 import org.monarchinitiative.svanna.core.SvAnnaRuntimeException;
 import org.monarchinitiative.svanna.core.overlap.GeneOverlap;
 import org.monarchinitiative.svanna.core.overlap.TranscriptOverlap;
+import org.monarchinitiative.svanna.core.priority.SvPriority;
 import org.monarchinitiative.svanna.core.reference.SvannaVariant;
 import org.monarchinitiative.svanna.core.reference.Zygosity;
 import org.monarchinitiative.svanna.model.HpoDiseaseSummary;
@@ -75,7 +76,7 @@ public class HtmlVisualizer implements Visualizer {
         String variantString = getVariantRepresentation(visualizable, locations);
         sb.append("<h1>").append(variantString);
 
-        String predImpact = String.format("Priority: %.2f", visualizable.variant().svPriority().getPriority());
+        String predImpact = priorityString(visualizable.variant().svPriority());
         sb.append(" &emsp; ").append(predImpact);
 
         Zygosity zygosity = visualizable.variant().zygosity();
@@ -439,7 +440,7 @@ public class HtmlVisualizer implements Visualizer {
                 "[unknown genotype]" :
                 String.format("[%s]", zygosity.name().toLowerCase());
         String idString = visualizable.variant().id();
-        String predImpact = String.format("Priority: %.2f", visualizable.variant().svPriority().getPriority());
+        String predImpact = priorityString(visualizable.variant().svPriority());
         sb.append("<h1>").append(variantString).append(" &emsp; ").append(predImpact)
                 .append(" &emsp; ").append(zygo).append("</h1>\n");
         sb.append("<div class=\"row\">\n");
@@ -542,6 +543,13 @@ public class HtmlVisualizer implements Visualizer {
         return sb.toString();
     }
 
+    private static String priorityString(SvPriority priority) {
+        String predImpact = String.format("Priority: %.2f", priority.getPriority());
+        return priority.isApproximate()
+                ? predImpact + " (approximate)"
+                : predImpact;
+    }
+
     private String twoItemRow(String item1, String item2) {
         return String.format("<tr><td><b>%s</b></td><td>%s</td></tr>\n", item1, item2);
     }
@@ -2,6 +2,7 @@ package org.monarchinitiative.svanna.cli.writer.html.template;
 
 import org.monarchinitiative.svanna.cli.writer.OutputOptions;
 import org.monarchinitiative.svanna.cli.writer.html.AnalysisParameters;
+import org.monarchinitiative.svanna.core.filter.FilterStats;
 
 public class AnalysisHtmlComponent {
 
@@ -48,6 +49,27 @@ public class AnalysisHtmlComponent {
         sb.append(keyValueTableRow("Include FANTOM5 enhancer definitions?",  analysisParameters.useFantom5Enhancers()));
         sb.append("</table>\n");
         sb.append("<p>Summary of analysis parameters used in the current run.</p>\n");
+        if (!analysisParameters.filterStats().isEmpty())
+            sb.append(filterStatsTable(analysisParameters));
+
+        return sb.toString();
+    }
+
+    private String filterStatsTable(AnalysisParameters analysisParameters) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("<table class=\"hpotable\">\n");
+        sb.append("<caption>Filters</caption>");
+        sb.append("  <thead><tr><th>Filter</th><th>Passed</th><th>Failed</th><th>Not run</th><th>Time (ms)</th></tr></thead>\n");
+        for (FilterStats stats : analysisParameters.filterStats()) {
+            sb.append("<tr><td>").append(stats.filterType().shortName())
+                    .append("</td><td>").append(stats.passed())
+                    .append("</td><td>").append(stats.failed())
+                    .append("</td><td>").append(stats.notRun())
+                    .append("</td><td>").append(stats.elapsed().toMillis())
+                    .append("</td></tr>\n");
+        }
+        sb.append("</table>\n");
+        sb.append("<p>Number of variants passing and failing the filters, in the order the filters were run.</p>\n");
 
         return sb.toString();
     }
@@ -19,19 +19,34 @@ public class FilterAndCount {
 
     private final Map<ImpactFilterCategory, Map<VariantType, Integer>> categoryToByVariantTypeCountMap;
 
+    private final int minAltAllele;
+
     /**
-     * Number of distinct gene symbols annotated as affected in any way by a structural variant.
+     * Distinct gene symbols annotated as affected in any way by a structural variant.
      */
-    private final int nAffectedGenes;
+    private final Set<String> affectedGenes = new HashSet<>();
     /**
-     * Number of distinct enhancers annotated as affected in any way by a structural variant.
+     * Distinct enhancers annotated as affected in any way by a structural variant, identified by the source, id,
+     * and location.
      */
-    private final int nAffectedEnhancers;
+    private final Set<String> affectedEnhancers = new HashSet<>();
 
-    private final int unableToBePrioritized;
+    private int unableToBePrioritized = 0;
 
 
     public FilterAndCount(List<VariantLandscape> variantLandscapes, int minAltAllele) {
+        this(minAltAllele);
+        // iterate through priorities and rearrangements
+        for (VariantLandscape variantLandscape : variantLandscapes) {
+            add(variantLandscape);
+        }
+    }
+
+    /**
+     * Create an empty summary to be filled by {@link #add(VariantLandscape)}.
+     */
+    public FilterAndCount(int minAltAllele) {
+        this.minAltAllele = minAltAllele;
         this.categoryToByVariantTypeCountMap = new HashMap<>();
         for (var cat : ImpactFilterCategory.values()) {
             this.categoryToByVariantTypeCountMap.put(cat, new HashMap<>());
@@ -39,33 +54,67 @@ public class FilterAndCount {
             var countMap = categoryToByVariantTypeCountMap.get(cat);
             Arrays.stream(VariantType.values()).forEach(v -> countMap.put(v, 0));
         }
-        Set<Enhancer> affectedEnhancers = new HashSet<>();
-        Set<String> affectedGenes = new HashSet<>();
-        int unknown = 0;
+    }
 
-        // iterate through priorities and rearrangements
-        for (VariantLandscape variantLandscape : variantLandscapes) {
-            SvannaVariant variant = variantLandscape.variant();
-            VariantType vt = variant.genomicVariant().variantType();
-            if (variant.numberOfAltReads() < minAltAllele) {
-                this.categoryToByVariantTypeCountMap.get(ALT_ALLELE_COUNT).merge(vt, 1, Integer::sum);
-            } else if (!variant.passedFilters()) {
-                this.categoryToByVariantTypeCountMap.get(FILTERED).merge(vt, 1, Integer::sum);
-            } else {
-                this.categoryToByVariantTypeCountMap.get(PASS).merge(vt, 1, Integer::sum);
-                double priority = variant.svPriority().getPriority();
-                if (Double.isNaN(priority))
-                    unknown++;
+    public void add(VariantLandscape variantLandscape) {
+        SvannaVariant variant = variantLandscape.variant();
+        VariantType vt = variant.genomicVariant().variantType();
+        if (variant.numberOfAltReads() < minAltAllele) {
+            this.categoryToByVariantTypeCountMap.get(ALT_ALLELE_COUNT).merge(vt, 1, Integer::sum);
+        } else if (!variant.passedFilters()) {
+            this.categoryToByVariantTypeCountMap.get(FILTERED).merge(vt, 1, Integer::sum);
+        } else {
+            this.categoryToByVariantTypeCountMap.get(PASS).merge(vt, 1, Integer::sum);
+            double priority = variant.svPriority().getPriority();
+            if (Double.isNaN(priority))
+                unableToBePrioritized++;
+        }
+        Set<String> symbols = variantLandscape.genes().stream()
+                .map(Gene::symbol)
+                .collect(Collectors.toSet());
+        affectedGenes.addAll(symbols);
+        for (Enhancer enhancer : variantLandscape.enhancers()) {
+            affectedEnhancers.add(enhancerKey(enhancer));
+        }
+    }
+
+    /**
+     * Add the counts and the affected genes and enhancers of the <code>other</code> summary, e.g. a summary of
+     * another shard of the variants.
+     */
+    public void merge(FilterAndCount other) {
+        for (ImpactFilterCategory category : ImpactFilterCategory.values()) {
+            for (VariantType vt : VariantType.values()) {
+                addCount(category, vt, other.count(category, vt));
             }
-            Set<String> symbols = variantLandscape.genes().stream()
-                    .map(Gene::symbol)
-                    .collect(Collectors.toSet());
-            affectedGenes.addAll(symbols);
-            affectedEnhancers.addAll(variantLandscape.enhancers());
         }
-        unableToBePrioritized = unknown;
-        nAffectedGenes = affectedGenes.size();
-        nAffectedEnhancers = affectedEnhancers.size();
+        unableToBePrioritized += other.unableToBePrioritized;
+        affectedGenes.addAll(other.affectedGenes);
+        affectedEnhancers.addAll(other.affectedEnhancers);
+    }
+
+    private static String enhancerKey(Enhancer enhancer) {
+        return enhancer.enhancerSource() + ":" + enhancer.id() + ":" + enhancer.contigName() + ":" + enhancer.start() + "-" + enhancer.end();
+    }
+
+    int count(ImpactFilterCategory category, VariantType variantType) {
+        return categoryToByVariantTypeCountMap.get(category).getOrDefault(variantType, 0);
+    }
+
+    void addCount(ImpactFilterCategory category, VariantType variantType, int count) {
+        categoryToByVariantTypeCountMap.get(category).merge(variantType, count, Integer::sum);
+    }
+
+    void addUnparsable(int count) {
+        unableToBePrioritized += count;
+    }
+
+    Set<String> affectedGenes() {
+        return affectedGenes;
+    }
+
+    Set<String> affectedEnhancers() {
+        return affectedEnhancers;
     }
 
 
@@ -74,11 +123,11 @@ public class FilterAndCount {
     }
 
     public int getnAffectedGenes() {
-        return nAffectedGenes;
+        return affectedGenes.size();
     }
 
     public int getnAffectedEnhancers() {
-        return nAffectedEnhancers;
+        return affectedEnhancers.size();
     }
 
     public String toHtmlTable() {
@@ -0,0 +1,274 @@
+package org.monarchinitiative.svanna.cli.writer.html.template;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVPrinter;
+import org.apache.commons.csv.CSVRecord;
+import org.monarchinitiative.phenol.ontology.data.Term;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+import org.monarchinitiative.svanna.cli.writer.html.AnalysisParameters;
+import org.monarchinitiative.svanna.model.landscape.variant.PopulationVariantOrigin;
+import org.monarchinitiative.svart.VariantType;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * The data of the HTML report of a shard of the input variants. The summaries of the shards are merged into a report
+ * of all variants by the <code>gather</code> command.
+ * <p>
+ * The summary is a tab-separated file, where the first column of a row is the row type:
+ * <ul>
+ *     <li><code>parameter</code> - an analysis parameter and its value,</li>
+ *     <li><code>term</code> - id and label of a proband phenotype term,</li>
+ *     <li><code>count</code> - impact category, variant type, and the count of the variants,</li>
+ *     <li><code>unparsable</code> - the count of the variants that could not be prioritized,</li>
+ *     <li><code>gene</code> and <code>enhancer</code> - an affected gene or enhancer,</li>
+ *     <li><code>variant</code> - priority, contig id, start, end, and the HTML of a reported variant.</li>
+ * </ul>
+ */
+public class HtmlShardSummary {
+
+    public static final String SUFFIX = ".html-shard.tsv";
+
+    private static final CSVFormat FORMAT = CSVFormat.DEFAULT.withDelimiter('\t');
+
+    // The reported variants with the same priority are ordered by position, and then by the order of the shards
+    private static final Comparator<ReportedVariant> BEST_FIRST = Comparator.comparingDouble(ReportedVariant::priority).reversed()
+            .thenComparingInt(ReportedVariant::contigId)
+            .thenComparingInt(ReportedVariant::start)
+            .thenComparingInt(ReportedVariant::end);
+
+    private final Map<String, String> parameters;
+    private final List<Term> terms;
+    private final FilterAndCount counts;
+    private final List<ReportedVariant> variants;
+
+    public static HtmlShardSummary of(AnalysisParameters analysisParameters,
+                                      int nVariantsToReport,
+                                      Collection<Term> terms,
+                                      FilterAndCount counts,
+                                      List<ReportedVariant> variants) {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        parameters.put("data_directory", analysisParameters.dataDirectory());
+        parameters.put("phenopacket_path", analysisParameters.phenopacketPath());
+        parameters.put("vcf_path", analysisParameters.vcfPath());
+        parameters.put("similarity_threshold", String.valueOf(analysisParameters.similarityThreshold()));
+        parameters.put("frequency_threshold", String.valueOf(analysisParameters.frequencyThreshold()));
+        parameters.put("population_variant_origins", analysisParameters.populationVariantOrigins().stream()
+                .map(PopulationVariantOrigin::name)
+                .sorted()
+                .collect(Collectors.joining(",")));
+        parameters.put("min_alt_read_support", String.valueOf(analysisParameters.minAltReadSupport()));
+        parameters.put("tad_stability_threshold", String.valueOf(analysisParameters.tadStabilityThreshold()));
+        parameters.put("use_vista_enhancers", String.valueOf(analysisParameters.useVistaEnhancers()));
+        parameters.put("use_fantom5_enhancers", String.valueOf(analysisParameters.useFantom5Enhancers()));
+        parameters.put("phenotype_term_similarity_measure", analysisParameters.phenotypeTermSimilarityMeasure());
+        parameters.put("n_variants_to_report", String.valueOf(nVariantsToReport));
+        return new HtmlShardSummary(parameters, List.copyOf(terms), counts, List.copyOf(variants));
+    }
+
+    private HtmlShardSummary(Map<String, String> parameters,
+                             List<Term> terms,
+                             FilterAndCount counts,
+                             List<ReportedVariant> variants) {
+        this.parameters = parameters;
+        this.terms = terms;
+        this.counts = counts;
+        this.variants = variants;
+    }
+
+    /**
+     * Merge the summaries of the shards into a summary of all variants. The parameters and the phenotype terms
+     * are taken from the first shard.
+     *
+     * @param shards the summaries in the order of the shards
+     */
+    public static HtmlShardSummary merge(List<HtmlShardSummary> shards) {
+        if (shards.isEmpty())
+            throw new IllegalArgumentException("No summaries to merge");
+
+        HtmlShardSummary first = shards.get(0);
+        FilterAndCount counts = new FilterAndCount(first.analysisParameters().minAltReadSupport());
+        List<ReportedVariant> variants = new ArrayList<>();
+        for (HtmlShardSummary shard : shards) {
+            counts.merge(shard.counts);
+            variants.addAll(shard.variants);
+        }
+        // The sort is stable, hence the tied variants keep the order of the shards
+        List<ReportedVariant> reported = variants.stream()
+                .sorted(BEST_FIRST)
+                .limit(first.nVariantsToReport())
+                .collect(Collectors.toList());
+
+        return new HtmlShardSummary(first.parameters, first.terms, counts, reported);
+    }
+
+    public static HtmlShardSummary read(Path path) throws IOException {
+        Map<String, String> parameters = new LinkedHashMap<>();
+        List<Term> terms = new ArrayList<>();
+        FilterAndCount counts = new FilterAndCount(0);
+        List<ReportedVariant> variants = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path);
+             CSVParser parser = FORMAT.parse(reader)) {
+            for (CSVRecord record : parser) {
+                switch (record.get(0)) {
+                    case "parameter":
+                        parameters.put(record.get(1), record.get(2));
+                        break;
+                    case "term":
+                        terms.add(Term.of(TermId.of(record.get(1)), record.get(2)));
+                        break;
+                    case "count":
+                        counts.addCount(ImpactFilterCategory.valueOf(record.get(1)), VariantType.valueOf(record.get(2)), Integer.parseInt(record.get(3)));
+                        break;
+                    case "unparsable":
+                        counts.addUnparsable(Integer.parseInt(record.get(1)));
+                        break;
+                    case "gene":
+                        counts.affectedGenes().add(record.get(1));
+                        break;
+                    case "enhancer":
+                        counts.affectedEnhancers().add(record.get(1));
+                        break;
+                    case "variant":
+                        variants.add(ReportedVariant.of(Double.parseDouble(record.get(1)),
+                                Integer.parseInt(record.get(2)),
+                                Integer.parseInt(record.get(3)),
+                                Integer.parseInt(record.get(4)),
+                                record.get(5)));
+                        break;
+                    default:
+                        throw new IOException("Unknown record type `" + record.get(0) + "` at line " + record.getRecordNumber() + " of " + path.toAbsolutePath());
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new IOException("Invalid shard summary " + path.toAbsolutePath() + ": " + e.getMessage(), e);
+        }
+
+        return new HtmlShardSummary(parameters, terms, counts, variants);
+    }
+
+    public void write(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path);
+             CSVPrinter printer = FORMAT.print(writer)) {
+            for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+                printer.printRecord("parameter", parameter.getKey(), parameter.getValue());
+            }
+            for (Term term : terms) {
+                printer.printRecord("term", term.id().getValue(), term.getName());
+            }
+            for (ImpactFilterCategory category : ImpactFilterCategory.values()) {
+                for (VariantType vt : VariantType.values()) {
+                    int count = counts.count(category, vt);
+                    if (count != 0)
+                        printer.printRecord("count", category.name(), vt.name(), count);
+                }
+            }
+            printer.printRecord("unparsable", counts.getUnparsableCount());
+            for (String gene : new TreeSet<>(counts.affectedGenes())) {
+                printer.printRecord("gene", gene);
+            }
+            for (String enhancer : new TreeSet<>(counts.affectedEnhancers())) {
+                printer.printRecord("enhancer", enhancer);
+            }
+            for (ReportedVariant variant : variants) {
+                printer.printRecord("variant", variant.priority(), variant.contigId(), variant.start(), variant.end(), variant.html());
+            }
+        }
+    }
+
+    /**
+     * @return the analysis parameters of the shard, with no filter statistics
+     */
+    public AnalysisParameters analysisParameters() {
+        AnalysisParameters analysisParameters = new AnalysisParameters();
+        analysisParameters.setDataDirectory(parameter("data_directory"));
+        analysisParameters.setPhenopacketPath(parameter("phenopacket_path"));
+        analysisParameters.setVcfPath(parameter("vcf_path"));
+        analysisParameters.setSimilarityThreshold(Double.parseDouble(parameters.getOrDefault("similarity_threshold", "0")));
+        analysisParameters.setFrequencyThreshold(Double.parseDouble(parameters.getOrDefault("frequency_threshold", "0")));
+        String origins = parameters.getOrDefault("population_variant_origins", "");
+        if (!origins.isEmpty())
+            analysisParameters.addAllPopulationVariantOrigins(Arrays.stream(origins.split(","))
+                    .map(PopulationVariantOrigin::valueOf)
+                    .collect(Collectors.toList()));
+        analysisParameters.setMinAltReadSupport(Integer.parseInt(parameters.getOrDefault("min_alt_read_support", "0")));
+        analysisParameters.setTadStabilityThreshold(Double.parseDouble(parameters.getOrDefault("tad_stability_threshold", "0")));
+        analysisParameters.setUseVistaEnhancers(Boolean.parseBoolean(parameters.get("use_vista_enhancers")));
+        analysisParameters.setUseFantom5Enhancers(Boolean.parseBoolean(parameters.get("use_fantom5_enhancers")));
+        analysisParameters.setPhenotypeTermSimilarityMeasure(parameter("phenotype_term_similarity_measure"));
+        return analysisParameters;
+    }
+
+    private String parameter(String key) {
+        String value = parameters.get(key);
+        // CSV printer writes nulls as empty strings
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    public int nVariantsToReport() {
+        return Integer.parseInt(parameters.getOrDefault("n_variants_to_report", "0"));
+    }
+
+    public List<Term> terms() {
+        return terms;
+    }
+
+    public FilterAndCount counts() {
+        return counts;
+    }
+
+    public List<ReportedVariant> variants() {
+        return variants;
+    }
+
+    /**
+     * A variant of the HTML report, with the data needed to order the variants of several shards.
+     */
+    public static class ReportedVariant {
+
+        private final double priority;
+        private final int contigId;
+        private final int start;
+        private final int end;
+        private final String html;
+
+        public static ReportedVariant of(double priority, int contigId, int start, int end, String html) {
+            return new ReportedVariant(priority, contigId, start, end, html);
+        }
+
+        private ReportedVariant(double priority, int contigId, int start, int end, String html) {
+            this.priority = priority;
+            this.contigId = contigId;
+            this.start = start;
+            this.end = end;
+            this.html = Objects.requireNonNull(html, "HTML must not be null");
+        }
+
+        public double priority() {
+            return priority;
+        }
+
+        public int contigId() {
+            return contigId;
+        }
+
+        public int start() {
+            return start;
+        }
+
+        public int end() {
+            return end;
+        }
+
+        public String html() {
+            return html;
+        }
+    }
+}
@@ -5,11 +5,16 @@ import org.apache.commons.csv.CSVPrinter;
 import org.monarchinitiative.svanna.cli.writer.AnalysisResults;
 import org.monarchinitiative.svanna.cli.writer.OutputOptions;
 import org.monarchinitiative.svanna.cli.writer.ResultWriter;
+import org.monarchinitiative.svanna.cli.writer.SpillingSorter;
+import org.monarchinitiative.svanna.cli.writer.StreamingResultWriter;
 import org.monarchinitiative.svanna.core.LogUtils;
 import org.monarchinitiative.svanna.core.filter.FilterType;
 import org.monarchinitiative.svanna.core.filter.Filterable;
 import org.monarchinitiative.svanna.core.priority.Prioritized;
+import org.monarchinitiative.svanna.core.priority.SvPriority;
 import org.monarchinitiative.svanna.core.reference.SvannaVariant;
+import org.monarchinitiative.svanna.io.FullSvannaVariant;
+import org.monarchinitiative.phenol.ontology.data.Term;
 import org.monarchinitiative.svart.CoordinateSystem;
 import org.monarchinitiative.svart.GenomicVariant;
 import org.monarchinitiative.svart.Strand;
@@ -25,6 +30,7 @@ import java.nio.file.Path;
 import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 import java.util.function.Consumer;
 import java.util.zip.GZIPOutputStream;
 
@@ -32,7 +38,10 @@ public class TabularResultWriter implements ResultWriter {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TabularResultWriter.class);
 
-    private static final String[] HEADER = new String[]{"contig", "start", "end", "id", "vtype", "failed_filters", "psv"};
+    private static final String[] HEADER = new String[]{"contig", "start", "end", "id", "vtype", "failed_filters", "psv", "psv_approximate"};
+
+    // Written into the `psv` column of the variants that were not evaluated
+    private static final String NOT_EVALUATED = "NOT_EVALUATED";
 
     private final String suffix;
 
@@ -49,9 +58,7 @@ public class TabularResultWriter implements ResultWriter {
     @Override
     public void write(AnalysisResults analysisResults, OutputOptions outputOptions) throws IOException {
         try (BufferedWriter writer = openWriter(outputOptions.output(), outputOptions.prefix())) {
-            CSVPrinter printer = CSVFormat.DEFAULT.withDelimiter(columnSeparator)
-                    .withHeader(HEADER)
-                    .print(writer);
+            CSVPrinter printer = csvFormat().print(writer);
             analysisResults.variants().stream()
                     .filter(sv -> !Double.isNaN(sv.svPriority().getPriority()))
                     .sorted(Comparator.comparing(Prioritized::svPriority).reversed())
@@ -59,6 +66,43 @@ public class TabularResultWriter implements ResultWriter {
         }
     }
 
+    /**
+     * The rows are formatted as the variants arrive, and sorted by {@link SpillingSorter} when the writer is closed.
+     */
+    @Override
+    public StreamingResultWriter openStreamingWriter(String variantSource,
+                                                     Set<Term> probandPhenotypeTerms,
+                                                     OutputOptions outputOptions) {
+        CSVFormat format = CSVFormat.DEFAULT.withDelimiter(columnSeparator);
+        SpillingSorter sorter = new SpillingSorter(outputOptions.output());
+        return new StreamingResultWriter() {
+            @Override
+            public void accept(FullSvannaVariant variant) throws IOException {
+                double priority = variant.svPriority().getPriority();
+                if (!Double.isNaN(priority))
+                    sorter.add(priority, format.format(values(variant)));
+            }
+
+            @Override
+            public void close() throws IOException {
+                try (sorter;
+                     BufferedWriter writer = openWriter(outputOptions.output(), outputOptions.prefix())) {
+                    csvFormat().print(writer);
+                    String recordSeparator = format.getRecordSeparator();
+                    sorter.drain(row -> {
+                        writer.write(row);
+                        writer.write(recordSeparator);
+                    });
+                }
+            }
+        };
+    }
+
+    private CSVFormat csvFormat() {
+        return CSVFormat.DEFAULT.withDelimiter(columnSeparator)
+                .withHeader(HEADER);
+    }
+
     private BufferedWriter openWriter(Path output, String prefix) throws IOException {
         Path outPath = output.resolve(prefix + suffix + (compress ? ".gz" : ""));
         LogUtils.logInfo(LOGGER, "Writing tabular results into {}", outPath.toAbsolutePath());
@@ -69,22 +113,29 @@ public class TabularResultWriter implements ResultWriter {
 
     private static Consumer<? super SvannaVariant> printVariant(CSVPrinter printer) {
         return variant -> {
-            GenomicVariant gv = variant.genomicVariant();
             try {
-                printer.print(gv.contig().name());
-                printer.print(gv.startOnStrandWithCoordinateSystem(Strand.POSITIVE, CoordinateSystem.zeroBased()));
-                printer.print(gv.endOnStrandWithCoordinateSystem(Strand.POSITIVE, CoordinateSystem.zeroBased()));
-                printer.print(gv.id());
-                printer.print(gv.variantType());
-                printer.print(failedFilters(variant));
-                printer.print(variant.svPriority().getPriority());
-                printer.println();
+                printer.printRecord(values(variant));
             } catch (IOException e) {
-                LogUtils.logWarn(LOGGER, "Error writing out record `{}`", LogUtils.variantSummary(gv));
+                LogUtils.logWarn(LOGGER, "Error writing out record `{}`", LogUtils.variantSummary(variant.genomicVariant()));
             }
         };
     }
 
+    private static Object[] values(SvannaVariant variant) {
+        GenomicVariant gv = variant.genomicVariant();
+        SvPriority priority = variant.svPriority();
+        return new Object[]{
+                gv.contig().name(),
+                gv.startOnStrandWithCoordinateSystem(Strand.POSITIVE, CoordinateSystem.zeroBased()),
+                gv.endOnStrandWithCoordinateSystem(Strand.POSITIVE, CoordinateSystem.zeroBased()),
+                gv.id(),
+                gv.variantType(),
+                failedFilters(variant),
+                priority.isEvaluated() ? priority.getPriority() : NOT_EVALUATED,
+                priority.isApproximate()
+        };
+    }
+
     private static String failedFilters(Filterable filterable) {
         List<String> failedFilters = new LinkedList<>();
         for (FilterType filterType : FilterType.svannaFilterTypes()) {
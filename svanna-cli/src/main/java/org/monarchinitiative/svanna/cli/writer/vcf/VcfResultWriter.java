@@ -12,23 +12,27 @@ import org.monarchinitiative.svanna.cli.writer.AnalysisResults;
 import org.monarchinitiative.svanna.cli.writer.OutputFormat;
 import org.monarchinitiative.svanna.cli.writer.OutputOptions;
 import org.monarchinitiative.svanna.cli.writer.ResultWriter;
+import org.monarchinitiative.svanna.cli.writer.SpillingSorter;
+import org.monarchinitiative.svanna.cli.writer.StreamingResultWriter;
 import org.monarchinitiative.svanna.core.LogUtils;
 import org.monarchinitiative.svanna.core.priority.Prioritized;
 import org.monarchinitiative.svanna.core.priority.SvPriority;
 import org.monarchinitiative.svanna.io.FullSvannaVariant;
+import org.monarchinitiative.svanna.io.parse.VcfVariantParser;
+import org.monarchinitiative.phenol.ontology.data.Term;
 import org.monarchinitiative.svart.CoordinateSystem;
 import org.monarchinitiative.svart.GenomicVariant;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.util.Comparator;
-import java.util.Optional;
-import java.util.function.Function;
+import java.util.*;
+import java.util.stream.Collectors;
 
 public class VcfResultWriter implements ResultWriter {
 
@@ -40,13 +44,48 @@ public class VcfResultWriter implements ResultWriter {
             VCFHeaderLineCount.A,
             VCFHeaderLineType.Float,
             "SvAnna PSV score for the variant");
+    private static final String SVANNA_PSV_NOT_EVALUATED_FIELD_NAME = "PSVNE";
+    private static final VCFInfoHeaderLine PSV_NOT_EVALUATED_LINE = new VCFInfoHeaderLine(
+            SVANNA_PSV_NOT_EVALUATED_FIELD_NAME,
+            0,
+            VCFHeaderLineType.Flag,
+            "SvAnna PSV score was not evaluated since the variant cannot be among the top variants");
+    private static final String SVANNA_PSV_APPROXIMATE_FIELD_NAME = "PSVAPPROX";
+    private static final VCFInfoHeaderLine PSV_APPROXIMATE_LINE = new VCFInfoHeaderLine(
+            SVANNA_PSV_APPROXIMATE_FIELD_NAME,
+            0,
+            VCFHeaderLineType.Flag,
+            "SvAnna PSV score was approximated using the genes only since the variant exceeded the evaluation work budget");
 
     private final boolean compress;
 
+    private String sample = null;
+
     public VcfResultWriter(boolean compress) {
         this.compress = compress;
     }
 
+    /**
+     * Write the genotype of the <code>sample</code> only, e.g. into the per-sample results of a multi-sample VCF.
+     * The genotypes of all samples are written by default.
+     */
+    public void setSample(String sample) {
+        this.sample = sample;
+    }
+
+    private VCFHeader prepareHeader(Path inputVcfPath) {
+        VCFHeader header = prepareVcfHeader(inputVcfPath);
+        return sample == null
+                ? header
+                : new VCFHeader(header.getMetaDataInInputOrder(), List.of(sample));
+    }
+
+    private VariantContext subsetToSample(VariantContext vc) {
+        return vc == null || sample == null
+                ? vc
+                : vc.subContextFromSample(sample);
+    }
+
     /**
      * Extend the <code>header</code> with INFO fields that are being added in this command.
      *
@@ -66,56 +105,147 @@ public class VcfResultWriter implements ResultWriter {
 
         // TADSV - float
         header.addMetaDataLine(PSV_LINE);
+        header.addMetaDataLine(PSV_NOT_EVALUATED_LINE);
+        header.addMetaDataLine(PSV_APPROXIMATE_LINE);
 
         return header;
     }
 
-    private static Function<FullSvannaVariant, Optional<VariantContext>> addInfoField() {
-        return sv -> {
-            SvPriority svPriority = sv.svPriority();
+    private static Optional<VariantContext> addInfoField(FullSvannaVariant sv, VariantContext vc) {
+        SvPriority svPriority = sv.svPriority();
 
-            VariantContext vc = sv.variantContext();
-            if (vc == null) {
-                GenomicVariant gv = sv.genomicVariant();
-                LogUtils.logDebug(LOGGER, "Cannot write VCF line for variant '{}' because variant context is missing. {}:{}{}>{}",
-                        gv.id(), gv.contig().name(), gv.startOnStrandWithCoordinateSystem(gv.strand(), CoordinateSystem.oneBased()), gv.ref(), gv.alt());
-                return Optional.empty();
-            }
+        if (vc == null) {
+            GenomicVariant gv = sv.genomicVariant();
+            LogUtils.logDebug(LOGGER, "Cannot write VCF line for variant '{}' because variant context is missing. {}:{}{}>{}",
+                    gv.id(), gv.contig().name(), gv.startOnStrandWithCoordinateSystem(gv.strand(), CoordinateSystem.oneBased()), gv.ref(), gv.alt());
+            return Optional.empty();
+        }
 
-            VariantContextBuilder builder = new VariantContextBuilder(vc);
-            if (svPriority == null || Double.isNaN(svPriority.getPriority()))
-                return Optional.of(builder.make());
+        VariantContextBuilder builder = new VariantContextBuilder(vc);
+        if (svPriority == null || Double.isNaN(svPriority.getPriority()))
+            return Optional.of(builder.make());
 
-            return Optional.of(builder.attribute(SVANNA_PSV_FIELD_NAME, svPriority.getPriority())
+        if (!svPriority.isEvaluated())
+            return Optional.of(builder.attribute(SVANNA_PSV_NOT_EVALUATED_FIELD_NAME, true)
                     .make());
-        };
+
+        builder.attribute(SVANNA_PSV_FIELD_NAME, svPriority.getPriority());
+        if (svPriority.isApproximate())
+            builder.attribute(SVANNA_PSV_APPROXIMATE_FIELD_NAME, true);
+
+        return Optional.of(builder.make());
+    }
+
+    /**
+     * Read the VCF lines of the variants that do not retain their {@link VariantContext}.
+     *
+     * @return array with the VCF line of the <code>i</code>-th variant at index <code>i</code>, or <code>null</code>
+     * if the line was not read
+     */
+    private static String[] readMissingRecords(Path inputVcfPath, List<FullSvannaVariant> variants) throws IOException {
+        String[] records = new String[variants.size()];
+
+        Map<Long, Integer> indexByLineNumber = new HashMap<>();
+        for (int i = 0; i < variants.size(); i++) {
+            FullSvannaVariant variant = variants.get(i);
+            if (variant.variantContext() == null && variant.lineNumber() != FullSvannaVariant.UNKNOWN_LINE_NUMBER)
+                indexByLineNumber.put(variant.lineNumber(), i);
+        }
+        if (indexByLineNumber.isEmpty())
+            return records;
+
+        LogUtils.logDebug(LOGGER, "Re-reading {} records from {}", indexByLineNumber.size(), inputVcfPath.toAbsolutePath());
+        try (BufferedReader reader = VcfVariantParser.openFileForReading(inputVcfPath)) {
+            long lineNumber = 0;
+            int remaining = indexByLineNumber.size();
+            String line;
+            while (remaining > 0 && (line = reader.readLine()) != null) {
+                Integer index = indexByLineNumber.get(++lineNumber);
+                if (index != null) {
+                    records[index] = line;
+                    remaining--;
+                }
+            }
+        }
+
+        return records;
     }
 
     @Override
     public void write(AnalysisResults analysisResults, OutputOptions outputOptions) throws IOException {
         Path inputVcfPath = Paths.get(analysisResults.variantSource());
-        VCFHeader header = prepareVcfHeader(inputVcfPath);
-
-        Path outPath = outputOptions.output().resolve(outputOptions.prefix() + OutputFormat.VCF.fileSuffix() + (compress ? ".gz" : ""));
-        LogUtils.logInfo(LOGGER, "Writing VCF results into {}", outPath.toAbsolutePath());
+        VCFHeader header = prepareHeader(inputVcfPath);
 
-        try (VariantContextWriter writer = new VariantContextWriterBuilder()
-                .setOutputVCFStream(openOutputStream(outPath))
-                .setReferenceDictionary(header.getSequenceDictionary())
-                .unsetOption(Options.INDEX_ON_THE_FLY)
-                .build()) {
+        try (VariantContextWriter writer = openWriter(header, outputOptions)) {
             writer.writeHeader(header);
 
-            analysisResults.variants().stream()
+            List<FullSvannaVariant> variants = analysisResults.variants().stream()
                     .filter(sv -> !Double.isNaN(sv.svPriority().getPriority()))
                     .sorted(Comparator.comparing(Prioritized::svPriority).reversed())
-                    .map(addInfoField())
-                    .filter(Optional::isPresent)
-                    .map(Optional::get)
-                    .forEachOrdered(writer::add);
+                    .collect(Collectors.toList());
+
+            // The variants parsed without retaining the VCF records are annotated using the records of the input VCF
+            String[] records = readMissingRecords(inputVcfPath, variants);
+            VCFCodec codec = null;
+            for (int i = 0; i < variants.size(); i++) {
+                FullSvannaVariant variant = variants.get(i);
+                VariantContext vc = variant.variantContext();
+                if (vc == null && records[i] != null) {
+                    if (codec == null)
+                        codec = VcfVariantParser.createCodec(inputVcfPath);
+                    vc = codec.decode(records[i]);
+                }
+                addInfoField(variant, subsetToSample(vc)).ifPresent(writer::add);
+            }
         }
     }
 
+    /**
+     * The annotated records are encoded as the variants arrive, and sorted by {@link SpillingSorter} when the writer
+     * is closed. The variants must retain their {@link VariantContext}s, the records are not re-read
+     * from the input VCF.
+     */
+    @Override
+    public StreamingResultWriter openStreamingWriter(String variantSource,
+                                                     Set<Term> probandPhenotypeTerms,
+                                                     OutputOptions outputOptions) {
+        VCFHeader header = prepareHeader(Paths.get(variantSource));
+        VCFEncoder encoder = new VCFEncoder(header, true, false);
+        SpillingSorter sorter = new SpillingSorter(outputOptions.output());
+        return new StreamingResultWriter() {
+            @Override
+            public void accept(FullSvannaVariant variant) throws IOException {
+                double priority = variant.svPriority().getPriority();
+                if (!Double.isNaN(priority)) {
+                    Optional<VariantContext> vc = addInfoField(variant, subsetToSample(variant.variantContext()));
+                    if (vc.isPresent())
+                        sorter.add(priority, encoder.encode(vc.get()));
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                try (sorter;
+                     VariantContextWriter writer = openWriter(header, outputOptions)) {
+                    writer.writeHeader(header);
+                    VCFCodec codec = new VCFCodec();
+                    codec.setVCFHeader(header, header.getVCFHeaderVersion() == null ? VCFHeaderVersion.VCF4_2 : header.getVCFHeaderVersion());
+                    sorter.drain(record -> writer.add(codec.decode(record)));
+                }
+            }
+        };
+    }
+
+    private VariantContextWriter openWriter(VCFHeader header, OutputOptions outputOptions) throws IOException {
+        Path outPath = outputOptions.output().resolve(outputOptions.prefix() + OutputFormat.VCF.fileSuffix() + (compress ? ".gz" : ""));
+        LogUtils.logInfo(LOGGER, "Writing VCF results into {}", outPath.toAbsolutePath());
+
+        return new VariantContextWriterBuilder()
+                .setOutputVCFStream(openOutputStream(outPath))
+                .setReferenceDictionary(header.getSequenceDictionary())
+                .unsetOption(Options.INDEX_ON_THE_FLY)
+                .build();
+    }
 
     private BufferedOutputStream openOutputStream(Path outputPath) throws IOException {
         return compress
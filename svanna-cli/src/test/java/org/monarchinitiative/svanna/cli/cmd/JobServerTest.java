@@ -0,0 +1,144 @@
+package org.monarchinitiative.svanna.cli.cmd;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.monarchinitiative.svanna.core.SvAnna;
+import org.monarchinitiative.svanna.core.configuration.SvAnnaProperties;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.mock;
+
+public class JobServerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+
+    @TempDir
+    public Path tempDir;
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    private JobServer server;
+
+    private URI jobs;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        // The jobs fail since the mocked SvAnna provides no resources
+        server = new JobServer(mock(SvAnna.class), mock(SvAnnaProperties.class), tempDir, 1,
+                PrioritizeCommand.ExecutorMode.FORK_JOIN, 1, 10, 1);
+        server.start(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        jobs = URI.create("http://localhost:" + server.address().getPort() + "/jobs");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    public void submitAndGetStatus() throws Exception {
+        HttpResponse<String> submitted = post("vcf=" + tempDir.resolve("missing.vcf") + "&term=HP:0001250");
+
+        assertThat(submitted.statusCode(), equalTo(202));
+        assertThat(submitted.body(), containsString("\"id\":\"job-000001\""));
+
+        String status = awaitDone("job-000001");
+        assertThat(status, containsString("\"status\":\"FAILED\""));
+        assertThat(status, containsString("\"error\":"));
+    }
+
+    @Test
+    public void unknownJob() throws Exception {
+        HttpResponse<String> response = get("/job-000042");
+
+        assertThat(response.statusCode(), equalTo(404));
+        assertThat(response.body(), containsString("Unknown job job-000042"));
+    }
+
+    @Test
+    public void rejectUnknownParameter() throws Exception {
+        HttpResponse<String> response = post("vcf=example.vcf&term=HP:0001250&colour=blue");
+
+        assertThat(response.statusCode(), equalTo(400));
+        assertThat(response.body(), containsString("Unknown parameter `colour`"));
+        assertThat(get("").body(), equalTo("[]"));
+    }
+
+    @Test
+    public void rejectPrefixWithPathSeparators() throws Exception {
+        for (String prefix : new String[]{"..%2Fescape", "..%5Cescape"}) {
+            HttpResponse<String> response = post("vcf=example.vcf&term=HP:0001250&prefix=" + prefix);
+
+            assertThat(response.statusCode(), equalTo(400));
+            assertThat(response.body(), containsString("The prefix must not contain path separators"));
+        }
+    }
+
+    @Test
+    public void rejectInvalidArguments() throws Exception {
+        HttpResponse<String> noPhenotype = post("vcf=example.vcf");
+        assertThat(noPhenotype.statusCode(), equalTo(400));
+        assertThat(noPhenotype.body(), containsString("No phenotype features provided"));
+
+        HttpResponse<String> noVcf = post("term=HP:0001250");
+        assertThat(noVcf.statusCode(), equalTo(400));
+        assertThat(noVcf.body(), containsString("Path to a VCF file or to a phenopacket must be supplied"));
+
+        // The invalid jobs are not queued
+        assertThat(get("").body(), equalTo("[]"));
+    }
+
+    @Test
+    public void evictOldestFinishedJobs() throws Exception {
+        post("vcf=" + tempDir.resolve("first.vcf") + "&term=HP:0001250");
+        awaitDone("job-000001");
+        post("vcf=" + tempDir.resolve("second.vcf") + "&term=HP:0001250");
+        awaitDone("job-000002");
+
+        // The server keeps a single finished job
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        while (get("/job-000001").statusCode() != 404 && System.nanoTime() < deadline)
+            Thread.sleep(10);
+        assertThat(get("/job-000001").statusCode(), equalTo(404));
+        assertThat(get("").body(), allOf(containsString("job-000002"), not(containsString("job-000001"))));
+    }
+
+    private String awaitDone(String id) throws Exception {
+        long deadline = System.nanoTime() + TIMEOUT.toNanos();
+        String body;
+        do {
+            body = get('/' + id).body();
+            if (body.contains("\"status\":\"SUCCEEDED\"") || body.contains("\"status\":\"FAILED\""))
+                return body;
+            Thread.sleep(10);
+        } while (System.nanoTime() < deadline);
+        throw new AssertionError("Job " + id + " is not done: " + body);
+    }
+
+    private HttpResponse<String> post(String query) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(jobs + "?" + query))
+                .POST(HttpRequest.BodyPublishers.noBody())
+                .timeout(TIMEOUT)
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(jobs + path))
+                .timeout(TIMEOUT)
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,110 @@
+package org.monarchinitiative.svanna.cli.cmd;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ManifestEntryTest {
+
+    @TempDir
+    public Path tempDir;
+
+    @Test
+    public void readManifest() throws Exception {
+        Path manifest = tempDir.resolve("manifest.tsv");
+        Files.writeString(manifest, "sample\tvcf\tphenopacket\tterms\tprefix\n" +
+                "A\ta.vcf.gz\ta.json\t.\t\n" +
+                "# a comment\n" +
+                "B\t/data/b.vcf\t\tHP:0001250, HP:0001263\tb-out\n");
+
+        List<ManifestEntry> entries = ManifestEntry.readManifest(manifest);
+
+        assertThat(entries, hasSize(2));
+        ManifestEntry a = entries.get(0);
+        assertThat(a.sample(), equalTo("A"));
+        assertThat(a.vcf(), equalTo(tempDir.toAbsolutePath().resolve("a.vcf.gz")));
+        assertThat(a.phenopacket(), equalTo(tempDir.toAbsolutePath().resolve("a.json")));
+        assertThat(a.terms(), is(nullValue()));
+        assertThat(a.prefix(), is(nullValue()));
+
+        ManifestEntry b = entries.get(1);
+        assertThat(b.vcf(), equalTo(Path.of("/data/b.vcf")));
+        assertThat(b.phenopacket(), is(nullValue()));
+        assertThat(b.terms(), equalTo(List.of("HP:0001250", "HP:0001263")));
+        assertThat(b.prefix(), equalTo("b-out"));
+    }
+
+    @Test
+    public void readJsonManifest() throws Exception {
+        Path manifest = tempDir.resolve("manifest.json");
+        Files.writeString(manifest, "[\n" +
+                "  {\"sample\": \"A\", \"vcf\": \"a.vcf.gz\", \"phenopacket\": \"a.json\"},\n" +
+                "  {\"sample\": \"B\", \"vcf\": \"/data/b.vcf\", \"terms\": [\"HP:0001250\", \"HP:0001263\"], \"prefix\": \"b-out\"},\n" +
+                "  {\"sample\": \"C\", \"vcf\": \"c.vcf\", \"terms\": \"HP:0001250, HP:0001263\", \"prefix\": null}\n" +
+                "]\n");
+
+        List<ManifestEntry> entries = ManifestEntry.readManifest(manifest);
+
+        assertThat(entries, hasSize(3));
+        ManifestEntry a = entries.get(0);
+        assertThat(a.sample(), equalTo("A"));
+        assertThat(a.vcf(), equalTo(tempDir.toAbsolutePath().resolve("a.vcf.gz")));
+        assertThat(a.phenopacket(), equalTo(tempDir.toAbsolutePath().resolve("a.json")));
+        assertThat(a.terms(), is(nullValue()));
+
+        ManifestEntry b = entries.get(1);
+        assertThat(b.vcf(), equalTo(Path.of("/data/b.vcf")));
+        assertThat(b.terms(), equalTo(List.of("HP:0001250", "HP:0001263")));
+        assertThat(b.prefix(), equalTo("b-out"));
+
+        ManifestEntry c = entries.get(2);
+        assertThat(c.terms(), equalTo(List.of("HP:0001250", "HP:0001263")));
+        assertThat(c.prefix(), is(nullValue()));
+    }
+
+    @Test
+    public void readJsonManifest_mustBeArray() throws Exception {
+        Path manifest = tempDir.resolve("manifest.json");
+        Files.writeString(manifest, "{\"sample\": \"A\", \"vcf\": \"a.vcf\", \"terms\": \"HP:0001250\"}");
+
+        assertThrows(AnalysisInputException.class, () -> ManifestEntry.readManifest(manifest));
+    }
+
+    @Test
+    public void readManifest_phenotypeIsRequired() throws Exception {
+        Path manifest = tempDir.resolve("manifest.tsv");
+        Files.writeString(manifest, "sample\tvcf\tterms\nA\ta.vcf\t\n");
+
+        assertThrows(AnalysisInputException.class, () -> ManifestEntry.readManifest(manifest));
+    }
+
+    @Test
+    public void readManifest_prefixMustNotContainPathSeparators() throws Exception {
+        Path manifest = tempDir.resolve("manifest.tsv");
+        for (String line : new String[]{"A\ta.vcf\tHP:0001250\t../escape", "..\\escape\ta.vcf\tHP:0001250\t"}) {
+            Files.writeString(manifest, "sample\tvcf\tterms\tprefix\n" + line + '\n');
+
+            AnalysisInputException e = assertThrows(AnalysisInputException.class, () -> ManifestEntry.readManifest(manifest));
+            assertThat(e.getMessage(), containsString("must not contain path separators"));
+        }
+    }
+
+    @Test
+    public void readManifest_outputPrefixesMustBeUnique() throws Exception {
+        Path manifest = tempDir.resolve("manifest.tsv");
+        // The output prefix of `B` is the sample name of `A`
+        Files.writeString(manifest, "sample\tvcf\tterms\tprefix\n" +
+                "A\ta.vcf\tHP:0001250\t\n" +
+                "B\tb.vcf\tHP:0001250\tA\n");
+
+        AnalysisInputException e = assertThrows(AnalysisInputException.class, () -> ManifestEntry.readManifest(manifest));
+        assertThat(e.getMessage(), containsString("output prefix `A`"));
+    }
+}
@@ -0,0 +1,86 @@
+package org.monarchinitiative.svanna.cli.cmd;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MemoryGovernorTest {
+
+    @Test
+    public void adaptToHeapUsage() {
+        AtomicLong used = new AtomicLong(50);
+        MemoryGovernor governor = new MemoryGovernor(used::get, () -> 0L, 100, 1_000, 8, 0L);
+
+        assertThat(governor.nextBatchSize(), equalTo(1_000));
+        assertThat(governor.inFlightLimit(), equalTo(8));
+
+        used.set(150);
+        assertThat(governor.nextBatchSize(), equalTo(500));
+        assertThat(governor.inFlightLimit(), equalTo(4));
+        assertThat(governor.nextBatchSize(), equalTo(250));
+        assertThat(governor.nextBatchSize(), equalTo(125));
+        assertThat(governor.inFlightLimit(), equalTo(1));
+        for (int i = 0; i < 10; i++)
+            governor.nextBatchSize();
+        assertThat(governor.nextBatchSize(), equalTo(MemoryGovernor.MIN_BATCH_SIZE));
+
+        // between the recovery threshold and the limit
+        used.set(90);
+        assertThat(governor.nextBatchSize(), equalTo(MemoryGovernor.MIN_BATCH_SIZE));
+
+        used.set(10);
+        assertThat(governor.nextBatchSize(), equalTo(2 * MemoryGovernor.MIN_BATCH_SIZE));
+        assertThat(governor.inFlightLimit(), equalTo(2));
+        for (int i = 0; i < 10; i++)
+            governor.nextBatchSize();
+        assertThat(governor.nextBatchSize(), equalTo(1_000));
+        assertThat(governor.inFlightLimit(), equalTo(8));
+    }
+
+    @Test
+    public void adjustAtMostOncePerInterval() {
+        AtomicLong used = new AtomicLong(150);
+        AtomicLong clock = new AtomicLong(0);
+        MemoryGovernor governor = new MemoryGovernor(used::get, clock::get, 100, 1_000, 8, 10L);
+
+        assertThat(governor.nextBatchSize(), equalTo(500));
+        assertThat(governor.nextBatchSize(), equalTo(500));
+
+        clock.set(10);
+        assertThat(governor.nextBatchSize(), equalTo(250));
+    }
+
+    @Test
+    public void acquireAndRelease() throws Exception {
+        MemoryGovernor governor = new MemoryGovernor(() -> 150L, () -> 0L, 100, 16, 2, 0L);
+
+        // the first acquisition throttles the governor to a single batch in flight
+        governor.acquire();
+        assertThat(governor.inFlightLimit(), equalTo(1));
+
+        Thread second = new Thread(() -> {
+            try {
+                governor.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        second.start();
+        second.join(200);
+        assertThat(second.isAlive(), equalTo(true));
+
+        governor.release();
+        second.join(5_000);
+        assertThat(second.isAlive(), equalTo(false));
+    }
+
+    @Test
+    public void invalidMaxHeapFraction() {
+        assertThrows(IllegalArgumentException.class, () -> MemoryGovernor.of(0., 10, 1));
+        assertThrows(IllegalArgumentException.class, () -> MemoryGovernor.of(1.5, 10, 1));
+    }
+}
@@ -0,0 +1,90 @@
+package org.monarchinitiative.svanna.cli.cmd;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.svart.CoordinateSystem;
+import org.monarchinitiative.svart.GenomicVariant;
+import org.monarchinitiative.svart.Strand;
+import org.monarchinitiative.svart.assembly.GenomicAssemblies;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class PrioritizeCommandTest {
+
+    private static final GenomicAssembly GRCH38 = GenomicAssemblies.GRCh38p13();
+
+    @Test
+    public void prioritizeInBatchesAdaptsToHeapUsage() throws Exception {
+        List<GenomicVariant> variants = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++)
+            variants.add(deletion(1 + i % 2, 1_000 * (i + 1)));
+        Collections.shuffle(variants, new Random(42));
+        // The heap usage goes above the limit when the fourth batch is prioritized
+        AtomicLong used = new AtomicLong(50);
+        MemoryGovernor governor = new MemoryGovernor(used::get, () -> 0L, 100, 64, 4, 0L);
+        AtomicInteger active = new AtomicInteger();
+        List<Batch> batches = Collections.synchronizedList(new ArrayList<>());
+
+        List<String> priorities = PrioritizeCommand.prioritizeInBatches(batch -> {
+            Batch b = new Batch(batch, active.incrementAndGet());
+            batches.add(b);
+            if (batches.size() == 4)
+                used.set(150);
+            try {
+                Thread.sleep(2);
+                return batch.stream().map(GenomicVariant::id).collect(Collectors.toList());
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            } finally {
+                active.decrementAndGet();
+            }
+        }, variants, governor, 4);
+
+        // The priorities are in the input order
+        assertThat(priorities, equalTo(variants.stream().map(GenomicVariant::id).collect(Collectors.toList())));
+        assertThat(batches.stream().mapToInt(b -> b.variants.size()).sum(), equalTo(variants.size()));
+        assertThat(batches.get(0).variants, hasSize(64));
+        assertThat(batches.stream().mapToInt(b -> b.concurrency).max().orElseThrow(), lessThanOrEqualTo(4));
+        // The batches are made of the variants sorted by location
+        for (Batch batch : batches)
+            assertThat(batch.variants, equalTo(batch.variants.stream().sorted(PrioritizeCommandTest::compareLocation).collect(Collectors.toList())));
+
+        // Under the pressure, the batches shrink to the minimal size and are prioritized one at a time
+        List<Integer> sizes = batches.stream().map(b -> b.variants.size()).collect(Collectors.toList());
+        int first = sizes.indexOf(MemoryGovernor.MIN_BATCH_SIZE);
+        assertThat(first, greaterThan(0));
+        for (Batch batch : batches.subList(first + 1, batches.size())) {
+            assertThat(batch.variants.size(), lessThanOrEqualTo(MemoryGovernor.MIN_BATCH_SIZE));
+            assertThat(batch.concurrency, equalTo(1));
+        }
+    }
+
+    private static int compareLocation(GenomicVariant a, GenomicVariant b) {
+        int result = Integer.compare(a.contigId(), b.contigId());
+        return result != 0 ? result : Integer.compare(a.start(), b.start());
+    }
+
+    private static GenomicVariant deletion(int contigId, int start) {
+        int end = start + 99;
+        return GenomicVariant.of(GRCH38.contigById(contigId), contigId + ":" + start, Strand.POSITIVE, CoordinateSystem.oneBased(),
+                start, end, "N", "<DEL>", start - end - 1);
+    }
+
+    private static class Batch {
+
+        private final List<GenomicVariant> variants;
+        // The number of batches being prioritized when this batch started
+        private final int concurrency;
+
+        private Batch(List<GenomicVariant> variants, int concurrency) {
+            this.variants = List.copyOf(variants);
+            this.concurrency = concurrency;
+        }
+    }
+}
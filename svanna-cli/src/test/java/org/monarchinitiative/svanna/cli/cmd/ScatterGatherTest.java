@@ -0,0 +1,273 @@
+package org.monarchinitiative.svanna.cli.cmd;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.monarchinitiative.phenol.ontology.data.Term;
+import org.monarchinitiative.phenol.ontology.data.TermId;
+import org.monarchinitiative.sgenes.model.Gene;
+import org.monarchinitiative.svanna.cli.writer.html.AnalysisParameters;
+import org.monarchinitiative.svanna.cli.writer.html.VariantLandscape;
+import org.monarchinitiative.svanna.cli.writer.html.template.FilterAndCount;
+import org.monarchinitiative.svanna.cli.writer.html.template.HtmlShardSummary;
+import org.monarchinitiative.svanna.core.priority.SvPriority;
+import org.monarchinitiative.svanna.core.reference.SvannaVariant;
+import org.monarchinitiative.svanna.io.parse.VcfVariantParser;
+import org.monarchinitiative.svart.GenomicVariant;
+import org.monarchinitiative.svart.VariantType;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Split a VCF into shards, summarize each shard like the HTML writer of a shard, and merge the summaries like
+ * the {@link GatherCommand}. The merged summary must match the summary of the unsharded input.
+ */
+public class ScatterGatherTest {
+
+    private static final int MIN_ALT_READS = 2;
+    private static final int N_VARIANTS_TO_REPORT = 4;
+
+    private static final List<String> HEADER = List.of(
+            "##fileformat=VCFv4.2",
+            "##INFO=<ID=SVTYPE,Number=1,Type=String,Description=\"Type of structural variant\">",
+            "##INFO=<ID=END,Number=1,Type=Integer,Description=\"End position of the variant\">",
+            "#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO");
+
+    // The records are neither grouped by contig nor sorted by position
+    private static final List<Record> RECORDS = List.of(
+            Record.of("chr1", 1, 100, 500, "r1", VariantType.DEL, 3., 5, true, "A"),
+            Record.of("chr1", 1, 1_500, 1_800, "r2", VariantType.DUP, 7.5, 5, true, "B"),
+            Record.of("chr2", 2, 200, 900, "r3", VariantType.DEL, 7.5, 5, true, "C"),
+            Record.of("chr1", 1, 2_500, 2_700, "r4", VariantType.INV, Double.NaN, 5, true, "A"),
+            Record.of("chr2", 2, 1_200, 1_300, "r5", VariantType.DEL, 1., 1, true, null),
+            Record.of("chrX", 23, 300, 400, "r6", VariantType.DUP, 9., 4, false, "D"),
+            Record.of("chr1", 1, 150, 150, "r7", VariantType.INS, 2., 6, true, null),
+            Record.of("chrX", 23, 2_200, 2_900, "r8", VariantType.DEL, 5., 3, true, "E"),
+            Record.of("chr2", 2, 250, 600, "r9", VariantType.DUP, .5, 8, true, "B"),
+            Record.of("chr1", 1, 1_600, 1_700, "r10", VariantType.DEL, 6., 3, true, null));
+
+    @TempDir
+    public Path tempDir;
+
+    @Test
+    public void scatterByContig() throws Exception {
+        List<List<Record>> shards = roundTrip(ScatterCommand.ShardBy.CONTIG, 0);
+
+        assertThat(ids(shards), contains(
+                List.of("r1", "r2", "r4", "r7", "r10"),
+                List.of("r3", "r5", "r9"),
+                List.of("r6", "r8")));
+    }
+
+    @Test
+    public void scatterByRange() throws Exception {
+        List<List<Record>> shards = roundTrip(ScatterCommand.ShardBy.RANGE, 1_000);
+
+        assertThat(ids(shards), contains(
+                List.of("r1", "r7"),
+                List.of("r2", "r10"),
+                List.of("r3", "r9"),
+                List.of("r4"),
+                List.of("r5"),
+                List.of("r6"),
+                List.of("r8")));
+    }
+
+    @Test
+    public void scatterByRecords() throws Exception {
+        List<List<Record>> shards = roundTrip(ScatterCommand.ShardBy.RECORDS, 3);
+
+        assertThat(ids(shards), contains(
+                List.of("r1", "r2", "r3"),
+                List.of("r4", "r5", "r6"),
+                List.of("r7", "r8", "r9"),
+                List.of("r10")));
+    }
+
+    /**
+     * Scatter the records, check that each record is in exactly one shard, and check that the merged summary
+     * of the shards matches the summary of all records.
+     *
+     * @return the records of the shards, in the order of the shards
+     */
+    private List<List<Record>> roundTrip(ScatterCommand.ShardBy shardBy, long shardSize) throws IOException {
+        Path vcf = tempDir.resolve("example.vcf");
+        writeVcf(vcf);
+        Path shardDir = Files.createDirectory(tempDir.resolve("shards"));
+
+        List<Path> shardPaths = new VcfScatterer(shardBy, shardSize).scatter(vcf, shardDir, "example");
+
+        // The records of the shards
+        Map<String, Record> recordById = RECORDS.stream()
+                .collect(Collectors.toMap(Record::id, r -> r));
+        List<List<Record>> shards = new ArrayList<>(shardPaths.size());
+        for (int i = 0; i < shardPaths.size(); i++) {
+            Path shard = shardPaths.get(i);
+            assertThat(shard, equalTo(shardDir.resolve(String.format("example.shard-%04d.vcf.gz", i + 1))));
+            List<String> lines = readLines(shard);
+            assertThat(lines.subList(0, HEADER.size()), equalTo(HEADER));
+            shards.add(lines.subList(HEADER.size(), lines.size()).stream()
+                    .map(line -> recordById.get(line.split("\t")[2]))
+                    .collect(Collectors.toList()));
+        }
+        List<Record> scattered = shards.stream()
+                .flatMap(Collection::stream)
+                .collect(Collectors.toList());
+        assertThat(scattered, hasSize(RECORDS.size()));
+        assertThat(scattered, containsInAnyOrder(RECORDS.toArray()));
+        // The records of a shard keep the input order
+        for (List<Record> shard : shards) {
+            List<Integer> indices = shard.stream()
+                    .map(RECORDS::indexOf)
+                    .collect(Collectors.toList());
+            assertThat(indices, equalTo(indices.stream().sorted().collect(Collectors.toList())));
+        }
+
+        // The manifest
+        Path manifestPath = shardDir.resolve("example.manifest.tsv");
+        ShardManifest.write(manifestPath, vcf, shardPaths, List.of("HP:0001250"), null);
+        ShardManifest manifest = ShardManifest.read(manifestPath);
+        assertThat(manifest.source(), equalTo(vcf.toAbsolutePath()));
+        assertThat(manifest.prefixes(), equalTo(shardPaths.stream()
+                .map(Utils::vcfNameWithoutSuffix)
+                .collect(Collectors.toList())));
+
+        // The summaries of the shards are written by the shard runs and merged by the gather command
+        List<HtmlShardSummary> summaries = new ArrayList<>(shards.size());
+        for (int i = 0; i < shards.size(); i++) {
+            Path summaryPath = shardDir.resolve(manifest.prefixes().get(i) + HtmlShardSummary.SUFFIX);
+            summary(shards.get(i)).write(summaryPath);
+            summaries.add(HtmlShardSummary.read(summaryPath));
+        }
+        HtmlShardSummary merged = HtmlShardSummary.merge(summaries);
+
+        HtmlShardSummary expected = summary(RECORDS);
+        assertThat(merged.counts().toHtmlTable(), equalTo(expected.counts().toHtmlTable()));
+        assertThat(merged.counts().getUnparsableCount(), equalTo(1));
+        assertThat(merged.counts().getnAffectedGenes(), equalTo(expected.counts().getnAffectedGenes()));
+        assertThat(merged.counts().getnAffectedEnhancers(), equalTo(0));
+        // The tie of `r2` and `r3` is broken by the position
+        assertThat(html(merged), contains("r6", "r2", "r3", "r10"));
+        assertThat(html(merged), equalTo(html(expected)));
+        assertThat(merged.nVariantsToReport(), equalTo(N_VARIANTS_TO_REPORT));
+        assertThat(merged.terms().stream().map(t -> t.id().getValue()).collect(Collectors.toList()), contains("HP:0001250"));
+        assertThat(merged.analysisParameters().minAltReadSupport(), equalTo(MIN_ALT_READS));
+
+        return shards;
+    }
+
+    private static List<List<String>> ids(List<List<Record>> shards) {
+        return shards.stream()
+                .map(shard -> shard.stream().map(Record::id).collect(Collectors.toList()))
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> html(HtmlShardSummary summary) {
+        return summary.variants().stream()
+                .map(HtmlShardSummary.ReportedVariant::html)
+                .collect(Collectors.toList());
+    }
+
+    private static void writeVcf(Path vcf) throws IOException {
+        List<String> lines = new ArrayList<>(HEADER);
+        for (Record record : RECORDS)
+            lines.add(String.join("\t", record.contig, String.valueOf(record.start), record.id, "N", '<' + record.type.name() + '>',
+                    ".", "PASS", "SVTYPE=" + record.type.name() + ";END=" + record.end));
+        Files.write(vcf, lines);
+    }
+
+    private static List<String> readLines(Path path) throws IOException {
+        try (BufferedReader reader = VcfVariantParser.openFileForReading(path)) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Summarize the records like the HTML writer of a shard, reporting the prioritized records with the highest
+     * priority.
+     */
+    private static HtmlShardSummary summary(List<Record> records) {
+        FilterAndCount counts = new FilterAndCount(MIN_ALT_READS);
+        for (Record record : records)
+            counts.add(record.landscape());
+        List<HtmlShardSummary.ReportedVariant> reported = records.stream()
+                .filter(r -> !Double.isNaN(r.priority))
+                .sorted(Comparator.comparingDouble((Record r) -> r.priority).reversed())
+                .limit(N_VARIANTS_TO_REPORT)
+                .map(r -> HtmlShardSummary.ReportedVariant.of(r.priority, r.contigId, r.start, r.end, r.id))
+                .collect(Collectors.toList());
+
+        AnalysisParameters parameters = new AnalysisParameters();
+        parameters.setMinAltReadSupport(MIN_ALT_READS);
+        return HtmlShardSummary.of(parameters, N_VARIANTS_TO_REPORT,
+                List.of(Term.of(TermId.of("HP:0001250"), "Seizure")), counts, reported);
+    }
+
+    private static class Record {
+
+        private final String contig;
+        private final int contigId;
+        private final int start;
+        private final int end;
+        private final String id;
+        private final VariantType type;
+        private final double priority;
+        private final int altReads;
+        private final boolean passed;
+        private final String gene;
+
+        private static Record of(String contig, int contigId, int start, int end, String id, VariantType type,
+                                 double priority, int altReads, boolean passed, String gene) {
+            return new Record(contig, contigId, start, end, id, type, priority, altReads, passed, gene);
+        }
+
+        private Record(String contig, int contigId, int start, int end, String id, VariantType type,
+                       double priority, int altReads, boolean passed, String gene) {
+            this.contig = contig;
+            this.contigId = contigId;
+            this.start = start;
+            this.end = end;
+            this.id = id;
+            this.type = type;
+            this.priority = priority;
+            this.altReads = altReads;
+            this.passed = passed;
+            this.gene = gene;
+        }
+
+        private String id() {
+            return id;
+        }
+
+        private VariantLandscape landscape() {
+            GenomicVariant genomicVariant = mock(GenomicVariant.class);
+            when(genomicVariant.variantType()).thenReturn(type);
+            SvannaVariant variant = mock(SvannaVariant.class);
+            when(variant.genomicVariant()).thenReturn(genomicVariant);
+            when(variant.numberOfAltReads()).thenReturn(altReads);
+            when(variant.passedFilters()).thenReturn(passed);
+            when(variant.svPriority()).thenReturn(SvPriority.of(priority));
+
+            List<Gene> genes = new ArrayList<>();
+            if (gene != null) {
+                Gene g = mock(Gene.class);
+                when(g.symbol()).thenReturn(gene);
+                genes.add(g);
+            }
+            VariantLandscape landscape = mock(VariantLandscape.class);
+            when(landscape.variant()).thenReturn(variant);
+            when(landscape.genes()).thenReturn(genes);
+            when(landscape.enhancers()).thenReturn(List.of());
+            return landscape;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package org.monarchinitiative.svanna.cli.cmd;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class TaskUtilsTest {
+
+    @Test
+    public void executeStreamingRetainsAtMostInFlightBatches() throws Exception {
+        int batchSize = 16;
+        int maxInFlight = 4;
+        // Many more batches than the batches in flight
+        int nItems = 100 * maxInFlight * batchSize;
+        AtomicLong read = new AtomicLong();
+        AtomicLong sunk = new AtomicLong();
+        AtomicLong maxRetained = new AtomicLong();
+        AtomicInteger expected = new AtomicInteger();
+
+        long count = TaskUtils.executeStreaming(() -> IntStream.range(0, nItems).boxed()
+                        // The items that have been read, but not yet provided to the sink
+                        .peek(i -> maxRetained.accumulateAndGet(read.incrementAndGet() - sunk.get(), Math::max)),
+                UnaryOperator.identity(),
+                item -> {
+                    assertThat(item, equalTo(expected.getAndIncrement()));
+                    if (item % batchSize == 0) {
+                        // The sink is slower than the source
+                        try {
+                            Thread.sleep(1);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }
+                    sunk.incrementAndGet();
+                },
+                MemoryGovernor.unlimited(batchSize, maxInFlight),
+                2);
+
+        assertThat(count, equalTo((long) nItems));
+        // The iterator of the source reads one item ahead to find out if there is another batch
+        assertThat(maxRetained.get(), lessThanOrEqualTo((long) maxInFlight * batchSize + 1));
+        // The source runs ahead of the sink
+        assertThat(maxRetained.get(), greaterThan((long) batchSize));
+    }
+}
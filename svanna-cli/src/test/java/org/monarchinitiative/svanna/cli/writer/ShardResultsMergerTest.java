@@ -0,0 +1,58 @@
+package org.monarchinitiative.svanna.cli.writer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class ShardResultsMergerTest {
+
+    @TempDir
+    public Path tempDir;
+
+    @Test
+    public void mergeTabular() throws Exception {
+        Path first = tempDir.resolve("first.tsv");
+        Files.writeString(first, "id\tpsv\n" +
+                "a\t10.0\n" +
+                "b\t2.0\n" +
+                "c\tNOT_EVALUATED\n");
+        Path second = tempDir.resolve("second.tsv");
+        Files.writeString(second, "id\tpsv\n" +
+                "d\t12.0\n" +
+                "e\t2.0\n");
+        Path output = tempDir.resolve("merged.tsv");
+
+        ShardResultsMerger.mergeTabular(List.of(first, second), output, '\t', false);
+
+        assertThat(Files.readAllLines(output), equalTo(List.of("id\tpsv", "d\t12.0", "a\t10.0", "b\t2.0", "e\t2.0", "c\tNOT_EVALUATED")));
+    }
+
+    @Test
+    public void mergeVcf() throws Exception {
+        Path first = tempDir.resolve("first.vcf");
+        Files.writeString(first, "##fileformat=VCFv4.2\n" +
+                "#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\n" +
+                "1\t100\ta\tN\t<DEL>\t.\tPASS\tSVTYPE=DEL;PSV=3.0\n" +
+                "1\t200\tb\tN\t<DEL>\t.\tPASS\tSVTYPE=DEL;PSVNE\n");
+        Path second = tempDir.resolve("second.vcf");
+        Files.writeString(second, "##fileformat=VCFv4.2\n" +
+                "#CHROM\tPOS\tID\tREF\tALT\tQUAL\tFILTER\tINFO\n" +
+                "2\t100\tc\tN\t<DUP>\t.\tPASS\tSVTYPE=DUP;PSV=5.0\n");
+        Path output = tempDir.resolve("merged.vcf");
+
+        ShardResultsMerger.mergeVcf(List.of(first, second), output, false);
+
+        List<String> lines = Files.readAllLines(output);
+        assertThat(lines, hasSize(5));
+        assertThat(lines.get(0), equalTo("##fileformat=VCFv4.2"));
+        assertThat(lines.get(2), startsWith("2\t100\tc"));
+        assertThat(lines.get(3), startsWith("1\t100\ta"));
+        assertThat(lines.get(4), startsWith("1\t200\tb"));
+    }
+}
@@ -0,0 +1,53 @@
+package org.monarchinitiative.svanna.cli.writer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class SpillingSorterTest {
+
+    @TempDir
+    public Path tempDir;
+
+    @Test
+    public void drainInMemory() throws IOException {
+        List<String> records = new ArrayList<>();
+        try (SpillingSorter sorter = new SpillingSorter(tempDir)) {
+            sorter.add(1., "a");
+            sorter.add(3., "b");
+            sorter.add(1., "c");
+            sorter.add(2., "d");
+
+            sorter.drain(records::add);
+        }
+
+        assertThat(records, equalTo(List.of("b", "d", "a", "c")));
+    }
+
+    @Test
+    public void drainSpilledRuns() throws IOException {
+        List<String> records = new ArrayList<>();
+        try (SpillingSorter sorter = new SpillingSorter(tempDir, 2)) {
+            sorter.add(1., "a");
+            sorter.add(3., "b");
+            sorter.add(1., "c");
+            sorter.add(2., "d");
+            sorter.add(3., "e");
+
+            sorter.drain(records::add);
+        }
+
+        assertThat(records, equalTo(List.of("b", "e", "d", "a", "c")));
+        try (var files = Files.list(tempDir)) {
+            assertThat(files.count(), equalTo(0L));
+        }
+    }
+}
@@ -37,6 +37,8 @@ import java.text.NumberFormat;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class SvAnnaBuilder {
 
@@ -44,6 +46,9 @@ public class SvAnnaBuilder {
 
     private static final NumberFormat NF = NumberFormat.getNumberInstance();
 
+    // The number of independent components loaded at the same time
+    private static final int BOOTSTRAP_THREADS = 4;
+
     static {
         NF.setMaximumFractionDigits(2);
     }
@@ -55,6 +60,7 @@ public class SvAnnaBuilder {
     private PhenotypeDataService phenotypeDataService;
     private AnnotationDataService annotationDataService;
     private SvPrioritizerFactory svPrioritizerFactory;
+    private int databaseConcurrency = 0;
 
     private SvAnnaBuilder(SvAnnaProperties properties) throws MissingResourceException {
         this.properties = Objects.requireNonNull(properties);
@@ -90,97 +96,193 @@ public class SvAnnaBuilder {
         return this;
     }
 
+    /**
+     * Run at most <code>databaseConcurrency</code> route data requests at the same time, and size the database
+     * connection pool accordingly. A worker waits for a free request slot as a managed blocking operation, allowing
+     * the fork-join pool to evaluate other variants meanwhile.
+     *
+     * @param databaseConcurrency positive number of concurrent requests or <code>0</code> to use the default
+     *                            connection pool and run the requests on the worker threads
+     */
+    public SvAnnaBuilder databaseConcurrency(int databaseConcurrency) {
+        if (databaseConcurrency < 0)
+            throw new IllegalArgumentException("Database concurrency must not be negative: " + databaseConcurrency);
+        this.databaseConcurrency = databaseConcurrency;
+        return this;
+    }
+
+    /**
+     * Build {@link SvAnna}. The independent components, such as the genes, the ontology, the phenotype maps,
+     * the annotation DAOs, and the MICA calculator, are loaded concurrently.
+     */
     public SvAnna build() throws UndefinedResourceException, InvalidResourceException {
         // Let's build SvAnna components.
         // 1 - genomic assembly is given
         if (genomicAssembly == null)
             throw new UndefinedResourceException("Genomic assembly must not be null");
 
-        // 2 - GeneService ---------------------------------------------------------------------------------------------
-        if (geneService == null) {
-            LOGGER.debug("Reading genes from {}", dataResolver.genesJsonPath());
-            try {
-                geneService = SilentGenesGeneService.of(genomicAssembly, dataResolver.genesJsonPath());
-            } catch (IOException e) {
-                throw new InvalidResourceException("Error reading genes from `" + dataResolver.genesJsonPath().toAbsolutePath() + "`", e);
+        // The invalid configuration is rejected before any loading starts
+        TermSimilarityMeasure similarityMeasure = properties.prioritizationProperties().termSimilarityMeasure();
+        if (svPrioritizerFactory == null
+                && !similarityMeasure.equals(TermSimilarityMeasure.RESNIK_SYMMETRIC) && !similarityMeasure.equals(TermSimilarityMeasure.RESNIK_ASYMMETRIC))
+            throw new UndefinedResourceException("Unknown term similarity measure " + similarityMeasure);
+
+        boolean needsDataSource = phenotypeDataService == null || annotationDataService == null || svPrioritizerFactory == null;
+        DataSource dataSource = needsDataSource
+                ? svAnnaDataSource(dataResolver.dataSourcePath(), databaseConcurrency)
+                : null;
+
+        AtomicInteger threadCounter = new AtomicInteger(1);
+        ExecutorService executor = Executors.newFixedThreadPool(BOOTSTRAP_THREADS, r -> {
+            Thread thread = new Thread(r, "svanna-bootstrap-" + threadCounter.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            // 2 - GeneService -----------------------------------------------------------------------------------------
+            CompletableFuture<GeneService> geneServiceFuture = geneService != null
+                    ? CompletableFuture.completedFuture(geneService)
+                    : supply("genes", () -> {
+                        LOGGER.debug("Reading genes from {}", dataResolver.genesJsonPath());
+                        try {
+                            return SilentGenesGeneService.of(genomicAssembly, dataResolver.genesJsonPath());
+                        } catch (IOException e) {
+                            throw new InvalidResourceException("Error reading genes from `" + dataResolver.genesJsonPath().toAbsolutePath() + "`", e);
+                        }
+                    }, executor);
+
+            // 3 - PhenotypeDataService --------------------------------------------------------------------------------
+            CompletableFuture<PhenotypeDataService> phenotypeDataServiceFuture;
+            if (phenotypeDataService != null) {
+                phenotypeDataServiceFuture = CompletableFuture.completedFuture(phenotypeDataService);
+            } else {
+                GeneDiseaseDao geneDiseaseDao = new GeneDiseaseDao(dataSource);
+                CompletableFuture<Ontology> ontology = supply("HPO", () -> {
+                    LOGGER.debug("Reading HPO file from {}", dataResolver.hpOntologyPath().toAbsolutePath());
+                    return OntologyLoader.loadOntology(dataResolver.hpOntologyPath().toFile());
+                }, executor);
+                CompletableFuture<List<GeneIdentifier>> geneIdentifiers = supply("gene identifiers", geneDiseaseDao::geneIdentifiers, executor);
+                CompletableFuture<Map<String, List<HpoDiseaseSummary>>> hgncGeneIdToDiseases = supply("gene to disease map", geneDiseaseDao::hgncGeneIdToDiseases, executor);
+                CompletableFuture<Map<String, List<TermId>>> phenotypicAbnormalitiesForDiseaseId = supply("disease to phenotype map", geneDiseaseDao::diseaseToPhenotypes, executor);
+                phenotypeDataServiceFuture = CompletableFuture.allOf(ontology, geneIdentifiers, hgncGeneIdToDiseases, phenotypicAbnormalitiesForDiseaseId)
+                        .thenApply(ignored -> new DbPhenotypeDataService(ontology.join(), geneIdentifiers.join(), hgncGeneIdToDiseases.join(), phenotypicAbnormalitiesForDiseaseId.join()));
             }
-        }
-
-        // 3 - PhenotypeDataService ------------------------------------------------------------------------------------
-        DataSource dataSource = null;
-        if (phenotypeDataService == null) {
-            dataSource = svAnnaDataSource(dataResolver.dataSourcePath());
-            LOGGER.debug("Reading HPO file from {}", dataResolver.hpOntologyPath().toAbsolutePath());
-            Ontology ontology = OntologyLoader.loadOntology(dataResolver.hpOntologyPath().toFile());
-
-            GeneDiseaseDao geneDiseaseDao = new GeneDiseaseDao(dataSource);
-            List<GeneIdentifier> geneIdentifiers = geneDiseaseDao.geneIdentifiers();
-            Map<String, List<HpoDiseaseSummary>> hgncGeneIdToDiseases = geneDiseaseDao.hgncGeneIdToDiseases();
-            Map<String, List<TermId>> phenotypicAbnormalitiesForDiseaseId = geneDiseaseDao.diseaseToPhenotypes();
-            phenotypeDataService = new DbPhenotypeDataService(ontology, geneIdentifiers, hgncGeneIdToDiseases, phenotypicAbnormalitiesForDiseaseId);
-        }
 
-        // 4 - AnnotationDataService -----------------------------------------------------------------------------------
-        if (annotationDataService == null) {
-            if (dataSource == null)
-                dataSource = svAnnaDataSource(dataResolver.dataSourcePath());
+            // 4 - AnnotationDataService -------------------------------------------------------------------------------
+            CompletableFuture<AnnotationDataService> annotationDataServiceFuture = annotationDataService != null
+                    ? CompletableFuture.completedFuture(annotationDataService)
+                    : prepareAnnotationDataService(dataSource, executor);
 
-            DataProperties dataProperties = properties.dataProperties();
-            LOGGER.debug("Including TAD boundaries with stability >{}%", NF.format(dataProperties.tadStabilityThresholdAsPercentage()));
-
-            if (dataProperties.useVista())
-                LOGGER.debug("Including VISTA enhancers");
-            if (dataProperties.useFantom5())
-                LOGGER.debug("Including FANTOM5 enhancers with tissue specificity >{}", dataProperties.fantom5TissueSpecificity());
+            // 5 - SvPrioritizerFactory --------------------------------------------------------------------------------
+            CompletableFuture<SvPrioritizerFactory> svPrioritizerFactoryFuture;
+            if (svPrioritizerFactory != null) {
+                svPrioritizerFactoryFuture = CompletableFuture.completedFuture(svPrioritizerFactory);
+            } else {
+                LOGGER.debug("Initializing phenotype term similarity calculator {}", similarityMeasure);
+
+                CompletableFuture<MicaCalculator> micaCalculator = supply("MICA calculator",
+                        () -> prepareMicaCalculator(dataSource, properties.prioritizationProperties().icMicaMode()), executor);
+                svPrioritizerFactoryFuture = CompletableFuture.allOf(micaCalculator, annotationDataServiceFuture, geneServiceFuture, phenotypeDataServiceFuture)
+                        .thenApply(ignored -> {
+                            SimilarityScoreCalculator similarityScoreCalculator = new ResnikSimilarityScoreCalculator(micaCalculator.join(),
+                                    similarityMeasure.equals(TermSimilarityMeasure.RESNIK_SYMMETRIC));
+                            return new SvPrioritizerFactoryImpl(genomicAssembly,
+                                    dataSource,
+                                    properties,
+                                    annotationDataServiceFuture.join(),
+                                    geneServiceFuture.join(),
+                                    phenotypeDataServiceFuture.join(),
+                                    similarityScoreCalculator,
+                                    databaseConcurrency);
+                        });
+            }
 
-            EnhancerAnnotationDao.EnhancerParameters enhancerParameters = EnhancerAnnotationDao.EnhancerParameters.of(dataProperties.useVista(),
-                    dataProperties.useFantom5(),
-                    dataProperties.fantom5TissueSpecificity());
+            // We're done!
+            return SvAnna.of(genomicAssembly,
+                    await(geneServiceFuture),
+                    await(phenotypeDataServiceFuture),
+                    await(annotationDataServiceFuture),
+                    await(svPrioritizerFactoryFuture));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 
+    private CompletableFuture<AnnotationDataService> prepareAnnotationDataService(DataSource dataSource, Executor executor) {
+        DataProperties dataProperties = properties.dataProperties();
+        LOGGER.debug("Including TAD boundaries with stability >{}%", NF.format(dataProperties.tadStabilityThresholdAsPercentage()));
+
+        if (dataProperties.useVista())
+            LOGGER.debug("Including VISTA enhancers");
+        if (dataProperties.useFantom5())
+            LOGGER.debug("Including FANTOM5 enhancers with tissue specificity >{}", dataProperties.fantom5TissueSpecificity());
+
+        EnhancerAnnotationDao.EnhancerParameters enhancerParameters = EnhancerAnnotationDao.EnhancerParameters.of(dataProperties.useVista(),
+                dataProperties.useFantom5(),
+                dataProperties.fantom5TissueSpecificity());
+
+        // The DAOs may read data from the database when created
+        CompletableFuture<EnhancerAnnotationDao> enhancerDao = supply("enhancer DAO", () -> new EnhancerAnnotationDao(dataSource, genomicAssembly, enhancerParameters), executor);
+        CompletableFuture<RepetitiveRegionDao> repetitiveRegionDao = supply("repetitive region DAO", () -> new RepetitiveRegionDao(dataSource, genomicAssembly), executor);
+        CompletableFuture<DbPopulationVariantDao> populationVariantDao = supply("population variant DAO", () -> new DbPopulationVariantDao(dataSource, genomicAssembly), executor);
+        CompletableFuture<TadBoundaryDao> tadBoundaryDao = supply("TAD boundary DAO", () -> new TadBoundaryDao(dataSource, genomicAssembly, dataProperties.tadStabilityThresholdAsFraction()), executor);
+        CompletableFuture<GeneDosageDataService> geneDosageDataService = supply("gene dosage service", () -> {
             LOGGER.debug("Using `clingen` gene dosage source");
             ClingenDosageElementDao clingenDosageElementDao = new ClingenDosageElementDao(dataSource, genomicAssembly);
-            GeneDosageDataService geneDosageDataService = new ClinGenGeneDosageDataService(clingenDosageElementDao);
-
-            annotationDataService = new DbAnnotationDataService(
-                    new EnhancerAnnotationDao(dataSource, genomicAssembly, enhancerParameters),
-                    new RepetitiveRegionDao(dataSource, genomicAssembly),
-                    new DbPopulationVariantDao(dataSource, genomicAssembly),
-                    new TadBoundaryDao(dataSource, genomicAssembly, dataProperties.tadStabilityThresholdAsFraction()),
-                    geneDosageDataService);
-        }
-
-        // 5 - SvPrioritizerFactory ------------------------------------------------------------------------------------
-        if (svPrioritizerFactory == null) {
-            if (dataSource == null)
-                dataSource = svAnnaDataSource(dataResolver.dataSourcePath());
-
-            SimilarityScoreCalculator similarityScoreCalculator;
-            TermSimilarityMeasure similarityMeasure = properties.prioritizationProperties().termSimilarityMeasure();
-            LOGGER.debug("Initializing phenotype term similarity calculator {}", similarityMeasure);
+            return new ClinGenGeneDosageDataService(clingenDosageElementDao);
+        }, executor);
+
+        return CompletableFuture.allOf(enhancerDao, repetitiveRegionDao, populationVariantDao, tadBoundaryDao, geneDosageDataService)
+                .thenApply(ignored -> new DbAnnotationDataService(
+                        enhancerDao.join(),
+                        repetitiveRegionDao.join(),
+                        populationVariantDao.join(),
+                        tadBoundaryDao.join(),
+                        geneDosageDataService.join()));
+    }
 
-            MicaCalculator similarityCalculator = prepareMicaCalculator(dataSource, properties.prioritizationProperties().icMicaMode());
-            if (similarityMeasure.equals(TermSimilarityMeasure.RESNIK_SYMMETRIC)) {
-                similarityScoreCalculator = new ResnikSimilarityScoreCalculator(similarityCalculator, true);
-            } else if (similarityMeasure.equals(TermSimilarityMeasure.RESNIK_ASYMMETRIC)) {
-                similarityScoreCalculator = new ResnikSimilarityScoreCalculator(similarityCalculator, false);
-            } else {
-                throw new UndefinedResourceException("Unknown term similarity measure " + similarityMeasure);
+    /**
+     * Run the <code>task</code> on the <code>executor</code>, and log the time spent by the task at debug level.
+     */
+    private static <T> CompletableFuture<T> supply(String component, BootstrapTask<T> task, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> {
+            long start = System.nanoTime();
+            try {
+                T result = task.call();
+                LOGGER.debug("Loaded {} in {} ms", component, (System.nanoTime() - start) / 1_000_000);
+                return result;
+            } catch (InvalidResourceException | UndefinedResourceException e) {
+                throw new CompletionException(e);
             }
+        }, executor);
+    }
 
-            svPrioritizerFactory = new SvPrioritizerFactoryImpl(genomicAssembly,
-                    dataSource,
-                    properties,
-                    annotationDataService,
-                    geneService,
-                    phenotypeDataService,
-                    similarityScoreCalculator);
+    /**
+     * Wait for the component, and rethrow the checked exception of the bootstrap task, if any.
+     */
+    private static <T> T await(CompletableFuture<T> future) throws InvalidResourceException, UndefinedResourceException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof InvalidResourceException)
+                throw (InvalidResourceException) cause;
+            if (cause instanceof UndefinedResourceException)
+                throw (UndefinedResourceException) cause;
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            if (cause instanceof Error)
+                throw (Error) cause;
+            throw e;
         }
+    }
 
-        // We're done!
-        return SvAnna.of(genomicAssembly, geneService, phenotypeDataService, annotationDataService, svPrioritizerFactory);
+    @FunctionalInterface
+    private interface BootstrapTask<T> {
+        T call() throws InvalidResourceException, UndefinedResourceException;
     }
 
-    private static DataSource svAnnaDataSource(Path svAnnaDataSourcePath) {
+    private static DataSource svAnnaDataSource(Path svAnnaDataSourcePath, int maximumPoolSize) {
         String jdbcUrl = String.format("jdbc:h2:file:%s;ACCESS_MODE_DATA=r", svAnnaDataSourcePath.toFile().getAbsolutePath());
         HikariConfig config = new HikariConfig();
         config.setUsername("sa");
@@ -188,6 +290,8 @@ public class SvAnnaBuilder {
         config.setDriverClassName("org.h2.Driver");
         config.setJdbcUrl(jdbcUrl);
         config.setPoolName("svanna-pool");
+        if (maximumPoolSize > 0)
+            config.setMaximumPoolSize(maximumPoolSize);
 
         return new HikariDataSource(config);
     }
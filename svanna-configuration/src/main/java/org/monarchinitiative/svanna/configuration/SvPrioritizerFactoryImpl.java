@@ -3,6 +3,8 @@ package org.monarchinitiative.svanna.configuration;
 import org.monarchinitiative.svanna.core.configuration.PrioritizationProperties;
 import org.monarchinitiative.svanna.core.configuration.SvAnnaProperties;
 import org.monarchinitiative.svanna.core.hpo.SimilarityScoreCalculator;
+import org.monarchinitiative.svanna.core.metrics.SlowVariantProfiler;
+import org.monarchinitiative.svanna.core.priority.CohortSvPrioritizer;
 import org.monarchinitiative.svanna.core.priority.SvPrioritizer;
 import org.monarchinitiative.svanna.core.priority.SvPrioritizerFactory;
 import org.monarchinitiative.svanna.core.priority.SvPriority;
@@ -37,7 +39,8 @@ class SvPrioritizerFactoryImpl implements SvPrioritizerFactory {
     private final GeneService geneService;
     private final PhenotypeDataService phenotypeDataService;
     private final SimilarityScoreCalculator similarityScoreCalculator;
-
+    // The number of concurrent route data requests, or 0 if the number of the requests is not limited
+    private final int databaseConcurrency;
 
     SvPrioritizerFactoryImpl(
             GenomicAssembly genomicAssembly,
@@ -46,7 +49,8 @@ class SvPrioritizerFactoryImpl implements SvPrioritizerFactory {
             AnnotationDataService annotationDataService,
             GeneService geneService,
             PhenotypeDataService phenotypeDataService,
-            SimilarityScoreCalculator similarityScoreCalculator) {
+            SimilarityScoreCalculator similarityScoreCalculator,
+            int databaseConcurrency) {
         this.genomicAssembly = genomicAssembly;
         this.dataSource = dataSource;
         this.svAnnaProperties = svAnnaProperties;
@@ -54,6 +58,7 @@ class SvPrioritizerFactoryImpl implements SvPrioritizerFactory {
         this.geneService = geneService;
         this.phenotypeDataService = phenotypeDataService;
         this.similarityScoreCalculator = similarityScoreCalculator;
+        this.databaseConcurrency = databaseConcurrency;
     }
 
     private Dispatcher prepareDispatcher() {
@@ -76,14 +81,50 @@ class SvPrioritizerFactoryImpl implements SvPrioritizerFactory {
 
     @Override
     public SvPrioritizer<SvPriority> getPrioritizer(Collection<TermId> phenotypeTerms) {
-        LOGGER.debug("Preparing top-level enhancer phenotype terms for the input terms");
-        Set<TermId> topLevelEnhancerTerms = annotationDataService.enhancerPhenotypeAssociations();
-        Set<TermId> enhancerRelevantAncestors = phenotypeDataService.getRelevantAncestors(phenotypeTerms, topLevelEnhancerTerms);
+        return getPrioritizer(phenotypeTerms, null);
+    }
 
+    @Override
+    public SvPrioritizer<SvPriority> getPrioritizer(Collection<TermId> phenotypeTerms, SlowVariantProfiler profiler) {
         Dispatcher dispatcher = prepareDispatcher();
+        RouteDataService<RouteDataGE> dbRouteDataService = prepareRouteDataService();
+        RouteDataEvaluator<RouteDataGE, GranularRouteResult> granularEvaluator = prepareEvaluator(phenotypeTerms);
+
+        return AdditiveGranularSvPrioritizer.<RouteDataGE>builder()
+                .dispatcher(dispatcher)
+                .routeDataService(dbRouteDataService)
+                .routeDataEvaluator(granularEvaluator)
+                .profiler(profiler)
+                .build();
+
+    }
+
+    /**
+     * The routes and the route data are shared by the profiles, only the evaluation is run for each profile.
+     */
+    @Override
+    public CohortSvPrioritizer<SvPriority> getCohortPrioritizer(List<? extends Collection<TermId>> profiles) {
+        List<RouteDataEvaluator<RouteDataGE, GranularRouteResult>> evaluators = new ArrayList<>(profiles.size());
+        for (Collection<TermId> phenotypeTerms : profiles) {
+            evaluators.add(prepareEvaluator(phenotypeTerms));
+        }
+
+        return AdditiveCohortSvPrioritizer.of(prepareDispatcher(), prepareRouteDataService(), evaluators);
+    }
+
+    private RouteDataService<RouteDataGE> prepareRouteDataService() {
         RouteDataServiceFactory fct = new RouteDataServiceFactory(annotationDataService, geneService);
 //        RouteDataService<RouteDataGETad> dbRouteDataService = fct.getService(RouteDataGETad.class);
-        RouteDataService<RouteDataGE> dbRouteDataService = fct.getService(RouteDataGE.class);
+        RouteDataService<RouteDataGE> routeDataService = fct.getService(RouteDataGE.class);
+        return databaseConcurrency > 0
+                ? ManagedBlockingRouteDataService.of(routeDataService, databaseConcurrency)
+                : routeDataService;
+    }
+
+    private RouteDataEvaluator<RouteDataGE, GranularRouteResult> prepareEvaluator(Collection<TermId> phenotypeTerms) {
+        LOGGER.debug("Preparing top-level enhancer phenotype terms for the input terms");
+        Set<TermId> topLevelEnhancerTerms = annotationDataService.enhancerPhenotypeAssociations();
+        Set<TermId> enhancerRelevantAncestors = phenotypeDataService.getRelevantAncestors(phenotypeTerms, topLevelEnhancerTerms);
 
         PrioritizationProperties prioritizationProperties = svAnnaProperties.prioritizationProperties();
         SequenceImpactCalculator<Gene> geneImpactCalculator = new GeneSequenceImpactCalculator(prioritizationProperties.geneFactor(), prioritizationProperties.promoterLength(), prioritizationProperties.promoterFitnessGain());
@@ -92,15 +133,8 @@ class SvPrioritizerFactoryImpl implements SvPrioritizerFactory {
         SequenceImpactCalculator<Enhancer> enhancerImpactCalculator = new EnhancerSequenceImpactCalculator(prioritizationProperties.enhancerFactor());
         EnhancerGeneRelevanceCalculator enhancerGeneRelevanceCalculator = PhenotypeEnhancerGeneRelevanceCalculator.of(enhancerRelevantAncestors);
 
-//        RouteDataEvaluator<RouteDataGETad, GranularRouteResult> granularEvaluator = new GranularRouteDataEvaluatorGETad(geneImpactCalculator, geneWeightCalculator, enhancerImpactCalculator, enhancerGeneRelevanceCalculator);
-        RouteDataEvaluator<RouteDataGE, GranularRouteResult> granularEvaluator = new GranularRouteDataEvaluatorGE(geneImpactCalculator, geneWeightCalculator, enhancerImpactCalculator, enhancerGeneRelevanceCalculator);
-
-        return AdditiveGranularSvPrioritizer.<RouteDataGE>builder()
-                .dispatcher(dispatcher)
-                .routeDataService(dbRouteDataService)
-                .routeDataEvaluator(granularEvaluator)
-                .build();
-
+//        return new GranularRouteDataEvaluatorGETad(geneImpactCalculator, geneWeightCalculator, enhancerImpactCalculator, enhancerGeneRelevanceCalculator);
+        return new GranularRouteDataEvaluatorGE(geneImpactCalculator, geneWeightCalculator, enhancerImpactCalculator, enhancerGeneRelevanceCalculator, prioritizationProperties.evaluationWorkBudget());
     }
 
     private static GeneWeightCalculator configureGeneWeightCalculator(PhenotypeDataService phenotypeDataService,
@@ -0,0 +1,107 @@
+package org.monarchinitiative.svanna.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+import java.util.function.IntToLongFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
+
+/**
+ * Run the work items in parallel, balancing the work by the estimated cost of the items.
+ * <p>
+ * The items are started in the order of decreasing cost, and each worker takes the next item as soon as it finishes
+ * the previous one. The expensive items, such as translocations or multi-megabase CNVs, are therefore not left
+ * to the end of the run, where a few of them would keep a few threads busy while the other threads are idle.
+ * <p>
+ * The work is done in the {@link ForkJoinPool} of the calling thread, if any, or in the common pool.
+ */
+public class WorkScheduler {
+
+    private WorkScheduler() {
+    }
+
+    /**
+     * Apply the <code>mapper</code> to the items.
+     *
+     * @param cost estimated relative cost of processing an item
+     * @return results in the order of the input items
+     */
+    public static <T, U> List<U> map(List<T> items, Function<? super T, ? extends U> mapper, ToLongFunction<? super T> cost) {
+        Object[] results = new Object[items.size()];
+        forEach(items.size(), i -> results[i] = mapper.apply(items.get(i)), i -> cost.applyAsLong(items.get(i)));
+        List<U> list = new ArrayList<>(results.length);
+        for (Object result : results) {
+            @SuppressWarnings("unchecked")
+            U u = (U) result;
+            list.add(u);
+        }
+        return list;
+    }
+
+    /**
+     * Run the <code>action</code> for the item indices <code>0</code> to <code>n - 1</code>.
+     *
+     * @param cost estimated relative cost of the item at the index
+     */
+    public static void forEach(int n, IntConsumer action, IntToLongFunction cost) {
+        if (n == 0)
+            return;
+        int parallelism = Math.min(n, currentParallelism());
+        if (parallelism < 2) {
+            for (int i = 0; i < n; i++)
+                action.accept(i);
+            return;
+        }
+
+        long[] costs = new long[n];
+        for (int i = 0; i < n; i++)
+            costs[i] = cost.applyAsLong(i);
+        int[] order = IntStream.range(0, n)
+                .boxed()
+                .sorted(Comparator.comparingLong((Integer i) -> costs[i]).reversed())
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        AtomicInteger next = new AtomicInteger();
+        Worker[] workers = new Worker[parallelism];
+        Arrays.setAll(workers, w -> new Worker(order, next, action));
+        ForkJoinTask.invokeAll(workers);
+    }
+
+    private static int currentParallelism() {
+        ForkJoinPool pool = ForkJoinTask.inForkJoinPool()
+                ? ForkJoinTask.getPool()
+                : ForkJoinPool.commonPool();
+        return pool.getParallelism();
+    }
+
+    private static class Worker extends RecursiveAction {
+
+        private final int[] order;
+
+        private final AtomicInteger next;
+
+        private final IntConsumer action;
+
+        private Worker(int[] order, AtomicInteger next, IntConsumer action) {
+            this.order = order;
+            this.next = next;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            int i;
+            while ((i = next.getAndIncrement()) < order.length)
+                action.accept(order[i]);
+        }
+    }
+}
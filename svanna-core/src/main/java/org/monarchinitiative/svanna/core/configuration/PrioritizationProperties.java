@@ -13,6 +13,7 @@ public class PrioritizationProperties {
     private final double promoterFitnessGain;
     private final double geneFactor;
     private final double enhancerFactor;
+    private final long evaluationWorkBudget;
 
     public static PrioritizationProperties of(TermSimilarityMeasure termSimilarityMeasure,
                                               IcMicaMode icMicaMode,
@@ -20,12 +21,36 @@ public class PrioritizationProperties {
                                               double promoterFitnessGain,
                                               double geneFactor,
                                               double enhancerFactor) {
+        return of(termSimilarityMeasure,
+                icMicaMode,
+                promoterLength,
+                promoterFitnessGain,
+                geneFactor,
+                enhancerFactor,
+                0L);
+    }
+
+    /**
+     * @param evaluationWorkBudget the maximum product of the gene and enhancer counts of a variant that is scored
+     *                             exactly, the variants above the budget are scored approximately using the genes only.
+     *                             Use <code>0</code> to score all variants exactly.
+     */
+    public static PrioritizationProperties of(TermSimilarityMeasure termSimilarityMeasure,
+                                              IcMicaMode icMicaMode,
+                                              int promoterLength,
+                                              double promoterFitnessGain,
+                                              double geneFactor,
+                                              double enhancerFactor,
+                                              long evaluationWorkBudget) {
+        if (evaluationWorkBudget < 0)
+            throw new IllegalArgumentException("Evaluation work budget must not be negative: " + evaluationWorkBudget);
         return new PrioritizationProperties(termSimilarityMeasure,
                 icMicaMode,
                 promoterLength,
                 promoterFitnessGain,
                 geneFactor,
-                enhancerFactor);
+                enhancerFactor,
+                evaluationWorkBudget);
     }
 
     private PrioritizationProperties(TermSimilarityMeasure termSimilarityMeasure,
@@ -33,13 +58,15 @@ public class PrioritizationProperties {
                                      int promoterLength,
                                      double promoterFitnessGain,
                                      double geneFactor,
-                                     double enhancerFactor) {
+                                     double enhancerFactor,
+                                     long evaluationWorkBudget) {
         this.termSimilarityMeasure = Objects.requireNonNull(termSimilarityMeasure);
         this.icMicaMode = Objects.requireNonNull(icMicaMode);
         this.promoterLength = promoterLength;
         this.promoterFitnessGain = promoterFitnessGain;
         this.geneFactor = geneFactor;
         this.enhancerFactor = enhancerFactor;
+        this.evaluationWorkBudget = evaluationWorkBudget;
     }
 
     public TermSimilarityMeasure termSimilarityMeasure() {
@@ -66,6 +93,14 @@ public class PrioritizationProperties {
         return promoterFitnessGain;
     }
 
+    /**
+     * @return the maximum product of the gene and enhancer counts of a variant that is scored exactly
+     * or <code>0</code> if all variants are scored exactly
+     */
+    public long evaluationWorkBudget() {
+        return evaluationWorkBudget;
+    }
+
     @Override
     public String toString() {
         return "PrioritizationProperties{" +
@@ -75,6 +110,7 @@ public class PrioritizationProperties {
                 ", promoterFitnessGain=" + promoterFitnessGain +
                 ", geneFactor=" + geneFactor +
                 ", enhancerFactor=" + enhancerFactor +
+                ", evaluationWorkBudget=" + evaluationWorkBudget +
                 '}';
     }
 }
@@ -0,0 +1,36 @@
+package org.monarchinitiative.svanna.core.filter;
+
+import org.monarchinitiative.svanna.core.reference.SvannaVariant;
+import org.monarchinitiative.svanna.core.reference.VariantMetadata;
+
+/**
+ * Filter out the variants with the ALT allele supported by less than the required number of reads.
+ */
+public class CoverageFilter implements Filter<SvannaVariant> {
+
+    private static final FilterType FILTER_TYPE = FilterType.COVERAGE_FILTER;
+    private static final FilterResult FAIL = FilterResult.fail(FILTER_TYPE);
+    private static final FilterResult PASS = FilterResult.pass(FILTER_TYPE);
+    private static final FilterResult NOT_RUN = FilterResult.notRun(FILTER_TYPE);
+
+    private final int minReads;
+
+    public CoverageFilter(int minReads) {
+        this.minReads = minReads;
+    }
+
+    @Override
+    public FilterType getFilterType() {
+        return FILTER_TYPE;
+    }
+
+    @Override
+    public FilterResult runFilter(SvannaVariant filterable) {
+        return (filterable.numberOfAltReads() == VariantMetadata.MISSING_DEPTH_PLACEHOLDER)
+                ? NOT_RUN
+                : (filterable.numberOfAltReads() < minReads)
+                ? FAIL
+                : PASS;
+    }
+
+}
@@ -19,6 +19,9 @@
  */
 package org.monarchinitiative.svanna.core.filter;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * @param <T>
  * @author Jules Jacobsen <jules.jacobsen@sanger.ac.uk>
@@ -39,4 +42,25 @@ public interface Filter<T extends Filterable> {
      * @return true if the {@code VariantEvaluation} passes the runFilter.
      */
     FilterResult runFilter(T filterable);
+
+    /**
+     * Run the filter on all <code>filterables</code>. The filters that can process the items more efficiently
+     * in batch, e.g. by querying a database, should override this method.
+     *
+     * @param filterables filterable instances
+     * @return filter results in the order of the <code>filterables</code>
+     */
+    default List<FilterResult> runFilterBatch(List<? extends T> filterables) {
+        return filterables.stream()
+                .map(this::runFilter)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * @return relative cost of running the filter on a single item. The cheaper filters are run first
+     * by {@link FilterChain}.
+     */
+    default int cost() {
+        return 1;
+    }
 }
@@ -0,0 +1,105 @@
+package org.monarchinitiative.svanna.core.filter;
+
+import org.monarchinitiative.svanna.core.LogUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Run several {@link Filter}s on the items, from the cheapest to the most expensive filter.
+ * <p>
+ * If configured to skip the failed items, a filter is not run on the items that failed a cheaper filter,
+ * or any filter applied before the chain, e.g. the filters of the VCF file. The chain keeps track
+ * of the number of passed and failed items and of the time spent by each filter.
+ *
+ * @param <T> type of the filtered items
+ */
+public class FilterChain<T extends Filterable> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FilterChain.class);
+
+    private final List<Filter<? super T>> filters;
+
+    private final boolean skipFailed;
+
+    private final Map<FilterType, Counts> counts = new EnumMap<>(FilterType.class);
+
+    public static <T extends Filterable> FilterChain<T> of(Collection<? extends Filter<? super T>> filters, boolean skipFailed) {
+        return new FilterChain<>(filters, skipFailed);
+    }
+
+    private FilterChain(Collection<? extends Filter<? super T>> filters, boolean skipFailed) {
+        // The sort is stable, hence the filters with the same cost are run in the provided order
+        this.filters = filters.stream()
+                .sorted(Comparator.comparingInt(Filter::cost))
+                .collect(Collectors.toUnmodifiableList());
+        this.skipFailed = skipFailed;
+        for (Filter<? super T> filter : this.filters) {
+            if (counts.put(filter.getFilterType(), new Counts()) != null)
+                throw new IllegalArgumentException("Saw more than one filter of type " + filter.getFilterType());
+        }
+    }
+
+    /**
+     * Run the filters and add the filter results to the items.
+     *
+     * @return the items in the original order
+     */
+    public List<T> filter(Collection<T> items) {
+        List<T> results = new ArrayList<>(items);
+        for (Filter<? super T> filter : filters) {
+            List<T> candidates = skipFailed
+                    ? results.stream().filter(Filterable::passedFilters).collect(Collectors.toList())
+                    : results;
+
+            long start = System.nanoTime();
+            List<FilterResult> filterResults = filter.runFilterBatch(candidates);
+            long passed = 0, failed = 0;
+            for (int i = 0; i < candidates.size(); i++) {
+                FilterResult filterResult = filterResults.get(i);
+                candidates.get(i).addFilterResult(filterResult);
+                if (filterResult.passed())
+                    passed++;
+                else if (filterResult.failed())
+                    failed++;
+            }
+            long elapsed = System.nanoTime() - start;
+
+            long notRun = results.size() - passed - failed;
+            counts.get(filter.getFilterType()).add(passed, failed, notRun, elapsed);
+            LogUtils.logDebug(LOGGER, "{} filter: {} passed, {} failed, {} not run in {} ms",
+                    filter.getFilterType(), passed, failed, notRun, elapsed / 1_000_000);
+        }
+
+        return results;
+    }
+
+    /**
+     * @return statistics of the filters in the order the filters are run, summed over all {@link #filter(Collection)} calls
+     */
+    public List<FilterStats> stats() {
+        List<FilterStats> stats = new ArrayList<>(filters.size());
+        for (Filter<? super T> filter : filters) {
+            stats.add(counts.get(filter.getFilterType()).toStats(filter));
+        }
+        return stats;
+    }
+
+    private static class Counts {
+        private long passed, failed, notRun, nanos;
+
+        private synchronized void add(long passed, long failed, long notRun, long nanos) {
+            this.passed += passed;
+            this.failed += failed;
+            this.notRun += notRun;
+            this.nanos += nanos;
+        }
+
+        private synchronized FilterStats toStats(Filter<?> filter) {
+            return FilterStats.of(filter.getFilterType(), filter.cost(), passed, failed, notRun, Duration.ofNanos(nanos));
+        }
+    }
+}
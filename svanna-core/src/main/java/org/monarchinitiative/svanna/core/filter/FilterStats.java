@@ -0,0 +1,92 @@
+package org.monarchinitiative.svanna.core.filter;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Summary of running a {@link Filter} in a {@link FilterChain}.
+ */
+public class FilterStats {
+
+    private final FilterType filterType;
+    private final int cost;
+    private final long passed;
+    private final long failed;
+    private final long notRun;
+    private final Duration elapsed;
+
+    public static FilterStats of(FilterType filterType, int cost, long passed, long failed, long notRun, Duration elapsed) {
+        return new FilterStats(filterType, cost, passed, failed, notRun, elapsed);
+    }
+
+    private FilterStats(FilterType filterType, int cost, long passed, long failed, long notRun, Duration elapsed) {
+        this.filterType = Objects.requireNonNull(filterType);
+        this.cost = cost;
+        this.passed = passed;
+        this.failed = failed;
+        this.notRun = notRun;
+        this.elapsed = Objects.requireNonNull(elapsed);
+    }
+
+    public FilterType filterType() {
+        return filterType;
+    }
+
+    public int cost() {
+        return cost;
+    }
+
+    /**
+     * @return number of items that passed the filter
+     */
+    public long passed() {
+        return passed;
+    }
+
+    /**
+     * @return number of items that failed the filter
+     */
+    public long failed() {
+        return failed;
+    }
+
+    /**
+     * @return number of items the filter was not run on, either because the filter does not apply to the item
+     * or because the item failed a cheaper filter
+     */
+    public long notRun() {
+        return notRun;
+    }
+
+    /**
+     * @return wall time spent by running the filter
+     */
+    public Duration elapsed() {
+        return elapsed;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        FilterStats that = (FilterStats) o;
+        return cost == that.cost && passed == that.passed && failed == that.failed && notRun == that.notRun && filterType == that.filterType && Objects.equals(elapsed, that.elapsed);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(filterType, cost, passed, failed, notRun, elapsed);
+    }
+
+    @Override
+    public String toString() {
+        return "FilterStats{" +
+                "filterType=" + filterType +
+                ", cost=" + cost +
+                ", passed=" + passed +
+                ", failed=" + failed +
+                ", notRun=" + notRun +
+                ", elapsed=" + elapsed +
+                '}';
+    }
+}
@@ -0,0 +1,172 @@
+package org.monarchinitiative.svanna.core.filter;
+
+import org.monarchinitiative.svanna.core.LogUtils;
+import org.monarchinitiative.svanna.core.reference.SvannaVariant;
+import org.monarchinitiative.svanna.core.service.AnnotationDataService;
+import org.monarchinitiative.svanna.model.landscape.variant.PopulationVariant;
+import org.monarchinitiative.svanna.model.landscape.variant.PopulationVariantOrigin;
+import org.monarchinitiative.svart.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Filter out the variants that are similar to common variants reported in the benign population variant datasets.
+ * <p>
+ * The filter is meant to be run in batch, since it queries the database for the population variants.
+ */
+public class PopulationFrequencyFilter implements Filter<SvannaVariant> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PopulationFrequencyFilter.class);
+
+    private static final FilterType FILTER_TYPE = FilterType.FREQUENCY_FILTER;
+    private static final FilterResult FAIL = FilterResult.fail(FILTER_TYPE);
+    private static final FilterResult PASS = FilterResult.pass(FILTER_TYPE);
+    private static final FilterResult NOT_RUN = FilterResult.notRun(FILTER_TYPE);
+
+    private static final Set<VariantType> RECOGNIZED_VARIANTS = Set.of(
+            VariantType.INS, VariantType.DUP, VariantType.DEL, VariantType.INV, VariantType.CNV);
+
+    private static final int BATCH = 100;
+
+    // The number of variants of a contig filtered within a single task, a multiple of the batch size
+    private static final int CHUNK = 20 * BATCH;
+
+    private static final CoordinateSystem CS = CoordinateSystem.zeroBased();
+
+    // The database queries make the filter more expensive than the filters working with the variant data only
+    private static final int COST = 100;
+
+    private final AnnotationDataService annotationDataService;
+    private final float similarityThreshold;
+    private final float frequencyThreshold;
+
+    public PopulationFrequencyFilter(AnnotationDataService annotationDataService,
+                                     float similarityThreshold,
+                                     float frequencyThreshold) {
+        this.annotationDataService = annotationDataService;
+        this.similarityThreshold = similarityThreshold;
+        this.frequencyThreshold = frequencyThreshold;
+    }
+
+    @Override
+    public FilterType getFilterType() {
+        return FILTER_TYPE;
+    }
+
+    @Override
+    public FilterResult runFilter(SvannaVariant filterable) {
+        return runFilterBatch(List.of(filterable)).get(0);
+    }
+
+    @Override
+    public int cost() {
+        return COST;
+    }
+
+    /**
+     * Filter the variants. The variants are grouped by contig, sorted by position, and split into chunks that are
+     * filtered in parallel, using the pool of the calling thread, if any.
+     *
+     * @return the filter results in the order of the <code>variants</code>
+     */
+    @Override
+    public List<FilterResult> runFilterBatch(List<? extends SvannaVariant> variants) {
+        FilterResult[] results = new FilterResult[variants.size()];
+
+        Map<Integer, List<Integer>> indicesByContig = IntStream.range(0, variants.size())
+                .boxed()
+                .collect(Collectors.groupingBy(i -> variants.get(i).genomicVariant().contigId()));
+        List<List<Integer>> chunks = new ArrayList<>();
+        for (List<Integer> indices : indicesByContig.values()) {
+            indices.sort(byPositionOnPositiveStrand(variants));
+            for (int start = 0; start < indices.size(); start += CHUNK) {
+                chunks.add(indices.subList(start, Math.min(start + CHUNK, indices.size())));
+            }
+        }
+        LogUtils.logDebug(LOGGER, "Filtering variants on {} contigs in {} chunks", indicesByContig.size(), chunks.size());
+
+        // The chunks are independent, and each chunk writes the results of its own variants
+        chunks.parallelStream()
+                .forEach(chunk -> filterChunk(variants, chunk, results));
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Filter a chunk of variants of a single contig sorted by position, and store the results at the original indices
+     * of the variants. The population variants are fetched for batches of {@link #BATCH} variants, either into
+     * a sweep over the population variants, or for each batch separately.
+     * <p>
+     * A population variant with reciprocal overlap of 0 passes a negative similarity threshold, regardless of
+     * its location. Therefore, we only use the sweep if the threshold is not negative.
+     */
+    private void filterChunk(List<? extends SvannaVariant> variants, List<Integer> chunk, FilterResult[] results) {
+        Contig contig = variants.get(chunk.get(0)).genomicVariant().contig();
+        PopulationVariantSweep sweep = similarityThreshold < 0
+                ? null
+                : new PopulationVariantSweep(annotationDataService, contig, similarityThreshold, frequencyThreshold);
+
+        for (int start = 0; start < chunk.size(); start += BATCH) {
+            List<Integer> batch = chunk.subList(start, Math.min(start + BATCH, chunk.size()));
+
+            int minPos = Integer.MAX_VALUE, maxPos = Integer.MIN_VALUE;
+            for (int i : batch) {
+                GenomicVariant v = variants.get(i).genomicVariant();
+                minPos = Math.min(minPos, v.startOnStrandWithCoordinateSystem(Strand.POSITIVE, CS));
+                maxPos = Math.max(maxPos, v.endOnStrandWithCoordinateSystem(Strand.POSITIVE, CS));
+            }
+
+            if (sweep != null) {
+                sweep.fetch(minPos, maxPos);
+                for (int i : batch)
+                    results[i] = runFrequencyFilter(sweep, variants.get(i));
+            } else {
+                GenomicRegion query = GenomicRegion.of(contig, Strand.POSITIVE, CS, minPos, maxPos);
+                LogUtils.logTrace(LOGGER, "Filtering variants on contig `{}-{}-{}`", query.contigId(), query.start(), query.end());
+                List<PopulationVariant> populationVariants = annotationDataService.overlappingPopulationVariants(query, PopulationVariantOrigin.benign());
+                for (int i : batch)
+                    results[i] = runFrequencyFilter(populationVariants, variants.get(i));
+            }
+        }
+    }
+
+    private FilterResult runFrequencyFilter(List<PopulationVariant> populationVariants, SvannaVariant item) {
+        FilterResult freqFilterResult = null;
+        if (RECOGNIZED_VARIANTS.contains(item.genomicVariant().variantType().baseType())) {
+            for (PopulationVariant populationVariant : populationVariants) {
+                if (populationVariant.variantType().baseType() == item.genomicVariant().variantType().baseType()
+                        && populationVariant.alleleFrequency() >= frequencyThreshold
+                        && FilterUtils.reciprocalOverlap(populationVariant.location(), item.genomicVariant()) * 100.F > similarityThreshold) {
+                    freqFilterResult = FAIL;
+                    break;
+                }
+            }
+            if (freqFilterResult == null)
+                freqFilterResult = PASS;
+        } else {
+            freqFilterResult = NOT_RUN;
+        }
+        return freqFilterResult;
+    }
+
+    private FilterResult runFrequencyFilter(PopulationVariantSweep sweep, SvannaVariant item) {
+        if (RECOGNIZED_VARIANTS.contains(item.genomicVariant().variantType().baseType())) {
+            return sweep.hasSimilarCommonVariant(item.genomicVariant())
+                    ? FAIL
+                    : PASS;
+        } else {
+            return NOT_RUN;
+        }
+    }
+
+    private static Comparator<Integer> byPositionOnPositiveStrand(List<? extends SvannaVariant> variants) {
+        return Comparator
+                .comparingInt((Integer i) -> variants.get(i).genomicVariant().startOnStrandWithCoordinateSystem(Strand.POSITIVE, CS))
+                .thenComparingInt(i -> variants.get(i).genomicVariant().endOnStrandWithCoordinateSystem(Strand.POSITIVE, CS));
+    }
+
+}
@@ -0,0 +1,145 @@
+package org.monarchinitiative.svanna.core.filter;
+
+import org.monarchinitiative.svanna.core.LogUtils;
+import org.monarchinitiative.svanna.core.service.AnnotationDataService;
+import org.monarchinitiative.svanna.model.landscape.variant.PopulationVariant;
+import org.monarchinitiative.svanna.model.landscape.variant.PopulationVariantOrigin;
+import org.monarchinitiative.svart.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * Sweep-line search for common population variants that are similar to the variants of a single contig.
+ * <p>
+ * The population variants are fetched in consecutive non-overlapping windows, hence each population variant
+ * is fetched only once. The variants must be queried in the order of their start coordinate on
+ * the {@link Strand#POSITIVE}. The population variants that start before the end of the queried variant are kept
+ * in the active set until the start of the queried variants passes their end.
+ * <p>
+ * The population variants with a positive reciprocal overlap with a variant are always found.
+ * Therefore, the result is the same as of checking all population variants overlapping with the variant,
+ * as long as the similarity threshold is not negative.
+ */
+class PopulationVariantSweep {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(PopulationVariantSweep.class);
+
+    private static final CoordinateSystem CS = CoordinateSystem.zeroBased();
+
+    private static final Comparator<PopulationVariant> BY_START = Comparator.comparingInt(PopulationVariantSweep::start);
+
+    private final AnnotationDataService annotationDataService;
+    private final Contig contig;
+    private final float similarityThreshold;
+    private final float frequencyThreshold;
+
+    private final Map<VariantType, TypeSweep> sweeps = new EnumMap<>(VariantType.class);
+
+    private boolean fetched = false;
+    private int fetchedEnd;
+
+    PopulationVariantSweep(AnnotationDataService annotationDataService,
+                           Contig contig,
+                           float similarityThreshold,
+                           float frequencyThreshold) {
+        this.annotationDataService = annotationDataService;
+        this.contig = contig;
+        this.similarityThreshold = similarityThreshold;
+        this.frequencyThreshold = frequencyThreshold;
+    }
+
+    private static int start(PopulationVariant populationVariant) {
+        return populationVariant.startOnStrandWithCoordinateSystem(Strand.POSITIVE, CS);
+    }
+
+    private static int end(PopulationVariant populationVariant) {
+        return populationVariant.endOnStrandWithCoordinateSystem(Strand.POSITIVE, CS);
+    }
+
+    /**
+     * Make sure the population variants overlapping with the region are fetched. The region start must not be less
+     * than the start of the region used in the first call.
+     *
+     * @param start zero-based start on {@link Strand#POSITIVE}
+     * @param end   zero-based end on {@link Strand#POSITIVE}
+     */
+    void fetch(int start, int end) {
+        int windowStart;
+        if (!fetched) {
+            windowStart = start;
+        } else if (end > fetchedEnd) {
+            windowStart = fetchedEnd;
+        } else {
+            return;
+        }
+
+        GenomicRegion window = GenomicRegion.of(contig, Strand.POSITIVE, CS, windowStart, end);
+        LogUtils.logTrace(LOGGER, "Fetching population variants on contig `{}-{}-{}`", window.contigId(), window.start(), window.end());
+        for (PopulationVariant populationVariant : annotationDataService.overlappingPopulationVariants(window, PopulationVariantOrigin.benign())) {
+            if (fetched && start(populationVariant) < windowStart)
+                // fetched in one of the previous windows
+                continue;
+            if (!(populationVariant.alleleFrequency() >= frequencyThreshold))
+                continue;
+            sweeps.computeIfAbsent(populationVariant.variantType().baseType(), t -> new TypeSweep())
+                    .pending.add(populationVariant);
+        }
+
+        fetched = true;
+        fetchedEnd = end;
+    }
+
+    /**
+     * @return <code>true</code> if there is a common population variant of the same type with reciprocal overlap
+     * above the similarity threshold
+     */
+    boolean hasSimilarCommonVariant(GenomicVariant variant) {
+        TypeSweep sweep = sweeps.get(variant.variantType().baseType());
+        return sweep != null && sweep.hasSimilar(variant);
+    }
+
+    private class TypeSweep {
+
+        // population variants that start after the end of the variants seen so far, ordered by start
+        private final PriorityQueue<PopulationVariant> pending = new PriorityQueue<>(BY_START);
+        // population variants that start before the end of one of the variants seen so far
+        private final List<PopulationVariant> active = new ArrayList<>();
+
+        private boolean hasSimilar(GenomicVariant variant) {
+            int start = variant.startOnStrandWithCoordinateSystem(Strand.POSITIVE, CS);
+            int end = variant.endOnStrandWithCoordinateSystem(Strand.POSITIVE, CS);
+            int length = variant.length();
+
+            while (!pending.isEmpty() && start(pending.peek()) < end)
+                active.add(pending.poll());
+
+            boolean found = false;
+            int retained = 0;
+            for (PopulationVariant populationVariant : active) {
+                if (end(populationVariant) <= start)
+                    // ends before the current variant, hence before all the subsequent variants
+                    continue;
+                active.set(retained++, populationVariant);
+
+                if (!found && start(populationVariant) < end)
+                    found = isSimilar(populationVariant, variant, length);
+            }
+            active.subList(retained, active.size()).clear();
+
+            return found;
+        }
+
+        private boolean isSimilar(PopulationVariant populationVariant, GenomicVariant variant, int length) {
+            // The reciprocal overlap cannot be greater than the ratio of the lengths. The bound is computed
+            // using the same float operations as the overlap, hence it is not less than the overlap.
+            int populationVariantLength = populationVariant.location().length();
+            float bound = (float) Math.min(populationVariantLength, length) / Math.max(populationVariantLength, length);
+            if (!(bound * 100.F > similarityThreshold))
+                return false;
+
+            return FilterUtils.reciprocalOverlap(populationVariant.location(), variant) * 100.F > similarityThreshold;
+        }
+    }
+}
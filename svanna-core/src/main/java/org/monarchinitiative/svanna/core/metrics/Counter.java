@@ -0,0 +1,26 @@
+package org.monarchinitiative.svanna.core.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing count, e.g. the number of cache hits.
+ */
+public class Counter {
+
+    private final LongAdder count = new LongAdder();
+
+    Counter() {
+    }
+
+    public void increment() {
+        count.increment();
+    }
+
+    public void add(long n) {
+        count.add(n);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+}
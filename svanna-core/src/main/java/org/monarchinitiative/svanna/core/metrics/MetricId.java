@@ -0,0 +1,73 @@
+package org.monarchinitiative.svanna.core.metrics;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Name and tags of a metric, e.g. <code>svanna_stage_seconds</code> with tag <code>stage=filter</code>.
+ * The IDs are sorted by the name first, hence the metrics with the same name are next to each other.
+ * <p>
+ * The IDs of the metrics recorded on the hot path can be kept in static fields and looked up
+ * in the {@link MetricsRegistry#current()} registry.
+ */
+public class MetricId implements Comparable<MetricId> {
+
+    private final String name;
+
+    private final Map<String, String> tags;
+
+    private final String key;
+
+    public static MetricId of(String name, String... tags) {
+        Objects.requireNonNull(name, "Name must not be null");
+        if (!name.matches("[a-zA-Z_][a-zA-Z0-9_]*"))
+            throw new IllegalArgumentException("Invalid metric name `" + name + '`');
+        if (tags.length % 2 != 0)
+            throw new IllegalArgumentException("Tags must be provided as key-value pairs");
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < tags.length; i += 2)
+            map.put(Objects.requireNonNull(tags[i], "Tag key must not be null"),
+                    Objects.requireNonNull(tags[i + 1], "Tag value must not be null"));
+        return new MetricId(name, map);
+    }
+
+    private MetricId(String name, Map<String, String> tags) {
+        this.name = name;
+        this.tags = Collections.unmodifiableMap(tags);
+        this.key = name + tags;
+    }
+
+    String name() {
+        return name;
+    }
+
+    Map<String, String> tags() {
+        return tags;
+    }
+
+    @Override
+    public int compareTo(MetricId o) {
+        int result = name.compareTo(o.name);
+        return result != 0 ? result : key.compareTo(o.key);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MetricId metricId = (MetricId) o;
+        return key.equals(metricId.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+}
@@ -0,0 +1,252 @@
+package org.monarchinitiative.svanna.core.metrics;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+
+/**
+ * A lightweight registry of the pipeline metrics: {@link Counter}s, {@link Timer}s, and gauges.
+ * <p>
+ * The metrics are identified by a name and by optional tags provided as key-value pairs, e.g.
+ * <code>timer("svanna_stage_seconds", "stage", "filter")</code>. The same metric is returned for the same name
+ * and tags, hence the metrics can be looked up at the call site or kept in static fields.
+ * <p>
+ * The registry can be written in JSON or in the Prometheus text format. The instrumented code records into
+ * the {@link #current()} registry, hence the metrics of an analysis are kept apart from the metrics of the analyses
+ * running concurrently, e.g. in the <code>serve</code> command, if the analysis {@link #bind(MetricsRegistry) binds}
+ * its own registry to the threads doing the work. The {@link #global()} registry is used by the unbound threads.
+ */
+public class MetricsRegistry {
+
+    private static final MetricsRegistry GLOBAL = withJvmMetrics();
+
+    private static final ThreadLocal<MetricsRegistry> CURRENT = new ThreadLocal<>();
+
+    private final ConcurrentMap<MetricId, Counter> counters = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<MetricId, Timer> timers = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<MetricId, DoubleSupplier> gauges = new ConcurrentHashMap<>();
+
+    public static MetricsRegistry global() {
+        return GLOBAL;
+    }
+
+    /**
+     * @return a new registry with the gauges of the JVM heap usage
+     */
+    public static MetricsRegistry withJvmMetrics() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.gauge("svanna_jvm_heap_peak_bytes", MetricsRegistry::peakHeapBytes);
+        registry.gauge("svanna_jvm_heap_max_bytes", () -> Runtime.getRuntime().maxMemory());
+        return registry;
+    }
+
+    /**
+     * @return the registry bound to the current thread, or the {@link #global()} registry if no registry is bound
+     */
+    public static MetricsRegistry current() {
+        MetricsRegistry registry = CURRENT.get();
+        return registry == null ? GLOBAL : registry;
+    }
+
+    /**
+     * Bind the <code>registry</code> to the current thread until the returned scope is closed. The previously bound
+     * registry is restored on close.
+     */
+    public static Scope bind(MetricsRegistry registry) {
+        MetricsRegistry previous = CURRENT.get();
+        CURRENT.set(registry);
+        return () -> {
+            if (previous == null)
+                CURRENT.remove();
+            else
+                CURRENT.set(previous);
+        };
+    }
+
+    public Counter counter(String name, String... tags) {
+        return counter(MetricId.of(name, tags));
+    }
+
+    /**
+     * Look up a counter by a precomputed ID, e.g. on the hot path.
+     */
+    public Counter counter(MetricId id) {
+        Counter counter = counters.get(id);
+        return counter != null ? counter : counters.computeIfAbsent(id, i -> new Counter());
+    }
+
+    public Timer timer(String name, String... tags) {
+        return timer(MetricId.of(name, tags));
+    }
+
+    /**
+     * Look up a timer by a precomputed ID, e.g. on the hot path.
+     */
+    public Timer timer(MetricId id) {
+        Timer timer = timers.get(id);
+        return timer != null ? timer : timers.computeIfAbsent(id, i -> new Timer());
+    }
+
+    /**
+     * Register a gauge whose value is read when the registry is written. An existing gauge with the same name
+     * and tags is replaced.
+     */
+    public void gauge(String name, DoubleSupplier value, String... tags) {
+        gauges.put(MetricId.of(name, tags), value);
+    }
+
+    /**
+     * Write the metrics into the <code>path</code>, using JSON if the file name ends with <code>.json</code>,
+     * and the Prometheus text format otherwise.
+     */
+    public void write(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            if (path.getFileName().toString().endsWith(".json"))
+                writeJson(writer);
+            else
+                writePrometheus(writer);
+        }
+    }
+
+    public void writeJson(Writer writer) throws IOException {
+        writer.write("{\"counters\":[");
+        writeJsonItems(writer, counters, counter -> "\"value\":" + counter.count());
+        writer.write("],\"timers\":[");
+        writeJsonItems(writer, timers, timer -> {
+            StringBuilder json = new StringBuilder()
+                    .append("\"count\":").append(timer.count())
+                    .append(",\"sum_seconds\":").append(timer.totalNanos() / 1E9)
+                    .append(",\"max_seconds\":").append(timer.maxNanos() / 1E9)
+                    .append(",\"buckets\":[");
+            long[] counts = timer.cumulativeBucketCounts();
+            for (int i = 0; i < counts.length; i++) {
+                if (i > 0)
+                    json.append(',');
+                json.append("{\"le\":").append(i < Timer.BUCKETS.length ? String.valueOf(Timer.BUCKETS[i]) : "\"+Inf\"")
+                        .append(",\"count\":").append(counts[i]).append('}');
+            }
+            return json.append(']').toString();
+        });
+        writer.write("],\"gauges\":[");
+        writeJsonItems(writer, gauges, gauge -> {
+            double value = gauge.getAsDouble();
+            return "\"value\":" + (Double.isFinite(value) ? String.valueOf(value) : "null");
+        });
+        writer.write("]}\n");
+    }
+
+    public void writePrometheus(Writer writer) throws IOException {
+        String previous = null;
+        for (Map.Entry<MetricId, Counter> entry : new TreeMap<>(counters).entrySet()) {
+            MetricId id = entry.getKey();
+            previous = writeType(writer, id.name(), "counter", previous);
+            writer.write(id.name() + labels(id.tags(), null) + ' ' + entry.getValue().count() + '\n');
+        }
+        for (Map.Entry<MetricId, Timer> entry : new TreeMap<>(timers).entrySet()) {
+            MetricId id = entry.getKey();
+            Timer timer = entry.getValue();
+            previous = writeType(writer, id.name(), "histogram", previous);
+            long[] counts = timer.cumulativeBucketCounts();
+            for (int i = 0; i < counts.length; i++) {
+                String le = i < Timer.BUCKETS.length ? String.valueOf(Timer.BUCKETS[i]) : "+Inf";
+                writer.write(id.name() + "_bucket" + labels(id.tags(), le) + ' ' + counts[i] + '\n');
+            }
+            writer.write(id.name() + "_sum" + labels(id.tags(), null) + ' ' + timer.totalNanos() / 1E9 + '\n');
+            writer.write(id.name() + "_count" + labels(id.tags(), null) + ' ' + timer.count() + '\n');
+        }
+        for (Map.Entry<MetricId, DoubleSupplier> entry : new TreeMap<>(gauges).entrySet()) {
+            MetricId id = entry.getKey();
+            previous = writeType(writer, id.name(), "gauge", previous);
+            writer.write(id.name() + labels(id.tags(), null) + ' ' + entry.getValue().getAsDouble() + '\n');
+        }
+    }
+
+    private static <T> void writeJsonItems(Writer writer, Map<MetricId, T> metrics, Function<T, String> fields) throws IOException {
+        boolean first = true;
+        for (Map.Entry<MetricId, T> entry : new TreeMap<>(metrics).entrySet()) {
+            if (!first)
+                writer.write(',');
+            first = false;
+            MetricId id = entry.getKey();
+            StringBuilder tags = new StringBuilder("{");
+            for (Map.Entry<String, String> tag : id.tags().entrySet()) {
+                if (tags.length() > 1)
+                    tags.append(',');
+                tags.append(quote(tag.getKey())).append(':').append(quote(tag.getValue()));
+            }
+            tags.append('}');
+            writer.write("{\"name\":" + quote(id.name()) + ",\"tags\":" + tags + ',' + fields.apply(entry.getValue()) + '}');
+        }
+    }
+
+    private static String writeType(Writer writer, String name, String type, String previous) throws IOException {
+        if (!name.equals(previous))
+            writer.write("# TYPE " + name + ' ' + type + '\n');
+        return name;
+    }
+
+    private static String labels(Map<String, String> tags, String le) {
+        if (tags.isEmpty() && le == null)
+            return "";
+        StringBuilder labels = new StringBuilder("{");
+        for (Map.Entry<String, String> tag : tags.entrySet()) {
+            if (labels.length() > 1)
+                labels.append(',');
+            labels.append(tag.getKey()).append("=\"").append(escapeLabel(tag.getValue())).append('"');
+        }
+        if (le != null) {
+            if (labels.length() > 1)
+                labels.append(',');
+            labels.append("le=\"").append(le).append('"');
+        }
+        return labels.append('}').toString();
+    }
+
+    private static String escapeLabel(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String quote(String value) {
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\')
+                quoted.append('\\').append(c);
+            else if (c < 0x20)
+                quoted.append(String.format("\\u%04x", (int) c));
+            else
+                quoted.append(c);
+        }
+        return quoted.append('"').toString();
+    }
+
+    private static double peakHeapBytes() {
+        long peak = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP && pool.getPeakUsage() != null)
+                peak += pool.getPeakUsage().getUsed();
+        }
+        return peak;
+    }
+
+    /**
+     * A binding of a registry to a thread.
+     */
+    public interface Scope extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+}
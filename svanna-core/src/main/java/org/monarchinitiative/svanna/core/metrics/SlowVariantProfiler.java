@@ -0,0 +1,71 @@
+package org.monarchinitiative.svanna.core.metrics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keep the profiles of the <code>capacity</code> slowest variants of a prioritization run.
+ * <p>
+ * The profiles are recorded concurrently by the prioritization threads. Most variants are faster than the slowest
+ * variants kept so far, and such variants are rejected without locking.
+ */
+public class SlowVariantProfiler {
+
+    private static final Comparator<VariantProfile> BY_TOTAL_TIME = Comparator.comparingLong(VariantProfile::totalNanos);
+
+    private final int capacity;
+
+    // Min-heap, the fastest of the kept profiles is at the head
+    private final PriorityQueue<VariantProfile> slowest;
+
+    private final LongAdder profiled = new LongAdder();
+
+    // Total time of the fastest kept profile, once the profiler is full
+    private volatile long threshold = Long.MIN_VALUE;
+
+    public static SlowVariantProfiler of(int capacity) {
+        if (capacity < 1)
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        return new SlowVariantProfiler(capacity);
+    }
+
+    private SlowVariantProfiler(int capacity) {
+        this.capacity = capacity;
+        this.slowest = new PriorityQueue<>(capacity + 1, BY_TOTAL_TIME);
+    }
+
+    public void record(VariantProfile profile) {
+        profiled.increment();
+        if (profile.totalNanos() <= threshold)
+            return;
+        synchronized (slowest) {
+            slowest.add(profile);
+            if (slowest.size() > capacity)
+                slowest.poll();
+            if (slowest.size() == capacity)
+                threshold = slowest.peek().totalNanos();
+        }
+    }
+
+    /**
+     * @return the profiles of the slowest variants, starting with the slowest variant
+     */
+    public List<VariantProfile> slowest() {
+        List<VariantProfile> profiles;
+        synchronized (slowest) {
+            profiles = new ArrayList<>(slowest);
+        }
+        profiles.sort(BY_TOTAL_TIME.reversed());
+        return profiles;
+    }
+
+    /**
+     * @return the number of the profiled variants
+     */
+    public long profiledVariants() {
+        return profiled.sum();
+    }
+}
@@ -0,0 +1,94 @@
+package org.monarchinitiative.svanna.core.metrics;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Count and duration of the timed events, e.g. the database queries, with a latency histogram.
+ * <p>
+ * The events can be recorded concurrently. The durations recorded by the concurrent threads add up, hence the total
+ * duration of a timer can exceed the wall time of the analysis.
+ */
+public class Timer {
+
+    /**
+     * The upper bounds of the histogram buckets, in seconds. The last bucket is unbounded.
+     */
+    static final double[] BUCKETS = {.0001, .0005, .001, .005, .01, .05, .1, .5, 1., 5., 10.};
+
+    private final LongAdder count = new LongAdder();
+
+    private final LongAdder totalNanos = new LongAdder();
+
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS.length + 1];
+
+    Timer() {
+        for (int i = 0; i < buckets.length; i++)
+            buckets[i] = new LongAdder();
+    }
+
+    public void record(long nanos) {
+        count.increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+        double seconds = nanos / 1E9;
+        int bucket = 0;
+        while (bucket < BUCKETS.length && seconds > BUCKETS[bucket])
+            bucket++;
+        buckets[bucket].increment();
+    }
+
+    /**
+     * Record the time elapsed since <code>startNanos</code> obtained from {@link System#nanoTime()}.
+     */
+    public void recordSince(long startNanos) {
+        record(System.nanoTime() - startNanos);
+    }
+
+    public <T> T record(Supplier<T> supplier) {
+        long start = System.nanoTime();
+        try {
+            return supplier.get();
+        } finally {
+            recordSince(start);
+        }
+    }
+
+    public void record(Runnable runnable) {
+        long start = System.nanoTime();
+        try {
+            runnable.run();
+        } finally {
+            recordSince(start);
+        }
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    public long totalNanos() {
+        return totalNanos.sum();
+    }
+
+    public long maxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * @return cumulative counts of the events that took at most the {@link #BUCKETS} seconds, the last count
+     * is the count of all events
+     */
+    long[] cumulativeBucketCounts() {
+        long[] counts = new long[buckets.length];
+        long sum = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            sum += buckets[i].sum();
+            counts[i] = sum;
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,108 @@
+package org.monarchinitiative.svanna.core.metrics;
+
+import org.monarchinitiative.svart.GenomicVariant;
+
+import java.util.Objects;
+
+/**
+ * Time spent on prioritization of a variant, recorded by the {@link SlowVariantProfiler}.
+ * <p>
+ * The route data is fetched once for a group of variants with the same reference regions, hence
+ * {@link #routeDataNanos()} is the time of fetching the data for the whole group of {@link #groupSize()} variants.
+ */
+public class VariantProfile {
+
+    private final GenomicVariant variant;
+    private final long dispatchNanos;
+    private final long routeDataNanos;
+    private final int groupSize;
+    private final long evaluateNanos;
+    private final int genes;
+    private final int enhancers;
+    private final double priority;
+
+    public static VariantProfile of(GenomicVariant variant,
+                                    long dispatchNanos,
+                                    long routeDataNanos,
+                                    int groupSize,
+                                    long evaluateNanos,
+                                    int genes,
+                                    int enhancers,
+                                    double priority) {
+        return new VariantProfile(variant, dispatchNanos, routeDataNanos, groupSize, evaluateNanos, genes, enhancers, priority);
+    }
+
+    private VariantProfile(GenomicVariant variant,
+                           long dispatchNanos,
+                           long routeDataNanos,
+                           int groupSize,
+                           long evaluateNanos,
+                           int genes,
+                           int enhancers,
+                           double priority) {
+        this.variant = Objects.requireNonNull(variant, "Variant must not be null");
+        this.dispatchNanos = dispatchNanos;
+        this.routeDataNanos = routeDataNanos;
+        this.groupSize = Math.max(groupSize, 1);
+        this.evaluateNanos = evaluateNanos;
+        this.genes = genes;
+        this.enhancers = enhancers;
+        this.priority = priority;
+    }
+
+    public GenomicVariant variant() {
+        return variant;
+    }
+
+    public long dispatchNanos() {
+        return dispatchNanos;
+    }
+
+    public long routeDataNanos() {
+        return routeDataNanos;
+    }
+
+    public int groupSize() {
+        return groupSize;
+    }
+
+    public long evaluateNanos() {
+        return evaluateNanos;
+    }
+
+    public int genes() {
+        return genes;
+    }
+
+    public int enhancers() {
+        return enhancers;
+    }
+
+    /**
+     * @return the priority or <code>NaN</code> if the variant could not be dispatched or evaluated
+     */
+    public double priority() {
+        return priority;
+    }
+
+    /**
+     * @return time spent on the variant, with the time of fetching the route data split among the variants of the group
+     */
+    public long totalNanos() {
+        return dispatchNanos + routeDataNanos / groupSize + evaluateNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "VariantProfile{" +
+                "variant=" + variant.id() +
+                ", dispatchNanos=" + dispatchNanos +
+                ", routeDataNanos=" + routeDataNanos +
+                ", groupSize=" + groupSize +
+                ", evaluateNanos=" + evaluateNanos +
+                ", genes=" + genes +
+                ", enhancers=" + enhancers +
+                ", priority=" + priority +
+                '}';
+    }
+}
@@ -0,0 +1,38 @@
+package org.monarchinitiative.svanna.core.priority;
+
+import org.monarchinitiative.svart.GenomicVariant;
+
+import java.util.List;
+
+/**
+ * Prioritizer that calculates priorities of the variants for several phenotype profiles, e.g. for the members
+ * of a family or of a cohort.
+ * <p>
+ * The implementors can do the phenotype-independent work, such as the route assembly and the route data retrieval,
+ * only once for all profiles.
+ */
+public interface CohortSvPrioritizer<P extends SvPriority> {
+
+    /**
+     * Create a cohort prioritizer that runs a prioritizer for each profile, with no work shared among the profiles.
+     *
+     * @param prioritizers prioritizers in the order of the profiles
+     */
+    static <P extends SvPriority> CohortSvPrioritizer<P> of(List<? extends SvPrioritizer<P>> prioritizers) {
+        return new DelegatingCohortSvPrioritizer<>(prioritizers);
+    }
+
+    /**
+     * @return the number of the phenotype profiles
+     */
+    int profileCount();
+
+    /**
+     * Prioritize a batch of variants for all profiles.
+     *
+     * @param variants variants to prioritize
+     * @return list with the priorities of each input variant, in the order of the profiles
+     */
+    List<List<P>> prioritizeAll(List<GenomicVariant> variants);
+
+}
@@ -0,0 +1,36 @@
+package org.monarchinitiative.svanna.core.priority;
+
+import org.monarchinitiative.svart.GenomicVariant;
+
+import java.util.ArrayList;
+import java.util.List;
+
+class DelegatingCohortSvPrioritizer<P extends SvPriority> implements CohortSvPrioritizer<P> {
+
+    private final List<SvPrioritizer<P>> prioritizers;
+
+    DelegatingCohortSvPrioritizer(List<? extends SvPrioritizer<P>> prioritizers) {
+        this.prioritizers = List.copyOf(prioritizers);
+    }
+
+    @Override
+    public int profileCount() {
+        return prioritizers.size();
+    }
+
+    @Override
+    public List<List<P>> prioritizeAll(List<GenomicVariant> variants) {
+        List<List<P>> byProfile = new ArrayList<>(prioritizers.size());
+        for (SvPrioritizer<P> prioritizer : prioritizers)
+            byProfile.add(prioritizer.prioritizeAll(variants));
+
+        List<List<P>> results = new ArrayList<>(variants.size());
+        for (int i = 0; i < variants.size(); i++) {
+            List<P> priorities = new ArrayList<>(prioritizers.size());
+            for (List<P> profilePriorities : byProfile)
+                priorities.add(profilePriorities.get(i));
+            results.add(priorities);
+        }
+        return results;
+    }
+}
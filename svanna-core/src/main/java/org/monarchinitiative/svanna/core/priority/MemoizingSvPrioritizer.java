@@ -0,0 +1,136 @@
+package org.monarchinitiative.svanna.core.priority;
+
+import org.monarchinitiative.svanna.core.metrics.MetricId;
+import org.monarchinitiative.svanna.core.metrics.MetricsRegistry;
+import org.monarchinitiative.svart.GenomicVariant;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * {@link SvPrioritizer} that remembers the priorities of the variants that have already been prioritized,
+ * and evaluates the duplicate variants (e.g. from multi-caller merged VCFs) only once.
+ * <p>
+ * The variants are considered to be duplicates if they have the same {@link VariantKey}. The concurrent requests
+ * to prioritize a duplicate variant are deduplicated, only the first request is delegated and the other requests
+ * wait for its result.
+ * <p>
+ * The prioritizer is meant to be used for a single analysis run, the memo is never evicted.
+ *
+ * @param <P> priority type
+ */
+public class MemoizingSvPrioritizer<P extends SvPriority> implements SvPrioritizer<P> {
+
+    private static final MetricId HITS = MetricId.of("svanna_cache_requests_total", "cache", "priority", "result", "hit");
+    private static final MetricId MISSES = MetricId.of("svanna_cache_requests_total", "cache", "priority", "result", "miss");
+
+    private final SvPrioritizer<P> delegate;
+    private final ConcurrentMap<VariantKey, CompletableFuture<P>> memo = new ConcurrentHashMap<>();
+    private final LongAdder savedEvaluations = new LongAdder();
+
+    public static <P extends SvPriority> MemoizingSvPrioritizer<P> of(SvPrioritizer<P> delegate) {
+        return new MemoizingSvPrioritizer<>(delegate);
+    }
+
+    private MemoizingSvPrioritizer(SvPrioritizer<P> delegate) {
+        this.delegate = Objects.requireNonNull(delegate, "Delegate prioritizer must not be null");
+    }
+
+    @Override
+    public P prioritize(GenomicVariant variant) {
+        VariantKey key = VariantKey.of(variant);
+        CompletableFuture<P> future = new CompletableFuture<>();
+        CompletableFuture<P> existing = memo.putIfAbsent(key, future);
+        if (existing != null) {
+            savedEvaluations.increment();
+            MetricsRegistry.current().counter(HITS).increment();
+            return existing.join();
+        }
+        MetricsRegistry.current().counter(MISSES).increment();
+
+        return evaluate(key, future, variant);
+    }
+
+    @Override
+    public List<P> prioritizeAll(List<GenomicVariant> variants) {
+        // Find the variants that have not yet been evaluated or are not being evaluated by another thread.
+        List<CompletableFuture<P>> futures = new ArrayList<>(variants.size());
+        List<VariantKey> keysToEvaluate = new ArrayList<>();
+        List<CompletableFuture<P>> futuresToEvaluate = new ArrayList<>();
+        List<GenomicVariant> variantsToEvaluate = new ArrayList<>();
+        for (GenomicVariant variant : variants) {
+            VariantKey key = VariantKey.of(variant);
+            CompletableFuture<P> future = new CompletableFuture<>();
+            CompletableFuture<P> existing = memo.putIfAbsent(key, future);
+            if (existing == null) {
+                keysToEvaluate.add(key);
+                futuresToEvaluate.add(future);
+                variantsToEvaluate.add(variant);
+                futures.add(future);
+            } else {
+                savedEvaluations.increment();
+                futures.add(existing);
+            }
+        }
+        MetricsRegistry.current().counter(HITS).add(variants.size() - variantsToEvaluate.size());
+        MetricsRegistry.current().counter(MISSES).add(variantsToEvaluate.size());
+
+        // Evaluate the unique variants in batch.
+        try {
+            List<P> priorities = delegate.prioritizeAll(variantsToEvaluate);
+            for (int i = 0; i < priorities.size(); i++) {
+                futuresToEvaluate.get(i).complete(priorities.get(i));
+            }
+        } catch (RuntimeException e) {
+            for (int i = 0; i < futuresToEvaluate.size(); i++) {
+                CompletableFuture<P> future = futuresToEvaluate.get(i);
+                future.completeExceptionally(e);
+                memo.remove(keysToEvaluate.get(i), future);
+            }
+            throw e;
+        }
+
+        List<P> results = new ArrayList<>(futures.size());
+        for (CompletableFuture<P> future : futures) {
+            results.add(future.join());
+        }
+        return results;
+    }
+
+    /**
+     * The top <code>n</code> prioritization is delegated without memoizing, since the priorities
+     * of the variants that were not evaluated depend on the other variants of the batch.
+     */
+    @Override
+    public List<P> prioritizeTop(List<GenomicVariant> variants, int n) {
+        return delegate.prioritizeTop(variants, n);
+    }
+
+    @Override
+    public List<P> prioritizeTop(List<GenomicVariant> variants, TopPriorities top) {
+        return delegate.prioritizeTop(variants, top);
+    }
+
+    /**
+     * @return the number of variant evaluations that were saved by reusing the priority of a duplicate variant
+     */
+    public long savedEvaluations() {
+        return savedEvaluations.sum();
+    }
+
+    private P evaluate(VariantKey key, CompletableFuture<P> future, GenomicVariant variant) {
+        try {
+            P priority = delegate.prioritize(variant);
+            future.complete(priority);
+            return priority;
+        } catch (RuntimeException e) {
+            // Do not memoize the failure, let the next duplicate try again.
+            future.completeExceptionally(e);
+            memo.remove(key, future);
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.monarchinitiative.svanna.core.priority;
+
+import java.util.Objects;
+
+/**
+ * Priority of a variant that was not evaluated, e.g. since its upper bound shows that it cannot make it among
+ * the top variants. The priority value is the lower bound of the variant priority (<code>0</code>).
+ */
+class NotEvaluatedSvPriority implements SvPriority {
+
+    private final double upperBound;
+
+    static NotEvaluatedSvPriority of(double upperBound) {
+        return new NotEvaluatedSvPriority(upperBound);
+    }
+
+    private NotEvaluatedSvPriority(double upperBound) {
+        this.upperBound = upperBound;
+    }
+
+    @Override
+    public double getPriority() {
+        return 0;
+    }
+
+    @Override
+    public boolean isEvaluated() {
+        return false;
+    }
+
+    public double upperBound() {
+        return upperBound;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        NotEvaluatedSvPriority that = (NotEvaluatedSvPriority) o;
+        return Double.compare(that.upperBound, upperBound) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(upperBound);
+    }
+
+    @Override
+    public String toString() {
+        return "NOT EVALUATED PRIORITY (upper bound " + upperBound + ")";
+    }
+}
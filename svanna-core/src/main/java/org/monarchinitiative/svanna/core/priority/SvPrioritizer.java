@@ -2,6 +2,9 @@ package org.monarchinitiative.svanna.core.priority;
 
 import org.monarchinitiative.svart.GenomicVariant;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 /**
  * The most general definition of the variant prioritizer which calculates priority {@link P} for a variant.
  * <p>
@@ -11,4 +14,50 @@ public interface SvPrioritizer<P extends SvPriority> {
 
     P prioritize(GenomicVariant variant);
 
+    /**
+     * Prioritize a batch of variants.
+     * <p>
+     * The implementors can take advantage of having all variants at hand, e.g. by sharing the work among the variants
+     * that affect the same genomic region. The work may be done in parallel, using the {@link java.util.concurrent.ForkJoinPool}
+     * the method is called from.
+     *
+     * @param variants variants to prioritize
+     * @return list with priorities in the same order as the input variants
+     */
+    default List<P> prioritizeAll(List<GenomicVariant> variants) {
+        return variants.stream()
+                .map(this::prioritize)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Prioritize a batch of variants, when only the <code>n</code> variants with the highest priority are of interest.
+     * <p>
+     * The implementors can skip the evaluation of the variants that cannot make it among the top <code>n</code>
+     * variants, and return {@link SvPriority#notEvaluated(double)} instead.
+     *
+     * @param variants variants to prioritize
+     * @param n        number of the top variants
+     * @return list with priorities in the same order as the input variants
+     */
+    default List<P> prioritizeTop(List<GenomicVariant> variants, int n) {
+        return prioritizeTop(variants, TopPriorities.of(n));
+    }
+
+    /**
+     * Prioritize a batch of variants, when only the {@link TopPriorities#n()} variants with the highest priority
+     * among the variants of all batches that share the <code>top</code> priorities are of interest.
+     * <p>
+     * The implementors can skip the evaluation of the variants whose upper bound is below the
+     * {@link TopPriorities#threshold()}, and must {@link TopPriorities#offer(double)} the priorities of the evaluated
+     * variants, so that the batches prioritized later or concurrently can skip more variants.
+     *
+     * @param variants variants to prioritize
+     * @param top      the best priorities of the variants evaluated so far
+     * @return list with priorities in the same order as the input variants
+     */
+    default List<P> prioritizeTop(List<GenomicVariant> variants, TopPriorities top) {
+        return prioritizeAll(variants);
+    }
+
 }
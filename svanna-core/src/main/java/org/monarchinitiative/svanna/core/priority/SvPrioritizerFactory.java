@@ -1,10 +1,13 @@
 package org.monarchinitiative.svanna.core.priority;
 
 import org.monarchinitiative.phenol.ontology.data.TermId;
+import org.monarchinitiative.svanna.core.metrics.SlowVariantProfiler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
 
 public interface SvPrioritizerFactory {
 
@@ -12,5 +15,24 @@ public interface SvPrioritizerFactory {
 
     SvPrioritizer<SvPriority> getPrioritizer(Collection<TermId> patientTerms);
 
+    /**
+     * Get a prioritizer that records the time spent on the variants into the <code>profiler</code>.
+     * The prioritizers that do not support profiling ignore the profiler.
+     */
+    default SvPrioritizer<SvPriority> getPrioritizer(Collection<TermId> patientTerms, SlowVariantProfiler profiler) {
+        return getPrioritizer(patientTerms);
+    }
+
+    /**
+     * Get a prioritizer for several phenotype profiles, e.g. for the members of a family or of a cohort.
+     *
+     * @param profiles phenotype terms of each profile
+     */
+    default CohortSvPrioritizer<SvPriority> getCohortPrioritizer(List<? extends Collection<TermId>> profiles) {
+        return CohortSvPrioritizer.of(profiles.stream()
+                .map(this::getPrioritizer)
+                .collect(Collectors.toList()));
+    }
+
 
 }
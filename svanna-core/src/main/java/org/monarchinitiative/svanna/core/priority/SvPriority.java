@@ -13,11 +13,36 @@ public interface SvPriority extends Comparable<SvPriority> {
         return SvPriorityDefault.of(priority);
     }
 
+    /**
+     * Get the priority of a variant that was not evaluated since it cannot make it among the top variants.
+     *
+     * @param upperBound the upper bound of the variant priority
+     */
+    static SvPriority notEvaluated(double upperBound) {
+        return NotEvaluatedSvPriority.of(upperBound);
+    }
+
     /**
      * @return priority as double, higher value means higher priority
      */
     double getPriority();
 
+    /**
+     * @return <code>false</code> if the variant was not evaluated and {@link #getPriority()} is just a lower bound
+     * of the variant priority
+     */
+    default boolean isEvaluated() {
+        return true;
+    }
+
+    /**
+     * @return <code>true</code> if the variant exceeded the evaluation budget and {@link #getPriority()} was calculated
+     * by the cheaper approximate scoring that ignores the enhancers
+     */
+    default boolean isApproximate() {
+        return false;
+    }
+
     @Override
     default int compareTo(SvPriority o) {
         return Double.compare(getPriority(), o.getPriority());
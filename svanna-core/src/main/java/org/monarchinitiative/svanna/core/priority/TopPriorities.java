@@ -0,0 +1,64 @@
+package org.monarchinitiative.svanna.core.priority;
+
+import java.util.PriorityQueue;
+
+/**
+ * The priorities of the best <code>n</code> variants evaluated so far, shared by the {@link SvPrioritizer#prioritizeTop(java.util.List, TopPriorities)}
+ * calls that prioritize the batches of the same input.
+ * <p>
+ * The {@link #threshold()} only rises, hence a variant whose upper bound is below the threshold cannot make it
+ * among the top <code>n</code> variants of the input. The class is thread-safe.
+ */
+public class TopPriorities {
+
+    private final int n;
+
+    // Min-heap with the priorities of the best n variants evaluated so far
+    private final PriorityQueue<Double> best;
+
+    private volatile double threshold = Double.NEGATIVE_INFINITY;
+
+    public static TopPriorities of(int n) {
+        return new TopPriorities(n);
+    }
+
+    private TopPriorities(int n) {
+        this.n = n;
+        this.best = new PriorityQueue<>(Math.max(n, 0) + 1);
+    }
+
+    /**
+     * @return the number of the top variants
+     */
+    public int n() {
+        return n;
+    }
+
+    /**
+     * Add the priority of an evaluated variant. The unknown (<code>NaN</code>) priorities are ignored.
+     */
+    public synchronized void offer(double priority) {
+        if (n < 1 || Double.isNaN(priority))
+            return;
+        best.add(priority);
+        if (best.size() > n)
+            best.poll();
+        if (best.size() == n)
+            threshold = best.peek();
+    }
+
+    /**
+     * @return the priority of the <code>n</code>-th best variant evaluated so far, or
+     * {@link Double#NEGATIVE_INFINITY} if less than <code>n</code> variants have been evaluated
+     */
+    public double threshold() {
+        return threshold;
+    }
+
+    /**
+     * @return the number of the evaluated variants still missing to the top <code>n</code> variants
+     */
+    public synchronized int missing() {
+        return Math.max(n - best.size(), 0);
+    }
+}
@@ -0,0 +1,104 @@
+package org.monarchinitiative.svanna.core.priority;
+
+import org.monarchinitiative.svart.*;
+
+import java.util.Objects;
+
+/**
+ * Identity of a {@link GenomicVariant} that disregards the variant ID. Two variants have the same key if they
+ * represent the same change of the genome, i.e. they are located on the same contig, span the same coordinates
+ * on the {@link Strand#POSITIVE}, and have the same variant type, REF, and ALT alleles.
+ * <p>
+ * Breakend variants are identified by the coordinates and the strands of the left and right breakends.
+ */
+class VariantKey {
+
+    private static final CoordinateSystem CS = CoordinateSystem.zeroBased();
+
+    private final int contigId;
+    private final int start;
+    private final int end;
+    private final int mateContigId;
+    private final int mateStart;
+    private final int mateEnd;
+    // The strands of the left and right breakends, or null for the other variants
+    private final Strand strand;
+    private final Strand mateStrand;
+    private final VariantType variantType;
+    private final String ref;
+    private final String alt;
+
+    static VariantKey of(GenomicVariant variant) {
+        if (variant instanceof GenomicBreakendVariant) {
+            GenomicBreakendVariant bv = (GenomicBreakendVariant) variant;
+            GenomicBreakend left = bv.left();
+            GenomicBreakend right = bv.right();
+            return new VariantKey(left.contigId(),
+                    left.startOnStrandWithCoordinateSystem(Strand.POSITIVE, CS),
+                    left.endOnStrandWithCoordinateSystem(Strand.POSITIVE, CS),
+                    right.contigId(),
+                    right.startOnStrandWithCoordinateSystem(Strand.POSITIVE, CS),
+                    right.endOnStrandWithCoordinateSystem(Strand.POSITIVE, CS),
+                    left.strand(), right.strand(),
+                    variant.variantType(), variant.ref(), variant.alt());
+        }
+
+        GenomicVariant positive = variant.withStrand(Strand.POSITIVE);
+        return new VariantKey(positive.contigId(),
+                positive.startWithCoordinateSystem(CS),
+                positive.endWithCoordinateSystem(CS),
+                positive.contigId(), -1, -1,
+                null, null,
+                positive.variantType(), positive.ref(), positive.alt());
+    }
+
+    private VariantKey(int contigId, int start, int end,
+                       int mateContigId, int mateStart, int mateEnd,
+                       Strand strand, Strand mateStrand,
+                       VariantType variantType, String ref, String alt) {
+        this.contigId = contigId;
+        this.start = start;
+        this.end = end;
+        this.mateContigId = mateContigId;
+        this.mateStart = mateStart;
+        this.mateEnd = mateEnd;
+        this.strand = strand;
+        this.mateStrand = mateStrand;
+        this.variantType = variantType;
+        this.ref = ref;
+        this.alt = alt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        VariantKey that = (VariantKey) o;
+        return contigId == that.contigId && start == that.start && end == that.end
+                && mateContigId == that.mateContigId && mateStart == that.mateStart && mateEnd == that.mateEnd
+                && strand == that.strand && mateStrand == that.mateStrand
+                && variantType == that.variantType && Objects.equals(ref, that.ref) && Objects.equals(alt, that.alt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(contigId, start, end, mateContigId, mateStart, mateEnd, strand, mateStrand, variantType, ref, alt);
+    }
+
+    @Override
+    public String toString() {
+        return "VariantKey{" +
+                "contigId=" + contigId +
+                ", start=" + start +
+                ", end=" + end +
+                ", mateContigId=" + mateContigId +
+                ", mateStart=" + mateStart +
+                ", mateEnd=" + mateEnd +
+                ", strand=" + strand +
+                ", mateStrand=" + mateStrand +
+                ", variantType=" + variantType +
+                ", ref='" + ref + '\'' +
+                ", alt='" + alt + '\'' +
+                '}';
+    }
+}
@@ -0,0 +1,105 @@
+package org.monarchinitiative.svanna.core.priority.additive;
+
+import org.monarchinitiative.svanna.core.LogUtils;
+import org.monarchinitiative.svanna.core.WorkScheduler;
+import org.monarchinitiative.svanna.core.metrics.MetricsRegistry;
+import org.monarchinitiative.svanna.core.priority.CohortSvPrioritizer;
+import org.monarchinitiative.svanna.core.priority.SvPriority;
+import org.monarchinitiative.svart.GenomicVariant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Cohort prioritizer that assembles the routes and fetches the {@link RouteData} once for each variant, and evaluates
+ * the data by an evaluator of each phenotype profile.
+ */
+public class AdditiveCohortSvPrioritizer<DATA extends RouteData> implements CohortSvPrioritizer<SvPriority> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdditiveCohortSvPrioritizer.class);
+
+    private final Dispatcher dispatcher;
+
+    private final RouteDataService<DATA> routeDataService;
+
+    private final List<RouteDataEvaluator<DATA, GranularRouteResult>> evaluators;
+
+    /**
+     * @param evaluators evaluators in the order of the profiles
+     */
+    public static <DATA extends RouteData> AdditiveCohortSvPrioritizer<DATA> of(Dispatcher dispatcher,
+                                                                             RouteDataService<DATA> routeDataService,
+                                                                             List<? extends RouteDataEvaluator<DATA, GranularRouteResult>> evaluators) {
+        return new AdditiveCohortSvPrioritizer<>(dispatcher, routeDataService, evaluators);
+    }
+
+    private AdditiveCohortSvPrioritizer(Dispatcher dispatcher,
+                                        RouteDataService<DATA> routeDataService,
+                                        List<? extends RouteDataEvaluator<DATA, GranularRouteResult>> evaluators) {
+        this.dispatcher = Objects.requireNonNull(dispatcher);
+        this.routeDataService = Objects.requireNonNull(routeDataService);
+        this.evaluators = List.copyOf(evaluators);
+    }
+
+    @Override
+    public int profileCount() {
+        return evaluators.size();
+    }
+
+    /**
+     * The variants are grouped by the reference regions of their routes in the same way
+     * as by {@link BaseAdditiveSvPrioritizer#prioritizeAll(List)}.
+     */
+    @Override
+    public List<List<SvPriority>> prioritizeAll(List<GenomicVariant> variants) {
+        SvPriority[] unknown = new SvPriority[variants.size()];
+        Routes[] routes = BaseAdditiveSvPrioritizer.dispatch(dispatcher, variants, unknown);
+
+        SvPriority[][] priorities = new SvPriority[variants.size()][];
+        for (int i = 0; i < unknown.length; i++) {
+            if (unknown[i] != null) {
+                priorities[i] = new SvPriority[evaluators.size()];
+                Arrays.fill(priorities[i], unknown[i]);
+            }
+        }
+
+        // Fetch the data once per group and evaluate it for each profile
+        List<List<Integer>> groups = new ArrayList<>(BaseAdditiveSvPrioritizer.groupByReference(routes));
+        WorkScheduler.forEach(groups.size(),
+                g -> {
+                    List<Integer> indices = groups.get(g);
+                    List<DATA> data = MetricsRegistry.current().timer(BaseAdditiveSvPrioritizer.ROUTE_DATA_TIMER).record(
+                            () -> routeDataService.getData(BaseAdditiveSvPrioritizer.routesAt(routes, indices)));
+                    WorkScheduler.forEach(indices.size(),
+                            j -> {
+                                int i = indices.get(j);
+                                SvPriority[] profilePriorities = new SvPriority[evaluators.size()];
+                                for (int k = 0; k < evaluators.size(); k++)
+                                    profilePriorities[k] = evaluate(variants.get(i), evaluators.get(k), data.get(j));
+                                priorities[i] = profilePriorities;
+                            },
+                            j -> EvaluationCosts.estimate(variants.get(indices.get(j)), data.get(j)));
+                },
+                g -> BaseAdditiveSvPrioritizer.groupCost(variants, groups.get(g)));
+
+        return Arrays.stream(priorities)
+                .map(Arrays::asList)
+                .collect(Collectors.toList());
+    }
+
+    private static <DATA extends RouteData> SvPriority evaluate(GenomicVariant variant,
+                                                                RouteDataEvaluator<DATA, GranularRouteResult> evaluator,
+                                                                DATA data) {
+        long start = System.nanoTime();
+        try {
+            return evaluator.evaluate(data);
+        } catch (EvaluationException e) {
+            LogUtils.logWarn(LOGGER, "Error during evaluation of variant `{}`: {}", LogUtils.variantSummary(variant), e.getMessage());
+            return SvPriority.unknown();
+        } finally {
+            MetricsRegistry.current().timer(BaseAdditiveSvPrioritizer.EVALUATE_TIMER).recordSince(start);
+        }
+    }
+}
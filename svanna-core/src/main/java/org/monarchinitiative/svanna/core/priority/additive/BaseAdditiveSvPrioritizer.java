@@ -1,47 +1,343 @@
 package org.monarchinitiative.svanna.core.priority.additive;
 
 import org.monarchinitiative.svanna.core.LogUtils;
+import org.monarchinitiative.svanna.core.WorkScheduler;
+import org.monarchinitiative.svanna.core.metrics.MetricId;
+import org.monarchinitiative.svanna.core.metrics.MetricsRegistry;
+import org.monarchinitiative.svanna.core.metrics.SlowVariantProfiler;
+import org.monarchinitiative.svanna.core.metrics.VariantProfile;
 import org.monarchinitiative.svanna.core.priority.SvPrioritizer;
 import org.monarchinitiative.svanna.core.priority.SvPriority;
+import org.monarchinitiative.svanna.core.priority.TopPriorities;
+import org.monarchinitiative.svart.CoordinateSystem;
+import org.monarchinitiative.svart.GenomicRegion;
 import org.monarchinitiative.svart.GenomicVariant;
+import org.monarchinitiative.svart.Strand;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.List;
-import java.util.Objects;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 abstract class BaseAdditiveSvPrioritizer<DATA extends RouteData, RESULT extends RouteResult> implements SvPrioritizer<SvPriority> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(BaseAdditiveSvPrioritizer.class);
 
+    // The minimum number of variants evaluated in one round of the top n prioritization
+    private static final int TOP_N_BATCH = 100;
+
+    // The time spent in the prioritization stages, recorded per variant or per data request. The timers are kept apart
+    // from the pipeline stages of `svanna_stage_seconds`, since the per-variant times overlap with the pipeline stages.
+    static final MetricId DISPATCH_TIMER = MetricId.of("svanna_variant_stage_seconds", "stage", "dispatch");
+    static final MetricId ROUTE_DATA_TIMER = MetricId.of("svanna_variant_stage_seconds", "stage", "route_data");
+    static final MetricId UPPER_BOUND_TIMER = MetricId.of("svanna_variant_stage_seconds", "stage", "upper_bound");
+    static final MetricId EVALUATE_TIMER = MetricId.of("svanna_variant_stage_seconds", "stage", "evaluate");
+
+    // The regions are compared on the positive strand in the zero-based coordinates, and the regions at the same
+    // location are told apart by the strand and the coordinate system, since the route data depends on both.
+    private static final Comparator<List<GenomicRegion>> REFERENCE_COMPARATOR = (left, right) -> {
+        for (int i = 0; i < Math.min(left.size(), right.size()); i++) {
+            GenomicRegion l = left.get(i), r = right.get(i);
+            int result = Integer.compare(l.contigId(), r.contigId());
+            if (result != 0) return result;
+            result = Integer.compare(l.startOnStrandWithCoordinateSystem(Strand.POSITIVE, CoordinateSystem.zeroBased()),
+                    r.startOnStrandWithCoordinateSystem(Strand.POSITIVE, CoordinateSystem.zeroBased()));
+            if (result != 0) return result;
+            result = Integer.compare(l.endOnStrandWithCoordinateSystem(Strand.POSITIVE, CoordinateSystem.zeroBased()),
+                    r.endOnStrandWithCoordinateSystem(Strand.POSITIVE, CoordinateSystem.zeroBased()));
+            if (result != 0) return result;
+            result = l.strand().compareTo(r.strand());
+            if (result != 0) return result;
+            result = l.coordinateSystem().compareTo(r.coordinateSystem());
+            if (result != 0) return result;
+        }
+        return Integer.compare(left.size(), right.size());
+    };
+
     private final Dispatcher dispatcher;
 
     private final RouteDataService<DATA> routeDataService;
 
     private final RouteDataEvaluator<DATA, RESULT> routeDataEvaluator;
 
+    // The profiler of the slow variants or null if the variants are not profiled
+    private final SlowVariantProfiler profiler;
+
     protected BaseAdditiveSvPrioritizer(Builder<?, DATA, RESULT> builder) {
         this.dispatcher = Objects.requireNonNull(builder.dispatcher);
         this.routeDataService = Objects.requireNonNull(builder.routeDataService);
         this.routeDataEvaluator = Objects.requireNonNull(builder.routeDataEvaluator);
+        this.profiler = builder.profiler;
     }
 
     @Override
     public SvPriority prioritize(GenomicVariant variant) {
+        long[] dispatchNanos = new long[1];
+        SvPriority[] priorities = new SvPriority[1];
+        Routes routes = dispatch(dispatcher, List.of(variant), priorities, dispatchNanos)[0];
+        if (routes == null) {
+            profileDispatchFailures(List.of(variant), priorities, dispatchNanos);
+            return priorities[0];
+        }
+        return fetchAndEvaluate(variant, routes, dispatchNanos[0]);
+    }
+
+    /**
+     * Prioritize the variants in batch. The variants are grouped by the reference regions of their routes
+     * and the {@link RouteData} is fetched only once for each group. The evaluation is run in parallel,
+     * starting with the groups and the variants with the highest estimated cost.
+     */
+    @Override
+    public List<SvPriority> prioritizeAll(List<GenomicVariant> variants) {
+        SvPriority[] priorities = new SvPriority[variants.size()];
+        long[] dispatchNanos = new long[variants.size()];
+        Routes[] routes = dispatch(dispatcher, variants, priorities, dispatchNanos);
+        profileDispatchFailures(variants, priorities, dispatchNanos);
+
+        // Fetch the data once per group and evaluate
+        List<List<Integer>> groups = new ArrayList<>(groupByReference(routes));
+        WorkScheduler.forEach(groups.size(),
+                g -> {
+                    List<Integer> indices = groups.get(g);
+                    long start = System.nanoTime();
+                    List<DATA> data = routeDataService.getData(routesAt(routes, indices));
+                    long routeDataNanos = System.nanoTime() - start;
+                    MetricsRegistry.current().timer(ROUTE_DATA_TIMER).record(routeDataNanos);
+                    WorkScheduler.forEach(indices.size(),
+                            j -> {
+                                int i = indices.get(j);
+                                long evaluateStart = System.nanoTime();
+                                priorities[i] = evaluate(variants.get(i), data.get(j));
+                                profile(variants.get(i), dispatchNanos[i], routeDataNanos, indices.size(),
+                                        System.nanoTime() - evaluateStart, data.get(j), priorities[i]);
+                            },
+                            j -> EvaluationCosts.estimate(variants.get(indices.get(j)), data.get(j)));
+                },
+                g -> groupCost(variants, groups.get(g)));
+
+        return Arrays.asList(priorities);
+    }
+
+    /**
+     * Prioritize the variants by computing the upper bound of the priority for each variant first, and by evaluating
+     * the variants in the order of decreasing upper bound. The evaluation stops as soon as the upper bound of the
+     * remaining variants is below the priority of the {@link TopPriorities#n()}-th best variant.
+     * <p>
+     * The {@link RouteData} is fetched once per group for the upper bounds, and kept for the evaluation only while
+     * the variant can still make it among the top variants.
+     * <p>
+     * The threshold is shared with the other batches of the input through the <code>top</code> priorities.
+     */
+    @Override
+    public List<SvPriority> prioritizeTop(List<GenomicVariant> variants, TopPriorities top) {
+        if (top.n() < 1)
+            return prioritizeAll(variants);
+
+        SvPriority[] priorities = new SvPriority[variants.size()];
+        long[] dispatchNanos = new long[variants.size()];
+        Routes[] routes = dispatch(dispatcher, variants, priorities, dispatchNanos);
+        profileDispatchFailures(variants, priorities, dispatchNanos);
+
+        // Calculate the upper bounds, fetching the data once per group
+        double[] upperBounds = new double[variants.size()];
+        // The data of the variants that have not been evaluated yet and can still make it among the top variants,
+        // indexed by the variant
+        List<DATA> routeData = new ArrayList<>(Collections.nCopies(variants.size(), null));
+        long[] routeDataNanos = new long[variants.size()];
+        int[] groupSizes = new int[variants.size()];
+        List<List<Integer>> groups = new ArrayList<>(groupByReference(routes));
+        WorkScheduler.forEach(groups.size(),
+                g -> {
+                    List<Integer> indices = groups.get(g);
+                    long start = System.nanoTime();
+                    List<DATA> data = routeDataService.getData(routesAt(routes, indices));
+                    long nanos = System.nanoTime() - start;
+                    MetricsRegistry.current().timer(ROUTE_DATA_TIMER).record(nanos);
+                    for (int j = 0; j < indices.size(); j++) {
+                        int i = indices.get(j);
+                        upperBounds[i] = upperBound(data.get(j));
+                        if (upperBounds[i] >= top.threshold())
+                            routeData.set(i, data.get(j));
+                        routeDataNanos[i] = nanos;
+                        groupSizes[i] = indices.size();
+                    }
+                },
+                g -> groupCost(variants, groups.get(g)));
+
+        // The most promising variants go first
+        List<Integer> candidates = IntStream.range(0, variants.size())
+                .filter(i -> priorities[i] == null)
+                .boxed()
+                .sorted(Comparator.comparingDouble((Integer i) -> upperBounds[i]).reversed())
+                .collect(Collectors.toList());
+
+        int current = 0;
+        // The candidates from `retained` on have no route data
+        int retained = candidates.size();
+        while (current < candidates.size()) {
+            double threshold = top.threshold();
+            // The variants below the threshold will never be evaluated, hence their data is dropped right away
+            while (retained > current && upperBounds[candidates.get(retained - 1)] < threshold)
+                routeData.set(candidates.get(--retained), null);
+            int batchSize = Math.max(top.missing(), TOP_N_BATCH);
+            int end = current;
+            while (end < retained && end - current < batchSize)
+                end++;
+            if (end == current)
+                // The remaining variants cannot make it into the top n
+                break;
+
+            List<Integer> batch = candidates.subList(current, end);
+            WorkScheduler.forEach(batch.size(),
+                    k -> {
+                        int i = batch.get(k);
+                        priorities[i] = evaluateAndProfile(variants.get(i), routeData.get(i), dispatchNanos[i], routeDataNanos[i], groupSizes[i]);
+                    },
+                    k -> EvaluationCosts.estimate(variants.get(batch.get(k)), routeData.get(batch.get(k))));
+
+            for (int i : batch) {
+                routeData.set(i, null);
+                top.offer(priorities[i].getPriority());
+            }
+            current = end;
+        }
+
+        LogUtils.logDebug(LOGGER, "Evaluated {}/{} variants to find the top {} variants", current, candidates.size(), top.n());
+        for (int i : candidates.subList(current, candidates.size())) {
+            priorities[i] = SvPriority.notEvaluated(upperBounds[i]);
+        }
+
+        return Arrays.asList(priorities);
+    }
+
+    /**
+     * Assemble routes for the variants. The <code>priorities</code> array is populated with unknown priority
+     * for the variants that cannot be dispatched.
+     *
+     * @return array with routes or <code>null</code> for the variants that cannot be dispatched
+     */
+    static Routes[] dispatch(Dispatcher dispatcher, List<GenomicVariant> variants, SvPriority[] priorities) {
+        return dispatch(dispatcher, variants, priorities, new long[variants.size()]);
+    }
+
+    /**
+     * Assemble routes for the variants, and store the time spent on dispatching each variant
+     * into the <code>dispatchNanos</code> array.
+     */
+    static Routes[] dispatch(Dispatcher dispatcher, List<GenomicVariant> variants, SvPriority[] priorities, long[] dispatchNanos) {
+        Routes[] routes = new Routes[variants.size()];
+        IntStream.range(0, variants.size()).parallel()
+                .forEach(i -> {
+                    GenomicVariant variant = variants.get(i);
+                    long start = System.nanoTime();
+                    try {
+                        routes[i] = dispatcher.assembleRoutes(List.of(variant));
+                        dispatchNanos[i] = System.nanoTime() - start;
+                        MetricsRegistry.current().timer(DISPATCH_TIMER).record(dispatchNanos[i]);
+                    } catch (IntrachromosomalBreakendException e) {
+                        dispatchNanos[i] = System.nanoTime() - start;
+                        LOGGER.trace("Unable to create the annotation route for variant `{}`: {}", LogUtils.variantSummary(variant), e.getMessage());
+                        priorities[i] = SvPriority.unknown();
+                    } catch (DispatchException e) {
+                        dispatchNanos[i] = System.nanoTime() - start;
+                        LOGGER.debug("Unable to create the annotation route for variant `{}`: {}", LogUtils.variantSummary(variant), e.getMessage());
+                        priorities[i] = SvPriority.unknown();
+                    }
+                });
+        return routes;
+    }
+
+    /**
+     * @return indices of the dispatched routes grouped by the reference regions, sorted by the reference regions
+     */
+    static Collection<List<Integer>> groupByReference(Routes[] routes) {
+        Map<List<GenomicRegion>, List<Integer>> indicesByReference = IntStream.range(0, routes.length)
+                .filter(i -> routes[i] != null)
+                .boxed()
+                .collect(Collectors.groupingBy(i -> routes[i].references(), () -> new TreeMap<>(REFERENCE_COMPARATOR), Collectors.toList()));
+        LogUtils.logDebug(LOGGER, "Grouped {} variants into {} reference regions", routes.length, indicesByReference.size());
+        return indicesByReference.values();
+    }
+
+    /**
+     * @return estimated cost of fetching the data and evaluating the variants of a group
+     */
+    static long groupCost(List<GenomicVariant> variants, List<Integer> indices) {
+        long cost = 0;
+        for (int i : indices)
+            cost += EvaluationCosts.estimate(variants.get(i));
+        return cost;
+    }
+
+    static List<Routes> routesAt(Routes[] routes, List<Integer> indices) {
+        return indices.stream()
+                .map(i -> routes[i])
+                .collect(Collectors.toList());
+    }
+
+    private SvPriority fetchAndEvaluate(GenomicVariant variant, Routes routes, long dispatchNanos) {
+        long start = System.nanoTime();
+        DATA data = routeDataService.getData(routes);
+        long routeDataNanos = System.nanoTime() - start;
+        MetricsRegistry.current().timer(ROUTE_DATA_TIMER).record(routeDataNanos);
+
+        return evaluateAndProfile(variant, data, dispatchNanos, routeDataNanos, 1);
+    }
+
+    private SvPriority evaluateAndProfile(GenomicVariant variant, DATA data, long dispatchNanos, long routeDataNanos, int groupSize) {
+        long start = System.nanoTime();
+        SvPriority priority = evaluate(variant, data);
+        profile(variant, dispatchNanos, routeDataNanos, groupSize, System.nanoTime() - start, data, priority);
+        return priority;
+    }
+
+    private void profile(GenomicVariant variant,
+                         long dispatchNanos,
+                         long routeDataNanos,
+                         int groupSize,
+                         long evaluateNanos,
+                         DATA data,
+                         SvPriority priority) {
+        if (profiler != null)
+            profiler.record(VariantProfile.of(variant, dispatchNanos, routeDataNanos, groupSize, evaluateNanos,
+                    data.geneCount(), data.enhancerCount(), priority.getPriority()));
+    }
+
+    /**
+     * Profile the variants that could not be dispatched, i.e. the variants that already have a priority.
+     */
+    private void profileDispatchFailures(List<GenomicVariant> variants, SvPriority[] priorities, long[] dispatchNanos) {
+        if (profiler == null)
+            return;
+        for (int i = 0; i < priorities.length; i++) {
+            if (priorities[i] != null)
+                profiler.record(VariantProfile.of(variants.get(i), dispatchNanos[i], 0, 1, 0, 0, 0, priorities[i].getPriority()));
+        }
+    }
+
+    private SvPriority evaluate(GenomicVariant variant, DATA data) {
+        long start = System.nanoTime();
         try {
-            Routes routes = dispatcher.assembleRoutes(List.of(variant));
-            DATA data = routeDataService.getData(routes);
             RESULT result = routeDataEvaluator.evaluate(data);
             return processRouteResult(result);
-        } catch (IntrachromosomalBreakendException e) {
-            LOGGER.trace("Unable to create the annotation route for variant `{}`: {}", LogUtils.variantSummary(variant), e.getMessage());
-            return SvPriority.unknown();
-        } catch (DispatchException e) {
-            LOGGER.debug("Unable to create the annotation route for variant `{}`: {}", LogUtils.variantSummary(variant), e.getMessage());
-            return SvPriority.unknown();
         } catch (EvaluationException e) {
             LOGGER.warn("Error during evaluation of variant `{}`: {}", LogUtils.variantSummary(variant), e.getMessage());
             return SvPriority.unknown();
+        } finally {
+            MetricsRegistry.current().timer(EVALUATE_TIMER).recordSince(start);
+        }
+    }
+
+    private double upperBound(DATA data) {
+        long start = System.nanoTime();
+        try {
+            return routeDataEvaluator.upperBound(data);
+        } catch (EvaluationException e) {
+            // The variant will be evaluated, and the error will be reported then
+            return Double.POSITIVE_INFINITY;
+        } finally {
+            MetricsRegistry.current().timer(UPPER_BOUND_TIMER).recordSince(start);
         }
     }
 
@@ -56,6 +352,8 @@ abstract class BaseAdditiveSvPrioritizer<DATA extends RouteData, RESULT extends
 
         private RouteDataEvaluator<DATA, RESULT> routeDataEvaluator;
 
+        private SlowVariantProfiler profiler;
+
         protected Builder() {}
 
         public T dispatcher(Dispatcher dispatcher) {
@@ -73,6 +371,14 @@ abstract class BaseAdditiveSvPrioritizer<DATA extends RouteData, RESULT extends
             return self();
         }
 
+        /**
+         * @param profiler profiler of the slow variants, or <code>null</code> if the variants should not be profiled
+         */
+        public T profiler(SlowVariantProfiler profiler) {
+            this.profiler = profiler;
+            return self();
+        }
+
         protected  abstract BaseAdditiveSvPrioritizer<DATA, RESULT> build();
 
         protected abstract T self();
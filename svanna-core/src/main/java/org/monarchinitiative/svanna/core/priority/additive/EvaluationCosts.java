@@ -0,0 +1,47 @@
+package org.monarchinitiative.svanna.core.priority.additive;
+
+import org.monarchinitiative.svart.GenomicVariant;
+
+/**
+ * Estimate the relative cost of fetching the {@link RouteData} and evaluating a variant. The estimates are used
+ * to balance the work among threads by {@link org.monarchinitiative.svanna.core.WorkScheduler}.
+ */
+class EvaluationCosts {
+
+    private EvaluationCosts() {
+    }
+
+    /**
+     * Estimate the cost from the variant type and length, before the {@link RouteData} is known.
+     * The cost grows with the logarithm of the variant length, since the routes of the longer variants
+     * span more genes and enhancers.
+     */
+    static long estimate(GenomicVariant variant) {
+        long lengthKb = Math.max(variant.length(), Math.abs(variant.changeLength())) / 1_000L;
+        long lengthFactor = 1 + (Long.SIZE - Long.numberOfLeadingZeros(lengthKb));
+        return typeWeight(variant) * lengthFactor;
+    }
+
+    /**
+     * Estimate the cost of evaluating the variant with the <code>data</code>, refined by the number of genes
+     * in the route.
+     */
+    static long estimate(GenomicVariant variant, RouteData data) {
+        return estimate(variant) * (1 + data.geneCount());
+    }
+
+    private static int typeWeight(GenomicVariant variant) {
+        switch (variant.variantType().baseType()) {
+            case BND:
+            case TRA:
+                // The route spans the neighborhoods of both breakends
+                return 4;
+            case INV:
+            case DUP:
+            case CNV:
+                return 2;
+            default:
+                return 1;
+        }
+    }
+}
@@ -106,37 +106,64 @@ public class EvaluatorUtils {
         List<Projection<? extends Located>> projections = new ArrayList<>(genes.size() + enhancers.size());
 
         for (Gene gene : genes) {
-            projections.addAll(Projections.project(gene, alternate));
+            Projections.project(gene, alternate, projections);
         }
 
         for (Enhancer enhancer : enhancers) {
-            projections.addAll(Projections.project(enhancer, alternate));
+            Projections.project(enhancer, alternate, projections);
         }
 
         return projections;
     }
 
+    /**
+     * Project the genes and the enhancers on the route and add the projections into the provided lists.
+     */
+    public static void projectGenesEnhancers(Route alternate,
+                                             Collection<Gene> genes,
+                                             Collection<Enhancer> enhancers,
+                                             List<Projection<Gene>> geneProjections,
+                                             List<Projection<Enhancer>> enhancerProjections) {
+        for (Gene gene : genes) {
+            Projections.project(gene, alternate, geneProjections);
+        }
+
+        for (Enhancer enhancer : enhancers) {
+            Projections.project(enhancer, alternate, enhancerProjections);
+        }
+    }
+
     public static LinkedList<Projection<? extends Located>> projectGenesEnhancersTads(Route alternate,
                                                                                       Collection<Gene> genes,
                                                                                       Collection<Enhancer> enhancers,
                                                                                       Collection<TadBoundary> tadBoundaries) {
         LinkedList<Projection<? extends Located>> projections = new LinkedList<>();
+        projectGenesEnhancersTads(alternate, genes, enhancers, tadBoundaries, projections);
+        return projections;
+    }
 
+    /**
+     * Project the TAD boundaries, the genes, and the enhancers on the route, add the projections into
+     * the provided list, and sort the list.
+     */
+    public static void projectGenesEnhancersTads(Route alternate,
+                                                 Collection<Gene> genes,
+                                                 Collection<Enhancer> enhancers,
+                                                 Collection<TadBoundary> tadBoundaries,
+                                                 List<Projection<? extends Located>> projections) {
         for (TadBoundary boundary : tadBoundaries) {
-            projections.addAll(Projections.project(boundary, alternate));
+            Projections.project(boundary, alternate, projections);
         }
 
         for (Gene gene : genes) {
-            projections.addAll(Projections.project(gene, alternate));
+            Projections.project(gene, alternate, projections);
         }
 
         for (Enhancer enhancer : enhancers) {
-            projections.addAll(Projections.project(enhancer, alternate));
+            Projections.project(enhancer, alternate, projections);
         }
 
         projections.sort(COMPARATOR);
-
-        return projections;
     }
 
     public static List<Integer> computeTadBoundaryIndices(List<Projection<? extends Located>> projections) {
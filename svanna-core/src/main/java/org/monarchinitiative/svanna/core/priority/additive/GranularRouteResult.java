@@ -10,7 +10,16 @@ import java.util.Map;
 public interface GranularRouteResult extends RouteResult, GeneAwareSvPriority {
 
     static GranularRouteResult of(Map<String, Double> scores) {
-        return GranularRouteResultDefault.of(scores);
+        return GranularRouteResultDefault.of(scores, false);
+    }
+
+    /**
+     * Get the result calculated by the approximate scoring of a variant that exceeded the evaluation budget.
+     *
+     * @see #isApproximate()
+     */
+    static GranularRouteResult approximate(Map<String, Double> scores) {
+        return GranularRouteResultDefault.of(scores, true);
     }
 
     @Override
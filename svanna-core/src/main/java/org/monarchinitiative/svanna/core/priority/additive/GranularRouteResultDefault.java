@@ -7,13 +7,15 @@ import java.util.Set;
 class GranularRouteResultDefault implements GranularRouteResult {
 
     private final Map<String, Double> scores;
+    private final boolean approximate;
 
-    static GranularRouteResult of(Map<String, Double> scores) {
-        return new GranularRouteResultDefault(scores);
+    static GranularRouteResult of(Map<String, Double> scores, boolean approximate) {
+        return new GranularRouteResultDefault(scores, approximate);
     }
 
-    private GranularRouteResultDefault(Map<String, Double> scores) {
+    private GranularRouteResultDefault(Map<String, Double> scores, boolean approximate) {
         this.scores = scores;
+        this.approximate = approximate;
     }
 
     @Override
@@ -26,23 +28,29 @@ class GranularRouteResultDefault implements GranularRouteResult {
         return scores.getOrDefault(geneId, 0.D);
     }
 
+    @Override
+    public boolean isApproximate() {
+        return approximate;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         GranularRouteResultDefault that = (GranularRouteResultDefault) o;
-        return Objects.equals(scores, that.scores);
+        return approximate == that.approximate && Objects.equals(scores, that.scores);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(scores);
+        return Objects.hash(scores, approximate);
     }
 
     @Override
     public String toString() {
         return "GranularRouteResultDefault{" +
                 "priority=" + priority() +
+                ", approximate=" + approximate +
                 '}';
     }
 }
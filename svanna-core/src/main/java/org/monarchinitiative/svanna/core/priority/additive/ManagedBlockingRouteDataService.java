@@ -0,0 +1,85 @@
+package org.monarchinitiative.svanna.core.priority.additive;
+
+import org.monarchinitiative.svanna.core.SvAnnaRuntimeException;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+/**
+ * {@link RouteDataService} for the I/O bound services, such as the services backed by a database.
+ * <p>
+ * At most <code>maxConcurrentRequests</code> requests are run at the same time, which should match the size
+ * of the connection pool. A worker waits for a free permit as a {@link ForkJoinPool.ManagedBlocker}, hence
+ * a {@link ForkJoinPool} can start a compensating thread to evaluate other variants while the requests of the other
+ * workers are in flight. The request itself is run on the worker without compensation, hence the number of the running
+ * threads does not exceed the parallelism of the pool.
+ */
+public class ManagedBlockingRouteDataService<T extends RouteData> implements RouteDataService<T> {
+
+    private final RouteDataService<T> delegate;
+
+    private final Semaphore permits;
+
+    public static <T extends RouteData> ManagedBlockingRouteDataService<T> of(RouteDataService<T> delegate, int maxConcurrentRequests) {
+        return new ManagedBlockingRouteDataService<>(delegate, maxConcurrentRequests);
+    }
+
+    private ManagedBlockingRouteDataService(RouteDataService<T> delegate, int maxConcurrentRequests) {
+        this.delegate = Objects.requireNonNull(delegate, "Delegate must not be null");
+        if (maxConcurrentRequests < 1)
+            throw new IllegalArgumentException("Max concurrent requests must be positive: " + maxConcurrentRequests);
+        this.permits = new Semaphore(maxConcurrentRequests, true);
+    }
+
+    @Override
+    public T getData(Routes route) {
+        return limited(() -> delegate.getData(route));
+    }
+
+    @Override
+    public List<T> getData(List<Routes> routes) {
+        return limited(() -> delegate.getData(routes));
+    }
+
+    private <U> U limited(Supplier<U> request) {
+        try {
+            ForkJoinPool.managedBlock(new PermitAcquirer(permits));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SvAnnaRuntimeException("Interrupted while waiting for the route data", e);
+        }
+        try {
+            return request.get();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private static class PermitAcquirer implements ForkJoinPool.ManagedBlocker {
+
+        private final Semaphore permits;
+
+        private boolean acquired = false;
+
+        private PermitAcquirer(Semaphore permits) {
+            this.permits = permits;
+        }
+
+        @Override
+        public boolean block() throws InterruptedException {
+            if (!acquired) {
+                permits.acquire();
+                acquired = true;
+            }
+            return true;
+        }
+
+        @Override
+        public boolean isReleasable() {
+            return acquired || (acquired = permits.tryAcquire());
+        }
+    }
+}
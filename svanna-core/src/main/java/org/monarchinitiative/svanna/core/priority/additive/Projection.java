@@ -3,11 +3,7 @@ package org.monarchinitiative.svanna.core.priority.additive;
 import org.monarchinitiative.sgenes.model.Located;
 import org.monarchinitiative.svart.*;
 
-import java.util.Collection;
-import java.util.HashSet;
-import java.util.Objects;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.*;
 
 
 public class Projection<T extends Located> extends BaseGenomicRegion<Projection<T>> {
@@ -30,6 +26,19 @@ public class Projection<T extends Located> extends BaseGenomicRegion<Projection<
         this.spannedLocations = spannedLocations;
     }
 
+    /**
+     * Create a projection of the <code>source</code> that starts in the segment with <code>startSegmentIdx</code>
+     * and ends in the segment with <code>endSegmentIdx</code>. The locations are shared with the route.
+     */
+    static <T extends Located> Projection<T> of(T source, Route route, Strand strand, CoordinateSystem coordinateSystem,
+                                                 int start, int end, int startSegmentIdx, int endSegmentIdx) {
+        Set<Location> spannedLocations = endSegmentIdx - startSegmentIdx > 1
+                ? new SpannedLocations(route, startSegmentIdx + 1, endSegmentIdx)
+                : Set.of();
+        return new Projection<>(route.neoContig(), strand, Coordinates.of(coordinateSystem, start, end),
+                source, route, route.location(startSegmentIdx), route.location(endSegmentIdx), spannedLocations);
+    }
+
     private Projection(Builder<T> builder) {
         this(builder.contig, builder.strand, builder.coordinates,
                 Objects.requireNonNull(builder.source),
@@ -68,17 +77,24 @@ public class Projection<T extends Located> extends BaseGenomicRegion<Projection<
     }
 
     public Set<Event> spannedEvents() {
-        return spannedLocations.stream().map(Location::event).collect(Collectors.toSet());
+        Set<Event> events = EnumSet.noneOf(Event.class);
+        for (Location location : spannedLocations) {
+            events.add(location.event());
+        }
+        return events;
     }
 
     public boolean isIntraSegment() {
         return startLocation.segmentIdx == endLocation.segmentIdx;
     }
 
-    public Set<Segment> spannedSegments() {
-        return spannedLocations.stream()
-                .map(location -> route.segments().get(location.segmentIdx()))
-                .collect(Collectors.toSet());
+    /**
+     * @return view of the segments located between the start and the end segments of the projection
+     */
+    public List<Segment> spannedSegments() {
+        return isIntraSegment()
+                ? List.of()
+                : route.segments().subList(startLocation.segmentIdx + 1, endLocation.segmentIdx);
     }
 
     public boolean isDeleted() {
@@ -219,6 +235,54 @@ public class Projection<T extends Located> extends BaseGenomicRegion<Projection<
         }
     }
 
+    /**
+     * Unmodifiable view of the locations of a contiguous range of route segments.
+     */
+    private static class SpannedLocations extends AbstractSet<Location> {
+
+        private final Route route;
+        private final int from, to;
+
+        private SpannedLocations(Route route, int from, int to) {
+            this.route = route;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public Iterator<Location> iterator() {
+            return new Iterator<>() {
+                private int current = from;
+
+                @Override
+                public boolean hasNext() {
+                    return current < to;
+                }
+
+                @Override
+                public Location next() {
+                    if (current >= to)
+                        throw new NoSuchElementException();
+                    return route.location(current++);
+                }
+            };
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            if (!(o instanceof Location))
+                return false;
+            Location location = (Location) o;
+            return from <= location.segmentIdx && location.segmentIdx < to
+                    && route.location(location.segmentIdx).equals(location);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+
     // TODO make a proper class
     public static class Location {
         private final int segmentIdx;
@@ -0,0 +1,51 @@
+package org.monarchinitiative.svanna.core.priority.additive;
+
+import org.monarchinitiative.sgenes.model.Gene;
+import org.monarchinitiative.sgenes.model.Located;
+import org.monarchinitiative.svanna.model.landscape.enhancer.Enhancer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reusable lists for the projections of a single route. The buffer is meant to be used by a single thread,
+ * and it must not be used by more than one evaluation at a time.
+ */
+public class ProjectionBuffer {
+
+    private static final ThreadLocal<ProjectionBuffer> BUFFERS = ThreadLocal.withInitial(ProjectionBuffer::new);
+
+    private final List<Projection<Gene>> genes = new ArrayList<>();
+    private final List<Projection<Enhancer>> enhancers = new ArrayList<>();
+    private final List<Projection<? extends Located>> projections = new ArrayList<>();
+
+    /**
+     * @return an empty buffer of the current thread
+     */
+    public static ProjectionBuffer forCurrentThread() {
+        ProjectionBuffer buffer = BUFFERS.get();
+        buffer.clear();
+        return buffer;
+    }
+
+    private ProjectionBuffer() {
+    }
+
+    public List<Projection<Gene>> genes() {
+        return genes;
+    }
+
+    public List<Projection<Enhancer>> enhancers() {
+        return enhancers;
+    }
+
+    public List<Projection<? extends Located>> projections() {
+        return projections;
+    }
+
+    public void clear() {
+        genes.clear();
+        enhancers.clear();
+        projections.clear();
+    }
+}
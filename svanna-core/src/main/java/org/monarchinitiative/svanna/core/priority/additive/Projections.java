@@ -9,7 +9,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 
 public class Projections {
 
@@ -22,23 +24,34 @@ public class Projections {
     }
 
     public static <T extends Located> List<Projection<T>> project(T query, Route route) {
-        if (!route.segmentContigs().contains(query.contig()))
-            return List.of();
+        List<Projection<T>> projections = new ArrayList<>(2);
+        project(query, route, projections);
+        return projections;
+    }
 
-        int startSegmentIdx = -1, endSegmentIdx = -1;
+    /**
+     * Project the <code>query</code> on the <code>route</code> and add the projections into
+     * the <code>projections</code> collection. Apart from the projections, nothing is allocated, hence the collection
+     * can be reused to project many queries on many routes.
+     *
+     * @return the number of projections added into the collection
+     */
+    public static <T extends Located> int project(T query, Route route, Collection<? super Projection<T>> projections) {
+        if (!route.containsContig(query.contig()))
+            return 0;
 
-        List<Segment> segments = route.segments();
-        for (int i = 0; i < segments.size(); i++) {
-            Segment segment = segments.get(i);
+        int startSegmentIdx = -1, endSegmentIdx = -1;
 
-            if (segment.contig().equals(query.contig())) {
-                // we need to work on 1-based if we investigate start and end as integers separately
-                int queryStart = query.startOnStrandWithCoordinateSystem(segment.strand(), CoordinateSystem.oneBased());
-                if (segment.contains(queryStart)) {
+        for (int i = 0; i < route.size(); i++) {
+            if (route.contig(i).equals(query.contig())) {
+                // the same as checking if the segment contains 1-based query start or end
+                Strand strand = route.strand(i);
+                int queryStart = query.startOnStrandWithCoordinateSystem(strand, CS);
+                if (route.start(i) <= queryStart && queryStart < route.end(i)) {
                     startSegmentIdx = i;
                 }
-                int queryEnd = query.endOnStrandWithCoordinateSystem(segment.strand(), CoordinateSystem.oneBased());
-                if (segment.contains(queryEnd)) {
+                int queryEnd = query.endOnStrandWithCoordinateSystem(strand, CS);
+                if (route.start(i) < queryEnd && queryEnd <= route.end(i)) {
                     endSegmentIdx = i;
                 }
                 if (startSegmentIdx >= 0 && endSegmentIdx >= 0)
@@ -46,12 +59,9 @@ public class Projections {
             }
         }
 
-        if (startSegmentIdx < 0 && endSegmentIdx < 0) {
-            // on Route's contigs, but not in on the Route
-            return List.of();
-        }
         if (startSegmentIdx < 0 || endSegmentIdx < 0) {
-            return List.of();
+            // on Route's contigs, but not in on the Route
+            return 0;
         }
 
         if (query.location().length() == 0) {
@@ -62,144 +72,108 @@ public class Projections {
         }
 
         if (startSegmentIdx == endSegmentIdx) {
-            return processIntraSegmentEvent(query, startSegmentIdx, route);
+            return processIntraSegmentEvent(query, startSegmentIdx, route, projections);
         } else {
-            return processInterSegmentEvent(query, startSegmentIdx, endSegmentIdx, route);
+            return processInterSegmentEvent(query, startSegmentIdx, endSegmentIdx, route, projections);
         }
     }
 
-    private static <T extends Located> List<Projection<T>> processIntraSegmentEvent(T query,
-                                                                                    int segmentIdx,
-                                                                                    Route route) {
-        List<Segment> segments = route.segments();
-        Segment segment = segments.get(segmentIdx);
-        if (segment.event() == Event.DELETION)
-            return List.of();
-
-        else if (segment.event() == Event.DUPLICATION) {
-            int nBasesInPreviousSegments = countBasesInPreviousSegments(segments, segmentIdx);
-            int firstStart = query.startOnStrandWithCoordinateSystem(segment.strand(), segment.coordinateSystem()) - segment.start() + nBasesInPreviousSegments;
-            int firstEnd = query.endOnStrandWithCoordinateSystem(segment.strand(), segment.coordinateSystem()) - segment.start() + nBasesInPreviousSegments;
-
-            Projection<T> first = Projection.builder(route, query, route.neoContig(), STRAND, CS)
-                    .start(firstStart).setStartEvent(Projection.Location.of(segmentIdx, Event.DUPLICATION))
-                    .end(firstEnd).setEndEvent(Projection.Location.of(segmentIdx, Event.DUPLICATION))
-                    .build();
-            Projection<T> second = Projection.builder(route, query, route.neoContig(), STRAND, CS)
-                    .start(firstStart + segment.length()).setStartEvent(Projection.Location.of(segmentIdx, Event.DUPLICATION))
-                    .end(firstEnd + segment.length()).setEndEvent(Projection.Location.of(segmentIdx, Event.DUPLICATION))
-                    .build();
-            return List.of(first, second);
-
-        } else if (segment.event() == Event.INVERSION) {
-            int nBasesInPreviousSegments = countBasesInPreviousSegments(segments, segmentIdx);
-            int start = query.startOnStrandWithCoordinateSystem(segment.strand(), segment.coordinateSystem()) - segment.start();
-            int end = query.endOnStrandWithCoordinateSystem(segment.strand(), segment.coordinateSystem()) - segment.start();
+    private static <T extends Located> int processIntraSegmentEvent(T query,
+                                                                    int segmentIdx,
+                                                                    Route route,
+                                                                    Collection<? super Projection<T>> projections) {
+        Event event = route.event(segmentIdx);
+        Strand strand = route.strand(segmentIdx);
+        if (event == Event.DELETION)
+            return 0;
+
+        else if (event == Event.DUPLICATION) {
+            int nBasesInPreviousSegments = route.basesBefore(segmentIdx);
+            int firstStart = query.startOnStrandWithCoordinateSystem(strand, CS) - route.start(segmentIdx) + nBasesInPreviousSegments;
+            int firstEnd = query.endOnStrandWithCoordinateSystem(strand, CS) - route.start(segmentIdx) + nBasesInPreviousSegments;
+            int length = route.length(segmentIdx);
+
+            projections.add(Projection.of(query, route, STRAND, CS, firstStart, firstEnd, segmentIdx, segmentIdx));
+            projections.add(Projection.of(query, route, STRAND, CS, firstStart + length, firstEnd + length, segmentIdx, segmentIdx));
+            return 2;
+
+        } else if (event == Event.INVERSION) {
+            int nBasesInPreviousSegments = route.basesBefore(segmentIdx);
+            int start = query.startOnStrandWithCoordinateSystem(strand, CS) - route.start(segmentIdx);
+            int end = query.endOnStrandWithCoordinateSystem(strand, CS) - route.start(segmentIdx);
             int invertedEnd = Coordinates.invertCoordinate(CS, route.neoContig(), nBasesInPreviousSegments + start);
             int invertedStart = Coordinates.invertCoordinate(CS, route.neoContig(), nBasesInPreviousSegments + end);
 
-            return List.of(Projection.builder(route, query, route.neoContig(), STRAND.opposite(), CS)
-                    .start(invertedStart).setStartEvent(Projection.Location.of(segmentIdx, Event.INVERSION))
-                    .end(invertedEnd).setEndEvent(Projection.Location.of(segmentIdx, Event.INVERSION))
-                    .build());
-
-        } else if (segment.event() == Event.GAP) {
-            int nBasesInPreviousSegments = countBasesInPreviousSegments(segments, segmentIdx);
-            int start = query.startOnStrandWithCoordinateSystem(segment.strand(), segment.coordinateSystem()) - segment.start() + nBasesInPreviousSegments;
-            int end = query.endOnStrandWithCoordinateSystem(segment.strand(), segment.coordinateSystem()) - segment.start() + nBasesInPreviousSegments;
-            return List.of(Projection.builder(route, query, route.neoContig(), STRAND, CS)
-                    .start(start).setStartEvent(Projection.Location.of(segmentIdx, Event.GAP))
-                    .end(end).setEndEvent(Projection.Location.of(segmentIdx, Event.GAP))
-                    .build());
+            projections.add(Projection.of(query, route, STRAND.opposite(), CS, invertedStart, invertedEnd, segmentIdx, segmentIdx));
+            return 1;
+
+        } else if (event == Event.GAP) {
+            int nBasesInPreviousSegments = route.basesBefore(segmentIdx);
+            int start = query.startOnStrandWithCoordinateSystem(strand, CS) - route.start(segmentIdx) + nBasesInPreviousSegments;
+            int end = query.endOnStrandWithCoordinateSystem(strand, CS) - route.start(segmentIdx) + nBasesInPreviousSegments;
+            projections.add(Projection.of(query, route, STRAND, CS, start, end, segmentIdx, segmentIdx));
+            return 1;
         }
 
         LogUtils.logWarn(LOGGER, "Unexpected query `{}`", query);
-        return List.of();
+        return 0;
     }
 
-    private static <T extends Located> List<Projection<T>> processInterSegmentEvent(T query,
-                                                                                    int startSegmentIdx,
-                                                                                    int endSegmentIdx,
-                                                                                    Route route) {
-        List<Segment> segments = route.segments();
-        Segment startSegment = segments.get(startSegmentIdx);
-        Segment endSegment = segments.get(endSegmentIdx);
-
-        List<Segment> spanned = segments.subList(startSegmentIdx + 1, endSegmentIdx);
-        List<Projection.Location> spannedLocations = new ArrayList<>(spanned.size());
-        for (int i = 0; i < spanned.size(); i++) {
-            Segment segment = spanned.get(i);
-            spannedLocations.add(Projection.Location.of(startSegmentIdx + 1 + i, segment.event()));
-        }
-        Event startEvent = startSegment.event();
-        Event endEvent = endSegment.event();
+    private static <T extends Located> int processInterSegmentEvent(T query,
+                                                                    int startSegmentIdx,
+                                                                    int endSegmentIdx,
+                                                                    Route route,
+                                                                    Collection<? super Projection<T>> projections) {
+        // the segments between the start and the end segments are spanned by the projection
+        Objects.checkFromToIndex(startSegmentIdx + 1, endSegmentIdx, route.size());
+
+        Event startEvent = route.event(startSegmentIdx);
+        Event endEvent = route.event(endSegmentIdx);
+        Strand startStrand = route.strand(startSegmentIdx);
         if (startEvent == Event.GAP && endEvent == Event.GAP) {
-            int startPrevious = countBasesInPreviousSegments(segments, startSegmentIdx);
-            int start = query.startOnStrandWithCoordinateSystem(startSegment.strand(), startSegment.coordinateSystem()) - startSegment.start() + startPrevious;
-            int endPrevious = countBasesInPreviousSegments(segments, endSegmentIdx);
-            int end = query.endOnStrandWithCoordinateSystem(startSegment.strand(), startSegment.coordinateSystem()) - endSegment.start() + endPrevious;
-            return List.of(Projection.builder(route, query, route.neoContig(), STRAND, CS)
-                    .start(start).setStartEvent(Projection.Location.of(startSegmentIdx, startEvent))
-                    .end(end).setEndEvent(Projection.Location.of(endSegmentIdx, endEvent))
-                    .addAllSpannedEvents(spannedLocations)
-                    .build());
+            int start = query.startOnStrandWithCoordinateSystem(startStrand, CS) - route.start(startSegmentIdx) + route.basesBefore(startSegmentIdx);
+            int end = query.endOnStrandWithCoordinateSystem(startStrand, CS) - route.start(endSegmentIdx) + route.basesBefore(endSegmentIdx);
+            projections.add(Projection.of(query, route, STRAND, CS, start, end, startSegmentIdx, endSegmentIdx));
+            return 1;
         }
         if (startEvent == Event.GAP) {
             switch (endEvent) {
                 case DELETION:
                 case INVERSION:
-                    return List.of();
+                    return 0;
                 case DUPLICATION:
-                    int startPrevious = countBasesInPreviousSegments(segments, startSegmentIdx);
-                    int start = query.startOnStrandWithCoordinateSystem(startSegment.strand(), startSegment.coordinateSystem()) - startSegment.start() + startPrevious;
-                    int endPrevious = countBasesInPreviousSegments(segments, endSegmentIdx);
-                    int end = query.endOnStrandWithCoordinateSystem(startSegment.strand(), startSegment.coordinateSystem()) - endSegment.start() + endPrevious;
-                    return List.of(Projection.builder(route, query, route.neoContig(), STRAND, CS)
-                            .start(start).setStartEvent(Projection.Location.of(startSegmentIdx, startEvent))
-                            .end(end).setEndEvent(Projection.Location.of(endSegmentIdx, endEvent))
-                            .addAllSpannedEvents(spannedLocations)
-                            .build());
+                    int start = query.startOnStrandWithCoordinateSystem(startStrand, CS) - route.start(startSegmentIdx) + route.basesBefore(startSegmentIdx);
+                    int end = query.endOnStrandWithCoordinateSystem(startStrand, CS) - route.start(endSegmentIdx) + route.basesBefore(endSegmentIdx);
+                    projections.add(Projection.of(query, route, STRAND, CS, start, end, startSegmentIdx, endSegmentIdx));
+                    return 1;
                 case INSERTION:
                     // TODO - fix
                 default:
                     LogUtils.logWarn(LOGGER, "Unexpected end event `{}`", endEvent);
-                    return List.of();
+                    return 0;
             }
         }
         if (endEvent == Event.GAP) {
             switch (startEvent) {
                 case DELETION:
                 case INVERSION:
-                    return List.of();
+                    return 0;
                 case DUPLICATION:
-                    int startPrevious = countBasesInPreviousSegments(segments, startSegmentIdx);
-                    int penultimateBases = startSegment.length() * (startSegment.copies() - 1);
-                    int start = query.startOnStrandWithCoordinateSystem(startSegment.strand(), startSegment.coordinateSystem()) - startSegment.start() + startPrevious + penultimateBases;
-                    int endPrevious = countBasesInPreviousSegments(segments, endSegmentIdx);
-                    int end = query.endOnStrandWithCoordinateSystem(startSegment.strand(), startSegment.coordinateSystem()) - endSegment.start() + endPrevious;
-                    return List.of(Projection.builder(route, query, route.neoContig(), STRAND, CS)
-                            .start(start).setStartEvent(Projection.Location.of(startSegmentIdx, startEvent))
-                            .end(end).setEndEvent(Projection.Location.of(endSegmentIdx, endEvent))
-                            .addAllSpannedEvents(spannedLocations)
-                            .build());
+                    int penultimateBases = route.length(startSegmentIdx) * (route.copies(startSegmentIdx) - 1);
+                    int start = query.startOnStrandWithCoordinateSystem(startStrand, CS) - route.start(startSegmentIdx) + route.basesBefore(startSegmentIdx) + penultimateBases;
+                    int end = query.endOnStrandWithCoordinateSystem(startStrand, CS) - route.start(endSegmentIdx) + route.basesBefore(endSegmentIdx);
+                    projections.add(Projection.of(query, route, STRAND, CS, start, end, startSegmentIdx, endSegmentIdx));
+                    return 1;
                 case INSERTION:
                     // TODO - fix
                 default:
                     LogUtils.logWarn(LOGGER, "Unexpected start event `{}`", startEvent);
-                    return List.of();
+                    return 0;
             }
         }
 
         LogUtils.logWarn(LOGGER, "Unexpected query `{}`", query);
-        return List.of();
-    }
-
-    private static int countBasesInPreviousSegments(List<Segment> segments, int segmentIdx) {
-        int count = 0;
-        for (int i = 0; i < segmentIdx; i++) {
-            count += segments.get(i).contributingBases();
-        }
-        return count;
+        return 0;
     }
 
 }
@@ -12,9 +12,24 @@ public class Route {
 
     private static final AtomicInteger CONTIG_ID_COUNTER = new AtomicInteger();
 
+    private static final CoordinateSystem CS = CoordinateSystem.zeroBased();
+
     private final List<Segment> segments;
 
-    private final Set<Contig> segmentContigs;
+    /*
+     * The segments in a primitive form used by the projection routine. The coordinates are zero-based
+     * and on the strand of the segment.
+     */
+    private final Contig[] contigs;
+    private final Strand[] strands;
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] lengths;
+    private final int[] copies;
+    private final Event[] events;
+    // The number of bases contributed by the segments preceding the i-th segment
+    private final int[] basesBefore;
+    private final Projection.Location[] locations;
 
     private final Contig neoContig;
 
@@ -23,21 +38,43 @@ public class Route {
     public static Route of(List<Segment> segments) {
         if (segments.isEmpty())
             throw new IllegalArgumentException("Segment list must not be empty");
-        // TODO - normalize coordinate systems, strands
+        // TODO - normalize strands
         return new Route(segments);
     }
 
     private Route(List<Segment> segments) {
-        this.segments = segments;
-        this.comparator = featureComparator(segments);
-        int length = 0;
-        this.segmentContigs = new HashSet<>(2);
-        for (Segment segment : segments) {
-            length += segment.contributingBases();
-            segmentContigs.add(segment.contig());
+        int n = segments.size();
+        List<Segment> normalized = new ArrayList<>(n);
+        this.contigs = new Contig[n];
+        this.strands = new Strand[n];
+        this.starts = new int[n];
+        this.ends = new int[n];
+        this.lengths = new int[n];
+        this.copies = new int[n];
+        this.events = new Event[n];
+        this.basesBefore = new int[n + 1];
+        this.locations = new Projection.Location[n];
+
+        int i = 0;
+        for (Segment s : segments) {
+            Segment segment = s.withCoordinateSystem(CS);
+            normalized.add(segment);
+            contigs[i] = segment.contig();
+            strands[i] = segment.strand();
+            starts[i] = segment.start();
+            ends[i] = segment.end();
+            lengths[i] = segment.length();
+            copies[i] = segment.copies();
+            events[i] = segment.event();
+            basesBefore[i + 1] = basesBefore[i] + segment.contributingBases();
+            locations[i] = Projection.Location.of(i, segment.event());
+            i++;
         }
+        this.segments = Collections.unmodifiableList(normalized);
+        this.comparator = featureComparator(this.segments);
+
         int contigId = CONTIG_ID_COUNTER.decrementAndGet();
-        this.neoContig = NeoContig.of(contigId, "neo-contig" + contigId, length);
+        this.neoContig = NeoContig.of(contigId, "neo-contig" + contigId, basesBefore[n]);
     }
 
     public List<Segment> segments() {
@@ -45,7 +82,7 @@ public class Route {
     }
 
     public List<GenomicRegion> metaSegments() {
-        List<GenomicRegion> metaSegments = new ArrayList<>(segmentContigs.size());
+        List<GenomicRegion> metaSegments = new ArrayList<>(3);
         Segment previous = segments.get(0);
         Strand strand = previous.strand();
         int start = previous.start();
@@ -69,13 +106,73 @@ public class Route {
     }
 
     public Set<Contig> segmentContigs() {
-        return segmentContigs;
+        return new HashSet<>(Arrays.asList(contigs));
+    }
+
+    public boolean containsContig(Contig contig) {
+        for (Contig c : contigs) {
+            if (c.equals(contig))
+                return true;
+        }
+        return false;
     }
 
     public Comparator<? super GenomicRegion> featureComparator() {
         return comparator;
     }
 
+    /**
+     * @return number of segments of the route
+     */
+    int size() {
+        return contigs.length;
+    }
+
+    Contig contig(int segmentIdx) {
+        return contigs[segmentIdx];
+    }
+
+    Strand strand(int segmentIdx) {
+        return strands[segmentIdx];
+    }
+
+    /**
+     * @return zero-based start of the segment on the segment's strand
+     */
+    int start(int segmentIdx) {
+        return starts[segmentIdx];
+    }
+
+    /**
+     * @return zero-based end of the segment on the segment's strand
+     */
+    int end(int segmentIdx) {
+        return ends[segmentIdx];
+    }
+
+    int length(int segmentIdx) {
+        return lengths[segmentIdx];
+    }
+
+    int copies(int segmentIdx) {
+        return copies[segmentIdx];
+    }
+
+    Event event(int segmentIdx) {
+        return events[segmentIdx];
+    }
+
+    /**
+     * @return number of bases contributed by the segments preceding the segment
+     */
+    int basesBefore(int segmentIdx) {
+        return basesBefore[segmentIdx];
+    }
+
+    Projection.Location location(int segmentIdx) {
+        return locations[segmentIdx];
+    }
+
     private static Comparator<? super GenomicRegion> featureComparator(List<Segment> segments) {
         List<Integer> contigIds = new ArrayList<>(3);
         Map<Integer, Strand> contigStrands = new HashMap<>();
@@ -14,6 +14,20 @@ public abstract class RouteData {
         return routes;
     }
 
+    /**
+     * @return the number of genes in the route, used to estimate the evaluation cost
+     */
+    public int geneCount() {
+        return 0;
+    }
+
+    /**
+     * @return the number of enhancers in the route
+     */
+    public int enhancerCount() {
+        return 0;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -4,4 +4,15 @@ public interface RouteDataEvaluator<T extends RouteData, R extends RouteResult>
 
     R evaluate(T routeData);
 
+    /**
+     * Calculate an upper bound of the priority of the {@link RouteResult} that would be produced
+     * by {@link #evaluate(RouteData)}. The upper bound is meant to be considerably cheaper to calculate than
+     * the evaluation itself.
+     *
+     * @return upper bound of the priority, {@link Double#POSITIVE_INFINITY} if the bound is not known
+     */
+    default double upperBound(T routeData) {
+        return Double.POSITIVE_INFINITY;
+    }
+
 }
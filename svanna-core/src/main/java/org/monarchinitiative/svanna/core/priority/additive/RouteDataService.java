@@ -1,7 +1,27 @@
 package org.monarchinitiative.svanna.core.priority.additive;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public interface RouteDataService<T extends RouteData> {
 
     T getData(Routes route);
 
+    /**
+     * Get data for a group of {@link Routes} that share the same {@link Routes#references()}.
+     * <p>
+     * The default implementation fetches the data for each route separately. The implementors are encouraged to fetch
+     * the data for the shared references only once.
+     *
+     * @param routes routes with the same reference regions
+     * @return list with data for each route, in the same order as the routes
+     */
+    default List<T> getData(List<Routes> routes) {
+        List<T> data = new ArrayList<>(routes.size());
+        for (Routes route : routes) {
+            data.add(getData(route));
+        }
+        return data;
+    }
+
 }
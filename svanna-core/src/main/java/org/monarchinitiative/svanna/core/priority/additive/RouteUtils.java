@@ -4,7 +4,7 @@ import org.monarchinitiative.svanna.core.LogUtils;
 import org.monarchinitiative.svanna.core.reference.SvannaVariant;
 import org.monarchinitiative.svart.*;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
 
 public class RouteUtils {
@@ -23,7 +23,7 @@ public class RouteUtils {
         GenomicVariant first = variants.get(0);
         int firstStart = first.startWithCoordinateSystem(CS);
 
-        List<Segment> segments = new LinkedList<>();
+        List<Segment> segments = new ArrayList<>();
 
         Segment firstSegment = Segment.of(first.contig(), first.strand(), Coordinates.of(CS, upstreamBound, firstStart),
                 "upstream", Event.GAP, 1);
@@ -1,6 +1,7 @@
 package org.monarchinitiative.svanna.core.priority.additive.evaluator.ge;
 
-import org.monarchinitiative.svanna.core.LogUtils;
+import org.monarchinitiative.svanna.core.metrics.MetricId;
+import org.monarchinitiative.svanna.core.metrics.MetricsRegistry;
 import org.monarchinitiative.svanna.core.priority.additive.*;
 import org.monarchinitiative.svanna.core.priority.additive.impact.SequenceImpactCalculator;
 import org.monarchinitiative.svanna.model.landscape.enhancer.Enhancer;
@@ -12,26 +13,68 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 
 public class GranularRouteDataEvaluatorGE implements RouteDataEvaluator<RouteDataGE, GranularRouteResult> {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GranularRouteDataEvaluatorGE.class);
 
+    private static final MetricId CACHE_HITS = MetricId.of("svanna_cache_requests_total", "cache", "reference_score", "result", "hit");
+    private static final MetricId CACHE_MISSES = MetricId.of("svanna_cache_requests_total", "cache", "reference_score", "result", "miss");
+    private static final MetricId APPROXIMATE_EVALUATIONS = MetricId.of("svanna_approximate_evaluations_total");
+
     private final SequenceImpactCalculator<Gene> geneImpactCalculator;
     private final GeneWeightCalculator geneWeightCalculator;
 
     private final SequenceImpactCalculator<Enhancer> enhancerImpactCalculator;
     private final EnhancerGeneRelevanceCalculator enhancerGeneRelevanceCalculator;
 
+    /*
+     * The maximum product of the gene and enhancer counts of a variant that is evaluated exactly, or 0 for no limit.
+     * The work is used instead of the elapsed time to keep the results reproducible.
+     */
+    private final long workBudget;
+
+    /*
+     * The reference scores depend only on the reference regions, since the genes and enhancers are fetched for
+     * the reference regions. Variants located in the same gene(s) share the reference regions, hence we compute
+     * the scores only once.
+     */
+    private final ConcurrentMap<Set<GenomicRegion>, Map<String, Double>> referenceScoreCache = new ConcurrentHashMap<>();
+
+    // The same for the approximate evaluation that ignores the enhancers
+    private final ConcurrentMap<Set<GenomicRegion>, Map<String, Double>> geneOnlyReferenceScoreCache = new ConcurrentHashMap<>();
+
+    // The large variants evaluated approximately usually share many genes
+    private final ConcurrentMap<String, Double> geneRelevanceCache = new ConcurrentHashMap<>();
+
     public GranularRouteDataEvaluatorGE(SequenceImpactCalculator<Gene> geneImpactCalculator,
                                         GeneWeightCalculator geneWeightCalculator,
                                         SequenceImpactCalculator<Enhancer> enhancerImpactCalculator,
                                         EnhancerGeneRelevanceCalculator enhancerGeneRelevanceCalculator) {
+        this(geneImpactCalculator, geneWeightCalculator, enhancerImpactCalculator, enhancerGeneRelevanceCalculator, 0L);
+    }
+
+    /**
+     * @param workBudget the maximum product of the gene and enhancer counts of a variant that is evaluated exactly.
+     *                   The variants above the budget are evaluated approximately, using the genes only.
+     *                   Use <code>0</code> to evaluate all variants exactly.
+     */
+    public GranularRouteDataEvaluatorGE(SequenceImpactCalculator<Gene> geneImpactCalculator,
+                                        GeneWeightCalculator geneWeightCalculator,
+                                        SequenceImpactCalculator<Enhancer> enhancerImpactCalculator,
+                                        EnhancerGeneRelevanceCalculator enhancerGeneRelevanceCalculator,
+                                        long workBudget) {
+        if (workBudget < 0)
+            throw new IllegalArgumentException("Work budget must not be negative: " + workBudget);
         this.geneImpactCalculator = geneImpactCalculator;
         this.geneWeightCalculator = geneWeightCalculator;
         this.enhancerImpactCalculator = enhancerImpactCalculator;
         this.enhancerGeneRelevanceCalculator = enhancerGeneRelevanceCalculator;
+        this.workBudget = workBudget;
     }
 
     private static <T, U extends Collection<T>> int countItemsInCollections(Map<?, U> items) {
@@ -42,12 +85,21 @@ public class GranularRouteDataEvaluatorGE implements RouteDataEvaluator<RouteDat
         return count;
     }
 
+    private boolean exceedsBudget(RouteDataGE routeData) {
+        return workBudget > 0
+                && (long) routeData.genes().size() * routeData.enhancers().size() > workBudget;
+    }
+
     @Override
     public GranularRouteResult evaluate(RouteDataGE routeData) {
+        if (exceedsBudget(routeData)) {
+            MetricsRegistry.current().counter(APPROXIMATE_EVALUATIONS).increment();
+            return evaluateApproximately(routeData);
+        }
         Routes routes = routeData.route();
 
-        Map<String, Double> referenceScores = evaluateReference(routes.references(), routeData.genes(), routeData.enhancers());
-        Map<String, Double> alternateScores = evaluateAlternate(routes.alternates(), routeData.genes(), routeData.enhancers());
+        Map<String, Double> referenceScores = referenceScores(routes.references(), routeData.genes(), routeData.enhancers());
+        Map<String, Double> alternateScores = evaluateAlternate(routes.alternates(), routeData.genes(), routeData.enhancers(), this::geneRelevance);
 
         Set<String> geneAccessions = routeData.genes().stream()
                 .map(Identified::accession)
@@ -58,9 +110,78 @@ public class GranularRouteDataEvaluatorGE implements RouteDataEvaluator<RouteDat
         return GranularRouteResult.of(scoreMap);
     }
 
-    private Map<String, Double> evaluateReference(List<GenomicRegion> references,
-                                                  Set<Gene> genes,
-                                                  Set<Enhancer> enhancers) {
+    /**
+     * Evaluate the genes only, skipping the enhancers, and reusing the gene relevance.
+     */
+    private GranularRouteResult evaluateApproximately(RouteDataGE routeData) {
+        Routes routes = routeData.route();
+
+        Map<String, Double> referenceScores = geneOnlyReferenceScores(routes.references(), routeData.genes());
+        Map<String, Double> alternateScores = evaluateAlternate(routes.alternates(), routeData.genes(), Set.of(), this::cachedGeneRelevance);
+
+        Set<String> geneAccessions = routeData.genes().stream()
+                .map(Identified::accession)
+                .collect(Collectors.toUnmodifiableSet());
+
+        Map<String, Double> scoreMap = GranularEvaluatorUtils.calculateDeltas(geneAccessions, referenceScores, alternateScores);
+
+        return GranularRouteResult.approximate(scoreMap);
+    }
+
+    /**
+     * The score of a gene is an absolute difference between the reference and the alternate scores, hence it is
+     * bounded by the greater of the two. The alternate score is bounded using the maximum impacts, since a gene or
+     * an enhancer can be projected at most twice on a route with a duplication and at most once otherwise.
+     */
+    @Override
+    public double upperBound(RouteDataGE routeData) {
+        Routes routes = routeData.route();
+        boolean approximate = exceedsBudget(routeData);
+        Map<String, Double> referenceScores = approximate
+                ? geneOnlyReferenceScores(routes.references(), routeData.genes())
+                : referenceScores(routes.references(), routeData.genes(), routeData.enhancers());
+
+        double enhancerRelevance = 0.;
+        if (!approximate) {
+            for (Enhancer enhancer : routeData.enhancers()) {
+                enhancerRelevance += enhancerImpactCalculator.maxImpact() * Math.abs(enhancerGeneRelevanceCalculator.calculateRelevance(enhancer));
+            }
+        }
+
+        int maxProjections = 0;
+        for (Route route : routes.alternates()) {
+            maxProjections += hasDuplication(route) ? 2 : 1;
+        }
+
+        double bound = 0.;
+        for (Gene gene : routeData.genes()) {
+            double geneRelevance = approximate
+                    ? cachedGeneRelevance(gene)
+                    : geneRelevance(gene);
+            double alternate = maxProjections * (geneImpactCalculator.maxImpact() * geneRelevance + 2 * enhancerRelevance);
+            bound += Math.max(referenceScores.getOrDefault(gene.accession(), 0.), alternate);
+        }
+
+        return bound;
+    }
+
+    private static boolean hasDuplication(Route route) {
+        for (Segment segment : route.segments()) {
+            if (segment.event() == Event.DUPLICATION || segment.copies() > 1)
+                return true;
+        }
+        return false;
+    }
+
+    private double geneRelevance(Gene gene) {
+        return Math.exp(geneWeightCalculator.calculateRelevance(gene));
+    }
+
+    private double cachedGeneRelevance(Gene gene) {
+        return geneRelevanceCache.computeIfAbsent(gene.accession(), a -> geneRelevance(gene));
+    }
+
+    private static Map<Integer, GenomicRegion> referenceByContig(List<GenomicRegion> references) {
         Map<Integer, GenomicRegion> referenceByContig = new HashMap<>(references.size());
         for (GenomicRegion reference : references) {
             if (referenceByContig.put(reference.contigId(), reference) != null)
@@ -68,7 +189,43 @@ public class GranularRouteDataEvaluatorGE implements RouteDataEvaluator<RouteDat
                 // we do not support this at the moment
                 throw new EvaluationException("Saw two reference regions for the same contig " + reference.contigName());
         }
+        return referenceByContig;
+    }
 
+    private Map<String, Double> geneOnlyReferenceScores(List<GenomicRegion> references, Set<Gene> genes) {
+        Map<Integer, GenomicRegion> referenceByContig = referenceByContig(references);
+        return geneOnlyReferenceScoreCache.computeIfAbsent(Set.copyOf(references), r -> evaluateGeneOnlyReference(referenceByContig, genes));
+    }
+
+    private Map<String, Double> evaluateGeneOnlyReference(Map<Integer, GenomicRegion> referenceByContig, Set<Gene> genes) {
+        Map<String, Double> results = new HashMap<>(genes.size());
+        for (Gene gene : genes) {
+            if (referenceByContig.containsKey(gene.contigId())) {
+                double score = geneImpactCalculator.noImpact() * cachedGeneRelevance(gene);
+                results.merge(gene.accession(), score, Double::sum);
+            }
+        }
+        return Map.copyOf(results);
+    }
+
+    private Map<String, Double> referenceScores(List<GenomicRegion> references,
+                                                Set<Gene> genes,
+                                                Set<Enhancer> enhancers) {
+        Map<Integer, GenomicRegion> referenceByContig = referenceByContig(references);
+
+        // The miss is counted by the thread that computes the scores, the other threads count a hit
+        boolean[] miss = {false};
+        Map<String, Double> scores = referenceScoreCache.computeIfAbsent(Set.copyOf(references), r -> {
+            miss[0] = true;
+            return evaluateReference(referenceByContig, genes, enhancers);
+        });
+        MetricsRegistry.current().counter(miss[0] ? CACHE_MISSES : CACHE_HITS).increment();
+        return scores;
+    }
+
+    private Map<String, Double> evaluateReference(Map<Integer, GenomicRegion> referenceByContig,
+                                                  Set<Gene> genes,
+                                                  Set<Enhancer> enhancers) {
         // Group genes, and enhancers by contig
         Map<Integer, List<Gene>> genesByContig = genes.stream()
                 .collect(Collectors.groupingBy(Located::contigId, Collectors.toUnmodifiableList()));
@@ -80,63 +237,56 @@ public class GranularRouteDataEvaluatorGE implements RouteDataEvaluator<RouteDat
 
         // Process each reference
         for (Integer contig : referenceByContig.keySet()) {
-            // Score within reference
-            List<Enhancer> enhancersOnContig = enhancersByContig.getOrDefault(contig, List.of());
+            // Score within reference. The enhancer contribution is the same for all genes on the contig
+            double enhancerRelevance = 0.;
+            for (Enhancer enhancer : enhancersByContig.getOrDefault(contig, List.of())) {
+                enhancerRelevance += enhancerImpactCalculator.noImpact() * enhancerGeneRelevanceCalculator.calculateRelevance(enhancer);
+            }
+
             for (Gene gene : genesByContig.getOrDefault(contig, List.of())) {
                 double geneImpact = geneImpactCalculator.noImpact();
                 double geneRelevance = Math.exp(geneWeightCalculator.calculateRelevance(gene));
-                double enhancerRelevance = 0.;
-                for (Enhancer enhancer : enhancersOnContig) {
-                    enhancerRelevance += enhancerImpactCalculator.noImpact() * enhancerGeneRelevanceCalculator.calculateRelevance(enhancer);
-                }
                 double score = geneImpact * geneRelevance + enhancerRelevance;
                 // A score for a gene might already be in the results map if the event duplicates the entire gene
                 results.merge(gene.accession(), score, Double::sum);
             }
         }
 
-        return results;
+        return Map.copyOf(results);
     }
 
-    @SuppressWarnings("unchecked")
     private Map<String, Double> evaluateAlternate(List<Route> routes,
                                                   Set<Gene> genes,
-                                                  Set<Enhancer> enhancers) {
+                                                  Set<Enhancer> enhancers,
+                                                  ToDoubleFunction<Gene> geneRelevanceFunction) {
         Map<String, Double> results = new HashMap<>(genes.size());
+        ProjectionBuffer buffer = ProjectionBuffer.forCurrentThread();
 
         for (Route route : routes) {
             // Choose genes & enhancers that can be projected on the current route
-            List<Projection<? extends Located>> projections = EvaluatorUtils.projectGenesEnhancers(route, genes, enhancers);
-            if (projections.isEmpty()) continue; // shortcut
-
-
-            // Find indices of genes and enhancers of the route
-            List<Integer> geneIndices = new LinkedList<>();
-            List<Integer> enhancerIndices = new LinkedList<>();
-
-            for (int i = 0; i < projections.size(); i++) {
-                Projection<? extends Located> projection = projections.get(i);
-                if (projection.source() instanceof Gene)
-                    geneIndices.add(i);
-                else if (projection.source() instanceof Enhancer)
-                    enhancerIndices.add(i);
-                else
-                    LogUtils.logWarn(LOGGER, "Skipping evaluation of an unknown projection `{}`", projection.source().getClass().getSimpleName());
-            }
+            buffer.clear();
+            List<Projection<Gene>> geneProjections = buffer.genes();
+            List<Projection<Enhancer>> enhancerProjections = buffer.enhancers();
+            EvaluatorUtils.projectGenesEnhancers(route, genes, enhancers, geneProjections, enhancerProjections);
+            if (geneProjections.isEmpty()) continue; // shortcut
+
+            // The enhancer contribution is the same for all genes of the route, we calculate it lazily
+            boolean enhancerRelevanceCalculated = false;
+            double enhancerRelevance = 0.;
 
             // Evaluate all genes of the route
-            for (int geneIdx : geneIndices) {
-                Projection<Gene> gene = (Projection<Gene>) projections.get(geneIdx);
+            for (Projection<Gene> gene : geneProjections) {
                 double geneImpact = geneImpactCalculator.projectImpact(gene);
                 if (geneImpact < EvaluatorUtils.CLOSE_TO_ZERO)
                     // Loss of function
                     continue;
-                double geneRelevance = Math.exp(geneWeightCalculator.calculateRelevance(gene.source()));
+                double geneRelevance = geneRelevanceFunction.applyAsDouble(gene.source());
 
-                double enhancerRelevance = 0.;
-                for (int enhancerIdx : enhancerIndices) {
-                    Projection<Enhancer> enhancer = (Projection<Enhancer>) projections.get(enhancerIdx);
-                    enhancerRelevance += enhancerImpactCalculator.projectImpact(enhancer) * enhancerGeneRelevanceCalculator.calculateRelevance(enhancer.source());
+                if (!enhancerRelevanceCalculated) {
+                    for (Projection<Enhancer> enhancer : enhancerProjections) {
+                        enhancerRelevance += enhancerImpactCalculator.projectImpact(enhancer) * enhancerGeneRelevanceCalculator.calculateRelevance(enhancer.source());
+                    }
+                    enhancerRelevanceCalculated = true;
                 }
 
                 double score = geneImpact * geneRelevance + enhancerRelevance;
@@ -36,6 +36,16 @@ public class RouteDataGE extends RouteData {
         return enhancers;
     }
 
+    @Override
+    public int geneCount() {
+        return genes.size();
+    }
+
+    @Override
+    public int enhancerCount() {
+        return enhancers.size();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -113,88 +113,82 @@ public class GranularRouteDataEvaluatorGETad implements RouteDataEvaluator<Route
         return results;
     }
 
-    @SuppressWarnings("unchecked")
     private Map<String, Double> evaluateAlternate(List<Route> routes,
                                                   Set<Gene> genes,
                                                   Set<Enhancer> enhancers,
                                                   List<TadBoundary> tadBoundaries) {
         Map<String, Double> results = new HashMap<>(genes.size());
+        ProjectionBuffer buffer = ProjectionBuffer.forCurrentThread();
 
         for (Route route : routes) {
-            LinkedList<Projection<? extends Located>> projections = EvaluatorUtils.projectGenesEnhancersTads(route, genes, enhancers, tadBoundaries);
-
-            if (projections.isEmpty())
-                continue;
-
-            // remove TADs that are either first or last projections
-            if (projections.getFirst().source() instanceof TadBoundary)
-                projections.removeFirst();
-            if (projections.isEmpty())
-                continue;
-
-            if (projections.getLast().source() instanceof TadBoundary)
-                projections.removeLast();
-            if (projections.isEmpty())
-                continue;
-
-            List<Integer> tadIndices = EvaluatorUtils.computeTadBoundaryIndices(projections);
-
-
-            int tadStart = 0;
-            Iterator<Integer> tadIndicesIterator = tadIndices.iterator();
-            int tadEnd = tadIndices.isEmpty() ? projections.size() : tadIndicesIterator.next();
-            List<Projection<Gene>> intraTadGenes = new LinkedList<>();
-            List<Projection<Enhancer>> intraTadEnhancers = new LinkedList<>();
-
+            buffer.clear();
+            List<Projection<? extends Located>> projections = buffer.projections();
+            EvaluatorUtils.projectGenesEnhancersTads(route, genes, enhancers, tadBoundaries, projections);
+
+            // skip TADs that are either first or last projections
+            int first = 0, last = projections.size();
+            if (first < last && projections.get(first).source() instanceof TadBoundary)
+                first++;
+            if (first < last && projections.get(last - 1).source() instanceof TadBoundary)
+                last--;
+
+            // evaluate the projections located between the TAD boundaries
+            int tadStart = first;
+            for (int i = first; i < last; i++) {
+                if (projections.get(i).source() instanceof TadBoundary) {
+                    evaluateTad(projections.subList(tadStart, i), buffer, results);
+                    tadStart = i + 1; // do not include the TAD into evaluation
+                }
+            }
+            if (tadStart < last)
+                evaluateTad(projections.subList(tadStart, last), buffer, results);
+        }
 
-            while (true) {
-                List<Projection<? extends Located>> intraTadProjections = projections.subList(tadStart, tadEnd);
+        return results;
+    }
 
-                // prepare TAD elements
-                for (Projection<? extends Located> projection : intraTadProjections) {
-                    if (projection.source() instanceof Gene)
-                        intraTadGenes.add((Projection<Gene>) projection);
-                    else if (projection.source() instanceof Enhancer)
-                        intraTadEnhancers.add((Projection<Enhancer>) projection);
-                    else
-                        LogUtils.logWarn(LOGGER, "Skipping evaluation of an unknown projection `{}`", projection.source().getClass().getSimpleName());
-                }
+    @SuppressWarnings("unchecked")
+    private void evaluateTad(List<Projection<? extends Located>> intraTadProjections,
+                             ProjectionBuffer buffer,
+                             Map<String, Double> results) {
+        List<Projection<Gene>> intraTadGenes = buffer.genes();
+        List<Projection<Enhancer>> intraTadEnhancers = buffer.enhancers();
+        intraTadGenes.clear();
+        intraTadEnhancers.clear();
+
+        // prepare TAD elements
+        for (Projection<? extends Located> projection : intraTadProjections) {
+            if (projection.source() instanceof Gene)
+                intraTadGenes.add((Projection<Gene>) projection);
+            else if (projection.source() instanceof Enhancer)
+                intraTadEnhancers.add((Projection<Enhancer>) projection);
+            else
+                LogUtils.logWarn(LOGGER, "Skipping evaluation of an unknown projection `{}`", projection.source().getClass().getSimpleName());
+        }
 
-                // process TAD elements
-                for (Projection<Gene> gene : intraTadGenes) {
-                    double geneImpact = geneImpactCalculator.projectImpact(gene);
-                    if (geneImpact < EvaluatorUtils.CLOSE_TO_ZERO)
-                        // Loss of function
-                        continue;
-                    double geneRelevance = Math.exp(geneWeightCalculator.calculateRelevance(gene.source()));
+        // The enhancer contribution is the same for all genes of the TAD, we calculate it lazily
+        boolean enhancerRelevanceCalculated = false;
+        double enhancerRelevance = 0.;
 
-                    double enhancerRelevance = 0.;
-                    for (Projection<Enhancer> enhancer : intraTadEnhancers) {
-                        enhancerRelevance += enhancerImpactCalculator.projectImpact(enhancer) * enhancerGeneRelevanceCalculator.calculateRelevance(enhancer.source());
-                    }
+        // process TAD elements
+        for (Projection<Gene> gene : intraTadGenes) {
+            double geneImpact = geneImpactCalculator.projectImpact(gene);
+            if (geneImpact < EvaluatorUtils.CLOSE_TO_ZERO)
+                // Loss of function
+                continue;
+            double geneRelevance = Math.exp(geneWeightCalculator.calculateRelevance(gene.source()));
 
-                    double score = geneImpact * geneRelevance + enhancerRelevance;
-                    // a score for a gene might already be in the results map if the event duplicates the entire gene
-                    results.merge(gene.source().accession(), score, Double::sum);
+            if (!enhancerRelevanceCalculated) {
+                for (Projection<Enhancer> enhancer : intraTadEnhancers) {
+                    enhancerRelevance += enhancerImpactCalculator.projectImpact(enhancer) * enhancerGeneRelevanceCalculator.calculateRelevance(enhancer.source());
                 }
-
-                intraTadGenes.clear();
-                intraTadEnhancers.clear();
-
-                // ----- ----- ----- ----- ----- ----- ----- ----- ----- -----
-                tadStart = tadEnd + 1; // do not include the TAD into evaluation
-                if (tadIndicesIterator.hasNext())
-                    tadEnd = tadIndicesIterator.next();
-                else
-                if (tadEnd == projections.size())
-                    break;
-                else
-                    tadEnd = projections.size();
+                enhancerRelevanceCalculated = true;
             }
 
+            double score = geneImpact * geneRelevance + enhancerRelevance;
+            // a score for a gene might already be in the results map if the event duplicates the entire gene
+            results.merge(gene.source().accession(), score, Double::sum);
         }
-
-        return results;
     }
 
 }
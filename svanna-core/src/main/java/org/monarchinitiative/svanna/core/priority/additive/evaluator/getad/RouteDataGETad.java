@@ -37,6 +37,16 @@ public class RouteDataGETad extends RouteData {
         return tadBoundaries;
     }
 
+    @Override
+    public int geneCount() {
+        return genes.size();
+    }
+
+    @Override
+    public int enhancerCount() {
+        return enhancers.size();
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -135,17 +135,15 @@ public class GeneSequenceImpactCalculator implements SequenceImpactCalculator<Ge
     }
 
     private double checkPromoter(Collection<Segment> segments, Iterable<Transcript> transcripts) {
-        Iterable<Segment> nonGapSegments = segments.stream()
-                .filter(s -> !Event.GAP.equals(s.event()))
-                .collect(Collectors.toList());
-
         double score = Double.NaN;
         for (Transcript tx : transcripts) {
             int txStart = tx.start();
             int promoterStart = Math.max(txStart - promoterLength, 0); // Let's not allow negative start coordinate.
             int promoterEnd = txStart + Coordinates.endDelta(tx.coordinateSystem());
 
-            for (Segment nonGapSegment : nonGapSegments) {
+            for (Segment nonGapSegment : segments) {
+                if (Event.GAP.equals(nonGapSegment.event()))
+                    continue;
                 int segmentStart = nonGapSegment.startOnStrand(tx.strand());
                 int segmentEnd = nonGapSegment.endOnStrand(tx.strand());
                 if (Coordinates.overlap(tx.coordinateSystem(), promoterStart, promoterEnd,
@@ -203,9 +201,11 @@ public class GeneSequenceImpactCalculator implements SequenceImpactCalculator<Ge
     }
 
     private double processInterSegmentProjection(Projection<Gene> projection, Collection<Transcript> transcripts) {
-        Set<Segment> causalSegments = projection.spannedSegments().stream()
-                .filter(s -> !s.event().equals(Event.GAP))
-                .collect(Collectors.toUnmodifiableSet());
+        List<Segment> causalSegments = new ArrayList<>(projection.spannedSegments().size());
+        for (Segment segment : projection.spannedSegments()) {
+            if (!segment.event().equals(Event.GAP))
+                causalSegments.add(segment);
+        }
 
         double score = noImpact();
         for (Transcript tx : transcripts) {
@@ -215,7 +215,7 @@ public class GeneSequenceImpactCalculator implements SequenceImpactCalculator<Ge
         return score;
     }
 
-    private double evaluateSegmentsWrtTranscript(Set<Segment> segments, Transcript tx) {
+    private double evaluateSegmentsWrtTranscript(Collection<Segment> segments, Transcript tx) {
         double score = noImpact();
 
         if (!(tx instanceof Coding))
@@ -19,4 +19,11 @@ public interface SequenceImpactCalculator<T extends Located> {
         return 1.;
     }
 
+    /**
+     * @return the maximum value that can be returned by {@link #projectImpact(Projection)}
+     */
+    default double maxImpact() {
+        return 2 * noImpact();
+    }
+
 }
@@ -0,0 +1,45 @@
+package org.monarchinitiative.svanna.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class WorkSchedulerTest {
+
+    @Test
+    public void mapKeepsInputOrder() throws Exception {
+        List<Integer> items = IntStream.range(0, 1_000).boxed().collect(Collectors.toList());
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            // the last items are the most expensive ones, hence they are started first
+            List<Integer> results = pool.submit(() -> WorkScheduler.map(items, i -> 2 * i, i -> (long) i)).get();
+
+            assertThat(results, equalTo(items.stream().map(i -> 2 * i).collect(Collectors.toList())));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void forEachRunsEachIndexOnce() {
+        AtomicIntegerArray counts = new AtomicIntegerArray(257);
+
+        WorkScheduler.forEach(counts.length(), counts::incrementAndGet, i -> i % 7);
+
+        for (int i = 0; i < counts.length(); i++)
+            assertThat(counts.get(i), equalTo(1));
+    }
+
+    @Test
+    public void mapEmpty() {
+        assertThat(WorkScheduler.map(List.<Integer>of(), i -> i, i -> 1L), equalTo(List.of()));
+    }
+}
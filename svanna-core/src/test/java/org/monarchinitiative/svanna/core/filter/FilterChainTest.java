@@ -0,0 +1,122 @@
+package org.monarchinitiative.svanna.core.filter;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.function.IntPredicate;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class FilterChainTest {
+
+    @Test
+    public void filtersAreRunFromTheCheapest() {
+        Item first = new Item(1), second = new Item(2), third = new Item(3);
+        // the coverage filter fails odd items, the frequency filter fails the item 2
+        TestFilter frequency = new TestFilter(FilterType.FREQUENCY_FILTER, 100, i -> i != 2);
+        TestFilter coverage = new TestFilter(FilterType.COVERAGE_FILTER, 1, i -> i % 2 == 0);
+        FilterChain<Item> chain = FilterChain.of(List.of(frequency, coverage), false);
+
+        List<Item> items = chain.filter(List.of(first, second, third));
+
+        assertThat(items, contains(first, second, third));
+        assertThat(first.results, contains(FilterType.COVERAGE_FILTER, FilterType.FREQUENCY_FILTER));
+        assertThat(frequency.seen, contains(1, 2, 3));
+        assertThat(first.passedFilters(), equalTo(false));
+        assertThat(second.passedFilters(), equalTo(false));
+        assertThat(third.passedFilters(), equalTo(false));
+
+        List<FilterStats> stats = chain.stats();
+        assertThat(stats.get(0).filterType(), equalTo(FilterType.COVERAGE_FILTER));
+        assertThat(stats.get(0).passed(), equalTo(1L));
+        assertThat(stats.get(0).failed(), equalTo(2L));
+        assertThat(stats.get(1).filterType(), equalTo(FilterType.FREQUENCY_FILTER));
+        assertThat(stats.get(1).passed(), equalTo(2L));
+        assertThat(stats.get(1).failed(), equalTo(1L));
+    }
+
+    @Test
+    public void failedItemsAreSkipped() {
+        Item first = new Item(1), second = new Item(2), third = new Item(3);
+        TestFilter frequency = new TestFilter(FilterType.FREQUENCY_FILTER, 100, i -> i != 2);
+        TestFilter coverage = new TestFilter(FilterType.COVERAGE_FILTER, 1, i -> i % 2 == 0);
+        FilterChain<Item> chain = FilterChain.of(List.of(frequency, coverage), true);
+
+        chain.filter(List.of(first, second, third));
+
+        assertThat(frequency.seen, contains(2));
+        assertThat(first.results, contains(FilterType.COVERAGE_FILTER));
+
+        FilterStats stats = chain.stats().get(1);
+        assertThat(stats.passed(), equalTo(0L));
+        assertThat(stats.failed(), equalTo(1L));
+        assertThat(stats.notRun(), equalTo(2L));
+    }
+
+    private static class TestFilter implements Filter<Item> {
+
+        private final FilterType filterType;
+        private final int cost;
+        private final IntPredicate passes;
+        private final List<Integer> seen = new ArrayList<>();
+
+        private TestFilter(FilterType filterType, int cost, IntPredicate passes) {
+            this.filterType = filterType;
+            this.cost = cost;
+            this.passes = passes;
+        }
+
+        @Override
+        public FilterType getFilterType() {
+            return filterType;
+        }
+
+        @Override
+        public FilterResult runFilter(Item filterable) {
+            seen.add(filterable.id);
+            return passes.test(filterable.id)
+                    ? FilterResult.pass(filterType)
+                    : FilterResult.fail(filterType);
+        }
+
+        @Override
+        public int cost() {
+            return cost;
+        }
+    }
+
+    private static class Item implements Filterable {
+
+        private final int id;
+        private final List<FilterType> results = new ArrayList<>();
+        private final Set<FilterType> failed = EnumSet.noneOf(FilterType.class);
+
+        private Item(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public boolean passedFilters() {
+            return failed.isEmpty();
+        }
+
+        @Override
+        public boolean passedFilter(FilterType filterType) {
+            return results.contains(filterType) && !failed.contains(filterType);
+        }
+
+        @Override
+        public boolean failedFilter(FilterType filterType) {
+            return failed.contains(filterType);
+        }
+
+        @Override
+        public boolean addFilterResult(FilterResult filterResult) {
+            results.add(filterResult.getFilterType());
+            if (filterResult.failed())
+                failed.add(filterResult.getFilterType());
+            return filterResult.passed();
+        }
+    }
+}
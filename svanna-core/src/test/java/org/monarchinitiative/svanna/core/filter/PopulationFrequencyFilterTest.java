@@ -0,0 +1,63 @@
+package org.monarchinitiative.svanna.core.filter;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.svanna.core.TestContig;
+import org.monarchinitiative.svanna.core.reference.SvannaVariant;
+import org.monarchinitiative.svanna.core.service.AnnotationDataService;
+import org.monarchinitiative.svanna.model.landscape.variant.BasePopulationVariant;
+import org.monarchinitiative.svanna.model.landscape.variant.PopulationVariant;
+import org.monarchinitiative.svanna.model.landscape.variant.PopulationVariantOrigin;
+import org.monarchinitiative.svart.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PopulationFrequencyFilterTest {
+
+    private static final TestContig ONE = TestContig.of(1, 1_000);
+    private static final TestContig TWO = TestContig.of(2, 1_000);
+
+    @Test
+    public void resultsAreInTheInputOrder() {
+        AnnotationDataService annotationDataService = annotationDataService(List.of(
+                BasePopulationVariant.of(GenomicRegion.of(TWO, Strand.POSITIVE, CoordinateSystem.zeroBased(), 500, 600), "common_del", VariantType.DEL, 5.F, PopulationVariantOrigin.GNOMAD_SV),
+                BasePopulationVariant.of(GenomicRegion.of(ONE, Strand.POSITIVE, CoordinateSystem.zeroBased(), 500, 600), "common_dup", VariantType.DUP, 5.F, PopulationVariantOrigin.DGV)));
+        PopulationFrequencyFilter filter = new PopulationFrequencyFilter(annotationDataService, 80.F, 1.F);
+        // The variants are neither grouped by contig nor sorted by position
+        List<SvannaVariant> variants = List.of(
+                variant(TWO, "a", 500, 600, "<DEL>"),
+                variant(ONE, "b", 100, 200, "<DEL>"),
+                variant(TWO, "c", 100, 200, "<DEL>"),
+                variant(ONE, "d", 500, 600, "<DUP>"));
+
+        List<FilterResult> results = filter.runFilterBatch(variants);
+
+        assertThat(results.stream().map(FilterResult::passed).collect(Collectors.toList()), contains(false, true, true, false));
+    }
+
+    private static AnnotationDataService annotationDataService(List<PopulationVariant> populationVariants) {
+        AnnotationDataService annotationDataService = mock(AnnotationDataService.class);
+        when(annotationDataService.overlappingPopulationVariants(any(), any()))
+                .thenAnswer(invocation -> {
+                    GenomicRegion query = invocation.getArgument(0);
+                    return populationVariants.stream()
+                            .filter(pv -> pv.location().overlapsWith(query))
+                            .collect(Collectors.toList());
+                });
+        return annotationDataService;
+    }
+
+    private static SvannaVariant variant(Contig contig, String id, int start, int end, String alt) {
+        int changeLength = alt.equals("<DEL>") ? start - end - 1 : end - start + 1;
+        GenomicVariant genomicVariant = GenomicVariant.of(contig, id, Strand.POSITIVE, CoordinateSystem.oneBased(), start, end, "N", alt, changeLength);
+        SvannaVariant variant = mock(SvannaVariant.class);
+        when(variant.genomicVariant()).thenReturn(genomicVariant);
+        return variant;
+    }
+}
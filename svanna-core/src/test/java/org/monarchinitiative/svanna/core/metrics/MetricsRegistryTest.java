@@ -0,0 +1,93 @@
+package org.monarchinitiative.svanna.core.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void sameNameAndTagsReturnTheSameMetric() {
+        MetricsRegistry registry = new MetricsRegistry();
+
+        assertThat(registry.counter("hits_total", "cache", "a"), sameInstance(registry.counter("hits_total", "cache", "a")));
+        assertThat(registry.counter("hits_total", "cache", "a"), not(sameInstance(registry.counter("hits_total", "cache", "b"))));
+        assertThat(registry.timer("query_seconds"), sameInstance(registry.timer("query_seconds")));
+    }
+
+    @Test
+    public void bindRegistryToTheCurrentThread() throws Exception {
+        MetricsRegistry analysis = new MetricsRegistry();
+        MetricId id = MetricId.of("hits_total", "cache", "a");
+
+        assertThat(MetricsRegistry.current(), sameInstance(MetricsRegistry.global()));
+        try (MetricsRegistry.Scope scope = MetricsRegistry.bind(analysis)) {
+            MetricsRegistry.current().counter(id).increment();
+            assertThat(MetricsRegistry.current(), sameInstance(analysis));
+
+            // Other threads are not bound to the registry
+            MetricsRegistry[] other = new MetricsRegistry[1];
+            Thread thread = new Thread(() -> other[0] = MetricsRegistry.current());
+            thread.start();
+            thread.join();
+            assertThat(other[0], sameInstance(MetricsRegistry.global()));
+        }
+
+        assertThat(MetricsRegistry.current(), sameInstance(MetricsRegistry.global()));
+        assertThat(analysis.counter("hits_total", "cache", "a").count(), equalTo(1L));
+    }
+
+    @Test
+    public void invalidNameOrTags() {
+        MetricsRegistry registry = new MetricsRegistry();
+
+        assertThrows(IllegalArgumentException.class, () -> registry.counter("svanna-hits"));
+        assertThrows(IllegalArgumentException.class, () -> registry.counter("hits_total", "cache"));
+    }
+
+    @Test
+    public void writePrometheus() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("hits_total", "cache", "priority").add(3);
+        Timer timer = registry.timer("query_seconds", "dao", "tad");
+        timer.record(2_000_000L); // 2 ms
+        timer.record(20_000_000_000L); // 20 s
+        registry.gauge("heap_bytes", () -> 1024.);
+
+        StringWriter writer = new StringWriter();
+        registry.writePrometheus(writer);
+        String text = writer.toString();
+
+        assertThat(text, containsString("# TYPE hits_total counter\nhits_total{cache=\"priority\"} 3\n"));
+        assertThat(text, containsString("# TYPE query_seconds histogram\n"));
+        assertThat(text, containsString("query_seconds_bucket{dao=\"tad\",le=\"0.001\"} 0\n"));
+        assertThat(text, containsString("query_seconds_bucket{dao=\"tad\",le=\"0.005\"} 1\n"));
+        assertThat(text, containsString("query_seconds_bucket{dao=\"tad\",le=\"10.0\"} 1\n"));
+        assertThat(text, containsString("query_seconds_bucket{dao=\"tad\",le=\"+Inf\"} 2\n"));
+        assertThat(text, containsString("query_seconds_sum{dao=\"tad\"} 20.002\n"));
+        assertThat(text, containsString("query_seconds_count{dao=\"tad\"} 2\n"));
+        assertThat(text, containsString("# TYPE heap_bytes gauge\nheap_bytes 1024.0\n"));
+    }
+
+    @Test
+    public void writeJson() throws Exception {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("hits_total", "cache", "priority").increment();
+        registry.timer("query_seconds").record(1_000_000_000L);
+        registry.gauge("utilization", () -> Double.NaN);
+
+        StringWriter writer = new StringWriter();
+        registry.writeJson(writer);
+        String json = writer.toString();
+
+        assertThat(json, startsWith("{\"counters\":[{\"name\":\"hits_total\",\"tags\":{\"cache\":\"priority\"},\"value\":1}],"));
+        assertThat(json, containsString("{\"name\":\"query_seconds\",\"tags\":{},\"count\":1,\"sum_seconds\":1.0,\"max_seconds\":1.0,"));
+        assertThat(json, containsString("{\"le\":1.0,\"count\":1},{\"le\":5.0,\"count\":1}"));
+        assertThat(json, containsString("{\"le\":\"+Inf\",\"count\":1}"));
+        assertThat(json, endsWith("\"gauges\":[{\"name\":\"utilization\",\"tags\":{},\"value\":null}]}\n"));
+    }
+}
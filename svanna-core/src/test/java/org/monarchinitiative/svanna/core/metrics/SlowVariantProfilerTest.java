@@ -0,0 +1,44 @@
+package org.monarchinitiative.svanna.core.metrics;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.svanna.core.TestContig;
+import org.monarchinitiative.svart.*;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class SlowVariantProfilerTest {
+
+    private static final Contig CONTIG = TestContig.of(1, 1_000);
+
+    private static VariantProfile profile(int i, long evaluateNanos) {
+        GenomicVariant variant = GenomicVariant.of(CONTIG, "var" + i, Strand.POSITIVE, CoordinateSystem.oneBased(), 1, 10, "N", "<DEL>", -10);
+        return VariantProfile.of(variant, 10, 1_000, 10, evaluateNanos, 2, 3, 1.);
+    }
+
+    @Test
+    public void keepsTheSlowestVariants() {
+        SlowVariantProfiler profiler = SlowVariantProfiler.of(3);
+
+        IntStream.range(0, 1_000).parallel()
+                .forEach(i -> profiler.record(profile(i, (i * 7919L) % 1_000)));
+
+        List<String> slowest = profiler.slowest().stream()
+                .map(p -> p.variant().id())
+                .collect(Collectors.toList());
+        // (i * 7919) % 1000 is 999, 998, and 997 for these variants
+        assertThat(slowest, equalTo(List.of("var321", "var642", "var963")));
+        assertThat(profiler.profiledVariants(), equalTo(1_000L));
+    }
+
+    @Test
+    public void totalTimeSplitsRouteDataTimeAmongGroup() {
+        VariantProfile profile = profile(0, 100);
+
+        assertThat(profile.totalNanos(), equalTo(10L + 100L + 100L));
+    }
+}
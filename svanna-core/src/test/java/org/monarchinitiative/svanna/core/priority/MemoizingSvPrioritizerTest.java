@@ -0,0 +1,79 @@
+package org.monarchinitiative.svanna.core.priority;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.svanna.core.TestContig;
+import org.monarchinitiative.svart.*;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class MemoizingSvPrioritizerTest {
+
+    private static final Contig CONTIG = TestContig.of(1, 1_000);
+
+    private AtomicInteger evaluations;
+    private MemoizingSvPrioritizer<SvPriority> prioritizer;
+
+    private static GenomicVariant deletion(String id, int start, int end) {
+        return GenomicVariant.of(CONTIG, id, Strand.POSITIVE, CoordinateSystem.oneBased(), start, end, "N", "<DEL>", start - end - 1);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        evaluations = new AtomicInteger();
+        prioritizer = MemoizingSvPrioritizer.of(variant -> SvPriority.of(evaluations.incrementAndGet()));
+    }
+
+    @Test
+    public void prioritize() {
+        SvPriority first = prioritizer.prioritize(deletion("a", 101, 200));
+        SvPriority duplicate = prioritizer.prioritize(deletion("b", 101, 200));
+        SvPriority other = prioritizer.prioritize(deletion("c", 101, 300));
+
+        assertThat(duplicate, is(sameInstance(first)));
+        assertThat(other, is(not(sameInstance(first))));
+        assertThat(evaluations.get(), equalTo(2));
+        assertThat(prioritizer.savedEvaluations(), equalTo(1L));
+    }
+
+    @Test
+    public void prioritizeAll() {
+        List<GenomicVariant> variants = List.of(
+                deletion("a", 101, 200),
+                deletion("b", 101, 300),
+                deletion("c", 101, 200),
+                deletion("d", 101, 200));
+
+        List<SvPriority> priorities = prioritizer.prioritizeAll(variants);
+
+        assertThat(priorities, hasSize(4));
+        assertThat(priorities.get(0).getPriority(), equalTo(1.));
+        assertThat(priorities.get(1).getPriority(), equalTo(2.));
+        assertThat(priorities.get(2).getPriority(), equalTo(1.));
+        assertThat(priorities.get(3).getPriority(), equalTo(1.));
+        assertThat(evaluations.get(), equalTo(2));
+        assertThat(prioritizer.savedEvaluations(), equalTo(2L));
+    }
+
+    @Test
+    public void breakendsWithDifferentStrandsAreNotShared() {
+        GenomicBreakend left = GenomicBreakend.of(CONTIG, "left", Strand.POSITIVE, Coordinates.of(CoordinateSystem.zeroBased(), 300, 300));
+        GenomicBreakend right = GenomicBreakend.of(CONTIG, "right", Strand.POSITIVE, Coordinates.of(CoordinateSystem.zeroBased(), 500, 500));
+
+        SvPriority first = prioritizer.prioritize(GenomicBreakendVariant.of("a", left, right, "N", ""));
+        SvPriority duplicate = prioritizer.prioritize(GenomicBreakendVariant.of("b", left, right, "N", ""));
+        // The same positions on the positive strand, joined in the opposite orientation
+        SvPriority otherLeft = prioritizer.prioritize(GenomicBreakendVariant.of("c", left.withStrand(Strand.NEGATIVE), right, "N", ""));
+        SvPriority otherRight = prioritizer.prioritize(GenomicBreakendVariant.of("d", left, right.withStrand(Strand.NEGATIVE), "N", ""));
+
+        assertThat(duplicate, is(sameInstance(first)));
+        assertThat(otherLeft, is(not(sameInstance(first))));
+        assertThat(otherRight, is(not(sameInstance(first))));
+        assertThat(otherRight, is(not(sameInstance(otherLeft))));
+        assertThat(evaluations.get(), equalTo(3));
+    }
+}
@@ -0,0 +1,106 @@
+package org.monarchinitiative.svanna.core.priority.additive;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.svanna.core.TestContig;
+import org.monarchinitiative.svanna.core.priority.CohortSvPrioritizer;
+import org.monarchinitiative.svanna.core.priority.SvPriority;
+import org.monarchinitiative.svanna.core.priority.additive.evaluator.ge.RouteDataGE;
+import org.monarchinitiative.svart.CoordinateSystem;
+import org.monarchinitiative.svart.GenomicRegion;
+import org.monarchinitiative.svart.GenomicVariant;
+import org.monarchinitiative.svart.Strand;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+public class AdditiveCohortSvPrioritizerTest {
+
+    private static final TestContig CONTIG = TestContig.of(1, 1_000);
+
+    // The variants are grouped into the 100bp reference regions, the variant `x` cannot be dispatched
+    private static final Dispatcher DISPATCHER = variants -> {
+        GenomicVariant variant = variants.get(0);
+        if (variant.id().equals("x"))
+            throw new DispatchException("Unable to dispatch " + variant.id());
+        int start = variant.start() / 100 * 100;
+        return Routes.of(List.of(GenomicRegion.of(CONTIG, Strand.POSITIVE, CoordinateSystem.zeroBased(), start, start + 100)), List.of());
+    };
+
+    private static final List<GenomicVariant> VARIANTS = List.of(
+            deletion("a", 11, 50),
+            deletion("b", 121, 160),
+            deletion("x", 501, 550),
+            deletion("c", 301, 350),
+            deletion("d", 101, 150));
+
+    @Test
+    public void prioritiesMatchTheProfilePrioritizers() {
+        List<RouteDataEvaluator<RouteDataGE, GranularRouteResult>> evaluators = List.of(
+                evaluator(data -> data.route().references().get(0).start()),
+                evaluator(data -> 2. * data.route().references().get(0).end()));
+        AtomicInteger cohortRequests = new AtomicInteger();
+        CohortSvPrioritizer<SvPriority> cohortPrioritizer = AdditiveCohortSvPrioritizer.of(DISPATCHER, routeDataService(cohortRequests), evaluators);
+
+        List<List<SvPriority>> priorities = cohortPrioritizer.prioritizeAll(VARIANTS);
+
+        assertThat(priorities, hasSize(VARIANTS.size()));
+        for (int k = 0; k < evaluators.size(); k++) {
+            BaseAdditiveSvPrioritizer<RouteDataGE, GranularRouteResult> prioritizer = AdditiveGranularSvPrioritizer.<RouteDataGE>builder()
+                    .dispatcher(DISPATCHER)
+                    .routeDataService(routeDataService(new AtomicInteger()))
+                    .routeDataEvaluator(evaluators.get(k))
+                    .build();
+            List<SvPriority> expected = prioritizer.prioritizeAll(VARIANTS);
+            for (int i = 0; i < VARIANTS.size(); i++) {
+                SvPriority priority = priorities.get(i).get(k);
+                assertThat(priority.getPriority(), equalTo(expected.get(i).getPriority()));
+                assertThat(priority.isEvaluated(), equalTo(expected.get(i).isEvaluated()));
+            }
+        }
+        // The route data is fetched once per reference region, regardless of the number of profiles
+        assertThat(cohortRequests.get(), equalTo(3));
+    }
+
+    private static RouteDataService<RouteDataGE> routeDataService(AtomicInteger requests) {
+        return new RouteDataService<>() {
+            @Override
+            public RouteDataGE getData(Routes route) {
+                requests.incrementAndGet();
+                return RouteDataGE.builder(route).build();
+            }
+
+            @Override
+            public List<RouteDataGE> getData(List<Routes> routes) {
+                requests.incrementAndGet();
+                return routes.stream()
+                        .map(route -> RouteDataGE.builder(route).build())
+                        .collect(Collectors.toList());
+            }
+        };
+    }
+
+    private static RouteDataEvaluator<RouteDataGE, GranularRouteResult> evaluator(ToDoubleFunction<RouteDataGE> score) {
+        return new RouteDataEvaluator<>() {
+            @Override
+            public GranularRouteResult evaluate(RouteDataGE routeData) {
+                return GranularRouteResult.of(Map.of("gene", score.applyAsDouble(routeData)));
+            }
+
+            @Override
+            public double upperBound(RouteDataGE routeData) {
+                return score.applyAsDouble(routeData);
+            }
+        };
+    }
+
+    private static GenomicVariant deletion(String id, int start, int end) {
+        return GenomicVariant.of(CONTIG, id, Strand.POSITIVE, CoordinateSystem.oneBased(), start, end, "N", "<DEL>", start - end - 1);
+    }
+}
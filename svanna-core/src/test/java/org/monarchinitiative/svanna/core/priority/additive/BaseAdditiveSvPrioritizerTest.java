@@ -0,0 +1,151 @@
+package org.monarchinitiative.svanna.core.priority.additive;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.svanna.core.TestContig;
+import org.monarchinitiative.svanna.core.priority.SvPriority;
+import org.monarchinitiative.svanna.core.priority.TopPriorities;
+import org.monarchinitiative.svanna.core.priority.additive.evaluator.ge.RouteDataGE;
+import org.monarchinitiative.svart.CoordinateSystem;
+import org.monarchinitiative.svart.GenomicRegion;
+import org.monarchinitiative.svart.GenomicVariant;
+import org.monarchinitiative.svart.Strand;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.lessThan;
+
+public class BaseAdditiveSvPrioritizerTest {
+
+    private static final TestContig CONTIG = TestContig.of(1, 1_000);
+    private static final TestContig LONG_CONTIG = TestContig.of(2, 30_000);
+
+    @Test
+    public void groupByReference() {
+        GenomicRegion positive = GenomicRegion.of(CONTIG, Strand.POSITIVE, CoordinateSystem.zeroBased(), 10, 20);
+        Routes[] routes = {
+                routes(positive),
+                routes(GenomicRegion.of(CONTIG, Strand.NEGATIVE, CoordinateSystem.zeroBased(), 10, 20)),
+                routes(positive.toNegativeStrand()),
+                null,
+                routes(GenomicRegion.of(CONTIG, Strand.POSITIVE, CoordinateSystem.oneBased(), 11, 20)),
+                routes(GenomicRegion.of(CONTIG, Strand.POSITIVE, CoordinateSystem.zeroBased(), 10, 20)),
+        };
+
+        List<List<Integer>> groups = new ArrayList<>(BaseAdditiveSvPrioritizer.groupByReference(routes));
+
+        // The references that differ only in the strand or in the coordinate system are not grouped together
+        assertThat(groups, containsInAnyOrder(List.of(0, 5), List.of(1), List.of(2), List.of(4)));
+    }
+
+    @Test
+    public void prioritizeTopFetchesDataOncePerGroup() {
+        AtomicInteger routeRequests = new AtomicInteger();
+        AtomicInteger groupRequests = new AtomicInteger();
+        RouteDataService<RouteDataGE> routeDataService = new RouteDataService<>() {
+            @Override
+            public RouteDataGE getData(Routes route) {
+                routeRequests.incrementAndGet();
+                return RouteDataGE.builder(route).build();
+            }
+
+            @Override
+            public List<RouteDataGE> getData(List<Routes> routes) {
+                groupRequests.incrementAndGet();
+                return routes.stream()
+                        .map(route -> RouteDataGE.builder(route).build())
+                        .collect(Collectors.toList());
+            }
+        };
+        // The priority of a variant is the start of the reference region of the variant
+        RouteDataEvaluator<RouteDataGE, GranularRouteResult> evaluator = new RouteDataEvaluator<>() {
+            @Override
+            public GranularRouteResult evaluate(RouteDataGE routeData) {
+                return GranularRouteResult.of(Map.of("gene", upperBound(routeData)));
+            }
+
+            @Override
+            public double upperBound(RouteDataGE routeData) {
+                return routeData.route().references().get(0).start();
+            }
+        };
+        BaseAdditiveSvPrioritizer<RouteDataGE, GranularRouteResult> prioritizer = AdditiveGranularSvPrioritizer.<RouteDataGE>builder()
+                // The variants are grouped into the 100bp reference regions
+                .dispatcher(variants -> routes(GenomicRegion.of(CONTIG, Strand.POSITIVE, CoordinateSystem.zeroBased(),
+                        variants.get(0).start() / 100 * 100, variants.get(0).start() / 100 * 100 + 100)))
+                .routeDataService(routeDataService)
+                .routeDataEvaluator(evaluator)
+                .build();
+        List<GenomicVariant> variants = List.of(
+                deletion("a", 11, 50),
+                deletion("b", 121, 160),
+                deletion("c", 301, 350),
+                deletion("d", 201, 250),
+                deletion("e", 101, 150),
+                deletion("f", 321, 360));
+
+        List<SvPriority> priorities = prioritizer.prioritizeTop(variants, 2);
+
+        assertThat(priorities.get(2).getPriority(), equalTo(300.));
+        assertThat(priorities.get(5).getPriority(), equalTo(300.));
+        assertThat(groupRequests.get(), equalTo(4));
+        assertThat(routeRequests.get(), equalTo(0));
+    }
+
+    @Test
+    public void prioritizeTopSharesThresholdAmongBatches() {
+        AtomicInteger evaluations = new AtomicInteger();
+        // The priority of a variant is the start of the reference region of the variant
+        RouteDataEvaluator<RouteDataGE, GranularRouteResult> evaluator = new RouteDataEvaluator<>() {
+            @Override
+            public GranularRouteResult evaluate(RouteDataGE routeData) {
+                evaluations.incrementAndGet();
+                return GranularRouteResult.of(Map.of("gene", upperBound(routeData)));
+            }
+
+            @Override
+            public double upperBound(RouteDataGE routeData) {
+                return routeData.route().references().get(0).start();
+            }
+        };
+        BaseAdditiveSvPrioritizer<RouteDataGE, GranularRouteResult> prioritizer = AdditiveGranularSvPrioritizer.<RouteDataGE>builder()
+                .dispatcher(variants -> routes(GenomicRegion.of(LONG_CONTIG, Strand.POSITIVE, CoordinateSystem.zeroBased(),
+                        variants.get(0).start() / 100 * 100, variants.get(0).start() / 100 * 100 + 100)))
+                .routeDataService(route -> RouteDataGE.builder(route).build())
+                .routeDataEvaluator(evaluator)
+                .build();
+        // The variants with the highest priority come first
+        List<GenomicVariant> variants = new ArrayList<>();
+        for (int i = 2_000; i > 0; i--)
+            variants.add(GenomicVariant.of(LONG_CONTIG, "v" + i, Strand.POSITIVE, CoordinateSystem.oneBased(), 10 * i, 10 * i + 5, "N", "<DEL>", -6));
+
+        List<Integer> evaluated = new ArrayList<>();
+        for (int nBatches : new int[]{1, 4, 20}) {
+            evaluations.set(0);
+            TopPriorities top = TopPriorities.of(2);
+            int batchSize = variants.size() / nBatches;
+            for (int b = 0; b < nBatches; b++)
+                prioritizer.prioritizeTop(variants.subList(b * batchSize, (b + 1) * batchSize), top);
+            assertThat(top.threshold(), equalTo(19_900.));
+            evaluated.add(evaluations.get());
+        }
+
+        // The batches after the first batch are pruned by the threshold of the first batch
+        assertThat(evaluated, equalTo(List.of(evaluated.get(0), evaluated.get(0), evaluated.get(0))));
+        assertThat(evaluated.get(0), lessThan(variants.size() / 10));
+    }
+
+    private static GenomicVariant deletion(String id, int start, int end) {
+        return GenomicVariant.of(CONTIG, id, Strand.POSITIVE, CoordinateSystem.oneBased(), start, end, "N", "<DEL>", start - end - 1);
+    }
+
+    private static Routes routes(GenomicRegion reference) {
+        return Routes.of(List.of(reference), List.of());
+    }
+}
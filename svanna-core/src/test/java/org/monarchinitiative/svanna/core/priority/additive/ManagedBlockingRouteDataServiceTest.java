@@ -0,0 +1,109 @@
+package org.monarchinitiative.svanna.core.priority.additive;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.svanna.core.priority.additive.evaluator.ge.RouteDataGE;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class ManagedBlockingRouteDataServiceTest {
+
+    private static final Routes ROUTES = Routes.of(List.of(), List.of());
+
+    @Test
+    public void waitingForPermitIsCompensated() throws Exception {
+        // The only permit is held by a request that waits for a task queued after a worker waiting for the permit
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch unblocked = new CountDownLatch(1);
+        RouteDataService<RouteDataGE> waiting = route -> {
+            started.countDown();
+            try {
+                unblocked.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return RouteDataGE.builder(route).build();
+        };
+        ManagedBlockingRouteDataService<RouteDataGE> instance = ManagedBlockingRouteDataService.of(waiting, 1);
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            ForkJoinTask<RouteDataGE> first = pool.submit(() -> instance.getData(ROUTES));
+            started.await(10, TimeUnit.SECONDS);
+            ForkJoinTask<RouteDataGE> second = pool.submit(() -> instance.getData(ROUTES));
+            ForkJoinTask<?> unblocking = pool.submit(unblocked::countDown);
+
+            unblocking.get(10, TimeUnit.SECONDS);
+            first.get(10, TimeUnit.SECONDS);
+            second.get(10, TimeUnit.SECONDS);
+            assertThat(unblocked.getCount(), equalTo(0L));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    public void requestsAreNotCompensated() throws Exception {
+        AtomicInteger maxPoolSize = new AtomicInteger();
+        RouteDataService<RouteDataGE> sleeping = route -> {
+            maxPoolSize.accumulateAndGet(ForkJoinTask.getPool().getPoolSize(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return RouteDataGE.builder(route).build();
+        };
+        ManagedBlockingRouteDataService<RouteDataGE> instance = ManagedBlockingRouteDataService.of(sleeping, 4);
+
+        ForkJoinPool pool = new ForkJoinPool(1);
+        try {
+            List<ForkJoinTask<RouteDataGE>> tasks = new ArrayList<>();
+            for (int i = 0; i < 4; i++)
+                tasks.add(pool.submit(() -> instance.getData(ROUTES)));
+            for (ForkJoinTask<RouteDataGE> task : tasks)
+                task.get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdown();
+        }
+
+        // The free permits are acquired without blocking, hence no thread is started in addition to the only worker
+        assertThat(maxPoolSize.get(), equalTo(1));
+    }
+
+    @Test
+    public void concurrentRequestsAreBounded() throws Exception {
+        AtomicInteger current = new AtomicInteger();
+        AtomicInteger max = new AtomicInteger();
+        RouteDataService<RouteDataGE> counting = route -> {
+            max.accumulateAndGet(current.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            current.decrementAndGet();
+            return RouteDataGE.builder(route).build();
+        };
+        ManagedBlockingRouteDataService<RouteDataGE> instance = ManagedBlockingRouteDataService.of(counting, 2);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            pool.submit(() -> List.of(ROUTES, ROUTES, ROUTES, ROUTES, ROUTES, ROUTES, ROUTES, ROUTES).parallelStream()
+                    .forEach(instance::getData)).get(10, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdown();
+        }
+
+        assertThat(max.get() <= 2, is(true));
+    }
+}
@@ -0,0 +1,138 @@
+package org.monarchinitiative.svanna.core.priority.additive.evaluator.ge;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.monarchinitiative.sgenes.model.*;
+import org.monarchinitiative.svanna.core.TestContig;
+import org.monarchinitiative.svanna.core.TestEnhancer;
+import org.monarchinitiative.svanna.core.priority.additive.*;
+import org.monarchinitiative.svanna.core.priority.additive.impact.SequenceImpactCalculator;
+import org.monarchinitiative.svanna.core.priority.additive.impact.SimpleSequenceImpactCalculator;
+import org.monarchinitiative.svanna.model.landscape.enhancer.Enhancer;
+import org.monarchinitiative.svart.*;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+
+public class RouteDataEvaluatorGETest {
+
+    private static final double ERROR = 1E-6;
+
+    private final SequenceImpactCalculator<Gene> geneImpact = new SimpleSequenceImpactCalculator<>(10.);
+    private final GeneWeightCalculator geneWeightCalculator = GeneWeightCalculator.defaultGeneRelevanceCalculator();
+
+    private final SequenceImpactCalculator<Enhancer> enhancerImpact = new SimpleSequenceImpactCalculator<>(1.);
+    private final EnhancerGeneRelevanceCalculator enhancerGeneRelevanceCalculator = EnhancerGeneRelevanceCalculator.defaultCalculator();
+
+    private GranularRouteDataEvaluatorGE evaluator;
+
+    private static Gene makeGene(String id, String symbol, Contig contig, int start, int end) {
+        GenomicRegion location = GenomicRegion.of(contig, Strand.POSITIVE, CoordinateSystem.zeroBased(), start, end);
+
+        TranscriptIdentifier txId = TranscriptIdentifier.of(id + "_tx", symbol + "_tx", null);
+        List<Coordinates> exons = List.of(Coordinates.of(CoordinateSystem.zeroBased(), start, end));
+        Coordinates cdsCoordinates = Coordinates.of(CoordinateSystem.zeroBased(), start, end);
+        TranscriptMetadata metadata = TranscriptMetadata.of(TranscriptEvidence.CANONICAL);
+        Transcript tx = Transcript.of(txId, location, exons, cdsCoordinates, metadata);
+
+        GeneIdentifier geneId = GeneIdentifier.of(id, symbol, null, null);
+        return Gene.of(geneId, location, List.of(tx));
+    }
+
+    private static RouteDataGE makeDeletionRouteData(Contig contig, int start, int delStart, int delEnd, int end) {
+        Routes routes = Routes.of(
+                List.of(GenomicRegion.of(contig, Strand.POSITIVE, CoordinateSystem.zeroBased(), start, end)),
+                List.of(Route.of(List.of(
+                        positiveSegment("gap", contig, start, delStart, Event.GAP, 1),
+                        positiveSegment("del", contig, delStart, delEnd, Event.DELETION, 0),
+                        positiveSegment("gap", contig, delEnd, end, Event.GAP, 1)))));
+
+        return RouteDataGE.builder(routes)
+                .addEnhancer(TestEnhancer.of(contig, Strand.POSITIVE, CoordinateSystem.zeroBased(), 5, 10, "a"))
+                .addGene(makeGene("NCBIGene:A", "A", contig, 20, 40))
+                .addEnhancer(TestEnhancer.of(contig, Strand.POSITIVE, CoordinateSystem.zeroBased(), 50, 55, "b"))
+                .addGene(makeGene("NCBIGene:B", "B", contig, 60, 70))
+                .build();
+    }
+
+    private static Segment positiveSegment(String id, Contig contig, int start, int end, Event event, int copies) {
+        return Segment.of(contig, Strand.POSITIVE, CoordinateSystem.zeroBased(), start, end, id, event, copies);
+    }
+
+    @BeforeEach
+    public void setUp() {
+        evaluator = new GranularRouteDataEvaluatorGE(geneImpact, geneWeightCalculator, enhancerImpact, enhancerGeneRelevanceCalculator);
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0,   10,  15,   80,               .0",      //  nothing is knocked out
+            "0,    4,  10,   80,               .2",      //  enhancer knocked out
+            "0,   30,  40,   80,             27.382818", //  gene knocked out
+            "0,   30,  55,   80,             27.482818", // `gene and enhancer knocked out
+            "0,   30,  70,   80,             54.765636", //  2 genes and enhancer knocked out
+    })
+    public void evaluateDeletion(int start, int delStart, int delEnd, int end, double expected) {
+        Contig ctg1 = TestContig.of(0, 100);
+
+        double score = evaluator.evaluate(makeDeletionRouteData(ctg1, start, delStart, delEnd, end)).priority();
+
+        assertThat(score, closeTo(expected, ERROR));
+    }
+
+    @Test
+    public void evaluateDeletionsSharingReference() {
+        // The reference scores are cached after the first evaluation, and the subsequent evaluations
+        // of the variants with the same reference region must yield the same results.
+        Contig ctg1 = TestContig.of(0, 100);
+
+        assertThat(evaluator.evaluate(makeDeletionRouteData(ctg1, 0, 30, 40, 80)).priority(), closeTo(27.382818, ERROR));
+        assertThat(evaluator.evaluate(makeDeletionRouteData(ctg1, 0, 4, 10, 80)).priority(), closeTo(.2, ERROR));
+        assertThat(evaluator.evaluate(makeDeletionRouteData(ctg1, 0, 10, 15, 80)).priority(), closeTo(.0, ERROR));
+        assertThat(evaluator.evaluate(makeDeletionRouteData(ctg1, 0, 30, 40, 80)).priority(), closeTo(27.382818, ERROR));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            // 2 genes x 2 enhancers exceed the budget, the enhancers are ignored
+            "3,   0,   30,  40,   80,             27.182818,  true",
+            "3,   0,   30,  55,   80,             27.182818,  true",
+            "3,   0,   30,  70,   80,             54.365637,  true",
+            "4,   0,   30,  55,   80,             27.482818, false",
+    })
+    public void evaluateDeletionWithWorkBudget(long workBudget, int start, int delStart, int delEnd, int end,
+                                               double expected, boolean approximate) {
+        Contig ctg1 = TestContig.of(0, 100);
+        GranularRouteDataEvaluatorGE evaluator = new GranularRouteDataEvaluatorGE(geneImpact, geneWeightCalculator, enhancerImpact, enhancerGeneRelevanceCalculator, workBudget);
+        RouteDataGE routeData = makeDeletionRouteData(ctg1, start, delStart, delEnd, end);
+
+        GranularRouteResult result = evaluator.evaluate(routeData);
+
+        assertThat(result.priority(), closeTo(expected, ERROR));
+        assertThat(result.isApproximate(), equalTo(approximate));
+        assertThat(evaluator.upperBound(routeData), greaterThanOrEqualTo(result.priority()));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+            "0,   10,  15,   80",
+            "0,    4,  10,   80",
+            "0,   30,  40,   80",
+            "0,   30,  55,   80",
+            "0,   30,  70,   80",
+    })
+    public void upperBoundIsNotBelowPriority(int start, int delStart, int delEnd, int end) {
+        Contig ctg1 = TestContig.of(0, 100);
+        RouteDataGE routeData = makeDeletionRouteData(ctg1, start, delStart, delEnd, end);
+
+        double upperBound = evaluator.upperBound(routeData);
+
+        assertThat(upperBound, greaterThanOrEqualTo(evaluator.evaluate(routeData).priority()));
+    }
+}
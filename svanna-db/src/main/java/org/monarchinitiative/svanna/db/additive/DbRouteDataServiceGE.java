@@ -10,6 +10,7 @@ import org.monarchinitiative.svart.GenomicRegion;
 import org.monarchinitiative.sgenes.model.Gene;
 import org.monarchinitiative.sgenes.model.Located;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -44,4 +45,23 @@ public class DbRouteDataServiceGE implements RouteDataService<RouteDataGE> {
         return builder.build();
     }
 
+    @Override
+    public List<RouteDataGE> getData(List<Routes> routes) {
+        if (routes.isEmpty())
+            return List.of();
+
+        // The genes and enhancers are determined by the reference regions that are shared by all routes
+        RouteDataGE first = getData(routes.get(0));
+        List<RouteDataGE> data = new ArrayList<>(routes.size());
+        data.add(first);
+        for (Routes route : routes.subList(1, routes.size())) {
+            data.add(RouteDataGE.builder(route)
+                    .addGenes(first.genes())
+                    .addEnhancers(first.enhancers())
+                    .build());
+        }
+
+        return data;
+    }
+
 }
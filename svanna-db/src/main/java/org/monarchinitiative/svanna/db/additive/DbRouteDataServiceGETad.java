@@ -11,6 +11,7 @@ import org.monarchinitiative.svart.GenomicRegion;
 import org.monarchinitiative.sgenes.model.Gene;
 import org.monarchinitiative.sgenes.model.Located;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.function.Predicate;
@@ -53,6 +54,26 @@ public class DbRouteDataServiceGETad implements RouteDataService<RouteDataGETad>
         return builder.build();
     }
 
+    @Override
+    public List<RouteDataGETad> getData(List<Routes> routes) {
+        if (routes.isEmpty())
+            return List.of();
+
+        // The genes, enhancers, and TAD boundaries are determined by the reference regions that are shared by all routes
+        RouteDataGETad first = getData(routes.get(0));
+        List<RouteDataGETad> data = new ArrayList<>(routes.size());
+        data.add(first);
+        for (Routes route : routes.subList(1, routes.size())) {
+            data.add(RouteDataGETad.builder(route)
+                    .addGenes(first.genes())
+                    .addEnhancers(first.enhancers())
+                    .addTadBoundaries(first.tadBoundaries())
+                    .build());
+        }
+
+        return data;
+    }
+
     private static Predicate<? super TadBoundary> notOverlappingWithGene(Collection<Gene> genes) {
         return tad -> genes.stream().noneMatch(g -> g.location().overlapsWith(tad.location()));
     }
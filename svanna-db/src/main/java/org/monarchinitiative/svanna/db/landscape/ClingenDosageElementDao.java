@@ -1,5 +1,7 @@
 package org.monarchinitiative.svanna.db.landscape;
 
+import org.monarchinitiative.svanna.core.metrics.MetricId;
+import org.monarchinitiative.svanna.core.metrics.MetricsRegistry;
 import org.monarchinitiative.svanna.db.IngestDao;
 import org.monarchinitiative.svanna.model.landscape.dosage.Dosage;
 import org.monarchinitiative.svanna.model.landscape.dosage.DosageRegion;
@@ -21,6 +23,10 @@ public class ClingenDosageElementDao implements AnnotationDao<DosageRegion>, Ing
 
     private static final Logger LOGGER = LoggerFactory.getLogger(ClingenDosageElementDao.class);
 
+    private static final MetricId OVERLAPPING_TIMER = MetricId.of("svanna_dao_query_seconds", "dao", "clingen_dosage_element", "query", "getOverlapping");
+    private static final MetricId HGNC_ID_TIMER = MetricId.of("svanna_dao_query_seconds", "dao", "clingen_dosage_element", "query", "geneDosageDataForHgncId");
+    private static final MetricId HGNC_ID_AND_REGION_TIMER = MetricId.of("svanna_dao_query_seconds", "dao", "clingen_dosage_element", "query", "geneDosageDataForHgncIdAndRegion");
+
     private final DataSource dataSource;
     private final GenomicAssembly genomicAssembly;
 
@@ -88,6 +94,7 @@ public class ClingenDosageElementDao implements AnnotationDao<DosageRegion>, Ing
                 "  where CONTIG = ? " +
                 "    and ? < END " +
                 "    and START < ?";
+        long start = System.nanoTime();
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setInt(1, query.contigId());
@@ -97,6 +104,8 @@ public class ClingenDosageElementDao implements AnnotationDao<DosageRegion>, Ing
         } catch (SQLException e) {
             if (LOGGER.isWarnEnabled()) LOGGER.warn("Error occurred: {}", e.getMessage());
             return List.of();
+        } finally {
+            MetricsRegistry.current().timer(OVERLAPPING_TIMER).recordSince(start);
         }
     }
 
@@ -105,6 +114,7 @@ public class ClingenDosageElementDao implements AnnotationDao<DosageRegion>, Ing
                 " from SVANNA.CLINGEN_DOSAGE_ELEMENT " +
                 "  where ID = ?";
 
+        long start = System.nanoTime();
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setString(1, hgncId);
@@ -112,6 +122,8 @@ public class ClingenDosageElementDao implements AnnotationDao<DosageRegion>, Ing
         } catch (SQLException e) {
             if (LOGGER.isWarnEnabled()) LOGGER.warn("Error occurred: {}", e.getMessage());
             return List.of();
+        } finally {
+            MetricsRegistry.current().timer(HGNC_ID_TIMER).recordSince(start);
         }
     }
 
@@ -122,6 +134,7 @@ public class ClingenDosageElementDao implements AnnotationDao<DosageRegion>, Ing
                 "      and ? < END " +
                 "      and START < ?) " +
                 "    or ID = ?";
+        long start = System.nanoTime();
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setInt(1, query.contigId());
@@ -132,6 +145,8 @@ public class ClingenDosageElementDao implements AnnotationDao<DosageRegion>, Ing
         } catch (SQLException e) {
             if (LOGGER.isWarnEnabled()) LOGGER.warn("Error occurred: {}", e.getMessage());
             return List.of();
+        } finally {
+            MetricsRegistry.current().timer(HGNC_ID_AND_REGION_TIMER).recordSince(start);
         }
     }
 
@@ -1,5 +1,7 @@
 package org.monarchinitiative.svanna.db.landscape;
 
+import org.monarchinitiative.svanna.core.metrics.MetricId;
+import org.monarchinitiative.svanna.core.metrics.MetricsRegistry;
 import org.monarchinitiative.svanna.db.IngestDao;
 import org.monarchinitiative.svanna.model.landscape.variant.BasePopulationVariant;
 import org.monarchinitiative.svanna.model.landscape.variant.PopulationVariant;
@@ -20,6 +22,8 @@ public class DbPopulationVariantDao implements PopulationVariantDao, IngestDao<P
 
     private static final Logger LOGGER = LoggerFactory.getLogger(DbPopulationVariantDao.class);
 
+    private static final MetricId OVERLAPPING_TIMER = MetricId.of("svanna_dao_query_seconds", "dao", "population_variant", "query", "getOverlapping");
+
     private final DataSource dataSource;
     private final GenomicAssembly genomicAssembly;
 
@@ -116,6 +120,7 @@ public class DbPopulationVariantDao implements PopulationVariantDao, IngestDao<P
                 "  where CONTIG = ? " +
                 "    and ? < END " +
                 "    and START < ?";
+        long start = System.nanoTime();
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setInt(1, query.contigId());
@@ -125,6 +130,8 @@ public class DbPopulationVariantDao implements PopulationVariantDao, IngestDao<P
         } catch (SQLException e) {
             if (LOGGER.isWarnEnabled()) LOGGER.warn("Error occurred: {}", e.getMessage());
             return List.of();
+        } finally {
+            MetricsRegistry.current().timer(OVERLAPPING_TIMER).recordSince(start);
         }
     }
 }
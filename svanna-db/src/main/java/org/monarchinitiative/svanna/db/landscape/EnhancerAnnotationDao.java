@@ -1,6 +1,8 @@
 package org.monarchinitiative.svanna.db.landscape;
 
 import org.monarchinitiative.svanna.core.LogUtils;
+import org.monarchinitiative.svanna.core.metrics.MetricId;
+import org.monarchinitiative.svanna.core.metrics.MetricsRegistry;
 import org.monarchinitiative.svanna.db.IngestDao;
 import org.monarchinitiative.svanna.model.landscape.enhancer.Enhancer;
 import org.monarchinitiative.svanna.model.landscape.enhancer.EnhancerSource;
@@ -24,6 +26,8 @@ public class EnhancerAnnotationDao implements AnnotationDao<Enhancer>, IngestDao
 
     private static final Logger LOGGER = LoggerFactory.getLogger(EnhancerAnnotationDao.class);
 
+    private static final MetricId OVERLAPPING_TIMER = MetricId.of("svanna_dao_query_seconds", "dao", "enhancer", "query", "getOverlapping");
+
     private final DataSource dataSource;
 
     private final GenomicAssembly genomicAssembly;
@@ -154,6 +158,7 @@ public class EnhancerAnnotationDao implements AnnotationDao<Enhancer>, IngestDao
             return List.of();
         }
 
+        long start = System.nanoTime();
         try (Connection connection = dataSource.getConnection()) {
             if (!enhancerParameters.useFantom5()) {
                 // just VISTA
@@ -191,6 +196,8 @@ public class EnhancerAnnotationDao implements AnnotationDao<Enhancer>, IngestDao
         } catch (SQLException e) {
             if (LOGGER.isWarnEnabled()) LOGGER.warn("Error occurred: {}", e.getMessage());
             return List.of();
+        } finally {
+            MetricsRegistry.current().timer(OVERLAPPING_TIMER).recordSince(start);
         }
     }
 
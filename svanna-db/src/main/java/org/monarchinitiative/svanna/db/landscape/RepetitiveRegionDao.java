@@ -1,5 +1,7 @@
 package org.monarchinitiative.svanna.db.landscape;
 
+import org.monarchinitiative.svanna.core.metrics.MetricId;
+import org.monarchinitiative.svanna.core.metrics.MetricsRegistry;
 import org.monarchinitiative.svanna.db.IngestDao;
 import org.monarchinitiative.svanna.model.landscape.repeat.RepeatFamily;
 import org.monarchinitiative.svanna.model.landscape.repeat.RepetitiveRegion;
@@ -20,6 +22,8 @@ public class RepetitiveRegionDao implements AnnotationDao<RepetitiveRegion>, Ing
 
     private static final Logger LOGGER = LoggerFactory.getLogger(RepetitiveRegionDao.class);
 
+    private static final MetricId OVERLAPPING_TIMER = MetricId.of("svanna_dao_query_seconds", "dao", "repetitive_region", "query", "getOverlapping");
+
     private final DataSource dataSource;
 
     private final GenomicAssembly genomicAssembly;
@@ -47,6 +51,7 @@ public class RepetitiveRegionDao implements AnnotationDao<RepetitiveRegion>, Ing
                 "  where CONTIG = ? " +
                 "    and ? < END " +
                 "    and START < ?";
+        long start = System.nanoTime();
         try (Connection connection = dataSource.getConnection();
              PreparedStatement preparedStatement = connection.prepareStatement(sql)) {
             preparedStatement.setInt(1, query.contigId());
@@ -56,6 +61,8 @@ public class RepetitiveRegionDao implements AnnotationDao<RepetitiveRegion>, Ing
         } catch (SQLException e) {
             if (LOGGER.isWarnEnabled()) LOGGER.warn("Error occurred: {}", e.getMessage());
             return List.of();
+        } finally {
+            MetricsRegistry.current().timer(OVERLAPPING_TIMER).recordSince(start);
         }
     }
 
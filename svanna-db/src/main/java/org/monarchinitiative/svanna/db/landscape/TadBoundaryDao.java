@@ -1,5 +1,7 @@
 package org.monarchinitiative.svanna.db.landscape;
 
+import org.monarchinitiative.svanna.core.metrics.MetricId;
+import org.monarchinitiative.svanna.core.metrics.MetricsRegistry;
 import org.monarchinitiative.svanna.db.IngestDao;
 import org.monarchinitiative.svanna.model.landscape.tad.TadBoundary;
 import org.monarchinitiative.svanna.model.landscape.tad.TadBoundaryDefault;
@@ -25,6 +27,10 @@ public class TadBoundaryDao implements IngestDao<TadBoundary>, AnnotationDao<Tad
 
     private static final Logger LOGGER = LoggerFactory.getLogger(TadBoundaryDao.class);
 
+    private static final MetricId OVERLAPPING_TIMER = MetricId.of("svanna_dao_query_seconds", "dao", "tad_boundary", "query", "getOverlapping");
+    private static final MetricId UPSTREAM_TIMER = MetricId.of("svanna_dao_query_seconds", "dao", "tad_boundary", "query", "upstreamOf");
+    private static final MetricId DOWNSTREAM_TIMER = MetricId.of("svanna_dao_query_seconds", "dao", "tad_boundary", "query", "downstreamOf");
+
     private static final CoordinateSystem CS = CoordinateSystem.zeroBased();
 
     private final DataSource dataSource;
@@ -95,7 +101,7 @@ public class TadBoundaryDao implements IngestDao<TadBoundary>, AnnotationDao<Tad
                 .addValue("start", query.startOnStrandWithCoordinateSystem(Strand.POSITIVE, CS))
                 .addValue("end", query.endOnStrandWithCoordinateSystem(Strand.POSITIVE, CS))
                 .addValue("stability", stabilityThreshold);
-        return template.query(sql, paramsSource, processResults());
+        return MetricsRegistry.current().timer(OVERLAPPING_TIMER).record(() -> template.query(sql, paramsSource, processResults()));
     }
 
     /**
@@ -117,7 +123,7 @@ public class TadBoundaryDao implements IngestDao<TadBoundary>, AnnotationDao<Tad
                 "  from SVANNA.TAD_BOUNDARY " +
                 "    where CONTIG = :contig and MIDPOINT > :position and STABILITY >= :stability " +
                 "  order by MIDPOINT";
-        return template.query(sql, paramSource, mapToTadBoundary(region.strand()));
+        return MetricsRegistry.current().timer(UPSTREAM_TIMER).record(() -> template.query(sql, paramSource, mapToTadBoundary(region.strand())));
     }
 
     /**
@@ -138,7 +144,7 @@ public class TadBoundaryDao implements IngestDao<TadBoundary>, AnnotationDao<Tad
                 "  from SVANNA.TAD_BOUNDARY " +
                 "    where CONTIG = :contig and MIDPOINT < :position and STABILITY >= :stability " +
                 "  order by MIDPOINT DESC";
-        return template.query(sql, paramSource, mapToTadBoundary(region.strand()));
+        return MetricsRegistry.current().timer(DOWNSTREAM_TIMER).record(() -> template.query(sql, paramSource, mapToTadBoundary(region.strand())));
     }
 
     private ResultSetExtractor<List<TadBoundary>> processResults() {
@@ -2,6 +2,8 @@ package org.monarchinitiative.svanna.db.phenotype;
 
 import org.monarchinitiative.svanna.core.LogUtils;
 import org.monarchinitiative.svanna.core.hpo.TermPair;
+import org.monarchinitiative.svanna.core.metrics.MetricId;
+import org.monarchinitiative.svanna.core.metrics.MetricsRegistry;
 import org.monarchinitiative.svanna.db.SvAnnaDbException;
 import org.monarchinitiative.phenol.ontology.data.TermId;
 import org.slf4j.Logger;
@@ -19,6 +21,8 @@ public class MicaDao {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(MicaDao.class);
 
+    private static final MetricId MICA_TIMER = MetricId.of("svanna_dao_query_seconds", "dao", "mica", "query", "getMica");
+
     private static final double TOLERANCE = 5E-9;
 
     private final JdbcTemplate jdbcTemplate;
@@ -70,6 +74,7 @@ public class MicaDao {
     public double getMica(TermPair pair) {
         int leftId = parseTermId(pair.left().getId());
         int rightId = parseTermId(pair.right().getId());
+        long start = System.nanoTime();
         try {
             double similarity = getMica(leftId, rightId);
             return Double.isNaN(similarity)
@@ -78,6 +83,8 @@ public class MicaDao {
         } catch (DataAccessException e) {
             LogUtils.logDebug(LOGGER, "Could not find entry for `{}`, `{}`", leftId, rightId);
             return 0.;
+        } finally {
+            MetricsRegistry.current().timer(MICA_TIMER).recordSince(start);
         }
     }
 
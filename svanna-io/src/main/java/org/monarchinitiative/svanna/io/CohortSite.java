@@ -0,0 +1,62 @@
+package org.monarchinitiative.svanna.io;
+
+import org.monarchinitiative.svart.GenomicVariant;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A site of a multi-sample VCF file with the variants of the samples that carry the ALT allele.
+ * <p>
+ * The sample variants share the {@link GenomicVariant} of the site, while the variant call attributes,
+ * the filter results, and the priority are specific to each sample.
+ */
+public class CohortSite {
+
+    private final GenomicVariant variant;
+
+    private final Map<String, FullSvannaVariant> carriers;
+
+    public static CohortSite of(GenomicVariant variant, Map<String, FullSvannaVariant> carriers) {
+        return new CohortSite(variant, carriers);
+    }
+
+    private CohortSite(GenomicVariant variant, Map<String, FullSvannaVariant> carriers) {
+        this.variant = Objects.requireNonNull(variant, "Variant must not be null");
+        this.carriers = Collections.unmodifiableMap(new LinkedHashMap<>(Objects.requireNonNull(carriers, "Carriers must not be null")));
+    }
+
+    public GenomicVariant variant() {
+        return variant;
+    }
+
+    /**
+     * @return map with the sample variants, keyed by the sample names, in the order of the VCF samples
+     */
+    public Map<String, FullSvannaVariant> carriers() {
+        return carriers;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CohortSite that = (CohortSite) o;
+        return Objects.equals(variant, that.variant) && Objects.equals(carriers, that.carriers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(variant, carriers);
+    }
+
+    @Override
+    public String toString() {
+        return "CohortSite{" +
+                "variant=" + variant +
+                ", carriers=" + carriers.keySet() +
+                '}';
+    }
+}
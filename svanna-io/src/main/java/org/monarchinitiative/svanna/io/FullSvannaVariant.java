@@ -10,13 +10,29 @@ import java.util.Set;
 
 public interface FullSvannaVariant extends SvannaVariant {
 
+    /**
+     * Line number used for the variants that were not read from a VCF file.
+     */
+    long UNKNOWN_LINE_NUMBER = -1;
+
+    /**
+     * @return the VCF record of the variant or <code>null</code> if the record was not retained
+     */
     VariantContext variantContext();
 
+    /**
+     * @return one-based number of the line of the VCF file the variant was read from,
+     * or {@link #UNKNOWN_LINE_NUMBER}
+     */
+    default long lineNumber() {
+        return UNKNOWN_LINE_NUMBER;
+    }
+
     static FullSvannaVariant of(GenomicVariant variant,
                                 VariantCallAttributes variantCallAttributes,
                                 SvPriority svPriority,
                                 VariantContext variantContext) {
-        return FullSvannaVariantDefault.of(variant, variantCallAttributes, Set.of(), Set.of(), svPriority, variantContext);
+        return FullSvannaVariantDefault.of(variant, variantCallAttributes, Set.of(), Set.of(), svPriority, variantContext, UNKNOWN_LINE_NUMBER);
     }
 
     static FullSvannaVariantBuilder builder(GenomicVariant variant) {
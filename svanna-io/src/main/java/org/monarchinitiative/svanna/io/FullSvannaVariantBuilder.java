@@ -7,6 +7,7 @@ import org.monarchinitiative.svart.GenomicVariant;
 public class FullSvannaVariantBuilder extends SvannaVariantBuilder<FullSvannaVariant, FullSvannaVariantBuilder> {
 
     private VariantContext variantContext;
+    private long lineNumber = FullSvannaVariant.UNKNOWN_LINE_NUMBER;
 
     protected FullSvannaVariantBuilder(GenomicVariant variant) {
         super(variant);
@@ -17,6 +18,11 @@ public class FullSvannaVariantBuilder extends SvannaVariantBuilder<FullSvannaVar
         return self();
     }
 
+    public FullSvannaVariantBuilder lineNumber(long lineNumber) {
+        this.lineNumber = lineNumber;
+        return self();
+    }
+
     @Override
     public FullSvannaVariantBuilder self() {
         return this;
@@ -24,6 +30,6 @@ public class FullSvannaVariantBuilder extends SvannaVariantBuilder<FullSvannaVar
 
     @Override
     public FullSvannaVariant build() {
-        return FullSvannaVariantDefault.of(variant, variantCallAttributes, passedFilterTypes, failedFilterTypes, null, variantContext);
+        return FullSvannaVariantDefault.of(variant, variantCallAttributes, passedFilterTypes, failedFilterTypes, null, variantContext, lineNumber);
     }
 }
@@ -8,33 +8,46 @@ import org.monarchinitiative.svanna.core.reference.VariantCallAttributes;
 import org.monarchinitiative.svanna.core.reference.Zygosity;
 import org.monarchinitiative.svart.*;
 
-import java.util.HashSet;
+import java.util.EnumSet;
 import java.util.Objects;
 import java.util.Set;
-import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 class FullSvannaVariantDefault implements FullSvannaVariant {
 
+    private static final FilterType[] FILTER_TYPES = FilterType.values();
+
+    // The passed filters are stored in the lower half of the `filters` bits, the failed filters in the upper half.
+    private static final int FAILED_SHIFT = 16;
+
+    static {
+        if (FILTER_TYPES.length > FAILED_SHIFT)
+            throw new IllegalStateException("Unable to store " + FILTER_TYPES.length + " filter types in the filter bitmask");
+    }
+
+    private static final AtomicIntegerFieldUpdater<FullSvannaVariantDefault> FILTERS = AtomicIntegerFieldUpdater.newUpdater(FullSvannaVariantDefault.class, "filters");
+
     private final GenomicVariant variant;
     private final VariantCallAttributes variantCallAttributes;
-    private final Set<FilterType> passedFilterTypes = new HashSet<>();
-    private final Set<FilterType> failedFilterTypes = new HashSet<>();
-    private final AtomicReference<SvPriority> priority = new AtomicReference<>();
+    private volatile int filters;
+    private volatile SvPriority priority;
     private final VariantContext variantContext;
+    private final long lineNumber;
 
     private FullSvannaVariantDefault(GenomicVariant variant,
                                      VariantCallAttributes variantCallAttributes,
                                      Set<FilterType> passedFilterTypes,
                                      Set<FilterType> failedFilterTypes,
                                      SvPriority priority,
-                                     VariantContext variantContext) {
+                                     VariantContext variantContext,
+                                     long lineNumber) {
         // for creating a novel instance from an existing instance in `newVariantInstance`
         this.variant = Objects.requireNonNull(variant, "Variant must not be null");
         this.variantCallAttributes = Objects.requireNonNull(variantCallAttributes);
-        this.passedFilterTypes.addAll(Objects.requireNonNull(passedFilterTypes));
-        this.failedFilterTypes.addAll(Objects.requireNonNull(failedFilterTypes));
-        this.priority.set(priority);
+        this.filters = toBits(Objects.requireNonNull(passedFilterTypes)) | toBits(Objects.requireNonNull(failedFilterTypes)) << FAILED_SHIFT;
+        this.priority = priority;
         this.variantContext = variantContext;
+        this.lineNumber = lineNumber;
     }
 
     static FullSvannaVariantDefault of(GenomicVariant variant,
@@ -42,13 +55,15 @@ class FullSvannaVariantDefault implements FullSvannaVariant {
                                        Set<FilterType> passedFilterTypes,
                                        Set<FilterType> failedFilterTypes,
                                        SvPriority svPriority,
-                                       VariantContext variantContext) {
+                                       VariantContext variantContext,
+                                       long lineNumber) {
         return new FullSvannaVariantDefault(variant,
                 variantCallAttributes,
                 passedFilterTypes,
                 failedFilterTypes,
                 svPriority,
-                variantContext);
+                variantContext,
+                lineNumber);
     }
 
     @Override
@@ -56,28 +71,58 @@ class FullSvannaVariantDefault implements FullSvannaVariant {
         return variant;
     }
 
+    private static int toBits(Set<FilterType> filterTypes) {
+        int bits = 0;
+        for (FilterType filterType : filterTypes) {
+            bits |= 1 << filterType.ordinal();
+        }
+        return bits;
+    }
+
+    private static Set<FilterType> toFilterTypes(int bits) {
+        Set<FilterType> filterTypes = EnumSet.noneOf(FilterType.class);
+        for (FilterType filterType : FILTER_TYPES) {
+            if ((bits & 1 << filterType.ordinal()) != 0)
+                filterTypes.add(filterType);
+        }
+        return filterTypes;
+    }
+
+    private static int passedBit(FilterType filterType) {
+        return 1 << filterType.ordinal();
+    }
+
+    private static int failedBit(FilterType filterType) {
+        return 1 << (filterType.ordinal() + FAILED_SHIFT);
+    }
+
     @Override
-    public synchronized boolean passedFilters() {
-        return failedFilterTypes.isEmpty();
+    public boolean passedFilters() {
+        return filters >>> FAILED_SHIFT == 0;
     }
 
     @Override
-    public synchronized boolean passedFilter(FilterType filterType) {
-        return !failedFilterTypes.contains(filterType) && passedFilterTypes.contains(filterType);
+    public boolean passedFilter(FilterType filterType) {
+        int bits = filters;
+        return (bits & failedBit(filterType)) == 0 && (bits & passedBit(filterType)) != 0;
     }
 
     @Override
-    public synchronized boolean failedFilter(FilterType filterType) {
-        return failedFilterTypes.contains(filterType) && !passedFilterTypes.contains(filterType);
+    public boolean failedFilter(FilterType filterType) {
+        int bits = filters;
+        return (bits & failedBit(filterType)) != 0 && (bits & passedBit(filterType)) == 0;
     }
 
     @Override
-    public synchronized boolean addFilterResult(FilterResult filterResult) {
+    public boolean addFilterResult(FilterResult filterResult) {
         if (!filterResult.wasRun())
             return true;
-        return filterResult.passed()
-                ? passedFilterTypes.add(filterResult.getFilterType())
-                : failedFilterTypes.add(filterResult.getFilterType());
+        int bit = filterResult.passed()
+                ? passedBit(filterResult.getFilterType())
+                : failedBit(filterResult.getFilterType());
+        int previous = FILTERS.getAndUpdate(this, bits -> bits | bit);
+        // the same as adding the filter type into a set
+        return (previous & bit) == 0;
     }
 
     @Override
@@ -106,13 +151,13 @@ class FullSvannaVariantDefault implements FullSvannaVariant {
     }
 
     @Override
-    public synchronized void setSvPriority(SvPriority priority) {
-        this.priority.set(priority);
+    public void setSvPriority(SvPriority priority) {
+        this.priority = priority;
     }
 
     @Override
     public SvPriority svPriority() {
-        return priority.get();
+        return priority;
     }
 
     @Override
@@ -120,28 +165,35 @@ class FullSvannaVariantDefault implements FullSvannaVariant {
         return variantContext;
     }
 
+    @Override
+    public long lineNumber() {
+        return lineNumber;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         FullSvannaVariantDefault that = (FullSvannaVariantDefault) o;
-        return Objects.equals(variant, that.variant) && Objects.equals(variantCallAttributes, that.variantCallAttributes) && Objects.equals(passedFilterTypes, that.passedFilterTypes) && Objects.equals(failedFilterTypes, that.failedFilterTypes) && Objects.equals(priority, that.priority) && Objects.equals(variantContext, that.variantContext);
+        return Objects.equals(variant, that.variant) && Objects.equals(variantCallAttributes, that.variantCallAttributes) && filters == that.filters && lineNumber == that.lineNumber && Objects.equals(priority, that.priority) && Objects.equals(variantContext, that.variantContext);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(variant, variantCallAttributes, passedFilterTypes, failedFilterTypes, priority, variantContext);
+        return Objects.hash(variant, variantCallAttributes, filters, priority, variantContext, lineNumber);
     }
 
     @Override
     public String toString() {
+        int bits = filters;
         return "FullSvannaVariantDefault{" +
                 "variant=" + variant +
                 ", variantCallAttributes=" + variantCallAttributes +
-                ", passedFilterTypes=" + passedFilterTypes +
-                ", failedFilterTypes=" + failedFilterTypes +
+                ", passedFilterTypes=" + toFilterTypes(bits) +
+                ", failedFilterTypes=" + toFilterTypes(bits >>> FAILED_SHIFT) +
                 ", priority=" + priority +
                 ", variantContext=" + variantContext +
+                ", lineNumber=" + lineNumber +
                 '}';
     }
 
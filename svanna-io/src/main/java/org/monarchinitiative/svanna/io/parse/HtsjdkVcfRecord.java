@@ -0,0 +1,90 @@
+package org.monarchinitiative.svanna.io.parse;
+
+import htsjdk.variant.variantcontext.Genotype;
+import htsjdk.variant.variantcontext.VariantContext;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@link VcfRecord} backed by a {@link VariantContext} decoded by HtsJDK.
+ */
+class HtsjdkVcfRecord implements VcfRecord {
+
+    private final VariantContext vc;
+
+    HtsjdkVcfRecord(VariantContext vc) {
+        this.vc = vc;
+    }
+
+    @Override
+    public String contig() {
+        return vc.getContig();
+    }
+
+    @Override
+    public int start() {
+        return vc.getStart();
+    }
+
+    @Override
+    public String id() {
+        return vc.getID();
+    }
+
+    @Override
+    public String ref() {
+        return vc.getReference().getDisplayString();
+    }
+
+    @Override
+    public int altCount() {
+        return vc.getAlternateAlleles().size();
+    }
+
+    @Override
+    public String alt() {
+        return vc.getAlternateAllele(0).getDisplayString();
+    }
+
+    @Override
+    public boolean isFiltered() {
+        // we assume that `PASS` is not added in between variant context's filters by HtsJDK
+        return !vc.getFilters().isEmpty();
+    }
+
+    @Override
+    public Map<String, Object> attributes() {
+        return vc.getAttributes();
+    }
+
+    @Override
+    public int attributeAsInt(String key, int defaultValue) {
+        return vc.getAttributeAsInt(key, defaultValue);
+    }
+
+    @Override
+    public List<Integer> attributeAsIntList(String key) {
+        return vc.getAttributeAsIntList(key, 0);
+    }
+
+    @Override
+    public String attributeAsString(String key, String defaultValue) {
+        return vc.getAttributeAsString(key, defaultValue);
+    }
+
+    @Override
+    public int genotypeCount() {
+        return vc.getGenotypes().size();
+    }
+
+    @Override
+    public Genotype genotype() {
+        return vc.getGenotype(0);
+    }
+
+    @Override
+    public VariantContext variantContext() {
+        return vc;
+    }
+}
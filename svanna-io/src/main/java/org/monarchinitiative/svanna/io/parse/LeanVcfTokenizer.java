@@ -0,0 +1,353 @@
+package org.monarchinitiative.svanna.io.parse;
+
+import htsjdk.variant.variantcontext.Allele;
+import htsjdk.variant.variantcontext.Genotype;
+import htsjdk.variant.variantcontext.GenotypeBuilder;
+import htsjdk.variant.variantcontext.VariantContext;
+import htsjdk.variant.vcf.VCFHeader;
+
+import java.util.*;
+
+/**
+ * Tokenizer that reads the fields required by {@link VcfVariantParser} directly from a VCF line, without decoding
+ * the complete record by HtsJDK.
+ * <p>
+ * Only the INFO fields used by the parser and the FORMAT fields used by {@link VariantCallAttributeParser} are
+ * materialized. The tokenizer handles the common single-sample bi-allelic records. The tokenizer returns
+ * <code>null</code> for the header lines and for the records it cannot read exactly as HtsJDK does, e.g. records
+ * with missing values or multiple ALT alleles, and such lines must be decoded by HtsJDK.
+ * <p>
+ * The tokenizer is thread safe.
+ */
+class LeanVcfTokenizer {
+
+    private static final int N_COLUMNS = 10;
+
+    // INFO fields read by `VcfVariantParser` and `VariantCallAttributeParser`
+    private static final Set<String> INT_INFO_KEYS = Set.of("END", "SVLEN", "RE", "SUPPORT");
+    private static final Set<String> INT_LIST_INFO_KEYS = Set.of("CIPOS", "CIEND");
+    private static final Set<String> STRING_INFO_KEYS = Set.of("MATEID", "EVENT");
+
+    private final String sampleName;
+
+    private LeanVcfTokenizer(String sampleName) {
+        this.sampleName = sampleName;
+    }
+
+    /**
+     * @return tokenizer for the VCF file with the <code>header</code> or an empty optional if the file does not
+     * contain exactly one sample
+     */
+    static Optional<LeanVcfTokenizer> forHeader(VCFHeader header) {
+        List<String> samples = header.getGenotypeSamples();
+        return samples.size() == 1
+                ? Optional.of(new LeanVcfTokenizer(samples.get(0)))
+                : Optional.empty();
+    }
+
+    /**
+     * @return the record or <code>null</code> if the line must be decoded by HtsJDK
+     */
+    VcfRecord tokenize(String line) {
+        if (line.isEmpty() || line.charAt(0) == '#' || line.charAt(line.length() - 1) == '\r')
+            return null;
+
+        int[] ends = new int[N_COLUMNS];
+        int start = 0;
+        for (int i = 0; i < N_COLUMNS - 1; i++) {
+            int tab = line.indexOf('\t', start);
+            if (tab < 0)
+                return null;
+            ends[i] = tab;
+            start = tab + 1;
+        }
+        if (line.indexOf('\t', start) >= 0)
+            // more than one sample
+            return null;
+        ends[N_COLUMNS - 1] = line.length();
+
+        try {
+            String contig = line.substring(0, ends[0]);
+            int pos = Integer.parseInt(line, ends[0] + 1, ends[1], 10);
+            String id = line.substring(ends[1] + 1, ends[2]);
+            String ref = line.substring(ends[2] + 1, ends[3]);
+            String alt = line.substring(ends[3] + 1, ends[4]);
+            if (!isBases(ref) || !isSupportedAlt(alt))
+                return null;
+
+            String qual = line.substring(ends[4] + 1, ends[5]);
+            if (!qual.equals("."))
+                Double.parseDouble(qual);
+
+            String filter = line.substring(ends[5] + 1, ends[6]);
+            boolean filtered = !(filter.equals("PASS") || filter.equals("."));
+
+            Map<String, String> info = parseInfo(line.substring(ends[6] + 1, ends[7]));
+            if (info == null)
+                return null;
+
+            Genotype genotype = parseGenotype(ref, alt, line.substring(ends[7] + 1, ends[8]), line.substring(ends[8] + 1, ends[9]));
+            if (genotype == null)
+                return null;
+
+            return new LeanRecord(contig, pos, id, ref, alt, filtered, info, genotype);
+        } catch (IllegalArgumentException e) {
+            // includes NumberFormatException
+            return null;
+        }
+    }
+
+    private static boolean isBases(String allele) {
+        if (allele.isEmpty())
+            return false;
+        for (int i = 0; i < allele.length(); i++) {
+            switch (allele.charAt(i)) {
+                case 'A':
+                case 'C':
+                case 'G':
+                case 'T':
+                case 'N':
+                    continue;
+                default:
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSupportedAlt(String alt) {
+        if (alt.length() > 2 && alt.charAt(0) == '<' && alt.charAt(alt.length() - 1) == '>')
+            // symbolic
+            return alt.indexOf(',') < 0;
+        if (alt.indexOf('[') >= 0 || alt.indexOf(']') >= 0)
+            // breakend
+            return alt.indexOf(',') < 0;
+        return isBases(alt);
+    }
+
+    /**
+     * @return the required INFO fields or <code>null</code> if the INFO column is not supported
+     */
+    private static Map<String, String> parseInfo(String column) {
+        Map<String, String> info = new HashMap<>(4);
+        if (column.equals("."))
+            return info;
+
+        int start = 0;
+        while (start <= column.length()) {
+            int end = column.indexOf(';', start);
+            if (end < 0)
+                end = column.length();
+            int eq = column.indexOf('=', start);
+            String key = eq < 0 || eq > end
+                    ? column.substring(start, end)
+                    : column.substring(start, eq);
+            if (key.isEmpty())
+                return null;
+
+            boolean isInt = INT_INFO_KEYS.contains(key);
+            boolean isIntList = INT_LIST_INFO_KEYS.contains(key);
+            if (isInt || isIntList || STRING_INFO_KEYS.contains(key)) {
+                if (eq < 0 || eq > end || info.containsKey(key))
+                    // flag or duplicate
+                    return null;
+                String value = column.substring(eq + 1, end);
+                if (value.isEmpty() || value.equals(".") || value.indexOf('%') >= 0)
+                    return null;
+                if (isIntList) {
+                    for (String token : value.split(",", -1))
+                        Integer.parseInt(token);
+                } else if (value.indexOf(',') >= 0) {
+                    return null;
+                } else if (isInt) {
+                    Integer.parseInt(value);
+                }
+                info.put(key, value);
+            }
+            start = end + 1;
+        }
+        return info;
+    }
+
+    /**
+     * @return genotype with the fields used by {@link VariantCallAttributeParser} or <code>null</code>
+     * if the genotype is not supported
+     */
+    private Genotype parseGenotype(String ref, String alt, String format, String sample) {
+        String[] keys = format.split(":", -1);
+        String[] values = sample.split(":", -1);
+
+        GenotypeBuilder builder = new GenotypeBuilder(sampleName);
+        for (int i = 0; i < keys.length; i++) {
+            String key = keys[i];
+            // the trailing fields may be dropped, and they are considered missing
+            String value = i < values.length ? values[i] : null;
+            switch (key) {
+                case "GT":
+                    if (value != null) {
+                        List<Allele> alleles = parseAlleles(ref, alt, value);
+                        if (alleles == null)
+                            return null;
+                        builder.alleles(alleles);
+                    }
+                    break;
+                case "DP":
+                    if (value != null) {
+                        if (value.equals("."))
+                            return null;
+                        builder.DP(Integer.parseInt(value));
+                    }
+                    break;
+                case "AD":
+                    if (value != null) {
+                        String[] tokens = value.split(",", -1);
+                        int[] ad = new int[tokens.length];
+                        for (int j = 0; j < tokens.length; j++)
+                            ad[j] = Integer.parseInt(tokens[j]);
+                        builder.AD(ad);
+                    }
+                    break;
+                case "CN":
+                case "DR":
+                case "DV":
+                    if (value != null) {
+                        if (value.equals("."))
+                            return null;
+                        builder.attribute(key, value);
+                    }
+                    break;
+                default:
+                    // not used
+                    break;
+            }
+        }
+        return builder.make();
+    }
+
+    private static List<Allele> parseAlleles(String ref, String alt, String gt) {
+        List<Allele> alleles = new ArrayList<>(2);
+        int start = 0;
+        while (start <= gt.length()) {
+            int end = start;
+            while (end < gt.length() && gt.charAt(end) != '/' && gt.charAt(end) != '|')
+                end++;
+            String index = gt.substring(start, end);
+            switch (index) {
+                case "0":
+                    alleles.add(Allele.create(ref, true));
+                    break;
+                case "1":
+                    alleles.add(Allele.create(alt, false));
+                    break;
+                case ".":
+                    alleles.add(Allele.NO_CALL);
+                    break;
+                default:
+                    return null;
+            }
+            start = end + 1;
+        }
+        return alleles;
+    }
+
+    private static class LeanRecord implements VcfRecord {
+
+        private final String contig;
+        private final int start;
+        private final String id;
+        private final String ref;
+        private final String alt;
+        private final boolean filtered;
+        private final Map<String, String> info;
+        private final Genotype genotype;
+
+        private LeanRecord(String contig, int start, String id, String ref, String alt, boolean filtered, Map<String, String> info, Genotype genotype) {
+            this.contig = contig;
+            this.start = start;
+            this.id = id;
+            this.ref = ref;
+            this.alt = alt;
+            this.filtered = filtered;
+            this.info = info;
+            this.genotype = genotype;
+        }
+
+        @Override
+        public String contig() {
+            return contig;
+        }
+
+        @Override
+        public int start() {
+            return start;
+        }
+
+        @Override
+        public String id() {
+            return id;
+        }
+
+        @Override
+        public String ref() {
+            return ref;
+        }
+
+        @Override
+        public int altCount() {
+            return 1;
+        }
+
+        @Override
+        public String alt() {
+            return alt;
+        }
+
+        @Override
+        public boolean isFiltered() {
+            return filtered;
+        }
+
+        @Override
+        public Map<String, Object> attributes() {
+            return Collections.unmodifiableMap(info);
+        }
+
+        @Override
+        public int attributeAsInt(String key, int defaultValue) {
+            String value = info.get(key);
+            return value == null ? defaultValue : Integer.parseInt(value);
+        }
+
+        @Override
+        public List<Integer> attributeAsIntList(String key) {
+            String value = info.get(key);
+            if (value == null)
+                return List.of();
+            String[] tokens = value.split(",");
+            List<Integer> values = new ArrayList<>(tokens.length);
+            for (String token : tokens)
+                values.add(Integer.parseInt(token));
+            return values;
+        }
+
+        @Override
+        public String attributeAsString(String key, String defaultValue) {
+            return info.getOrDefault(key, defaultValue);
+        }
+
+        @Override
+        public int genotypeCount() {
+            return 1;
+        }
+
+        @Override
+        public Genotype genotype() {
+            return genotype;
+        }
+
+        @Override
+        public VariantContext variantContext() {
+            return null;
+        }
+    }
+}
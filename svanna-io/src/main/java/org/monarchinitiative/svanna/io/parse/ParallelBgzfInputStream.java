@@ -0,0 +1,207 @@
+package org.monarchinitiative.svanna.io.parse;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Input stream that decompresses a BGZF file, e.g. a file compressed by <code>bgzip</code>.
+ * <p>
+ * The compressed blocks are read in batches, and the blocks of a batch are inflated in parallel, using the pool
+ * of the calling thread, if any. The decompressed bytes are returned in the file order.
+ */
+class ParallelBgzfInputStream extends InputStream {
+
+    // 256 blocks decompress into at most 16 MiB
+    private static final int BLOCKS_PER_BATCH = 256;
+
+    private static final int ID1 = 0x1f, ID2 = 0x8b, CM = 8, FEXTRA = 4;
+    // the length of the gzip header up to and including XLEN
+    private static final int HEADER_LENGTH = 12;
+    // CRC32 and ISIZE
+    private static final int FOOTER_LENGTH = 8;
+
+    private static final byte[][] NO_BLOCKS = new byte[0][];
+
+    private final InputStream in;
+
+    private byte[][] blocks = NO_BLOCKS;
+    private int blockIdx = 0;
+    private int offset = 0;
+
+    ParallelBgzfInputStream(InputStream in) {
+        this.in = in;
+    }
+
+    /**
+     * @return <code>true</code> if the file starts with a BGZF block
+     */
+    static boolean isBgzf(Path path) throws IOException {
+        byte[] header = new byte[HEADER_LENGTH + 4];
+        try (InputStream is = Files.newInputStream(path)) {
+            if (is.readNBytes(header, 0, header.length) != header.length)
+                return false;
+        }
+        return (header[0] & 0xff) == ID1
+                && (header[1] & 0xff) == ID2
+                && header[2] == CM
+                && (header[3] & FEXTRA) != 0
+                && readShort(header, 10) >= 6
+                && header[12] == 'B' && header[13] == 'C'
+                && readShort(header, 14) == 2;
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (!ensureAvailable())
+            return -1;
+        return blocks[blockIdx][offset++] & 0xff;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0)
+            return 0;
+        if (!ensureAvailable())
+            return -1;
+        byte[] block = blocks[blockIdx];
+        int n = Math.min(len, block.length - offset);
+        System.arraycopy(block, offset, b, off, n);
+        offset += n;
+        return n;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    /**
+     * @return <code>true</code> if there are bytes to be read in the current block
+     */
+    private boolean ensureAvailable() throws IOException {
+        while (blockIdx >= blocks.length || offset >= blocks[blockIdx].length) {
+            if (blockIdx < blocks.length - 1) {
+                blockIdx++;
+                offset = 0;
+            } else if (!inflateNextBatch()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean inflateNextBatch() throws IOException {
+        List<byte[]> compressed = new ArrayList<>(BLOCKS_PER_BATCH);
+        byte[] block;
+        while (compressed.size() < BLOCKS_PER_BATCH && (block = readBlock()) != null)
+            compressed.add(block);
+        if (compressed.isEmpty())
+            return false;
+
+        try {
+            blocks = compressed.parallelStream()
+                    .map(ParallelBgzfInputStream::inflate)
+                    .toArray(byte[][]::new);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        blockIdx = 0;
+        offset = 0;
+        return true;
+    }
+
+    /**
+     * @return the next compressed block including the header and the footer or <code>null</code> at the end of
+     * the stream
+     */
+    private byte[] readBlock() throws IOException {
+        byte[] header = new byte[HEADER_LENGTH];
+        int read = in.readNBytes(header, 0, HEADER_LENGTH);
+        if (read == 0)
+            return null;
+        if (read != HEADER_LENGTH)
+            throw new EOFException("Truncated BGZF block header");
+        if ((header[0] & 0xff) != ID1 || (header[1] & 0xff) != ID2 || header[2] != CM || (header[3] & FEXTRA) == 0)
+            throw new IOException("Invalid BGZF block header");
+
+        int xlen = readShort(header, 10);
+        byte[] extra = readFully(xlen);
+        int blockSize = -1;
+        for (int i = 0; i + 4 <= xlen; ) {
+            int subfieldLength = readShort(extra, i + 2);
+            if (extra[i] == 'B' && extra[i + 1] == 'C' && subfieldLength == 2) {
+                blockSize = readShort(extra, i + 4) + 1;
+                break;
+            }
+            i += 4 + subfieldLength;
+        }
+        if (blockSize < HEADER_LENGTH + xlen + FOOTER_LENGTH)
+            throw new IOException("Missing or invalid BGZF block size");
+
+        byte[] block = new byte[blockSize];
+        System.arraycopy(header, 0, block, 0, HEADER_LENGTH);
+        System.arraycopy(extra, 0, block, HEADER_LENGTH, xlen);
+        int remaining = blockSize - HEADER_LENGTH - xlen;
+        if (in.readNBytes(block, HEADER_LENGTH + xlen, remaining) != remaining)
+            throw new EOFException("Truncated BGZF block");
+        return block;
+    }
+
+    private byte[] readFully(int length) throws IOException {
+        byte[] bytes = new byte[length];
+        if (in.readNBytes(bytes, 0, length) != length)
+            throw new EOFException("Truncated BGZF block header");
+        return bytes;
+    }
+
+    private static byte[] inflate(byte[] block) {
+        int xlen = readShort(block, 10);
+        int dataOffset = HEADER_LENGTH + xlen;
+        int dataLength = block.length - dataOffset - FOOTER_LENGTH;
+        int crc = readInt(block, block.length - FOOTER_LENGTH);
+        int uncompressedSize = readInt(block, block.length - 4);
+
+        byte[] uncompressed = new byte[uncompressedSize];
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(block, dataOffset, dataLength);
+            int n = 0;
+            while (n < uncompressedSize && !inflater.finished()) {
+                int inflated = inflater.inflate(uncompressed, n, uncompressedSize - n);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary()))
+                    break;
+                n += inflated;
+            }
+            if (n != uncompressedSize)
+                throw new UncheckedIOException(new IOException("BGZF block size mismatch: expected " + uncompressedSize + ", got " + n));
+        } catch (DataFormatException e) {
+            throw new UncheckedIOException(new IOException("Invalid BGZF block data", e));
+        } finally {
+            inflater.end();
+        }
+
+        CRC32 crc32 = new CRC32();
+        crc32.update(uncompressed, 0, uncompressedSize);
+        if ((int) crc32.getValue() != crc)
+            throw new UncheckedIOException(new IOException("BGZF block CRC mismatch"));
+
+        return uncompressed;
+    }
+
+    private static int readShort(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xff) | (bytes[offset + 1] & 0xff) << 8;
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xff)
+                | (bytes[offset + 1] & 0xff) << 8
+                | (bytes[offset + 2] & 0xff) << 16
+                | (bytes[offset + 3] & 0xff) << 24;
+    }
+}
@@ -0,0 +1,114 @@
+package org.monarchinitiative.svanna.io.parse;
+
+import htsjdk.variant.vcf.VCFCodec;
+import htsjdk.variant.vcf.VCFHeader;
+import org.monarchinitiative.svanna.io.FullSvannaVariant;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+import org.monarchinitiative.svart.util.VariantTrimmer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Parse variants stored in a VCF file using multiple threads.
+ * <p>
+ * The lines are read in batches. The lines of a batch are split into chunks that are decoded in parallel, each chunk
+ * with its own {@link VCFCodec}, using the pool of the calling thread, if any. The blocks of BGZF files are
+ * decompressed in parallel as well. The variants are reported in the file order, and the invalid VCF lines
+ * are skipped in the same way as by {@link VcfVariantParser}.
+ */
+public class ParallelVcfVariantParser extends VcfVariantParser {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ParallelVcfVariantParser.class);
+
+    private static final int LINES_PER_BATCH = 20_000;
+
+    private static final int LINES_PER_CHUNK = 500;
+
+    public ParallelVcfVariantParser(GenomicAssembly assembly) {
+        super(assembly);
+    }
+
+    public ParallelVcfVariantParser(GenomicAssembly assembly, VariantTrimmer.BaseRetentionStrategy baseRetentionStrategy, boolean retainVariantContext) {
+        super(assembly, baseRetentionStrategy, retainVariantContext);
+    }
+
+    public ParallelVcfVariantParser(GenomicAssembly assembly,
+                                    VariantTrimmer.BaseRetentionStrategy baseRetentionStrategy,
+                                    boolean retainVariantContext,
+                                    boolean useLeanTokenizer) {
+        super(assembly, baseRetentionStrategy, retainVariantContext, useLeanTokenizer);
+    }
+
+    @Override
+    public Stream<FullSvannaVariant> createVariantAlleles(Path filePath) throws IOException {
+        VCFHeader header = readHeader(filePath);
+        LeanVcfTokenizer tokenizer = createTokenizer(header);
+
+        BufferedReader reader = openFileForParallelReading(filePath);
+        Iterator<NumberedLine> lines = numberedLines(reader).iterator();
+        Iterator<List<NumberedLine>> batches = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return lines.hasNext();
+            }
+
+            @Override
+            public List<NumberedLine> next() {
+                if (!lines.hasNext())
+                    throw new NoSuchElementException();
+                List<NumberedLine> batch = new ArrayList<>(LINES_PER_BATCH);
+                while (batch.size() < LINES_PER_BATCH && lines.hasNext())
+                    batch.add(lines.next());
+                return batch;
+            }
+        };
+
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(batches, Spliterator.ORDERED | Spliterator.NONNULL), false)
+                .onClose(closeReader(reader))
+                .map(batch -> parseBatch(header, tokenizer, batch))
+                .flatMap(List::stream);
+    }
+
+    private List<FullSvannaVariant> parseBatch(VCFHeader header, LeanVcfTokenizer tokenizer, List<NumberedLine> batch) {
+        int nChunks = (batch.size() + LINES_PER_CHUNK - 1) / LINES_PER_CHUNK;
+        // The stream is ordered, hence the variants are collected in the file order
+        return IntStream.range(0, nChunks)
+                .parallel()
+                .mapToObj(i -> parseChunk(header, tokenizer, batch.subList(i * LINES_PER_CHUNK, Math.min((i + 1) * LINES_PER_CHUNK, batch.size()))))
+                .flatMap(List::stream)
+                .collect(Collectors.toList());
+    }
+
+    private List<FullSvannaVariant> parseChunk(VCFHeader header, LeanVcfTokenizer tokenizer, List<NumberedLine> chunk) {
+        // The codec is not thread safe, and it decodes the genotypes lazily. However, the genotypes are decoded
+        // by `toVariant`, hence the codec is not used after the chunk is processed.
+        VCFCodec codec = createCodec(header);
+        List<FullSvannaVariant> variants = new ArrayList<>(chunk.size());
+        for (NumberedLine line : chunk) {
+            parseLine(codec, tokenizer, line)
+                    .ifPresent(variants::add);
+        }
+        return variants;
+    }
+
+    private static BufferedReader openFileForParallelReading(Path filePath) throws IOException {
+        if (filePath.toFile().getName().endsWith(".gz") && ParallelBgzfInputStream.isBgzf(filePath)) {
+            LOGGER.debug("Decompressing BGZF blocks of {} in parallel", filePath);
+            return new BufferedReader(
+                    new InputStreamReader(
+                            new ParallelBgzfInputStream(new BufferedInputStream(Files.newInputStream(filePath))),
+                            StandardCharsets.UTF_8));
+        }
+        return openFileForReading(filePath);
+    }
+}
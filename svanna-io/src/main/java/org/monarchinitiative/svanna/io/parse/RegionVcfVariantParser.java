@@ -0,0 +1,219 @@
+package org.monarchinitiative.svanna.io.parse;
+
+import htsjdk.tribble.readers.TabixReader;
+import htsjdk.variant.vcf.VCFCodec;
+import htsjdk.variant.vcf.VCFHeader;
+import org.monarchinitiative.svanna.core.LogUtils;
+import org.monarchinitiative.svanna.core.io.VariantParser;
+import org.monarchinitiative.svanna.io.FullSvannaVariant;
+import org.monarchinitiative.svart.*;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Parse the variants of a VCF file that overlap with any of the target regions. The breakend variants are reported
+ * if either the breakend or its mate is located in a target region.
+ * <p>
+ * If the VCF file is indexed by a tabix index (<code>.tbi</code>), only the records overlapping with the regions,
+ * and the mate records of the breakends, are read. Otherwise, all records are parsed by the delegate parser
+ * and the variants outside the regions are dropped. In both cases, the variants are reported in the order
+ * of the records in the file. The variants read using the index do not have a {@link FullSvannaVariant#lineNumber()}.
+ */
+public class RegionVcfVariantParser implements VariantParser<FullSvannaVariant> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RegionVcfVariantParser.class);
+
+    private final VcfVariantParser delegate;
+
+    private final List<GenomicRegion> regions;
+
+    public RegionVcfVariantParser(VcfVariantParser delegate, Collection<? extends GenomicRegion> regions) {
+        this.delegate = Objects.requireNonNull(delegate, "Delegate parser must not be null");
+        this.regions = mergeRegions(Objects.requireNonNull(regions, "Regions must not be null"));
+    }
+
+    /**
+     * @return the regions on the positive strand, sorted and with the overlapping regions merged
+     */
+    private static List<GenomicRegion> mergeRegions(Collection<? extends GenomicRegion> regions) {
+        List<GenomicRegion> sorted = regions.stream()
+                .map(r -> r.withStrand(Strand.POSITIVE).withCoordinateSystem(CoordinateSystem.zeroBased()))
+                .sorted(Comparator.comparingInt(GenomicRegion::contigId)
+                        .thenComparingInt(GenomicRegion::start)
+                        .thenComparingInt(GenomicRegion::end))
+                .collect(Collectors.toList());
+
+        List<GenomicRegion> merged = new ArrayList<>(sorted.size());
+        GenomicRegion current = null;
+        for (GenomicRegion region : sorted) {
+            if (current != null && current.contigId() == region.contigId() && region.start() <= current.end()) {
+                current = GenomicRegion.of(current.contig(), Strand.POSITIVE, CoordinateSystem.zeroBased(), current.start(), Math.max(current.end(), region.end()));
+            } else {
+                if (current != null)
+                    merged.add(current);
+                current = region;
+            }
+        }
+        if (current != null)
+            merged.add(current);
+        return merged;
+    }
+
+    @Override
+    public Stream<FullSvannaVariant> createVariantAlleles(Path filePath) throws IOException {
+        Path tabixIndex = Path.of(filePath + ".tbi");
+        if (Files.isRegularFile(tabixIndex))
+            return readIndexed(filePath, tabixIndex).stream();
+
+        if (Files.isRegularFile(Path.of(filePath + ".csi")))
+            LogUtils.logInfo(LOGGER, "CSI index of {} is not supported, reading the entire file", filePath.toAbsolutePath());
+        else
+            LogUtils.logInfo(LOGGER, "No tabix index found for {}, reading the entire file", filePath.toAbsolutePath());
+        return delegate.createVariantAlleles(filePath)
+                .filter(this::isInRegions);
+    }
+
+    private List<FullSvannaVariant> readIndexed(Path filePath, Path tabixIndex) throws IOException {
+        LogUtils.logDebug(LOGGER, "Reading {} regions using tabix index {}", regions.size(), tabixIndex.toAbsolutePath());
+        VCFHeader header = VcfVariantParser.readHeader(filePath);
+        VCFCodec codec = VcfVariantParser.createCodec(header);
+        LeanVcfTokenizer tokenizer = delegate.createTokenizer(header);
+
+        // A record may be returned by more than one query, e.g. a breakend and the mate of another breakend
+        Set<String> seenRecords = new HashSet<>();
+        List<IndexedRecord> records = new ArrayList<>();
+        TabixReader reader = new TabixReader(filePath.toString(), tabixIndex.toString());
+        try {
+            for (GenomicRegion region : regions) {
+                int tid = findContigIndex(reader, region.contig());
+                for (String line : query(reader, tid, region.start(), region.end())) {
+                    if (seenRecords.add(line))
+                        delegate.parseLine(codec, tokenizer, unnumbered(line))
+                                .ifPresent(variant -> records.add(IndexedRecord.of(tid, line, variant)));
+                }
+            }
+
+            // Fetch the mates of the breakends that are located in the regions
+            List<IndexedRecord> mates = new ArrayList<>();
+            for (IndexedRecord record : records) {
+                if (record.variant.genomicVariant() instanceof GenomicBreakendVariant) {
+                    GenomicBreakend right = ((GenomicBreakendVariant) record.variant.genomicVariant()).right();
+                    int tid = findContigIndex(reader, right.contig());
+                    int position = right.startOnStrandWithCoordinateSystem(Strand.POSITIVE, CoordinateSystem.zeroBased());
+                    for (String line : query(reader, tid, Math.max(position - 1, 0), position + 1)) {
+                        if (seenRecords.add(line))
+                            delegate.parseLine(codec, tokenizer, unnumbered(line))
+                                    .ifPresent(variant -> mates.add(IndexedRecord.of(tid, line, variant)));
+                    }
+                }
+            }
+            records.addAll(mates);
+        } finally {
+            reader.close();
+        }
+
+        // Report the variants in the order of the records in the file, as if the entire file was read.
+        // The tabix index lists the contigs in the order of the file and the sort is stable.
+        records.sort(IndexedRecord.FILE_ORDER);
+        List<FullSvannaVariant> variants = new ArrayList<>(records.size());
+        for (IndexedRecord record : records) {
+            if (isInRegions(record.variant))
+                variants.add(record.variant);
+        }
+
+        LogUtils.logDebug(LOGGER, "Read {} variants from {} records", variants.size(), seenRecords.size());
+        return variants;
+    }
+
+    /**
+     * @param tid index of the contig in the tabix index, a negative value if the contig is not indexed
+     * @return VCF lines overlapping with the zero-based half-open interval or an empty list if the contig is not indexed
+     */
+    private static List<String> query(TabixReader reader, int tid, int start, int end) throws IOException {
+        if (tid < 0)
+            return List.of();
+
+        List<String> lines = new ArrayList<>();
+        TabixReader.Iterator iterator = reader.query(tid, start, end);
+        String line;
+        while ((line = iterator.next()) != null)
+            lines.add(line);
+        return lines;
+    }
+
+    /**
+     * The VCF may use any of the contig names, e.g. <code>1</code> or <code>chr1</code>.
+     */
+    private static int findContigIndex(TabixReader reader, Contig contig) {
+        for (String name : new String[]{contig.name(), contig.ucscName(), contig.genBankAccession(), contig.refSeqAccession()}) {
+            if (name == null)
+                continue;
+            int tid = reader.chr2tid(name);
+            if (tid >= 0)
+                return tid;
+        }
+        return -1;
+    }
+
+    private boolean isInRegions(FullSvannaVariant variant) {
+        GenomicVariant gv = variant.genomicVariant();
+        if (gv instanceof GenomicBreakendVariant) {
+            GenomicBreakendVariant bv = (GenomicBreakendVariant) gv;
+            return isInRegions(bv.left()) || isInRegions(bv.right());
+        }
+        return isInRegions(gv);
+    }
+
+    private boolean isInRegions(GenomicRegion other) {
+        int start = other.startOnStrandWithCoordinateSystem(Strand.POSITIVE, CoordinateSystem.zeroBased());
+        int end = other.endOnStrandWithCoordinateSystem(Strand.POSITIVE, CoordinateSystem.zeroBased());
+        for (GenomicRegion region : regions) {
+            if (region.contigId() != other.contigId())
+                continue;
+            // The empty regions, such as breakends and insertions, overlap if they are located within the region
+            boolean overlaps = start == end
+                    ? region.start() <= start && start <= region.end()
+                    : start < region.end() && region.start() < end;
+            if (overlaps)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * The line numbers are not known for the records read using the index.
+     */
+    private static VcfVariantParser.NumberedLine unnumbered(String line) {
+        return new VcfVariantParser.NumberedLine(FullSvannaVariant.UNKNOWN_LINE_NUMBER, line);
+    }
+
+    private static class IndexedRecord {
+
+        private static final Comparator<IndexedRecord> FILE_ORDER = Comparator.<IndexedRecord>comparingInt(r -> r.tid)
+                .thenComparingInt(r -> r.position);
+
+        private final int tid;
+        private final int position;
+        private final FullSvannaVariant variant;
+
+        private static IndexedRecord of(int tid, String line, FullSvannaVariant variant) {
+            // POS is the second column of the VCF line
+            int start = line.indexOf('\t') + 1;
+            int end = line.indexOf('\t', start);
+            return new IndexedRecord(tid, Integer.parseInt(line.substring(start, end)), variant);
+        }
+
+        private IndexedRecord(int tid, int position, FullSvannaVariant variant) {
+            this.tid = tid;
+            this.position = position;
+            this.variant = variant;
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.monarchinitiative.svanna.io.parse;
+
+import htsjdk.variant.variantcontext.Genotype;
+import htsjdk.variant.variantcontext.VariantContext;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The fields of a VCF record required to create a {@link org.monarchinitiative.svanna.io.FullSvannaVariant}.
+ * The attribute accessors follow the semantics of the corresponding {@link VariantContext} methods.
+ */
+interface VcfRecord {
+
+    String contig();
+
+    /**
+     * @return one-based position of the record
+     */
+    int start();
+
+    String id();
+
+    String ref();
+
+    int altCount();
+
+    /**
+     * @return the first ALT allele
+     */
+    String alt();
+
+    /**
+     * @return <code>true</code> if the record did not pass the filters, i.e. the FILTER column is neither
+     * <code>PASS</code> nor missing
+     */
+    boolean isFiltered();
+
+    Map<String, Object> attributes();
+
+    int attributeAsInt(String key, int defaultValue);
+
+    List<Integer> attributeAsIntList(String key);
+
+    String attributeAsString(String key, String defaultValue);
+
+    int genotypeCount();
+
+    /**
+     * @return the genotype of the first sample
+     */
+    Genotype genotype();
+
+    /**
+     * @return the variant context of the record or <code>null</code> if the record was not decoded by HtsJDK
+     */
+    VariantContext variantContext();
+
+}
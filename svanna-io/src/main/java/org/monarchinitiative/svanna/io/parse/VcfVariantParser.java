@@ -1,7 +1,6 @@
 package org.monarchinitiative.svanna.io.parse;
 
-import htsjdk.variant.variantcontext.Allele;
-import htsjdk.variant.variantcontext.GenotypesContext;
+import htsjdk.variant.variantcontext.Genotype;
 import htsjdk.variant.variantcontext.VariantContext;
 import htsjdk.variant.vcf.VCFCodec;
 import htsjdk.variant.vcf.VCFFileReader;
@@ -12,6 +11,7 @@ import org.monarchinitiative.svanna.core.filter.FilterResult;
 import org.monarchinitiative.svanna.core.filter.FilterType;
 import org.monarchinitiative.svanna.core.io.VariantParser;
 import org.monarchinitiative.svanna.core.reference.VariantCallAttributes;
+import org.monarchinitiative.svanna.io.CohortSite;
 import org.monarchinitiative.svanna.io.FullSvannaVariant;
 import org.monarchinitiative.svanna.io.FullSvannaVariantBuilder;
 import org.monarchinitiative.svart.*;
@@ -27,10 +27,12 @@ import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import java.util.zip.GZIPInputStream;
 
 /**
@@ -44,31 +46,57 @@ public class VcfVariantParser implements VariantParser<FullSvannaVariant> {
 
     private final VcfConverter vcfConverter;
 
+    private final boolean retainVariantContext;
+
+    private final boolean useLeanTokenizer;
+
     public VcfVariantParser(GenomicAssembly assembly) {
         this(assembly, VariantTrimmer.removingCommonBase());
     }
 
     public VcfVariantParser(GenomicAssembly assembly, VariantTrimmer.BaseRetentionStrategy baseRetentionStrategy) {
+        this(assembly, baseRetentionStrategy, true);
+    }
+
+    /**
+     * @param retainVariantContext if <code>false</code>, the variants do not keep the {@link VariantContext}
+     *                             of the VCF record, only the {@link FullSvannaVariant#lineNumber()}
+     */
+    public VcfVariantParser(GenomicAssembly assembly, VariantTrimmer.BaseRetentionStrategy baseRetentionStrategy, boolean retainVariantContext) {
+        this(assembly, baseRetentionStrategy, retainVariantContext, false);
+    }
+
+    /**
+     * @param retainVariantContext if <code>false</code>, the variants do not keep the {@link VariantContext}
+     *                             of the VCF record, only the {@link FullSvannaVariant#lineNumber()}
+     * @param useLeanTokenizer     if <code>true</code>, the common records are read by {@link LeanVcfTokenizer}
+     *                             and the rest by HtsJDK. The {@link VariantContext} is not available
+     *                             for the records read by the tokenizer
+     */
+    public VcfVariantParser(GenomicAssembly assembly,
+                            VariantTrimmer.BaseRetentionStrategy baseRetentionStrategy,
+                            boolean retainVariantContext,
+                            boolean useLeanTokenizer) {
         this.vcfConverter = new VcfConverter(assembly, VariantTrimmer.leftShiftingTrimmer(baseRetentionStrategy));
+        this.retainVariantContext = retainVariantContext;
+        this.useLeanTokenizer = useLeanTokenizer;
     }
 
     /**
-     * Function to map a VCF line to {@link VariantContext}.
+     * Map a VCF line to {@link VariantContext}.
      */
-    private static Function<String, Optional<VariantContext>> toVariantContext(VCFCodec codec) {
-        return line -> {
-            try {
-                // codec returns null for VCF header lines
-                return Optional.ofNullable(codec.decode(line));
-            } catch (Exception e) {
-                LOGGER.warn("Invalid VCF record: `{}`: `{}`", e.getMessage(), line);
-                return Optional.empty();
-            }
-        };
+    static Optional<VariantContext> toVariantContext(VCFCodec codec, String line) {
+        try {
+            // codec returns null for VCF header lines
+            return Optional.ofNullable(codec.decode(line));
+        } catch (Exception e) {
+            LOGGER.warn("Invalid VCF record: `{}`: `{}`", e.getMessage(), line);
+            return Optional.empty();
+        }
     }
 
-    private static String makeVariantRepresentation(VariantContext vc) {
-        return String.format("%s-%d:(%s)", vc.getContig(), vc.getStart(), vc.getID());
+    private static String makeVariantRepresentation(VcfRecord vc) {
+        return String.format("%s-%d:(%s)", vc.contig(), vc.start(), vc.id());
     }
 
     @Override
@@ -89,25 +117,122 @@ public class VcfVariantParser implements VariantParser<FullSvannaVariant> {
 
         So, this is a workaround that drops the corrupted lines:
          */
-        VCFHeader header;
-        try (VCFFileReader reader = new VCFFileReader(filePath, false)) {
-            header = reader.getHeader();
-        }
+        VCFHeader header = readHeader(filePath);
+        VCFCodec codec = createCodec(header);
+        LeanVcfTokenizer tokenizer = createTokenizer(header);
 
-        VCFCodec codec = new VCFCodec();
-        codec.setVCFHeader(header, header.getVCFHeaderVersion() == null ? VCFHeaderVersion.VCF4_1 : header.getVCFHeaderVersion());
+        BufferedReader reader = openFileForReading(filePath);
+
+        return numberedLines(reader)
+                .onClose(closeReader(reader))
+                .map(line -> parseLine(codec, tokenizer, line))
+                .flatMap(Optional::stream);
+    }
+
+    /**
+     * Obtain a stream of the sites of a multi-sample VCF file. Each site is parsed once, and the variant call
+     * attributes are parsed for each sample that carries the ALT allele. The records are decoded by HtsJDK.
+     * <p>
+     * Note that the stream should be closed.
+     */
+    public Stream<CohortSite> createCohortSites(Path filePath) throws IOException {
+        VCFHeader header = readHeader(filePath);
+        VCFCodec codec = createCodec(header);
+        List<String> samples = header.getGenotypeSamples();
 
         BufferedReader reader = openFileForReading(filePath);
 
-        return reader.lines()
+        return numberedLines(reader)
                 .onClose(closeReader(reader))
-                .map(toVariantContext(codec))
-                .flatMap(Optional::stream)
-                .map(toVariants())
+                .map(line -> toVariantContext(codec, line.line)
+                        .flatMap(vc -> toCohortSite(vc, samples, line.lineNumber)))
                 .flatMap(Optional::stream);
     }
 
-    private static BufferedReader openFileForReading(Path filePath) throws IOException {
+    public List<CohortSite> createCohortSiteList(Path filePath) throws IOException {
+        try (Stream<CohortSite> sites = createCohortSites(filePath)) {
+            return sites.collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * @return names of the samples of the VCF file, in the order of the genotype columns
+     */
+    public static List<String> readSampleNames(Path filePath) {
+        return readHeader(filePath).getGenotypeSamples();
+    }
+
+    /**
+     * @return the tokenizer or <code>null</code> if the tokenizer should not be used
+     */
+    LeanVcfTokenizer createTokenizer(VCFHeader header) {
+        if (!useLeanTokenizer)
+            return null;
+        Optional<LeanVcfTokenizer> tokenizer = LeanVcfTokenizer.forHeader(header);
+        if (tokenizer.isEmpty())
+            LogUtils.logDebug(LOGGER, "Decoding all records by HtsJDK since the VCF does not contain exactly one sample");
+        return tokenizer.orElse(null);
+    }
+
+    /**
+     * Parse the VCF line using the <code>tokenizer</code>, if possible, and using the <code>codec</code> otherwise.
+     */
+    Optional<FullSvannaVariant> parseLine(VCFCodec codec, LeanVcfTokenizer tokenizer, NumberedLine line) {
+        if (tokenizer != null) {
+            VcfRecord record = tokenizer.tokenize(line.line);
+            if (record != null)
+                return toVariant(record, line.lineNumber);
+        }
+        return toVariantContext(codec, line.line)
+                .flatMap(vc -> toVariant(new HtsjdkVcfRecord(vc), line.lineNumber));
+    }
+
+    /**
+     * The lines are numbered as they are read from the reader, hence the numbers match the file order
+     * even if the stream is processed in parallel.
+     */
+    static Stream<NumberedLine> numberedLines(BufferedReader reader) {
+        Iterator<String> lines = reader.lines().iterator();
+        Iterator<NumberedLine> numbered = new Iterator<>() {
+            private long lineNumber = 0;
+
+            @Override
+            public boolean hasNext() {
+                return lines.hasNext();
+            }
+
+            @Override
+            public NumberedLine next() {
+                return new NumberedLine(++lineNumber, lines.next());
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(numbered, Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * @return codec for decoding the records of the VCF file
+     */
+    public static VCFCodec createCodec(Path filePath) {
+        return createCodec(readHeader(filePath));
+    }
+
+    static VCFHeader readHeader(Path filePath) {
+        try (VCFFileReader reader = new VCFFileReader(filePath, false)) {
+            return reader.getHeader();
+        }
+    }
+
+    static VCFCodec createCodec(VCFHeader header) {
+        VCFCodec codec = new VCFCodec();
+        codec.setVCFHeader(header, header.getVCFHeaderVersion() == null ? VCFHeaderVersion.VCF4_1 : header.getVCFHeaderVersion());
+        return codec;
+    }
+
+    /**
+     * Open the plain or gzipped VCF file. The lines are numbered from one by {@link FullSvannaVariant#lineNumber()},
+     * including the header lines.
+     */
+    public static BufferedReader openFileForReading(Path filePath) throws IOException {
         BufferedReader reader;
         if (filePath.toFile().getName().endsWith(".gz"))
             reader = new BufferedReader(
@@ -119,7 +244,7 @@ public class VcfVariantParser implements VariantParser<FullSvannaVariant> {
         return reader;
     }
 
-    private static Runnable closeReader(BufferedReader reader) {
+    static Runnable closeReader(BufferedReader reader) {
         return () -> {
             try {
                 LOGGER.trace("Closing VCF file");
@@ -139,109 +264,152 @@ public class VcfVariantParser implements VariantParser<FullSvannaVariant> {
      * @return function that maps variant context to collection of {@link FullSvannaVariant}s
      */
     protected Function<VariantContext, Optional<FullSvannaVariant>> toVariants() {
-        return vc -> {
-            Contig contig = vcfConverter.parseContig(vc.getContig());
-            if (contig.isUnknown()) {
-                if (LOGGER.isWarnEnabled())
-                    LOGGER.warn("Unknown contig `{}` for variant `{}`", vc.getContig(), makeVariantRepresentation(vc));
-                return Optional.empty();
-            }
+        return vc -> toVariant(new HtsjdkVcfRecord(vc), FullSvannaVariant.UNKNOWN_LINE_NUMBER);
+    }
 
-            List<Allele> alts = vc.getAlternateAlleles();
-            if (alts.size() != 1) {
-                if (LOGGER.isWarnEnabled())
-                    LOGGER.warn("Parsing variant with {} (!=2) alt alleles is not supported: {}", alts.size(), makeVariantRepresentation(vc));
-                return Optional.empty();
-            }
+    Optional<FullSvannaVariant> toVariant(VcfRecord vc, long lineNumber) {
+        return toGenomicVariant(vc, true)
+                .flatMap(gv -> buildVariant(gv, vc, vc::genotype, lineNumber));
+    }
 
-            Allele altAllele = alts.get(0);
-            String alt = altAllele.getDisplayString();
-            try {
-                if (VariantType.isSymbolic(alt)) {
-                    return (VariantType.isBreakend(alt))
-                            ? parseBreakendAllele(vc, contig)
-                            : parseSymbolicVariantAllele(vc, contig);
-                } else
-                    return parseSequenceVariantAllele(vc, contig);
-            } catch (InvalidCoordinatesException e) {
-                LogUtils.logWarn(LOGGER, "Invalid coordinates in variant `{}`: {}", makeVariantRepresentation(vc), e.getMessage());
-            } catch (RuntimeException e) {
-                LogUtils.logWarn(LOGGER, "Invalid variant `{}`: {}", makeVariantRepresentation(vc), e.getMessage());
-            }
+    /**
+     * Create a cohort site with the variants of the samples that carry the ALT allele.
+     *
+     * @return the site or an empty optional if the record is invalid or no sample carries the ALT allele
+     */
+    Optional<CohortSite> toCohortSite(VariantContext vc, List<String> samples, long lineNumber) {
+        VcfRecord record = new HtsjdkVcfRecord(vc);
+        return toGenomicVariant(record, false)
+                .flatMap(gv -> {
+                    Map<String, FullSvannaVariant> carriers = new LinkedHashMap<>();
+                    for (int i = 0; i < samples.size(); i++) {
+                        Genotype genotype = vc.getGenotype(i);
+                        if (isCarrier(genotype)) {
+                            String sample = samples.get(i);
+                            buildVariant(gv, record, () -> genotype, lineNumber)
+                                    .ifPresent(variant -> carriers.put(sample, variant));
+                        }
+                    }
+                    return carriers.isEmpty()
+                            ? Optional.<CohortSite>empty()
+                            : Optional.of(CohortSite.of(gv, carriers));
+                });
+    }
+
+    private static boolean isCarrier(Genotype genotype) {
+        return genotype.getAlleles().stream()
+                .anyMatch(allele -> allele.isNonReference() && !allele.isNoCall());
+    }
+
+    /**
+     * @param singleSample if <code>true</code>, the symbolic variants must have exactly one genotype call
+     */
+    private Optional<GenomicVariant> toGenomicVariant(VcfRecord vc, boolean singleSample) {
+        Contig contig = vcfConverter.parseContig(vc.contig());
+        if (contig.isUnknown()) {
+            if (LOGGER.isWarnEnabled())
+                LOGGER.warn("Unknown contig `{}` for variant `{}`", vc.contig(), makeVariantRepresentation(vc));
             return Optional.empty();
-        };
+        }
+
+        int altCount = vc.altCount();
+        if (altCount != 1) {
+            if (LOGGER.isWarnEnabled())
+                LOGGER.warn("Parsing variant with {} (!=2) alt alleles is not supported: {}", altCount, makeVariantRepresentation(vc));
+            return Optional.empty();
+        }
+
+        String alt = vc.alt();
+        try {
+            if (VariantType.isSymbolic(alt)) {
+                return (VariantType.isBreakend(alt))
+                        ? parseBreakendAllele(vc, contig)
+                        : parseSymbolicVariantAllele(vc, contig, singleSample);
+            } else
+                return Optional.of(vcfConverter.convert(contig, vc.id(), vc.start(), vc.ref(), vc.alt()));
+        } catch (InvalidCoordinatesException e) {
+            LogUtils.logWarn(LOGGER, "Invalid coordinates in variant `{}`: {}", makeVariantRepresentation(vc), e.getMessage());
+        } catch (RuntimeException e) {
+            LogUtils.logWarn(LOGGER, "Invalid variant `{}`: {}", makeVariantRepresentation(vc), e.getMessage());
+        }
+        return Optional.empty();
     }
 
-    private Optional<FullSvannaVariant> parseSequenceVariantAllele(VariantContext vc, Contig contig) {
-        GenomicVariant gv = vcfConverter.convert(contig, vc.getID(), vc.getStart(), vc.getReference().getDisplayString(), vc.getAlternateAllele(0).getDisplayString());
-        VariantCallAttributes attrs = VariantCallAttributeParser.parseAttributes(vc.getAttributes(), vc.getGenotype(0));
+    private Optional<FullSvannaVariant> buildVariant(GenomicVariant gv, VcfRecord vc, Supplier<Genotype> genotype, long lineNumber) {
+        VariantCallAttributes attrs;
+        try {
+            attrs = VariantCallAttributeParser.parseAttributes(vc.attributes(), genotype.get());
+        } catch (RuntimeException e) {
+            LogUtils.logWarn(LOGGER, "Invalid variant `{}`: {}", makeVariantRepresentation(vc), e.getMessage());
+            return Optional.empty();
+        }
 
         // SvPriority is null at this point
         FullSvannaVariantBuilder builder = FullSvannaVariant.builder(gv)
                 .variantCallAttributes(attrs)
-                .variantContext(vc);
-
+                .variantContext(retainVariantContext ? vc.variantContext() : null)
+                .lineNumber(lineNumber);
 
         // we assume that `PASS` is not added in between variant context's filters, and all the other values denote
         // variants with low quality
-        if (!vc.getFilters().isEmpty())
+        if (vc.isFiltered())
             builder.addFilterResult(FAILED_VARIANT_FILTER_RESULT);
 
         return Optional.of(builder.build());
     }
 
-    private Optional<FullSvannaVariant> parseSymbolicVariantAllele(VariantContext vc, Contig contig) {
+    private Optional<GenomicVariant> parseSymbolicVariantAllele(VcfRecord vc, Contig contig, boolean singleSample) {
         // parse start pos and CIPOS
         ConfidenceInterval cipos;
-        List<Integer> cp = vc.getAttributeAsIntList("CIPOS", 0);
+        List<Integer> cp = vc.attributeAsIntList("CIPOS");
         if (cp.isEmpty()) {
             cipos = ConfidenceInterval.precise();
         } else if (cp.size() == 2) {
             cipos = ConfidenceInterval.of(cp.get(0), cp.get(1));
         } else {
             if (LOGGER.isWarnEnabled())
-                LOGGER.warn("Invalid CIPOS field `{}` in variant `{}`", vc.getAttributeAsString("CIPOS", ""), makeVariantRepresentation(vc));
+                LOGGER.warn("Invalid CIPOS field `{}` in variant `{}`", vc.attributeAsString("CIPOS", ""), makeVariantRepresentation(vc));
             return Optional.empty();
         }
-        int start = vc.getStart();
+        int start = vc.start();
 
         // parse end pos and CIEND
         ConfidenceInterval ciend;
-        int endPos = vc.getAttributeAsInt("END", 0); // 0 is not allowed in 1-based VCF coordinate system
+        int endPos = vc.attributeAsInt("END", 0); // 0 is not allowed in 1-based VCF coordinate system
         if (endPos < 1) {
             if (LOGGER.isWarnEnabled())
                 LOGGER.warn("Missing END field for variant `{}`", makeVariantRepresentation(vc));
             return Optional.empty();
         }
-        List<Integer> ce = vc.getAttributeAsIntList("CIEND", 0);
+        List<Integer> ce = vc.attributeAsIntList("CIEND");
         if (ce.isEmpty()) {
             ciend = ConfidenceInterval.precise();
         } else if (ce.size() == 2) {
             ciend = ConfidenceInterval.of(ce.get(0), ce.get(1));
         } else {
             if (LOGGER.isWarnEnabled())
-                LOGGER.warn("Invalid CIEND field `{}` in variant `{}`", vc.getAttributeAsString("CIEND", ""), makeVariantRepresentation(vc));
+                LOGGER.warn("Invalid CIEND field `{}` in variant `{}`", vc.attributeAsString("CIEND", ""), makeVariantRepresentation(vc));
             return Optional.empty();
         }
 
         int end = endPos;
 
-        // we only support calls with 1 genotype
-        GenotypesContext gts = vc.getGenotypes();
-        if (gts.isEmpty()) {
+        // we only support calls with 1 genotype, unless parsing a cohort
+        int genotypeCount = vc.genotypeCount();
+        if (genotypeCount == 0) {
             if (LOGGER.isWarnEnabled())
                 LOGGER.warn("Parsing symbolic variant with no genotype call is not supported: {}", makeVariantRepresentation(vc));
             return Optional.empty();
-        } else if (gts.size() > 1) {
+        } else if (singleSample && genotypeCount > 1) {
             if (LOGGER.isWarnEnabled())
                 LOGGER.warn("Parsing symbolic variants with >1 genotype calls is not supported: {}", makeVariantRepresentation(vc));
             return Optional.empty();
         }
 
 
-        String ref = vc.getReference().getDisplayString();
-        String alt = vc.getAlternateAllele(0).getDisplayString();
-        int svlen = vc.getAttributeAsInt("SVLEN", 0);
+        String ref = vc.ref();
+        String alt = vc.alt();
+        int svlen = vc.attributeAsInt("SVLEN", 0);
         if (alt.equals("<INV>") && svlen != 0) { // happens in Sniffles input
             LogUtils.logInfo(LOGGER, "Correcting SVLEN `{}!=0` for an inversion `{}`", svlen, makeVariantRepresentation(vc));
             svlen = 0;
@@ -252,31 +420,19 @@ public class VcfVariantParser implements VariantParser<FullSvannaVariant> {
             end = end -1 ;
         }
 
-        GenomicVariant gv = vcfConverter.convertSymbolic(contig, vc.getID(), start, cipos, end, ciend, ref, alt, svlen);
-        VariantCallAttributes variantCallAttributes = VariantCallAttributeParser.parseAttributes(vc.getAttributes(), vc.getGenotype(0));
-
-        // SvPriority is null at this point
-        FullSvannaVariantBuilder builder = FullSvannaVariant.builder(gv)
-                .variantCallAttributes(variantCallAttributes)
-                .variantContext(vc);
-
-        // we assume that `PASS` is not added in between variant context's filters by HtsJDK,
-        // and all the other values denote low quality variants
-        if (!vc.getFilters().isEmpty())
-            builder.addFilterResult(FAILED_VARIANT_FILTER_RESULT);
-        return Optional.of(builder.build());
+        return Optional.of(vcfConverter.convertSymbolic(contig, vc.id(), start, cipos, end, ciend, ref, alt, svlen));
     }
 
-    private Optional<FullSvannaVariant> parseBreakendAllele(VariantContext vc, Contig contig) {
+    private Optional<GenomicVariant> parseBreakendAllele(VcfRecord vc, Contig contig) {
         // sanity checks
-        if (vc.getAlternateAlleles().size() > 1) {
+        if (vc.altCount() > 1) {
             if (LOGGER.isWarnEnabled())
                 LOGGER.warn("Multiple alt breakends are not yet supported for variant `{}`", makeVariantRepresentation(vc));
             return Optional.empty();
         }
 
         // parse pos and confidence intervals, if present
-        List<Integer> ci = vc.getAttributeAsIntList("CIPOS", 0);
+        List<Integer> ci = vc.attributeAsIntList("CIPOS");
         ConfidenceInterval ciPos, ciEnd;
         if (ci.isEmpty()) {
             ciPos = ConfidenceInterval.precise();
@@ -284,38 +440,36 @@ public class VcfVariantParser implements VariantParser<FullSvannaVariant> {
             ciPos = ConfidenceInterval.of(ci.get(0), ci.get(1));
         } else {
             if (LOGGER.isWarnEnabled())
-                LOGGER.warn("Invalid CIPOS attribute `{}` for variant `{}`", vc.getAttributeAsString("CIPOS", ""), makeVariantRepresentation(vc));
+                LOGGER.warn("Invalid CIPOS attribute `{}` for variant `{}`", vc.attributeAsString("CIPOS", ""), makeVariantRepresentation(vc));
             return Optional.empty();
         }
-        ci = vc.getAttributeAsIntList("CIEND", 0);
+        ci = vc.attributeAsIntList("CIEND");
         if (ci.isEmpty()) {
             ciEnd = ConfidenceInterval.precise();
         } else if (ci.size() == 2) {
             ciEnd = ConfidenceInterval.of(ci.get(0), ci.get(1));
         } else {
             if (LOGGER.isWarnEnabled())
-                LOGGER.warn("Invalid CIEND attribute `{}` for variant `{}`", vc.getAttributeAsString("CIEND", ""), makeVariantRepresentation(vc));
+                LOGGER.warn("Invalid CIEND attribute `{}` for variant `{}`", vc.attributeAsString("CIEND", ""), makeVariantRepresentation(vc));
             return Optional.empty();
         }
 
-        int pos = vc.getStart();
-
-        String mateId = vc.getAttributeAsString("MATEID", "");
-        String eventId = vc.getAttributeAsString("EVENT", "");
+        int pos = vc.start();
 
-        GenomicBreakendVariant gv = vcfConverter.convertBreakend(contig, vc.getID(), pos, ciPos, vc.getReference().getDisplayString(), vc.getAlternateAllele(0).getDisplayString(), ciEnd, mateId, eventId);
-        VariantCallAttributes attrs = VariantCallAttributeParser.parseAttributes(vc.getAttributes(), vc.getGenotype(0));
+        String mateId = vc.attributeAsString("MATEID", "");
+        String eventId = vc.attributeAsString("EVENT", "");
 
-        FullSvannaVariantBuilder builder = FullSvannaVariant.builder(gv)
-                .variantCallAttributes(attrs)
-                .variantContext(vc);
+        return Optional.of(vcfConverter.convertBreakend(contig, vc.id(), pos, ciPos, vc.ref(), vc.alt(), ciEnd, mateId, eventId));
+    }
 
-        // we assume that `PASS` is not added in between variant context's filters, and all the other values denote
-        // variants with low quality
-        if (!vc.getFilters().isEmpty())
-            builder.addFilterResult(FilterResult.fail(FilterType.FAILED_VARIANT_FILTER));
+    static class NumberedLine {
+        final long lineNumber;
+        final String line;
 
-        return Optional.of(builder.build());
+        NumberedLine(long lineNumber, String line) {
+            this.lineNumber = lineNumber;
+            this.line = line;
+        }
     }
 
 }
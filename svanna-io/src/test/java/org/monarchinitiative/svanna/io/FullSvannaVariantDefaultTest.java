@@ -0,0 +1,68 @@
+package org.monarchinitiative.svanna.io;
+
+import org.junit.jupiter.api.Test;
+import org.monarchinitiative.svanna.core.filter.FilterResult;
+import org.monarchinitiative.svanna.core.filter.FilterType;
+import org.monarchinitiative.svanna.core.reference.VariantCallAttributes;
+import org.monarchinitiative.svanna.core.reference.Zygosity;
+import org.monarchinitiative.svanna.io.parse.TestContig;
+import org.monarchinitiative.svart.CoordinateSystem;
+import org.monarchinitiative.svart.GenomicVariant;
+import org.monarchinitiative.svart.Strand;
+
+import java.util.stream.IntStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class FullSvannaVariantDefaultTest {
+
+    private static FullSvannaVariant makeVariant() {
+        GenomicVariant variant = GenomicVariant.of(TestContig.of(1, 1000), "DEL", Strand.POSITIVE, CoordinateSystem.oneBased(), 101, 200, "N", "<DEL>", -100);
+        VariantCallAttributes attributes = VariantCallAttributes.builder()
+                .zygosity(Zygosity.HETEROZYGOUS)
+                .build();
+        return FullSvannaVariant.builder(variant)
+                .variantCallAttributes(attributes)
+                .addFilterResult(FilterResult.pass(FilterType.FAILED_VARIANT_FILTER))
+                .build();
+    }
+
+    @Test
+    public void addFilterResult() {
+        FullSvannaVariant variant = makeVariant();
+
+        assertThat(variant.passedFilters(), equalTo(true));
+        assertThat(variant.passedFilter(FilterType.FAILED_VARIANT_FILTER), equalTo(true));
+        assertThat(variant.passedFilter(FilterType.FREQUENCY_FILTER), equalTo(false));
+        assertThat(variant.failedFilter(FilterType.FREQUENCY_FILTER), equalTo(false));
+
+        assertThat(variant.addFilterResult(FilterResult.notRun(FilterType.COVERAGE_FILTER)), equalTo(true));
+        assertThat(variant.passedFilters(), equalTo(true));
+        assertThat(variant.passedFilter(FilterType.COVERAGE_FILTER), equalTo(false));
+
+        assertThat(variant.addFilterResult(FilterResult.fail(FilterType.FREQUENCY_FILTER)), equalTo(true));
+        assertThat(variant.addFilterResult(FilterResult.fail(FilterType.FREQUENCY_FILTER)), equalTo(false));
+        assertThat(variant.passedFilters(), equalTo(false));
+        assertThat(variant.failedFilter(FilterType.FREQUENCY_FILTER), equalTo(true));
+        assertThat(variant.passedFilter(FilterType.FAILED_VARIANT_FILTER), equalTo(true));
+    }
+
+    @Test
+    public void concurrentFilterResultsAreNotLost() {
+        FullSvannaVariant variant = makeVariant();
+        FilterType[] filterTypes = {FilterType.FREQUENCY_FILTER, FilterType.COVERAGE_FILTER};
+
+        IntStream.range(0, 10_000).parallel()
+                .forEach(i -> variant.addFilterResult(i % 3 == 0
+                        ? FilterResult.fail(filterTypes[i % 2])
+                        : FilterResult.pass(filterTypes[i % 2])));
+
+        for (FilterType filterType : filterTypes) {
+            // passed and failed at the same time
+            assertThat(variant.passedFilter(filterType), equalTo(false));
+            assertThat(variant.failedFilter(filterType), equalTo(false));
+        }
+        assertThat(variant.passedFilters(), equalTo(false));
+    }
+}
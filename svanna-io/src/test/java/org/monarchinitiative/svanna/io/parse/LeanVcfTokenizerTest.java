@@ -0,0 +1,84 @@
+package org.monarchinitiative.svanna.io.parse;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.monarchinitiative.svanna.io.FullSvannaVariant;
+import org.monarchinitiative.svart.assembly.GenomicAssemblies;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+import org.monarchinitiative.svart.util.VariantTrimmer;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class LeanVcfTokenizerTest {
+
+    private static final Path TEST_VCF_DIR = Paths.get("src/test/resources/org/monarchinitiative/svanna/io/parse");
+
+    private static final GenomicAssembly GRCh38p13 = GenomicAssemblies.GRCh38p13();
+
+    @ParameterizedTest
+    @ValueSource(strings = {"sv_example.vcf", "pbsv.vcf", "sniffles.vcf", "svim.vcf", "htslib_17.vcf.gz"})
+    public void leanParserReadsTheSameVariantsAsHtsjdk(String fileName) throws Exception {
+        Path input = TEST_VCF_DIR.resolve(fileName);
+
+        List<FullSvannaVariant> lean = new VcfVariantParser(GRCh38p13, VariantTrimmer.removingCommonBase(), true, true).createVariantAlleleList(input);
+        List<FullSvannaVariant> htsjdk = new VcfVariantParser(GRCh38p13).createVariantAlleleList(input);
+
+        assertThat(lean, hasSize(htsjdk.size()));
+        for (int i = 0; i < lean.size(); i++) {
+            FullSvannaVariant actual = lean.get(i);
+            FullSvannaVariant expected = htsjdk.get(i);
+            assertThat(actual.genomicVariant(), equalTo(expected.genomicVariant()));
+            assertThat(actual.lineNumber(), equalTo(expected.lineNumber()));
+            assertThat(actual.zygosity(), equalTo(expected.zygosity()));
+            assertThat(actual.minDepthOfCoverage(), equalTo(expected.minDepthOfCoverage()));
+            assertThat(actual.numberOfRefReads(), equalTo(expected.numberOfRefReads()));
+            assertThat(actual.numberOfAltReads(), equalTo(expected.numberOfAltReads()));
+            assertThat(actual.copyNumber(), equalTo(expected.copyNumber()));
+            assertThat(actual.passedFilters(), equalTo(expected.passedFilters()));
+        }
+    }
+
+    @Test
+    public void tokenize() {
+        LeanVcfTokenizer tokenizer = LeanVcfTokenizer.forHeader(VcfVariantParser.readHeader(TEST_VCF_DIR.resolve("pbsv.vcf"))).orElseThrow();
+
+        VcfRecord record = tokenizer.tokenize("CM000663.2\t60776838\tpbsv.INV.3\tT\t<INV>\t.\tPASS\tSVTYPE=INV;END=60778680;CIPOS=-5,5\tGT:AD:DP\t0/1:3,2:5");
+
+        assertThat(record, is(notNullValue()));
+        assertThat(record.contig(), equalTo("CM000663.2"));
+        assertThat(record.start(), equalTo(60_776_838));
+        assertThat(record.id(), equalTo("pbsv.INV.3"));
+        assertThat(record.ref(), equalTo("T"));
+        assertThat(record.alt(), equalTo("<INV>"));
+        assertThat(record.isFiltered(), equalTo(false));
+        assertThat(record.attributeAsInt("END", 0), equalTo(60_778_680));
+        assertThat(record.attributeAsIntList("CIPOS"), contains(-5, 5));
+        assertThat(record.attributeAsIntList("CIEND"), is(empty()));
+        assertThat(record.genotype().isHet(), equalTo(true));
+        assertThat(record.genotype().getDP(), equalTo(5));
+        assertThat(record.genotype().getAD(), equalTo(new int[]{3, 2}));
+        assertThat(record.variantContext(), is(nullValue()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "##fileformat=VCFv4.2",
+            "CM000663.2\t100\tmulti\tT\tA,C\t.\tPASS\t.\tGT\t1/2",
+            "CM000663.2\t100\tlowercase\tt\ta\t.\tPASS\t.\tGT\t0/1",
+            "CM000663.2\t100\tmissingEnd\tT\t<DEL>\t.\tPASS\tEND=.\tGT\t0/1",
+            "CM000663.2\t100\tmissingDepth\tT\t<DEL>\t.\tPASS\tEND=200\tGT:DP\t0/1:.",
+            "CM000663.2\t100\ttwoSamples\tT\t<DEL>\t.\tPASS\tEND=200\tGT\t0/1\t0/1",
+            "CM000663.2\tabc\tinvalidPos\tT\t<DEL>\t.\tPASS\tEND=200\tGT\t0/1",
+    })
+    public void recordsLeftForHtsjdk(String line) {
+        LeanVcfTokenizer tokenizer = LeanVcfTokenizer.forHeader(VcfVariantParser.readHeader(TEST_VCF_DIR.resolve("pbsv.vcf"))).orElseThrow();
+
+        assertThat(tokenizer.tokenize(line), is(nullValue()));
+    }
+}
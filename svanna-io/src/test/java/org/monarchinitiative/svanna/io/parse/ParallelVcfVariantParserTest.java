@@ -0,0 +1,43 @@
+package org.monarchinitiative.svanna.io.parse;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.monarchinitiative.svanna.io.FullSvannaVariant;
+import org.monarchinitiative.svart.assembly.GenomicAssemblies;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+public class ParallelVcfVariantParserTest {
+
+    private static final Path TEST_VCF_DIR = Paths.get("src/test/resources/org/monarchinitiative/svanna/io/parse");
+
+    private static final GenomicAssembly GRCh38p13 = GenomicAssemblies.GRCh38p13();
+
+    @ParameterizedTest
+    @CsvSource({
+            "sv_example.vcf,    12",
+            "pbsv.vcf,           6",
+            "htslib_16.vcf.gz,   8",
+            "htslib_17.vcf.gz,   8",
+    })
+    public void createVariantAlleleList(String fileName, int expected) throws Exception {
+        Path input = TEST_VCF_DIR.resolve(fileName);
+
+        List<FullSvannaVariant> variants = new ParallelVcfVariantParser(GRCh38p13).createVariantAlleleList(input);
+        List<FullSvannaVariant> sequential = new VcfVariantParser(GRCh38p13).createVariantAlleleList(input);
+
+        assertThat(variants, hasSize(expected));
+        assertThat(variants.stream().map(FullSvannaVariant::genomicVariant).collect(Collectors.toList()),
+                equalTo(sequential.stream().map(FullSvannaVariant::genomicVariant).collect(Collectors.toList())));
+        assertThat(variants.stream().map(FullSvannaVariant::lineNumber).collect(Collectors.toList()),
+                equalTo(sequential.stream().map(FullSvannaVariant::lineNumber).collect(Collectors.toList())));
+    }
+}
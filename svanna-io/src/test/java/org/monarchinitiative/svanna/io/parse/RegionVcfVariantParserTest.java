@@ -0,0 +1,68 @@
+package org.monarchinitiative.svanna.io.parse;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.monarchinitiative.svanna.io.FullSvannaVariant;
+import org.monarchinitiative.svart.CoordinateSystem;
+import org.monarchinitiative.svart.GenomicRegion;
+import org.monarchinitiative.svart.GenomicVariant;
+import org.monarchinitiative.svart.Strand;
+import org.monarchinitiative.svart.assembly.GenomicAssemblies;
+import org.monarchinitiative.svart.assembly.GenomicAssembly;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.*;
+
+public class RegionVcfVariantParserTest {
+
+    private static final Path TEST_VCF_DIR = Paths.get("src/test/resources/org/monarchinitiative/svanna/io/parse");
+
+    private static final GenomicAssembly GRCh38p13 = GenomicAssemblies.GRCh38p13();
+
+    @ParameterizedTest
+    @CsvSource({
+            // the breakends on chr17 and their mates on chr2 and chr13
+            "sv_example.vcf,    17,    198900,  199000,  bnd_W;bnd_X;bnd_Y;bnd_Z",
+            "sv_example.vcf.gz, 17,    198900,  199000,  bnd_W;bnd_X;bnd_Y;bnd_Z",
+            // the deletion and the breakend mates
+            "sv_example.vcf,    2,     321700,  321800,  del0",
+            "sv_example.vcf.gz, 2,     321700,  321800,  del0",
+            "sv_example.vcf,    2,     321600,  321700,  bnd_W;bnd_V;del0;bnd_U;bnd_Y",
+            "sv_example.vcf.gz, 2,     321600,  321700,  bnd_W;bnd_V;del0;bnd_U;bnd_Y",
+            "sv_example.vcf,    3,   12000000, 13000000, dup0",
+            "sv_example.vcf.gz, 3,   12000000, 13000000, dup0",
+            "sv_example.vcf,    20,         1,     100, ''",
+            "sv_example.vcf.gz, 20,         1,     100, ''",
+    })
+    public void createVariantAlleleList(String vcfName, String contig, int start, int end, String expected) throws Exception {
+        GenomicRegion region = GenomicRegion.of(GRCh38p13.contigByName(contig), Strand.POSITIVE, CoordinateSystem.oneBased(), start, end);
+        RegionVcfVariantParser parser = new RegionVcfVariantParser(new VcfVariantParser(GRCh38p13), List.of(region));
+
+        List<FullSvannaVariant> variants = parser.createVariantAlleleList(TEST_VCF_DIR.resolve(vcfName));
+
+        List<String> ids = variants.stream()
+                .map(FullSvannaVariant::genomicVariant)
+                .map(GenomicVariant::id)
+                .collect(Collectors.toList());
+        // The variants are reported in the order of the records in the file, regardless of the index
+        assertThat(ids, contains(expected.isEmpty() ? new String[0] : expected.split(";")));
+    }
+
+    @Test
+    public void indexedVcfIsReadUsingTheIndex() throws Exception {
+        GenomicRegion region = GenomicRegion.of(GRCh38p13.contigByName("2"), Strand.POSITIVE, CoordinateSystem.oneBased(), 321600, 321700);
+        RegionVcfVariantParser parser = new RegionVcfVariantParser(new VcfVariantParser(GRCh38p13), List.of(region));
+
+        List<FullSvannaVariant> variants = parser.createVariantAlleleList(TEST_VCF_DIR.resolve("sv_example.vcf.gz"));
+
+        // The line numbers are only known if the entire file is read
+        assertThat(variants, hasSize(5));
+        assertThat(variants.stream().allMatch(v -> v.lineNumber() == FullSvannaVariant.UNKNOWN_LINE_NUMBER), equalTo(true));
+    }
+}
@@ -8,11 +8,13 @@ import org.junit.jupiter.api.*;
 import org.monarchinitiative.svanna.core.reference.SvannaVariant;
 import org.monarchinitiative.svanna.core.reference.VariantAware;
 import org.monarchinitiative.svanna.core.reference.Zygosity;
+import org.monarchinitiative.svanna.io.CohortSite;
 import org.monarchinitiative.svanna.io.FullSvannaVariant;
 import org.monarchinitiative.svanna.io.TestDataConfig;
 import org.monarchinitiative.svart.*;
 import org.monarchinitiative.svart.assembly.GenomicAssembly;
 import org.monarchinitiative.svart.assembly.GenomicAssemblies;
+import org.monarchinitiative.svart.util.VariantTrimmer;
 import org.springframework.boot.test.context.SpringBootTest;
 
 import java.nio.file.Path;
@@ -21,6 +23,7 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
+import static java.util.stream.Collectors.toList;
 import static java.util.stream.Collectors.toSet;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -82,6 +85,17 @@ public class VcfVariantParserTest {
                     hasItems("rs6054257", "microsat1"));
         }
 
+        @Test
+        public void createVariantList_withoutVariantContext() throws Exception {
+            VcfVariantParser instance = new VcfVariantParser(GRCh38p13, VariantTrimmer.removingCommonBase(), false);
+
+            List<FullSvannaVariant> variants = instance.createVariantAlleleList(Paths.get("src/test/resources/org/monarchinitiative/svanna/io/parse/pbsv.vcf"));
+
+            assertThat(variants, hasSize(6));
+            assertThat(variants.stream().allMatch(v -> v.variantContext() == null), equalTo(true));
+            assertThat(variants.stream().map(FullSvannaVariant::lineNumber).collect(toList()), contains(52L, 53L, 54L, 55L, 56L, 57L));
+        }
+
         @Test
         public void createVariantList_Pbsv() throws Exception {
             VcfVariantParser instance = new VcfVariantParser(GRCh38p13);
@@ -288,6 +302,31 @@ public class VcfVariantParserTest {
             assertThat(vo.isPresent(), is(false));
         }
 
+        @Test
+        public void createCohortSiteList() throws Exception {
+            VcfVariantParser instance = new VcfVariantParser(GRCh38p13);
+            Path cohortVcf = TEST_VCF_DIR.resolve("cohort.vcf");
+
+            List<CohortSite> sites = instance.createCohortSiteList(cohortVcf);
+
+            assertThat(VcfVariantParser.readSampleNames(cohortVcf), equalTo(List.of("proband", "mother", "father")));
+            // the duplication is not carried by any sample
+            assertThat(sites.stream().map(s -> s.variant().id()).collect(toList()), equalTo(List.of("del0", "ins0", "bnd_Y")));
+
+            CohortSite deletion = sites.get(0);
+            assertThat(deletion.carriers().keySet(), contains("proband", "father"));
+            FullSvannaVariant proband = deletion.carriers().get("proband");
+            assertThat(proband.genomicVariant(), is(sameInstance(deletion.variant())));
+            assertThat(proband.zygosity(), equalTo(Zygosity.HETEROZYGOUS));
+            assertThat(proband.numberOfAltReads(), equalTo(5));
+            FullSvannaVariant father = deletion.carriers().get("father");
+            assertThat(father.zygosity(), equalTo(Zygosity.HOMOZYGOUS));
+            assertThat(father.numberOfAltReads(), equalTo(10));
+
+            assertThat(sites.get(1).carriers().keySet(), contains("mother"));
+            assertThat(sites.get(2).carriers().keySet(), contains("proband", "mother"));
+        }
+
     }
     @Nested
     @DisplayName("Test parsing code with easy-to-compute coordinates")